@@ -0,0 +1,220 @@
+package com.excelsplit.bench;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+import com.excelsplit.ExcelSplitService;
+
+/**
+ * Benchmark für {@link ExcelSplitService#processFiles} mit synthetischen Masterdateien.
+ *
+ * Je Formel-Modus (FAST/STRICT) zwei Szenarien:
+ * <ul>
+ *   <li>{@code single} – jede Datei einzeln, sequenziell: Latenz je Datei (Median, p95, Max)</li>
+ *   <li>{@code batch}  – alle Dateien in einem Aufruf, parallel: Durchsatz (Zeilen/s, MB/s)</li>
+ * </ul>
+ * Gemessen wird jeweils zusätzlich der Spitzenwert des Heaps. Inkrementelle Verarbeitung
+ * ist aus, damit jeder Durchlauf alle Dateien tatsächlich verarbeitet.
+ *
+ * Parameter als System-Properties ({@code bench.rows}, {@code bench.cols}, {@code bench.files},
+ * {@code bench.formulaDensity}, {@code bench.sharedStrings}, {@code bench.cachedFormulas},
+ * {@code bench.repeat}, {@code bench.label}, {@code bench.out}); Aufruf über
+ * {@code gradlew benchmarkExcelSplit -Prows=100000 ...}.
+ *
+ * Jeder Lauf hängt je Szenario eine Zeile an {@code excelsplit-benchmark.csv} im
+ * Ausgabeverzeichnis an – mit Label (Git-Stand), Parametern und Messwerten, damit
+ * Ergebnisse verschiedener Commits nebeneinander verglichen werden können.
+ */
+public class ExcelSplitBenchmark {
+
+    private static final String HEADER = "zeitpunkt;label;modus;szenario;dateien;zeilen;spalten;formeln;shared;"
+            + "gecached;ms_gesamt;ms_median;ms_p95;ms_max;zeilen_pro_s;mb_pro_s;heap_peak_mb";
+
+    private final MasterWorkbookGenerator.Spec spec;
+    private final int    files;
+    private final int    repeat;
+    private final String label;
+    private final Path   outDir;
+
+    private final Consumer<String> discard = line -> { };
+
+    ExcelSplitBenchmark(MasterWorkbookGenerator.Spec spec, int files, int repeat, String label, Path outDir) {
+        this.spec   = spec;
+        this.files  = files;
+        this.repeat = repeat;
+        this.label  = label;
+        this.outDir = outDir;
+    }
+
+    public static void main(String[] args) throws Exception {
+        MasterWorkbookGenerator.Spec spec = new MasterWorkbookGenerator.Spec();
+        spec.rows           = Integer.getInteger("bench.rows", spec.rows);
+        spec.cols           = Integer.getInteger("bench.cols", spec.cols);
+        spec.formulaDensity = doubleProperty("bench.formulaDensity", spec.formulaDensity);
+        spec.sharedStrings  = doubleProperty("bench.sharedStrings", spec.sharedStrings);
+        spec.cachedFormulas = Boolean.parseBoolean(System.getProperty("bench.cachedFormulas", "true"));
+
+        int    files  = Integer.getInteger("bench.files", 8);
+        int    repeat = Math.max(1, Integer.getInteger("bench.repeat", 3));
+        String label  = System.getProperty("bench.label", "lokal");
+        Path   outDir = Paths.get(System.getProperty("bench.out", "build/benchmark"));
+
+        new ExcelSplitBenchmark(spec, files, repeat, label, outDir).run();
+    }
+
+    void run() throws IOException {
+        Path masterDir = outDir.resolve("master");
+        Path csvDir    = outDir.resolve("csv");
+        deleteDir(masterDir);
+
+        System.out.printf(Locale.ROOT, "Erzeuge %d Masterdatei(en): %,d Zeilen x %d Spalten, Formeln %.0f%%, "
+                        + "Shared Strings %.0f%%, Formelergebnisse %s%n",
+                files, spec.rows, spec.cols, spec.formulaDensity * 100, spec.sharedStrings * 100,
+                spec.cachedFormulas ? "gespeichert" : "fehlen");
+        long t0 = System.nanoTime();
+        List<Path> masters = new MasterWorkbookGenerator(spec).writeAll(masterDir, files);
+        long bytes = 0;
+        for (Path m : masters) bytes += Files.size(m);
+        System.out.printf(Locale.ROOT, "  %.1f MB in %d ms%n%n", bytes / 1e6, (System.nanoTime() - t0) / 1_000_000);
+
+        // Aufwärmen (JIT, Klassenladen) – nicht gemessen
+        ExcelSplitService warmup = service(ExcelSplitService.FormulaMode.FAST, false);
+        warmup.processFiles(masters.subList(0, 1), csvDir, discard);
+
+        List<String> report = new ArrayList<>();
+        for (ExcelSplitService.FormulaMode mode : ExcelSplitService.FormulaMode.values()) {
+            report.add(single(mode, masters, csvDir));
+            report.add(batch(mode, masters, csvDir, bytes));
+        }
+        appendReport(report);
+    }
+
+    /** Jede Datei einzeln: Latenz je Datei über alle Wiederholungen. */
+    private String single(ExcelSplitService.FormulaMode mode, List<Path> masters, Path csvDir) {
+        ExcelSplitService service = service(mode, false);
+        List<Long> millis = new ArrayList<>();
+        long peak  = 0;
+        long total = 0;
+        for (int i = 0; i < repeat; i++) {
+            for (Path master : masters) {
+                resetPeak();
+                long start = System.nanoTime();
+                service.processFiles(List.of(master), csvDir, discard);
+                long ms = (System.nanoTime() - start) / 1_000_000;
+                millis.add(ms);
+                total += ms;
+                peak = Math.max(peak, peakHeap());
+            }
+        }
+        Collections.sort(millis);
+        long rows = (long) spec.rows * masters.size() * repeat;
+        return line(mode, "single", total, percentile(millis, 50), percentile(millis, 95),
+                millis.get(millis.size() - 1), rows, 0, peak);
+    }
+
+    /** Alle Dateien in einem Aufruf, parallel: Durchsatz; bester von {@code repeat} Läufen. */
+    private String batch(ExcelSplitService.FormulaMode mode, List<Path> masters, Path csvDir, long bytes) {
+        ExcelSplitService service = service(mode, true);
+        long best = Long.MAX_VALUE;
+        long peak = 0;
+        for (int i = 0; i < repeat; i++) {
+            resetPeak();
+            long start = System.nanoTime();
+            service.processFiles(masters, csvDir, discard);
+            best = Math.min(best, (System.nanoTime() - start) / 1_000_000);
+            peak = Math.max(peak, peakHeap());
+        }
+        long rows = (long) spec.rows * masters.size();
+        return line(mode, "batch", best, best, best, best, rows, bytes, peak);
+    }
+
+    private String line(ExcelSplitService.FormulaMode mode, String scenario, long totalMs, long medianMs,
+                        long p95Ms, long maxMs, long rows, long bytes, long peakBytes) {
+        double seconds    = Math.max(1, totalMs) / 1000.0;
+        double rowsPerSec = rows / seconds;
+        double mbPerSec   = bytes / 1e6 / seconds;
+        System.out.printf(Locale.ROOT, "%-6s %-6s  gesamt %7d ms  median %6d ms  p95 %6d ms  max %6d ms  "
+                        + "%,12.0f Zeilen/s  %7.1f MB/s  Heap-Spitze %6.0f MB%n",
+                mode, scenario, totalMs, medianMs, p95Ms, maxMs, rowsPerSec, mbPerSec, peakBytes / 1e6);
+        return String.join(";",
+                LocalDateTime.now().withNano(0).toString(), label, mode.name(), scenario,
+                String.valueOf(files), String.valueOf(spec.rows), String.valueOf(spec.cols),
+                String.format(Locale.ROOT, "%.3f", spec.formulaDensity),
+                String.format(Locale.ROOT, "%.3f", spec.sharedStrings),
+                String.valueOf(spec.cachedFormulas),
+                String.valueOf(totalMs), String.valueOf(medianMs), String.valueOf(p95Ms), String.valueOf(maxMs),
+                String.format(Locale.ROOT, "%.0f", rowsPerSec),
+                String.format(Locale.ROOT, "%.1f", mbPerSec),
+                String.format(Locale.ROOT, "%.0f", peakBytes / 1e6));
+    }
+
+    private void appendReport(List<String> lines) throws IOException {
+        Path csv = outDir.resolve("excelsplit-benchmark.csv");
+        if (!Files.exists(csv)) {
+            Files.write(csv, List.of(HEADER), StandardCharsets.UTF_8);
+        }
+        Files.write(csv, lines, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        System.out.println("\nErgebnis angehängt: " + csv.toAbsolutePath());
+    }
+
+    // -------------------------------------------------------------------------
+    // Hilfsmethoden
+    // -------------------------------------------------------------------------
+
+    private static ExcelSplitService service(ExcelSplitService.FormulaMode mode, boolean parallel) {
+        ExcelSplitService service = new ExcelSplitService();
+        service.setFormulaMode(mode);
+        service.setParallel(parallel);
+        service.setIncremental(false);
+        return service;
+    }
+
+    /** Vor jeder Messung aufräumen, damit Spitzenwerte nicht von vorherigen Läufen stammen. */
+    private static void resetPeak() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) pool.resetPeakUsage();
+        }
+    }
+
+    /** Summe der Spitzenwerte aller Heap-Bereiche seit {@link #resetPeak()} (obere Schranke). */
+    private static long peakHeap() {
+        long sum = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                sum += pool.getPeakUsage().getUsed();
+            }
+        }
+        return sum;
+    }
+
+    private static long percentile(List<Long> sorted, int p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, index)));
+    }
+
+    private static double doubleProperty(String key, double defaultValue) {
+        String value = System.getProperty(key);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
+    private static void deleteDir(Path dir) throws IOException {
+        if (!Files.exists(dir)) return;
+        try (var stream = Files.walk(dir)) {
+            stream.sorted(Collections.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+}
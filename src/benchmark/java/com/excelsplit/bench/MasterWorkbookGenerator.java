@@ -0,0 +1,224 @@
+package com.excelsplit.bench;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Erzeugt synthetische Masterdateien (.xlsx) für den ExcelSplit-Benchmark.
+ *
+ * Die Datei wird direkt als OOXML-Paket geschrieben (ZIP + XML) – so lassen sich auch
+ * sehr große Sheets ohne Speicherbedarf erzeugen, und Formeln können gezielt mit oder
+ * ohne gespeichertes Ergebnis abgelegt werden. Aufbau wie echte Masterdateien:
+ * Sheet 1 mit Kopfzeile und Daten, Sheet 2 mit Template-Name und -Wert in Zeile 1.
+ *
+ * Zellen: Spalte A fortlaufende Nummer; übrige Spalten abwechselnd Text und Zahl.
+ * Mit Anteil {@link Spec#formulaDensity} ist eine Zelle stattdessen eine Formel auf
+ * Spalte A. Text steht mit Anteil {@link Spec#sharedStrings} in der Shared-String-
+ * Tabelle (aus einem Vorrat wiederkehrender Werte), sonst als eindeutiger Inline-Text.
+ * Gleiche Parameter und gleicher Seed ergeben byte-gleiche Dateien.
+ */
+public class MasterWorkbookGenerator {
+
+    private static final String NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    /** Parameter einer Masterdatei. */
+    public static class Spec {
+        public int     rows           = 20_000;
+        public int     cols           = 20;
+        /** Anteil Formelzellen (0..1). */
+        public double  formulaDensity = 0.1;
+        /** Anteil der Textzellen in der Shared-String-Tabelle (0..1). */
+        public double  sharedStrings  = 0.5;
+        /** Anzahl verschiedener Werte in der Shared-String-Tabelle. */
+        public int     sharedPool     = 1000;
+        /** false = Formeln ohne gespeichertes Ergebnis (erzwingt die Auswertung). */
+        public boolean cachedFormulas = true;
+        public long    seed           = 42;
+    }
+
+    private final Spec spec;
+
+    public MasterWorkbookGenerator(Spec spec) {
+        this.spec = spec;
+    }
+
+    /** Schreibt eine Masterdatei mit dem angegebenen Template-Namen. */
+    public void write(Path file, String templateName) throws IOException {
+        Random                 random  = new Random(spec.seed ^ templateName.hashCode());
+        Map<String, Integer>   shared  = new LinkedHashMap<>();
+
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            part(zip, "[Content_Types].xml", contentTypes());
+            part(zip, "_rels/.rels", "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                    + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                    + "<Relationship Id=\"rId1\" Type=\"" + REL_NS + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                    + "</Relationships>");
+            part(zip, "xl/workbook.xml", "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                    + "<workbook xmlns=\"" + NS + "\" xmlns:r=\"" + REL_NS + "\"><sheets>"
+                    + "<sheet name=\"Daten\" sheetId=\"1\" r:id=\"rId1\"/>"
+                    + "<sheet name=\"Template\" sheetId=\"2\" r:id=\"rId2\"/>"
+                    + "</sheets></workbook>");
+            part(zip, "xl/_rels/workbook.xml.rels", "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                    + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                    + "<Relationship Id=\"rId1\" Type=\"" + REL_NS + "/worksheet\" Target=\"worksheets/sheet1.xml\"/>"
+                    + "<Relationship Id=\"rId2\" Type=\"" + REL_NS + "/worksheet\" Target=\"worksheets/sheet2.xml\"/>"
+                    + "<Relationship Id=\"rId3\" Type=\"" + REL_NS + "/sharedStrings\" Target=\"sharedStrings.xml\"/>"
+                    + "<Relationship Id=\"rId4\" Type=\"" + REL_NS + "/styles\" Target=\"styles.xml\"/>"
+                    + "</Relationships>");
+            part(zip, "xl/styles.xml", "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                    + "<styleSheet xmlns=\"" + NS + "\">"
+                    + "<fonts count=\"1\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>"
+                    + "<fills count=\"1\"><fill><patternFill patternType=\"none\"/></fill></fills>"
+                    + "<borders count=\"1\"><border/></borders>"
+                    + "<cellStyleXfs count=\"1\"><xf/></cellStyleXfs>"
+                    + "<cellXfs count=\"1\"><xf xfId=\"0\"/></cellXfs>"
+                    + "</styleSheet>");
+
+            zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+            Writer out = writer(zip);
+            writeDataSheet(out, random, shared);
+            out.flush();
+            zip.closeEntry();
+
+            part(zip, "xl/worksheets/sheet2.xml", "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                    + "<worksheet xmlns=\"" + NS + "\"><dimension ref=\"A1:B1\"/><sheetData>"
+                    + "<row r=\"1\"><c r=\"A1\" t=\"inlineStr\"><is><t>" + xml(templateName) + "</t></is></c>"
+                    + "<c r=\"B1\" t=\"inlineStr\"><is><t>Wert " + xml(templateName) + "</t></is></c></row>"
+                    + "</sheetData></worksheet>");
+
+            zip.putNextEntry(new ZipEntry("xl/sharedStrings.xml"));
+            out = writer(zip);
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>");
+            out.write("<sst xmlns=\"" + NS + "\" uniqueCount=\"" + shared.size() + "\">");
+            for (String s : shared.keySet()) out.write("<si><t>" + xml(s) + "</t></si>");
+            out.write("</sst>");
+            out.flush();
+            zip.closeEntry();
+        }
+    }
+
+    /** Erzeugt {@code count} Masterdateien BENCH_001.xlsx … im Verzeichnis. */
+    public List<Path> writeAll(Path dir, int count) throws IOException {
+        Files.createDirectories(dir);
+        List<Path> files = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            String name = String.format("BENCH_%03d", i);
+            Path   file = dir.resolve(name + ".xlsx");
+            write(file, name);
+            files.add(file);
+        }
+        return files;
+    }
+
+    // -------------------------------------------------------------------------
+    // Private Hilfsmethoden
+    // -------------------------------------------------------------------------
+
+    private void writeDataSheet(Writer out, Random random, Map<String, Integer> shared) throws IOException {
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>");
+        out.write("<worksheet xmlns=\"" + NS + "\">");
+        out.write("<dimension ref=\"A1:" + column(spec.cols - 1) + (spec.rows + 1) + "\"/>");
+        out.write("<sheetData>");
+
+        // Kopfzeile
+        out.write("<row r=\"1\">");
+        for (int c = 0; c < spec.cols; c++) {
+            out.write("<c r=\"" + column(c) + "1\" t=\"inlineStr\"><is><t>SPALTE_" + (c + 1) + "</t></is></c>");
+        }
+        out.write("</row>");
+
+        StringBuilder row = new StringBuilder();
+        for (int r = 2; r <= spec.rows + 1; r++) {
+            row.setLength(0);
+            row.append("<row r=\"").append(r).append("\">");
+            long id = r - 1;
+            row.append("<c r=\"A").append(r).append("\"><v>").append(id).append("</v></c>");
+            for (int c = 1; c < spec.cols; c++) {
+                String ref = column(c) + r;
+                if (random.nextDouble() < spec.formulaDensity) {
+                    row.append("<c r=\"").append(ref).append("\"><f>A").append(r).append("*").append(c).append("</f>");
+                    if (spec.cachedFormulas) row.append("<v>").append(id * c).append("</v>");
+                    row.append("</c>");
+                } else if (c % 2 == 1) {
+                    appendText(row, ref, random, shared, id, c);
+                } else {
+                    row.append("<c r=\"").append(ref).append("\"><v>")
+                       .append(random.nextInt(1_000_000) / 100.0).append("</v></c>");
+                }
+            }
+            row.append("</row>");
+            out.write(row.toString());
+        }
+        out.write("</sheetData></worksheet>");
+    }
+
+    private void appendText(StringBuilder row, String ref, Random random, Map<String, Integer> shared,
+                            long id, int c) {
+        if (random.nextDouble() < spec.sharedStrings) {
+            String  value = "Wert " + random.nextInt(Math.max(1, spec.sharedPool));
+            Integer index = shared.computeIfAbsent(value, v -> shared.size());
+            row.append("<c r=\"").append(ref).append("\" t=\"s\"><v>").append(index).append("</v></c>");
+        } else {
+            row.append("<c r=\"").append(ref).append("\" t=\"inlineStr\"><is><t>Text ")
+               .append(id).append('-').append(c).append("</t></is></c>");
+        }
+    }
+
+    private static String contentTypes() {
+        String sheetType = "application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml";
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+                + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+                + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+                + "<Override PartName=\"/xl/workbook.xml\" ContentType=\""
+                + "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+                + "<Override PartName=\"/xl/worksheets/sheet1.xml\" ContentType=\"" + sheetType + "\"/>"
+                + "<Override PartName=\"/xl/worksheets/sheet2.xml\" ContentType=\"" + sheetType + "\"/>"
+                + "<Override PartName=\"/xl/sharedStrings.xml\" ContentType=\""
+                + "application/vnd.openxmlformats-officedocument.spreadsheetml.sharedStrings+xml\"/>"
+                + "<Override PartName=\"/xl/styles.xml\" ContentType=\""
+                + "application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>"
+                + "</Types>";
+    }
+
+    private static void part(ZipOutputStream zip, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    /** Writer auf den ZIP-Eintrag, der den Stream beim Schließen nicht mitschließt. */
+    private static Writer writer(OutputStream zip) {
+        return new BufferedWriter(new OutputStreamWriter(new OutputStream() {
+            @Override public void write(int b) throws IOException { zip.write(b); }
+            @Override public void write(byte[] b, int off, int len) throws IOException { zip.write(b, off, len); }
+        }, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    /** Spaltenbuchstaben zu einem 0-basierten Index (0 = A, 26 = AA). */
+    static String column(int index) {
+        StringBuilder sb = new StringBuilder();
+        for (int n = index + 1; n > 0; n = (n - 1) / 26) {
+            sb.insert(0, (char) ('A' + (n - 1) % 26));
+        }
+        return sb.toString();
+    }
+
+    private static String xml(String s) {
+        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
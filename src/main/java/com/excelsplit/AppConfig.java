@@ -12,6 +12,9 @@ public class AppConfig {
 
     private static final String KEY_MASTER = "masterDir";
     private static final String KEY_OUTPUT = "outputDir";
+    private static final String KEY_STRICT = "strictFormulas";
+    private static final String KEY_PARALLEL = "parallel";
+    private static final String KEY_INCREMENTAL = "incremental";
 
     private final Path       configFile;
     private final Properties props = new Properties();
@@ -39,6 +42,36 @@ public class AppConfig {
         save();
     }
 
+    /** true = alle Formeln neu berechnen statt gespeicherte Ergebnisse zu verwenden. */
+    public boolean isStrictFormulas() {
+        return Boolean.parseBoolean(props.getProperty(KEY_STRICT, "false"));
+    }
+
+    public void setStrictFormulas(boolean value) {
+        props.setProperty(KEY_STRICT, String.valueOf(value));
+        save();
+    }
+
+    /** true = mehrere Masterdateien gleichzeitig verarbeiten. */
+    public boolean isParallel() {
+        return Boolean.parseBoolean(props.getProperty(KEY_PARALLEL, "true"));
+    }
+
+    public void setParallel(boolean value) {
+        props.setProperty(KEY_PARALLEL, String.valueOf(value));
+        save();
+    }
+
+    /** true = unveränderte Masterdateien überspringen (Manifest im Ausgabeverzeichnis). */
+    public boolean isIncremental() {
+        return Boolean.parseBoolean(props.getProperty(KEY_INCREMENTAL, "true"));
+    }
+
+    public void setIncremental(boolean value) {
+        props.setProperty(KEY_INCREMENTAL, String.valueOf(value));
+        save();
+    }
+
     private void load() {
         if (!Files.exists(configFile)) return;
         try (InputStream in = Files.newInputStream(configFile)) {
@@ -0,0 +1,158 @@
+package com.excelsplit;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Schreibt die CSV einer Masterdatei zeilenweise und zählt dabei Zeilen und Spalten
+ * mit – für die Validierung muss die CSV weder im Speicher gehalten noch erneut gelesen
+ * werden.
+ *
+ * Die Breite ist die der längsten Zeile und wird beim Schreiben ermittelt, das Sheet
+ * wird also nur einmal gelesen. Jede Zeile wird auf die bis dahin bekannte Breite
+ * aufgefüllt. Kommt später eine breitere Zeile, werden die früheren Zeilen beim
+ * Schließen nachträglich aufgefüllt (Kopie der Zwischendatei). Ist die erste Zeile die
+ * breiteste (Kopfzeile), wird die Zwischendatei nur umbenannt.
+ *
+ * Spalte C erhält ab der zweiten Zeile den Template-Namen, Spalte E in der zweiten
+ * Zeile den Template-Wert – jeweils nur, wenn die CSV so breit ist.
+ */
+class CsvEmitter implements Closeable {
+
+    private final Path           file;
+    private final Path           temp;
+    private final BufferedWriter out;
+    private final String         templateName;
+    private final String         templateValue;
+    private final StringBuilder  line = new StringBuilder();
+
+    private String[] cells = new String[0];
+    private int      width;
+    private int      rows;
+    /** Zeilenbereiche, die schmaler als die endgültige Breite geschrieben wurden: {von, bis, Breite}. */
+    private final List<int[]> narrower = new ArrayList<>();
+    private int      sectionStart;
+
+    CsvEmitter(Path file, String templateName, String templateValue) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        this.file          = file;
+        this.temp          = Files.createTempFile(dir, file.getFileName() + ".", ".tmp");
+        this.out           = Files.newBufferedWriter(temp, StandardCharsets.UTF_8);
+        this.templateName  = templateName;
+        this.templateValue = templateValue;
+    }
+
+    /** Schreibt die nächste Zeile; fehlende Werte werden leer. */
+    void row(String[] values) throws IOException {
+        if (values.length > width) {
+            if (rows > sectionStart) narrower.add(new int[] { sectionStart, rows, width });
+            sectionStart = rows;
+            width        = values.length;
+            cells        = new String[width];
+        }
+        Arrays.fill(cells, "");
+        System.arraycopy(values, 0, cells, 0, values.length);
+
+        line.setLength(0);
+        for (int c = 0; c < width; c++) {
+            if (c > 0) line.append(';');
+            line.append(escape(templateCell(c, rows, cells[c])));
+        }
+        out.write(line.toString());
+        out.newLine();
+        rows++;
+    }
+
+    /** Anzahl geschriebener Zeilen. */
+    int getRows() {
+        return rows;
+    }
+
+    /** Spalten je Zeile (längste Zeile); 0, solange keine Zeile geschrieben wurde. */
+    int getColumns() {
+        return rows > 0 ? width : 0;
+    }
+
+    /** Schließt die Zwischendatei und legt sie – falls nötig aufgefüllt – als CSV ab. */
+    @Override
+    public void close() throws IOException {
+        try {
+            out.close();
+            if (narrower.isEmpty()) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                pad();
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Kopiert die Zwischendatei und hängt an die Zeilen der schmaleren Bereiche die
+     * fehlenden Spalten an. Zeilenenden innerhalb von Anführungszeichen gehören zum Wert.
+     */
+    private void pad() throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(temp, StandardCharsets.UTF_8);
+             BufferedWriter to = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            int     section  = 0;
+            int     row      = 0;
+            boolean quoted   = false;
+            boolean carriage = false;
+            int     ch;
+            while ((ch = in.read()) >= 0) {
+                if (ch == '"') {
+                    quoted = !quoted;
+                } else if (!quoted && (ch == '\r' || (ch == '\n' && !carriage))) {
+                    while (section < narrower.size() && row >= narrower.get(section)[1]) section++;
+                    if (section < narrower.size() && row >= narrower.get(section)[0]) {
+                        to.write(suffix(row, narrower.get(section)[2]));
+                    }
+                }
+                if (!quoted && ch == '\n') {
+                    row++;
+                    carriage = false;
+                } else {
+                    carriage = !quoted && ch == '\r';
+                }
+                to.write(ch);
+            }
+        }
+    }
+
+    /** Fehlende Spalten einer Zeile, die mit der Breite {@code from} geschrieben wurde. */
+    private String suffix(int row, int from) {
+        StringBuilder sb = new StringBuilder();
+        for (int c = from; c < width; c++) {
+            if (c > 0) sb.append(';');
+            sb.append(escape(templateCell(c, row, "")));
+        }
+        return sb.toString();
+    }
+
+    private String templateCell(int c, int row, String value) {
+        // Spalte C (Index 2) = Template-Name in jeder Zeile außer der Kopfzeile
+        if (c == 2 && row > 0) return templateName;
+        // Spalte E (Index 4) = Template-Wert nur in Zeile 2
+        if (c == 4 && row == 1) return templateValue;
+        return value;
+    }
+
+    static String escape(String val) {
+        if (val == null || val.isEmpty()) return "";
+        if (val.contains(";") || val.contains("\"") || val.contains(" ")
+                || val.contains("\n") || val.contains("\r")) {
+            return "\"" + val.replace("\"", "\"\"") + "\"";
+        }
+        return val;
+    }
+}
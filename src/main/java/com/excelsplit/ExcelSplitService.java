@@ -7,12 +7,19 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
@@ -21,15 +28,80 @@ import org.apache.poi.ss.usermodel.WorkbookFactory;
 /**
  * Business-Logik: Excel lesen, CSV schreiben, Log erstellen.
  * Keine UI-Abhängigkeiten.
+ *
+ * Master-Dateien werden mit {@link XlsxStreamReader} gestreamt gelesen; die CSV-Zeilen
+ * entstehen direkt beim Lesen von Sheet 1. Das Workbook-Modell (WorkbookFactory) dient
+ * nur noch als Rückfall – für Dateien, die sich nicht streamen lassen, und für Formeln
+ * ohne gespeichertes Ergebnis, die ausgewertet werden müssen.
+ *
+ * Formeln: Im {@link FormulaMode#FAST schnellen Modus} gilt das in der Datei
+ * gespeicherte Ergebnis, auch im Rückfall auf das Workbook-Modell; im
+ * {@link FormulaMode#STRICT strikten Modus} wird jede Formel neu berechnet. Ausgewertet wird immer über einen {@link WorkbookCellReader} je Workbook.
+ *
+ * Mehrere Masterdateien werden auf Wunsch ({@link #setParallel}) gleichzeitig verarbeitet.
+ * Meldungen und validierung.log bleiben dabei in der Reihenfolge der Eingabe. Dateien mit
+ * demselben Template-Namen schreiben dieselbe CSV – sie laufen nacheinander in
+ * Eingabereihenfolge, damit wie sequenziell die letzte Datei gewinnt.
+ *
+ * Inkrementell ({@link #setIncremental}): Über ein {@link SplitManifest} im Ausgabe-
+ * verzeichnis werden unveränderte Masterdateien übersprungen; gelöscht werden nur CSVs,
+ * die keiner verarbeiteten Masterdatei mehr gehören.
  */
 public class ExcelSplitService {
 
+    /** Umgang mit Formelzellen. */
+    public enum FormulaMode {
+        /** Gespeichertes Ergebnis verwenden, nur Formeln ohne Ergebnis berechnen. */
+        FAST,
+        /** Alle Formeln neu berechnen (z.B. wenn die Datei ohne Neuberechnung gespeichert wurde). */
+        STRICT
+    }
+
+    /** Speicher, der je Worker mindestens frei sein soll (Streaming-Pfad). */
+    private static final long WORKER_MEMORY = 128L << 20;
+    /** Workbook-Modell: grob geschätzter Heap-Bedarf als Vielfaches der Dateigröße. */
+    private static final int  WORKBOOK_MEMORY_FACTOR = 20;
+
+    private volatile FormulaMode formulaMode = FormulaMode.FAST;
+    private volatile boolean     parallel;
+    private volatile boolean     incremental;
+
+    /** Jede CSV wird von höchstens einem Worker gleichzeitig geschrieben (gleicher Template-Name). */
+    private final ConcurrentMap<String, Object> outputLocks = new ConcurrentHashMap<>();
+
+    public void setFormulaMode(FormulaMode formulaMode) {
+        this.formulaMode = formulaMode != null ? formulaMode : FormulaMode.FAST;
+    }
+
+    public FormulaMode getFormulaMode() {
+        return formulaMode;
+    }
+
+    /** Masterdateien gleichzeitig verarbeiten; Anzahl der Worker siehe {@link #workerCount}. */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /** Nur geänderte Masterdateien verarbeiten (Manifest im Ausgabeverzeichnis). */
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
     /**
-     * Gibt alle .xlsx-Dateien im angegebenen Verzeichnis sortiert zurück.
+     * Gibt alle .xlsx-Dateien im angegebenen Verzeichnis sortiert zurück
+     * (ohne Excel-Sperrdateien "~$…", siehe {@link MasterDirWatcher#isMasterFile}).
      */
     public List<Path> listMasterFiles(Path masterDir) {
         File[] files = masterDir.toFile().listFiles(
-            (dir, name) -> name.toLowerCase().endsWith(".xlsx")
+            (dir, name) -> MasterDirWatcher.isMasterFile(dir.toPath().resolve(name))
         );
         if (files == null || files.length == 0) return List.of();
         Arrays.sort(files);
@@ -45,9 +117,86 @@ public class ExcelSplitService {
      * @return Pfad zur erstellten validierung.log
      */
     public Path processFiles(List<Path> files, Path outputDir, Consumer<String> log) {
-        if (!prepareOutputDir(outputDir, log)) return null;
+        SplitManifest manifest = incremental ? new SplitManifest(outputDir) : null;
+        if (!prepareOutputDir(outputDir, manifest, log)) return null;
+
+        Path                logFile = outputDir.resolve("validierung.log");
+        int                 workers = parallel ? workerCount(files) : 1;
+        List<List<Integer>> groups  = null;
+        if (workers > 1) {
+            groups = outputGroups(files.stream().map(this::outputKey).collect(Collectors.toList()));
+            if (groups == null) {
+                log.accept("Hinweis: Template-Name nicht vorab lesbar – verarbeite sequenziell.");
+            }
+        }
+        List<String> logEntries = groups != null
+                ? processParallel(files, groups, outputDir, manifest, log, Math.min(workers, groups.size()))
+                : processSequential(files, outputDir, manifest, log);
+
+        if (manifest != null) {
+            manifest.removeOrphans(files, log);
+            manifest.save();
+        }
+        writeLogFile(logFile, logEntries, log);
+        return logFile;
+    }
+
+    /**
+     * Anzahl gleichzeitiger Worker: höchstens ein Worker je Prozessorkern und Datei,
+     * und nur so viele, wie der freie Heap tragen kann. Im strikten Formel-Modus wird
+     * jedes Workbook vollständig geladen – dann bestimmt die größte Datei den Bedarf.
+     */
+    int workerCount(List<Path> files) {
+        long perWorker = WORKER_MEMORY;
+        if (formulaMode == FormulaMode.STRICT) {
+            for (Path f : files) {
+                try {
+                    perWorker = Math.max(perWorker, Files.size(f) * WORKBOOK_MEMORY_FACTOR);
+                } catch (IOException ignored) { }
+            }
+        }
+        Runtime rt   = Runtime.getRuntime();
+        long    free = rt.maxMemory() - (rt.totalMemory() - rt.freeMemory());
+        int byMemory = (int) Math.max(1, Math.min(Integer.MAX_VALUE, free / perWorker));
+        return Math.max(1, Math.min(Math.min(rt.availableProcessors(), files.size()), byMemory));
+    }
+
+    /**
+     * Fasst Dateien mit derselben Ausgabe-CSV zu einer Aufgabe zusammen (Indizes in
+     * Eingabereihenfolge); alle übrigen Dateien bilden je eine eigene Aufgabe. Reihenfolge
+     * der Aufgaben: nach ihrer ersten Datei.
+     *
+     * @param keys Ausgabe-Schlüssel je Datei ("" = keine CSV, null = unbekannt)
+     * @return Aufgaben, oder null, wenn ein Schlüssel unbekannt ist – dann lässt sich
+     *         eine Kollision nicht ausschließen
+     */
+    static List<List<Integer>> outputGroups(List<String> keys) {
+        Map<String, List<Integer>> byKey  = new LinkedHashMap<>();
+        List<List<Integer>>        groups = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            if (key == null) return null;
+            if (key.isEmpty()) {
+                groups.add(new ArrayList<>(List.of(i)));
+                continue;
+            }
+            List<Integer> group = byKey.get(key);
+            if (group == null) {
+                group = new ArrayList<>();
+                byKey.put(key, group);
+                groups.add(group);
+            }
+            group.add(i);
+        }
+        return groups;
+    }
 
-        Path        logFile    = outputDir.resolve("validierung.log");
+    // -------------------------------------------------------------------------
+    // Private Hilfsmethoden
+    // -------------------------------------------------------------------------
+
+    private List<String> processSequential(List<Path> files, Path outputDir, SplitManifest manifest,
+                                           Consumer<String> log) {
         List<String> logEntries = new ArrayList<>();
         int          total      = files.size();
         int          idx        = 0;
@@ -55,24 +204,83 @@ public class ExcelSplitService {
         for (Path xlsx : files) {
             idx++;
             log.accept("[" + idx + "/" + total + "] Verarbeite: " + xlsx.getFileName());
-            processFile(xlsx, outputDir, log, logEntries);
+            processOne(xlsx, outputDir, manifest, log, logEntries);
         }
-
-        writeLogFile(logFile, logEntries, log);
-        return logFile;
+        return logEntries;
     }
 
-    // -------------------------------------------------------------------------
-    // Private Hilfsmethoden
-    // -------------------------------------------------------------------------
+    /**
+     * Verarbeitet die Dateien mit mehreren Workern, je Aufgabe aus {@link #outputGroups}
+     * einer; innerhalb einer Aufgabe nacheinander. Jede Datei sammelt ihre Meldungen
+     * und Log-Einträge für sich; ausgegeben wird in Eingabereihenfolge, sobald eine Datei
+     * und alle davor fertig sind – die Ausgabe gleicht damit der sequenziellen.
+     */
+    private List<String> processParallel(List<Path> files, List<List<Integer>> groups, Path outputDir,
+                                         SplitManifest manifest, Consumer<String> log, int workers) {
+        int total = files.size();
+        log.accept("Parallele Verarbeitung: " + total + " Datei(en), " + workers + " Worker");
 
-    private boolean prepareOutputDir(Path outputDir, Consumer<String> log) {
+        List<String>       logEntries = new ArrayList<>();
+        List<List<String>> messages   = new ArrayList<>();
+        List<List<String>> entries    = new ArrayList<>();
+        List<Future<?>>    futures    = new ArrayList<>(total);
+        ExecutorService    pool       = Executors.newFixedThreadPool(workers);
+        try {
+            for (int i = 0; i < total; i++) {
+                List<String> msgs = new ArrayList<>();
+                msgs.add("[" + (i + 1) + "/" + total + "] Verarbeite: " + files.get(i).getFileName());
+                messages.add(msgs);
+                entries.add(new ArrayList<>());
+                futures.add(null);
+            }
+            for (List<Integer> group : groups) {
+                Future<?> future = pool.submit(() -> {
+                    for (int i : group) {
+                        try {
+                            processOne(files.get(i), outputDir, manifest, messages.get(i)::add, entries.get(i));
+                        } catch (RuntimeException e) {
+                            // Folgedateien derselben CSV trotzdem verarbeiten
+                            messages.get(i).add("  FEHLER: " + e);
+                            entries.get(i).add("FEHLER " + files.get(i).getFileName() + " - " + e);
+                        }
+                    }
+                });
+                for (int i : group) futures.set(i, future);
+            }
+            for (int i = 0; i < total; i++) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    messages.get(i).add("  FEHLER: " + e.getCause());
+                    entries.get(i).add("FEHLER " + files.get(i).getFileName() + " - " + e.getCause());
+                }
+                messages.get(i).forEach(log);
+                logEntries.addAll(entries.get(i));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.accept("Abgebrochen.");
+        } finally {
+            pool.shutdownNow();
+        }
+        return logEntries;
+    }
+
+    /**
+     * Legt das Ausgabeverzeichnis an und entfernt validierung.log. Alte CSVs werden nur
+     * ohne Manifest pauschal gelöscht – mit Manifest erst am Ende gezielt (verwaiste).
+     */
+    private boolean prepareOutputDir(Path outputDir, SplitManifest manifest, Consumer<String> log) {
         try {
             Files.createDirectories(outputDir);
-            try (var stream = Files.list(outputDir)) {
-                stream.filter(p -> p.toString().endsWith(".csv"))
-                      .forEach(p -> { try { Files.delete(p); } catch (IOException ex) { /* ignore */ } });
+            if (manifest == null || !manifest.existed()) {
+                try (var stream = Files.list(outputDir)) {
+                    stream.filter(p -> p.toString().endsWith(".csv"))
+                          .forEach(p -> { try { Files.delete(p); } catch (IOException ex) { /* ignore */ } });
+                }
             }
+            // Ohne inkrementellen Modus passt ein altes Manifest nicht mehr zum Verzeichnis
+            if (manifest == null) Files.deleteIfExists(outputDir.resolve(SplitManifest.FILE));
             Files.deleteIfExists(outputDir.resolve("validierung.log"));
             return true;
         } catch (IOException e) {
@@ -81,74 +289,189 @@ public class ExcelSplitService {
         }
     }
 
-    private void processFile(Path xlsx, Path outputDir, Consumer<String> log, List<String> logEntries) {
+    /**
+     * Schlüssel der Ausgabe-CSV für {@link #outputGroups}: Template-Name aus Sheet 2,
+     * Zeile 1, ohne Groß-/Kleinschreibung (Windows). "" ohne Template-Name, null wenn
+     * der Name nicht gestreamt gelesen werden kann.
+     */
+    private String outputKey(Path xlsx) {
+        try (XlsxStreamReader reader = new XlsxStreamReader(xlsx)) {
+            List<String> row1 = reader.readFirstRow(1);
+            if (row1 == null) return null;
+            String templateName = row1.size() > 0 ? row1.get(0) : "";
+            if (templateName.isEmpty()) return "";
+            String outName = templateName.endsWith(".csv") ? templateName : templateName + ".csv";
+            return outName.toLowerCase(Locale.ROOT);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /** Verarbeitet eine Masterdatei – oder übernimmt das letzte Ergebnis, wenn sie unverändert ist. */
+    private void processOne(Path xlsx, Path outputDir, SplitManifest manifest,
+                            Consumer<String> log, List<String> logEntries) {
+        if (manifest == null) {
+            processFile(xlsx, outputDir, log, logEntries);
+            return;
+        }
+        String mode = formulaMode.name();
+        try {
+            SplitManifest.Entry last = manifest.unchanged(xlsx, mode);
+            if (last != null) {
+                log.accept("  Unverändert – übersprungen (" + last.csv + ")");
+                logEntries.add(last.logEntry);
+                return;
+            }
+        } catch (IOException e) {
+            log.accept("  Hinweis: Änderungsprüfung nicht möglich (" + e.getMessage() + ")");
+        }
+
+        int    before = logEntries.size();
+        String csv    = processFile(xlsx, outputDir, log, logEntries);
+        try {
+            if (csv != null && logEntries.size() > before) {
+                manifest.record(xlsx, mode, csv, logEntries.get(logEntries.size() - 1));
+            } else {
+                manifest.remove(xlsx);
+            }
+        } catch (IOException e) {
+            manifest.remove(xlsx);
+            log.accept("  Hinweis: Manifest nicht aktualisiert (" + e.getMessage() + ")");
+        }
+    }
+
+    /** @return Name der erzeugten CSV, null wenn keine erzeugt wurde */
+    private String processFile(Path xlsx, Path outputDir, Consumer<String> log, List<String> logEntries) {
+        if (formulaMode == FormulaMode.STRICT) {
+            return processFileWorkbook(xlsx, outputDir, log, logEntries);
+        }
+        try {
+            String csv = processFileStreaming(xlsx, outputDir, log, logEntries);
+            if (csv != null) return csv.isEmpty() ? null : csv;
+        } catch (IOException e) {
+            log.accept("  Hinweis: Streaming nicht möglich (" + e.getMessage() + ") – lese Workbook vollständig.");
+        }
+        return processFileWorkbook(xlsx, outputDir, log, logEntries);
+    }
+
+    /**
+     * Streaming-Pfad: Template aus Sheet 2, Zeile 1 lesen, dann Sheet 1 zeilenweise
+     * direkt in die CSV schreiben.
+     *
+     * @return Name der erzeugten CSV; "" wenn keine erzeugt wurde (kein Template);
+     *         null, wenn die Datei über das Workbook-Modell verarbeitet werden muss
+     *         (Formeln ohne gespeichertes Ergebnis, auch im Template-Namen)
+     */
+    private String processFileStreaming(Path xlsx, Path outputDir, Consumer<String> log,
+                                         List<String> logEntries) throws IOException {
+        try (XlsxStreamReader reader = new XlsxStreamReader(xlsx)) {
+            List<String> row1 = reader.readFirstRow(1);
+            if (row1 == null) {
+                log.accept("  Hinweis: Template-Name ist eine Formel ohne gespeichertes Ergebnis – werte Workbook aus.");
+                return null;
+            }
+            String templateName  = row1.size() > 0 ? row1.get(0) : "";
+            String templateValue = row1.size() > 1 ? row1.get(1) : "";
+
+            if (templateName.isEmpty()) {
+                log.accept("  WARNUNG: Kein Template-Name in Sheet 2, Zeile 1 – übersprungen.");
+                logEntries.add("WARNUNG " + xlsx.getFileName() + " - kein Template-Name");
+                return "";
+            }
+
+            String outName = templateName.endsWith(".csv") ? templateName : templateName + ".csv";
+            Path   outFile = outputDir.resolve(outName);
+
+            synchronized (outputLock(outFile)) {
+                // Ein Durchlauf: die Breite ergibt sich beim Schreiben (siehe CsvEmitter)
+                CsvEmitter csv = new CsvEmitter(outFile, templateName, templateValue);
+                XlsxStreamReader.SheetInfo info = writeCsvStreaming(reader, csv);
+                if (info.uncachedFormulas > 0) {
+                    Files.deleteIfExists(outFile);
+                    log.accept("  Hinweis: " + info.uncachedFormulas
+                            + " Formel(n) ohne gespeichertes Ergebnis – werte Workbook aus.");
+                    return null;
+                }
+
+                log.accept("  Template : " + templateName);
+                log.accept("  Datei    : " + outName);
+                logEntries.add(validateResult(outName, info.lastRow + 1, csv.getRows(), csv.getColumns(), log));
+                log.accept("  Erstellt: " + outFile.toAbsolutePath());
+                return outName;
+            }
+        }
+    }
+
+    private XlsxStreamReader.SheetInfo writeCsvStreaming(XlsxStreamReader reader, CsvEmitter csv)
+            throws IOException {
+        try (csv) {
+            return reader.readRows(0, (r, values) -> csv.row(values));
+        }
+    }
+
+    /**
+     * Workbook-Pfad: Datei vollständig laden (Fallback und strikter Formel-Modus).
+     *
+     * @return Name der erzeugten CSV, null bei Warnung oder Fehler
+     */
+    private String processFileWorkbook(Path xlsx, Path outputDir, Consumer<String> log, List<String> logEntries) {
         try (Workbook wb = WorkbookFactory.create(xlsx.toFile(), null, true)) {
+            WorkbookCellReader cells = new WorkbookCellReader(wb, formulaMode);
 
             Sheet  sheet2 = wb.getSheetAt(1);
             Row    row1   = (sheet2 != null) ? sheet2.getRow(0) : null;
-            String templateName  = (row1 != null) ? getCellValue(row1.getCell(0), wb) : "";
-            String templateValue = (row1 != null) ? getCellValue(row1.getCell(1), wb) : "";
+            String templateName  = (row1 != null) ? cells.getValue(row1.getCell(0)) : "";
+            String templateValue = (row1 != null) ? cells.getValue(row1.getCell(1)) : "";
 
             if (templateName.isEmpty()) {
                 log.accept("  WARNUNG: Kein Template-Name in Sheet 2, Zeile 1 – übersprungen.");
                 logEntries.add("WARNUNG " + xlsx.getFileName() + " - kein Template-Name");
-                return;
+                return null;
             }
 
             String outName = templateName.endsWith(".csv") ? templateName : templateName + ".csv";
             log.accept("  Template : " + templateName);
             log.accept("  Datei    : " + outName);
 
-            List<String> csvLines = buildCsv(wb.getSheetAt(0), templateName, templateValue);
-            Files.write(outputDir.resolve(outName), csvLines, StandardCharsets.UTF_8);
-
-            logEntries.add(validateResult(outName, wb.getSheetAt(0).getLastRowNum() + 1, csvLines, log));
-            log.accept("  Erstellt: " + outputDir.resolve(outName).toAbsolutePath());
+            Sheet sheet1  = wb.getSheetAt(0);
+            Path  outFile = outputDir.resolve(outName);
+            synchronized (outputLock(outFile)) {
+                try (CsvEmitter csv = new CsvEmitter(outFile, templateName, templateValue)) {
+                    writeCsv(sheet1, cells, csv);
+                    logEntries.add(validateResult(outName, sheet1.getLastRowNum() + 1,
+                            csv.getRows(), csv.getColumns(), log));
+                }
+            }
+            log.accept("  Erstellt: " + outFile.toAbsolutePath());
+            return outName;
 
         } catch (Exception e) {
             log.accept("  FEHLER: " + e.getMessage());
             logEntries.add("FEHLER " + xlsx.getFileName() + " - " + e.getMessage());
+            return null;
         }
     }
 
-    private List<String> buildCsv(Sheet sheet1, String templateName, String templateValue) {
-        int maxCol = 0;
-        for (Row row : sheet1) {
-            if (row.getLastCellNum() > maxCol) maxCol = row.getLastCellNum();
-        }
-
-        List<String> lines = new ArrayList<>();
-        Workbook wb = sheet1.getWorkbook();
-
+    /**
+     * Schreibt Sheet 1 zeilenweise (Werte bis zur letzten Zelle der Zeile); fehlende
+     * Zeilen werden als leere Zeilen geschrieben.
+     */
+    private void writeCsv(Sheet sheet1, WorkbookCellReader reader, CsvEmitter csv) throws IOException {
         for (int r = 0; r <= sheet1.getLastRowNum(); r++) {
             Row      row   = sheet1.getRow(r);
-            String[] cells = new String[maxCol];
-            Arrays.fill(cells, "");
-
-            if (row != null) {
-                for (int c = 0; c < maxCol; c++) {
-                    cells[c] = getCellValue(row.getCell(c), wb);
-                }
+            String[] cells = new String[row != null ? Math.max(0, row.getLastCellNum()) : 0];
+            for (int c = 0; c < cells.length; c++) {
+                cells[c] = reader.getValue(row.getCell(c));
             }
-
-            // Spalte C (Index 2) = Template-Name in jeder Zeile außer der Kopfzeile
-            if (maxCol > 2 && r > 0) cells[2] = templateName;
-            // Spalte E (Index 4) = Template-Wert nur in Zeile 2
-            if (r == 1 && maxCol > 4) cells[4] = templateValue;
-
-            StringBuilder sb = new StringBuilder();
-            for (int c = 0; c < maxCol; c++) {
-                if (c > 0) sb.append(';');
-                sb.append(escapeCsv(cells[c]));
-            }
-            lines.add(sb.toString());
+            csv.row(cells);
         }
-        return lines;
     }
 
-    private String validateResult(String outName, int expectedRows, List<String> csvLines, Consumer<String> log) {
-        int actualRows = csvLines.size();
-        int cols       = csvLines.isEmpty() ? 0 : csvLines.get(0).split(";", -1).length;
+    private Object outputLock(Path outFile) {
+        return outputLocks.computeIfAbsent(outFile.toAbsolutePath().normalize().toString(), k -> new Object());
+    }
+
+    private String validateResult(String outName, int expectedRows, int actualRows, int cols, Consumer<String> log) {
 
         if (actualRows == expectedRows) {
             log.accept("  [OK] " + actualRows + " Zeilen, " + cols + " Spalten");
@@ -167,38 +490,4 @@ public class ExcelSplitService {
             log.accept("FEHLER beim Schreiben des Logs: " + e.getMessage());
         }
     }
-
-    private String getCellValue(Cell cell, Workbook wb) {
-        if (cell == null) return "";
-
-        CellType type = cell.getCellType();
-        if (type == CellType.FORMULA) {
-            try {
-                type = wb.getCreationHelper().createFormulaEvaluator().evaluateFormulaCell(cell);
-            } catch (Exception e) {
-                return cell.toString();
-            }
-        }
-
-        switch (type) {
-            case STRING:  return cell.getStringCellValue();
-            case NUMERIC: {
-                double d = cell.getNumericCellValue();
-                return (d == Math.floor(d) && !Double.isInfinite(d))
-                        ? String.valueOf((long) d)
-                        : String.valueOf(d);
-            }
-            case BOOLEAN: return String.valueOf(cell.getBooleanCellValue());
-            default:      return "";
-        }
-    }
-
-    private String escapeCsv(String val) {
-        if (val == null || val.isEmpty()) return "";
-        if (val.contains(";") || val.contains("\"") || val.contains(" ")
-                || val.contains("\n") || val.contains("\r")) {
-            return "\"" + val.replace("\"", "\"\"") + "\"";
-        }
-        return val;
-    }
 }
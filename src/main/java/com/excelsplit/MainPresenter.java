@@ -1,7 +1,9 @@
 package com.excelsplit;
 
+import javax.swing.SwingUtilities;
 import javax.swing.SwingWorker;
 import java.awt.Desktop;
+import java.io.IOException;
 import java.nio.file.*;
 import java.util.List;
 import java.util.function.Consumer;
@@ -17,6 +19,11 @@ public class MainPresenter {
     private final AppConfig         config;
     private final Path              basePath;
 
+    // Überwachung des Master-Verzeichnisses; busy/rerun nur auf dem EDT
+    private MasterDirWatcher watcher;
+    private boolean          busy;
+    private boolean          rerun;
+
     public MainPresenter(MainWindow view, ExcelSplitService service, AppConfig config, Path basePath) {
         this.view     = view;
         this.service  = service;
@@ -30,6 +37,12 @@ public class MainPresenter {
     private void initView() {
         Path masterDir = Paths.get(config.getMasterDir(basePath.resolve("master").toString()));
         view.setOutputDir(config.getOutputDir(basePath.resolve("templates").toString()));
+        view.setStrictFormulas(config.isStrictFormulas());
+        applyFormulaMode(config.isStrictFormulas());
+        view.setParallel(config.isParallel());
+        service.setParallel(config.isParallel());
+        view.setIncremental(config.isIncremental());
+        service.setIncremental(config.isIncremental());
         refreshMasterFiles(masterDir);
     }
 
@@ -37,6 +50,7 @@ public class MainPresenter {
         view.onMasterDirSelected(dir -> {
             config.setMasterDir(dir.toString());
             refreshMasterFiles(dir);
+            if (watcher != null) startWatching();
         });
 
         view.onOutputDirSelected(config::setOutputDir);
@@ -47,6 +61,108 @@ public class MainPresenter {
         });
 
         view.onProcessRequested(this::process);
+
+        view.onStrictFormulasChanged(strict -> {
+            config.setStrictFormulas(strict);
+            applyFormulaMode(strict);
+        });
+
+        view.onParallelChanged(parallel -> {
+            config.setParallel(parallel);
+            service.setParallel(parallel);
+        });
+
+        view.onIncrementalChanged(incremental -> {
+            config.setIncremental(incremental);
+            service.setIncremental(incremental);
+        });
+
+        view.onWatchChanged(watch -> {
+            if (watch) startWatching();
+            else       stopWatching();
+        });
+    }
+
+    private Path masterDir() {
+        return Paths.get(config.getMasterDir(basePath.resolve("master").toString()));
+    }
+
+    // -------------------------------------------------------------------------
+    // Überwachung
+    // -------------------------------------------------------------------------
+
+    private void startWatching() {
+        stopWatching();
+        Path dir = masterDir();
+        try {
+            watcher = new MasterDirWatcher(dir, MasterDirWatcher.QUIET_MS,
+                    changed -> SwingUtilities.invokeLater(() -> onMasterFilesChanged(changed)));
+            watcher.start();
+            view.appendLog("Überwache " + dir + " – neue und geänderte Dateien werden automatisch verarbeitet.");
+            if (!service.isIncremental()) {
+                view.appendLog("Hinweis: \"Nur geänderte Dateien\" ist aus – jede Änderung erzeugt alle CSVs neu.");
+            }
+        } catch (IOException e) {
+            watcher = null;
+            view.setWatching(false);
+            view.showWarning("Verzeichnis kann nicht überwacht werden: " + e.getMessage());
+        }
+    }
+
+    private void stopWatching() {
+        if (watcher == null) return;
+        try {
+            watcher.close();
+        } catch (IOException ignored) { }
+        watcher = null;
+        view.appendLog("Überwachung beendet.");
+    }
+
+    /** Änderung im Master-Verzeichnis (EDT): Liste auffrischen und inkrementell verarbeiten. */
+    private void onMasterFilesChanged(List<Path> changed) {
+        if (watcher == null) return;
+        for (Path p : changed) view.appendLog("Geändert: " + p.getFileName());
+        if (changed.isEmpty()) view.appendLog("Masterdatei(en) entfernt.");
+        refreshMasterFiles(masterDir());
+        processWatched();
+    }
+
+    /** Läuft schon eine Verarbeitung, wird danach genau ein weiterer Lauf angehängt. */
+    private void processWatched() {
+        if (busy) { rerun = true; return; }
+        List<Path> selected = view.getSelectedFiles();
+        String     outText  = view.getOutputDir().trim();
+        if (outText.isEmpty()) return;
+
+        busy = true;
+        view.setProcessingActive(true);
+        Path outputDir = Paths.get(outText);
+
+        new SwingWorker<Path, String>() {
+            @Override protected Path doInBackground() {
+                return service.processFiles(selected, outputDir, this::publish);
+            }
+            @Override protected void process(List<String> chunks) {
+                chunks.forEach(view::appendLog);
+            }
+            @Override protected void done() {
+                finished();
+            }
+        }.execute();
+    }
+
+    /** Ende eines Laufs (EDT); holt einen während des Laufs angefallenen Überwachungslauf nach. */
+    private void finished() {
+        busy = false;
+        view.setProcessingActive(false);
+        if (rerun) {
+            rerun = false;
+            if (watcher != null) processWatched();
+        }
+    }
+
+    private void applyFormulaMode(boolean strict) {
+        service.setFormulaMode(strict ? ExcelSplitService.FormulaMode.STRICT : ExcelSplitService.FormulaMode.FAST);
     }
 
     private void refreshMasterFiles(Path masterDir) {
@@ -63,9 +179,11 @@ public class MainPresenter {
         if (selected.isEmpty()) { onComplete.accept(false); return; }
         String outText = view.getOutputDir().trim();
         if (outText.isEmpty())  { onComplete.accept(false); return; }
+        if (busy)               { onComplete.accept(false); return; }
 
         config.setOutputDir(outText);
         view.clearLog();
+        busy = true;
         view.setProcessingActive(true);
         Path outputDir = Paths.get(outText);
 
@@ -77,7 +195,7 @@ public class MainPresenter {
                 chunks.forEach(view::appendLog);
             }
             @Override protected void done() {
-                view.setProcessingActive(false);
+                finished();
                 boolean success = false;
                 try { get(); success = true; } catch (Exception ignored) {}
                 onComplete.accept(success);
@@ -98,8 +216,14 @@ public class MainPresenter {
             return;
         }
 
+        if (busy) {
+            view.showWarning("Es läuft bereits eine Verarbeitung.");
+            return;
+        }
+
         config.setOutputDir(outText);
         view.clearLog();
+        busy = true;
         view.setProcessingActive(true);
 
         Path outputDir = Paths.get(outText);
@@ -117,7 +241,7 @@ public class MainPresenter {
 
             @Override
             protected void done() {
-                view.setProcessingActive(false);
+                finished();
                 try {
                     get();
                     if (Files.isDirectory(outputDir)) {
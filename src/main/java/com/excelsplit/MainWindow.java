@@ -6,7 +6,9 @@ import java.awt.FlowLayout;
 import java.awt.Font;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -37,6 +39,10 @@ public class MainWindow {
     private JTextField outputDirField;
     private JTextArea  logArea;
     private JButton    processButton;
+    private JCheckBox  strictFormulasBox;
+    private JCheckBox  parallelBox;
+    private JCheckBox  incrementalBox;
+    private JCheckBox  watchBox;
 
     private final List<JCheckBox> checkBoxes = new ArrayList<>();
 
@@ -45,6 +51,10 @@ public class MainWindow {
     private Consumer<String> outputDirHandler;
     private Runnable         refreshHandler;
     private Runnable         processHandler;
+    private Consumer<Boolean> strictFormulasHandler;
+    private Consumer<Boolean> parallelHandler;
+    private Consumer<Boolean> incrementalHandler;
+    private Consumer<Boolean> watchHandler;
 
     public MainWindow() {
         buildFrame();
@@ -153,8 +163,38 @@ public class MainWindow {
         processButton.setFont(processButton.getFont().deriveFont(Font.BOLD, 13f));
         processButton.addActionListener(e -> { if (processHandler != null) processHandler.run(); });
 
+        strictFormulasBox = new JCheckBox("Formeln neu berechnen");
+        strictFormulasBox.setToolTipText("<html>Aus: in der Datei gespeicherte Formelergebnisse verwenden (schnell).<br>"
+                + "An: alle Formeln neu berechnen – langsamer, aber unabhängig vom Speicherstand.</html>");
+        strictFormulasBox.addActionListener(e -> {
+            if (strictFormulasHandler != null) strictFormulasHandler.accept(strictFormulasBox.isSelected());
+        });
+
+        parallelBox = new JCheckBox("Parallel verarbeiten");
+        parallelBox.setToolTipText("Mehrere Masterdateien gleichzeitig verarbeiten (je nach Prozessorkernen und Speicher)");
+        parallelBox.addActionListener(e -> {
+            if (parallelHandler != null) parallelHandler.accept(parallelBox.isSelected());
+        });
+
+        incrementalBox = new JCheckBox("Nur geänderte Dateien");
+        incrementalBox.setToolTipText("<html>Unveränderte Masterdateien überspringen – ihre CSV bleibt bestehen.<br>"
+                + "Aus: Ausgabeverzeichnis leeren und alle Dateien neu erzeugen.</html>");
+        incrementalBox.addActionListener(e -> {
+            if (incrementalHandler != null) incrementalHandler.accept(incrementalBox.isSelected());
+        });
+
+        watchBox = new JCheckBox("Verzeichnis überwachen");
+        watchBox.setToolTipText("Neue und geänderte Masterdateien automatisch verarbeiten, sobald sie fertig gespeichert sind");
+        watchBox.addActionListener(e -> {
+            if (watchHandler != null) watchHandler.accept(watchBox.isSelected());
+        });
+
         JPanel panel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         panel.add(processButton);
+        panel.add(strictFormulasBox);
+        panel.add(parallelBox);
+        panel.add(incrementalBox);
+        panel.add(watchBox);
         return panel;
     }
 
@@ -182,6 +222,11 @@ public class MainWindow {
 
 
     public void setMasterFiles(Path masterDir, List<Path> files) {
+        // Beim Auffrischen desselben Verzeichnisses bleibt die Auswahl erhalten; neue Dateien sind ausgewählt
+        Map<String, Boolean> previous = new HashMap<>();
+        if (masterDir.toString().equals(masterDirField.getText())) {
+            for (JCheckBox cb : checkBoxes) previous.put(cb.getActionCommand(), cb.isSelected());
+        }
         masterDirField.setText(masterDir.toString());
         masterListPanel.removeAll();
         checkBoxes.clear();
@@ -190,7 +235,7 @@ public class MainWindow {
             masterListPanel.add(new JLabel("<html><i>Keine .xlsx-Dateien gefunden.</i></html>"));
         } else {
             for (Path f : files) {
-                JCheckBox cb = new JCheckBox(f.getFileName().toString(), true);
+                JCheckBox cb = new JCheckBox(f.getFileName().toString(), previous.getOrDefault(f.toString(), true));
                 cb.setActionCommand(f.toString());
                 cb.setMaximumSize(new Dimension(Integer.MAX_VALUE, cb.getPreferredSize().height));
                 checkBoxes.add(cb);
@@ -220,6 +265,29 @@ public class MainWindow {
 
     public void setProcessingActive(boolean active) {
         processButton.setEnabled(!active);
+        strictFormulasBox.setEnabled(!active);
+        parallelBox.setEnabled(!active);
+        incrementalBox.setEnabled(!active);
+    }
+
+
+    public void setStrictFormulas(boolean strict) {
+        strictFormulasBox.setSelected(strict);
+    }
+
+
+    public void setParallel(boolean parallel) {
+        parallelBox.setSelected(parallel);
+    }
+
+
+    public void setIncremental(boolean incremental) {
+        incrementalBox.setSelected(incremental);
+    }
+
+
+    public void setWatching(boolean watching) {
+        watchBox.setSelected(watching);
     }
 
 
@@ -253,6 +321,18 @@ public class MainWindow {
     public void onProcessRequested(Runnable handler)          { this.processHandler   = handler; }
 
 
+    public void onStrictFormulasChanged(Consumer<Boolean> handler) { this.strictFormulasHandler = handler; }
+
+
+    public void onParallelChanged(Consumer<Boolean> handler)       { this.parallelHandler = handler; }
+
+
+    public void onIncrementalChanged(Consumer<Boolean> handler)    { this.incrementalHandler = handler; }
+
+
+    public void onWatchChanged(Consumer<Boolean> handler)          { this.watchHandler = handler; }
+
+
     public void show() {
         frame.setVisible(true);
     }
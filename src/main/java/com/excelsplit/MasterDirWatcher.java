@@ -0,0 +1,152 @@
+package com.excelsplit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Überwacht das Master-Verzeichnis (WatchService) und meldet neue, geänderte und
+ * gelöschte .xlsx-Dateien gebündelt.
+ *
+ * Gemeldet wird erst, wenn im Verzeichnis {@code quietMs} lang nichts passiert ist und
+ * sich Größe und Änderungszeit der Dateien seitdem nicht mehr geändert haben – Dateien,
+ * die noch geschrieben oder kopiert werden, warten also. Mehrere Ereignisse in kurzer
+ * Folge (Speichern in Excel erzeugt mehrere) ergeben eine einzige Meldung.
+ * Excel-Sperrdateien (~$…) werden ignoriert.
+ */
+public class MasterDirWatcher implements Closeable {
+
+    /** Standard-Ruhezeit, bevor Änderungen gemeldet werden. */
+    public static final long QUIET_MS = 2000;
+
+    private final Path                   dir;
+    private final long                   quietMs;
+    private final Consumer<List<Path>>   onChange;
+    private final WatchService           watchService;
+    private Thread                       thread;
+
+    /**
+     * @param onChange erhält die geänderten/neuen Dateien (leer, wenn nur gelöscht wurde);
+     *                 wird im Überwachungs-Thread aufgerufen
+     */
+    public MasterDirWatcher(Path dir, long quietMs, Consumer<List<Path>> onChange) throws IOException {
+        this.dir          = dir;
+        this.quietMs      = quietMs;
+        this.onChange     = onChange;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        dir.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+    }
+
+    public void start() {
+        thread = new Thread(this::run, "master-watch");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public Path getDir() {
+        return dir;
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        if (thread != null) thread.interrupt();
+    }
+
+    /** Relevante Masterdatei: .xlsx, aber keine Excel-Sperrdatei. */
+    static boolean isMasterFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.toLowerCase().endsWith(".xlsx") && !name.startsWith("~$");
+    }
+
+    // -------------------------------------------------------------------------
+    // Private Hilfsmethoden
+    // -------------------------------------------------------------------------
+
+    private void run() {
+        // Datei -> {Größe, Änderungszeit} beim letzten Blick
+        Map<Path, long[]> pending = new LinkedHashMap<>();
+        boolean deleted = false;
+        try {
+            while (true) {
+                WatchKey key = pending.isEmpty() && !deleted
+                        ? watchService.take()
+                        : watchService.poll(quietMs, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            addAll(pending);
+                            continue;
+                        }
+                        Path file = dir.resolve((Path) event.context());
+                        if (!isMasterFile(file)) continue;
+                        if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                            pending.remove(file);
+                            deleted = true;
+                        } else {
+                            pending.put(file, stamp(file));
+                        }
+                    }
+                    if (!key.reset()) return;   // Verzeichnis nicht mehr vorhanden
+                    continue;
+                }
+
+                // Ruhezeit abgelaufen: stabile Dateien melden, die übrigen weiter beobachten
+                List<Path> ready = new ArrayList<>();
+                for (Iterator<Map.Entry<Path, long[]>> it = pending.entrySet().iterator(); it.hasNext(); ) {
+                    Map.Entry<Path, long[]> e = it.next();
+                    long[] now = stamp(e.getKey());
+                    if (now == null) {
+                        it.remove();
+                        deleted = true;
+                    } else if (e.getValue() != null && now[0] == e.getValue()[0] && now[1] == e.getValue()[1]) {
+                        ready.add(e.getKey());
+                        it.remove();
+                    } else {
+                        e.setValue(now);
+                    }
+                }
+                if (!ready.isEmpty() || (deleted && pending.isEmpty())) {
+                    deleted = false;
+                    onChange.accept(ready);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // beendet
+        }
+    }
+
+    /** Nach einem Überlauf ist unklar, was sich geändert hat – alle Dateien prüfen. */
+    private void addAll(Map<Path, long[]> pending) {
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(MasterDirWatcher::isMasterFile).forEach(f -> pending.put(f, stamp(f)));
+        } catch (IOException ignored) { }
+    }
+
+    /** {Größe, Änderungszeit}; null, wenn die Datei nicht (mehr) lesbar ist. */
+    private static long[] stamp(Path file) {
+        try {
+            return new long[] { Files.size(file), Files.getLastModifiedTime(file).toMillis() };
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
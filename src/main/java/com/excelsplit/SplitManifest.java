@@ -0,0 +1,197 @@
+package com.excelsplit;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Manifest im Ausgabeverzeichnis: welche Masterdatei (Größe, Änderungszeit, SHA-256)
+ * welche CSV erzeugt hat, samt Eintrag für validierung.log.
+ *
+ * Ist eine Masterdatei seit dem letzten Lauf unverändert und ihre CSV noch vorhanden,
+ * kann sie übersprungen werden. Größe und Änderungszeit dienen als schnelle Vorprüfung;
+ * nur wenn sich die Zeit bei gleicher Größe geändert hat, wird der Inhalt gehasht.
+ *
+ * Format: Properties, "&lt;masterdatei&gt;" = "größe;zeit;sha256;modus;csv;logeintrag".
+ */
+class SplitManifest {
+
+    static final String FILE = ".excelsplit-manifest.properties";
+
+    /** Stand einer Masterdatei beim letzten erfolgreichen Lauf. */
+    static class Entry {
+        long   size;
+        long   modified;
+        String hash;
+        String mode;
+        String csv;
+        String logEntry;
+    }
+
+    private final Path        outputDir;
+    private final Path        file;
+    private final Properties  props = new Properties();
+    private final Set<String> knownCsv = new HashSet<>();
+    private final boolean     existed;
+
+    SplitManifest(Path outputDir) {
+        this.outputDir = outputDir;
+        this.file      = outputDir.resolve(FILE);
+        this.existed   = Files.exists(file);
+        load();
+        for (String key : props.stringPropertyNames()) {
+            Entry e = parse(props.getProperty(key));
+            if (e != null) knownCsv.add(e.csv);
+        }
+    }
+
+    /** false beim ersten Lauf – dann ist unbekannt, welche CSVs aus früheren Läufen stammen. */
+    boolean existed() {
+        return existed;
+    }
+
+    /**
+     * Eintrag der Masterdatei, wenn sie seit dem letzten Lauf unverändert ist, mit
+     * demselben Formel-Modus verarbeitet wurde und die CSV noch existiert; sonst null.
+     */
+    Entry unchanged(Path master, String mode) throws IOException {
+        Entry e;
+        synchronized (this) {
+            e = parse(props.getProperty(key(master)));
+        }
+        if (e == null || !e.mode.equals(mode) || !Files.exists(outputDir.resolve(e.csv))) return null;
+
+        long size     = Files.size(master);
+        long modified = Files.getLastModifiedTime(master).toMillis();
+        if (size != e.size) return null;
+        if (modified == e.modified) return e;
+        if (!checksum(master).equals(e.hash)) return null;
+
+        // Nur der Zeitstempel hat sich geändert (z.B. kopiert) – beim nächsten Mal ohne Hash
+        e.modified = modified;
+        synchronized (this) {
+            props.setProperty(key(master), format(e));
+        }
+        return e;
+    }
+
+    /** Vermerkt das Ergebnis einer erfolgreichen Verarbeitung. */
+    void record(Path master, String mode, String csv, String logEntry) throws IOException {
+        Entry e = new Entry();
+        e.size     = Files.size(master);
+        e.modified = Files.getLastModifiedTime(master).toMillis();
+        e.hash     = checksum(master);
+        e.mode     = mode;
+        e.csv      = csv;
+        e.logEntry = logEntry;
+        synchronized (this) {
+            props.setProperty(key(master), format(e));
+        }
+    }
+
+    /** Entfernt den Eintrag (z.B. nach einem Fehler – beim nächsten Lauf erneut verarbeiten). */
+    synchronized void remove(Path master) {
+        props.remove(key(master));
+    }
+
+    /**
+     * Entfernt die Einträge aller Masterdateien, die nicht mehr verarbeitet werden, und
+     * löscht CSVs aus früheren Läufen, die keiner aktuellen Masterdatei mehr gehören.
+     * CSVs, die das Manifest nicht kennt, bleiben unberührt.
+     */
+    synchronized void removeOrphans(Collection<Path> masters, Consumer<String> log) {
+        Set<String> current = new HashSet<>();
+        for (Path m : masters) current.add(key(m));
+        props.keySet().removeIf(key -> !current.contains(key));
+
+        Set<String> referenced = new HashSet<>();
+        for (String key : props.stringPropertyNames()) {
+            Entry e = parse(props.getProperty(key));
+            if (e != null) referenced.add(e.csv);
+        }
+        for (String csv : knownCsv) {
+            if (referenced.contains(csv)) continue;
+            try {
+                if (Files.deleteIfExists(outputDir.resolve(csv))) log.accept("Verwaiste CSV entfernt: " + csv);
+            } catch (IOException e) {
+                log.accept("WARNUNG: " + csv + " konnte nicht gelöscht werden: " + e.getMessage());
+            }
+        }
+    }
+
+    synchronized void save() {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            props.store(out, "Excel Split – verarbeitete Masterdateien");
+        } catch (IOException e) {
+            System.err.println("Manifest konnte nicht gespeichert werden: " + e.getMessage());
+        }
+    }
+
+    /** SHA-256 des Dateiinhalts (hex). */
+    static String checksum(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[1 << 16];
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buffer)) > 0) digest.update(buffer, 0, n);
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) hex.append(String.format("%02x", b));
+        return hex.toString();
+    }
+
+    // -------------------------------------------------------------------------
+    // Private Hilfsmethoden
+    // -------------------------------------------------------------------------
+
+    /** Schlüssel ist der Dateiname – Masterdateien liegen in einem Verzeichnis. */
+    private static String key(Path master) {
+        return master.getFileName().toString();
+    }
+
+    private static String format(Entry e) {
+        return e.size + ";" + e.modified + ";" + e.hash + ";" + e.mode + ";" + e.csv + ";" + e.logEntry;
+    }
+
+    private static Entry parse(String value) {
+        if (value == null) return null;
+        // Der Log-Eintrag steht zuletzt und darf selbst ';' enthalten
+        String[] f = value.split(";", 6);
+        if (f.length < 6) return null;
+        try {
+            Entry e = new Entry();
+            e.size     = Long.parseLong(f[0]);
+            e.modified = Long.parseLong(f[1]);
+            e.hash     = f[2];
+            e.mode     = f[3];
+            e.csv      = f[4];
+            e.logEntry = f[5];
+            return e;
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private void load() {
+        if (!existed) return;
+        try (InputStream in = Files.newInputStream(file)) {
+            props.load(in);
+        } catch (IOException e) {
+            System.err.println("Manifest konnte nicht geladen werden: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.excelsplit;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.CellValue;
+import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+
+/**
+ * Liest Zellwerte eines geladenen Workbooks als Text.
+ *
+ * Formeln: Im {@link ExcelSplitService.FormulaMode#FAST schnellen Modus} gilt das in der
+ * Datei gespeicherte Ergebnis, berechnet werden nur Formeln ohne Ergebnis; im
+ * {@link ExcelSplitService.FormulaMode#STRICT strikten Modus} wird jede Formel neu berechnet.
+ *
+ * Ausgewertet wird mit einem einzigen FormulaEvaluator pro Workbook. Der Evaluator
+ * merkt sich bereits berechnete Zellen – Formeln, die auf andere Formeln verweisen,
+ * werden so nur einmal gerechnet statt für jede abhängige Zelle erneut.
+ * Eine Instanz gehört zu genau einem Workbook und ist nicht threadsicher.
+ */
+public class WorkbookCellReader {
+
+    private final Workbook                       wb;
+    private final ExcelSplitService.FormulaMode mode;
+    private FormulaEvaluator evaluator;
+
+    /** Wertet jede Formel neu aus (strikter Modus). */
+    public WorkbookCellReader(Workbook wb) {
+        this(wb, ExcelSplitService.FormulaMode.STRICT);
+    }
+
+    public WorkbookCellReader(Workbook wb, ExcelSplitService.FormulaMode mode) {
+        this.wb   = wb;
+        this.mode = mode != null ? mode : ExcelSplitService.FormulaMode.STRICT;
+    }
+
+    /** Zellwert als Text; Formeln je nach Modus, Fehler und leere Zellen ergeben "". */
+    public String getValue(Cell cell) {
+        if (cell == null) return "";
+
+        CellType type = cell.getCellType();
+        if (type == CellType.FORMULA) {
+            if (mode == ExcelSplitService.FormulaMode.FAST && hasCachedResult(cell)) {
+                return cachedValue(cell);
+            }
+            CellValue value;
+            try {
+                value = evaluator().evaluate(cell);
+            } catch (Exception e) {
+                return cell.toString();
+            }
+            if (value == null) return "";
+            switch (value.getCellType()) {
+                case STRING:  return value.getStringValue();
+                case NUMERIC: return formatNumber(value.getNumberValue());
+                case BOOLEAN: return String.valueOf(value.getBooleanValue());
+                default:      return "";
+            }
+        }
+
+        switch (type) {
+            case STRING:  return cell.getStringCellValue();
+            case NUMERIC: return formatNumber(cell.getNumericCellValue());
+            case BOOLEAN: return String.valueOf(cell.getBooleanCellValue());
+            default:      return "";
+        }
+    }
+
+    /** .xlsx: Ergebnis steht nur im &lt;v&gt;-Element; .xls speichert es immer. */
+    private static boolean hasCachedResult(Cell cell) {
+        return !(cell instanceof XSSFCell) || ((XSSFCell) cell).getCTCell().isSetV();
+    }
+
+    /** Gespeichertes Formelergebnis, dargestellt wie im Streaming-Pfad. */
+    private static String cachedValue(Cell cell) {
+        switch (cell.getCachedFormulaResultType()) {
+            case STRING:  return cell.getStringCellValue();
+            case NUMERIC: return formatNumber(cell.getNumericCellValue());
+            case BOOLEAN: return String.valueOf(cell.getBooleanCellValue());
+            default:      return "";
+        }
+    }
+
+    /** Der eine Evaluator dieses Workbooks (bei Bedarf angelegt). */
+    FormulaEvaluator evaluator() {
+        if (evaluator == null) evaluator = wb.getCreationHelper().createFormulaEvaluator();
+        return evaluator;
+    }
+
+    /** Ganze Zahlen ohne Nachkommastellen, sonst Double-Darstellung. */
+    static String formatNumber(double d) {
+        return (d == Math.floor(d) && !Double.isInfinite(d))
+                ? String.valueOf((long) d)
+                : String.valueOf(d);
+    }
+}
@@ -0,0 +1,327 @@
+package com.excelsplit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Liest .xlsx-Sheets zeilenweise über das Event-Modell von POI (XSSFReader + SAX),
+ * ohne das Workbook als Objektbaum aufzubauen. Der Speicherbedarf hängt damit nur von
+ * der Shared-String-Tabelle und der aktuellen Zeile ab, nicht von der Sheet-Größe.
+ *
+ * Zellwerte entsprechen denen des Workbook-Modells in {@link ExcelSplitService}:
+ * Text unverändert, ganze Zahlen ohne Nachkommastellen, Wahrheitswerte als true/false,
+ * Fehler und leere Zellen als "". Formelzellen liefern das in der Datei gespeicherte
+ * Ergebnis; Formeln ohne gespeichertes Ergebnis werden gezählt
+ * ({@link SheetInfo#uncachedFormulas}), damit der Aufrufer sie anders behandeln kann.
+ */
+public class XlsxStreamReader implements Closeable {
+
+    /** Empfängt die Zeilen eines Sheets in Reihenfolge; Lücken kommen als leere Zeilen. */
+    public interface RowHandler {
+        /**
+         * @param rowIndex 0-basiert
+         * @param cells    Werte bis zur letzten vorhandenen Zelle der Zeile (nie null)
+         */
+        void row(int rowIndex, String[] cells) throws IOException;
+    }
+
+    private final OPCPackage                 pkg;
+    private final XSSFReader                 reader;
+    private final ReadOnlySharedStringsTable strings;
+
+    public XlsxStreamReader(Path xlsx) throws IOException {
+        try {
+            pkg = OPCPackage.open(xlsx.toFile(), PackageAccess.READ);
+        } catch (OpenXML4JException e) {
+            throw new IOException("Keine gültige .xlsx-Datei: " + e.getMessage(), e);
+        }
+        try {
+            reader  = new XSSFReader(pkg);
+            strings = new ReadOnlySharedStringsTable(pkg);
+        } catch (OpenXML4JException | SAXException | RuntimeException e) {
+            pkg.revert();
+            throw new IOException("Workbook nicht lesbar: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Werte der ersten Zeile (Zeilenindex 0); das Lesen endet danach.
+     *
+     * @return null, wenn die Zeile Formeln ohne gespeichertes Ergebnis enthält – deren
+     *         Wert ist gestreamt nicht bekannt
+     */
+    public List<String> readFirstRow(int sheetIndex) throws IOException {
+        List<String> result = new ArrayList<>();
+        SheetHandler handler = new SheetHandler(this::sharedString, (r, cells) -> {
+            if (r == 0) result.addAll(List.of(cells));
+        });
+        handler.stopAfterRow = 0;
+        parse(sheetIndex, handler);
+        return handler.info.uncachedFormulas > 0 ? null : result;
+    }
+
+    /** Streamt alle Zeilen des Sheets an den Handler. */
+    public SheetInfo readRows(int sheetIndex, RowHandler rows) throws IOException {
+        SheetHandler handler = new SheetHandler(this::sharedString, rows);
+        parse(sheetIndex, handler);
+        return handler.info;
+    }
+
+    @Override
+    public void close() {
+        // Nur lesend geöffnet – revert() schließt ohne zu speichern
+        pkg.revert();
+    }
+
+    // -------------------------------------------------------------------------
+    // Private Hilfsmethoden
+    // -------------------------------------------------------------------------
+
+    private String sharedString(int index) {
+        return strings.getItemAt(index).getString();
+    }
+
+    private void parse(int sheetIndex, SheetHandler handler) throws IOException {
+        try (InputStream sheet = openSheet(sheetIndex)) {
+            if (sheet == null) return;
+            parse(sheet, handler);
+        }
+    }
+
+    /** Sheet-Daten in Workbook-Reihenfolge; null, wenn es das Sheet nicht gibt. */
+    private InputStream openSheet(int sheetIndex) throws IOException {
+        Iterator<InputStream> sheets;
+        try {
+            sheets = reader.getSheetsData();
+        } catch (OpenXML4JException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        for (int i = 0; sheets.hasNext(); i++) {
+            InputStream in = sheets.next();
+            if (i == sheetIndex) return in;
+            in.close();
+        }
+        return null;
+    }
+
+    static void parse(InputStream sheetXml, SheetHandler handler) throws IOException {
+        try {
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(handler);
+            parser.parse(new InputSource(sheetXml));
+        } catch (StopParsing done) {
+            // gewollter Abbruch nach dem benötigten Teil
+        } catch (SAXException | ParserConfigurationException e) {
+            throw new IOException("Sheet nicht lesbar: " + e.getMessage(), e);
+        } catch (UncheckedRowException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** Spaltenindex (0-basiert) aus einer Zellreferenz wie "AB12". */
+    static int columnIndex(String ref) {
+        int col = 0;
+        for (int i = 0; i < ref.length(); i++) {
+            char c = ref.charAt(i);
+            if (c < 'A' || c > 'Z') break;
+            col = col * 26 + (c - 'A' + 1);
+        }
+        return col - 1;
+    }
+
+    /** Zahlen wie im Workbook-Modell: ganze Zahlen ohne ".0". */
+    static String formatNumber(String raw) {
+        double d;
+        try {
+            d = Double.parseDouble(raw);
+        } catch (NumberFormatException e) {
+            return raw;
+        }
+        return (d == Math.floor(d) && !Double.isInfinite(d)) ? String.valueOf((long) d) : String.valueOf(d);
+    }
+
+    // -------------------------------------------------------------------------
+    // Ergebnis und SAX-Handler
+    // -------------------------------------------------------------------------
+
+    /** Eckdaten eines gelesenen Sheets. */
+    public static class SheetInfo {
+        /** Höchste Spaltenanzahl einer Zeile (wie Row.getLastCellNum()). */
+        public int maxColumns;
+        /** Letzter Zeilenindex (0-basiert), -1 bei leerem Sheet. */
+        public int lastRow = -1;
+        /** Formelzellen ohne gespeichertes Ergebnis. */
+        public int uncachedFormulas;
+    }
+
+    /** Vorzeitiges Ende des Parsens, sobald der benötigte Teil gelesen ist. */
+    private static class StopParsing extends SAXException {
+        StopParsing() { super("stop"); }
+    }
+
+    /** Transportiert IOExceptions des RowHandlers durch den SAX-Parser. */
+    private static class UncheckedRowException extends RuntimeException {
+        UncheckedRowException(IOException cause) { super(cause); }
+        @Override public synchronized IOException getCause() { return (IOException) super.getCause(); }
+    }
+
+    /**
+     * Wertet &lt;sheetData&gt; eines Worksheets aus: Zeilen (&lt;row r&gt;), Zellen
+     * (&lt;c r t&gt;), Werte (&lt;v&gt;) und Inline-Text (&lt;is&gt;&lt;t&gt;).
+     */
+    static class SheetHandler extends DefaultHandler {
+        private final IntFunction<String> sharedStrings;
+        private final RowHandler          rows;
+
+        /** Nach dieser Zeile aufhören (-1 = ganzes Sheet). */
+        int     stopAfterRow = -1;
+
+        final SheetInfo info = new SheetInfo();
+
+        private int                nextRow;
+        private int                currentRow = -1;
+        private final List<String> cells = new ArrayList<>();
+        private int                nextCol;
+
+        private String              cellType;
+        private int                 cellCol;
+        private boolean             hasFormula;
+        private boolean             hasValue;
+        private final StringBuilder text = new StringBuilder();
+        private boolean             inValue;
+        private boolean             inInlineText;
+        private boolean             inPhonetic;
+
+        SheetHandler(IntFunction<String> sharedStrings, RowHandler rows) {
+            this.sharedStrings = sharedStrings;
+            this.rows          = rows;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes atts) throws SAXException {
+            switch (name(localName, qName)) {
+                case "row": {
+                    String r = atts.getValue("r");
+                    currentRow = r != null ? Integer.parseInt(r) - 1 : nextRow;
+                    // Fehlende Zeilen als leere Zeilen nachliefern
+                    while (nextRow < currentRow) emit(nextRow++, new String[0]);
+                    cells.clear();
+                    nextCol = 0;
+                    break;
+                }
+                case "c": {
+                    String ref = atts.getValue("r");
+                    cellCol    = ref != null ? columnIndex(ref) : nextCol;
+                    cellType   = atts.getValue("t");
+                    hasFormula = false;
+                    hasValue   = false;
+                    text.setLength(0);
+                    break;
+                }
+                case "f":
+                    hasFormula = true;
+                    break;
+                case "v":
+                    inValue  = true;
+                    hasValue = true;
+                    break;
+                case "rPh":
+                    inPhonetic = true;
+                    break;
+                case "t":
+                    if (!inPhonetic) {
+                        inInlineText = true;
+                        hasValue     = true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            switch (name(localName, qName)) {
+                case "v":   inValue      = false; break;
+                case "t":   inInlineText = false; break;
+                case "rPh": inPhonetic   = false; break;
+                case "c": {
+                    while (cells.size() <= cellCol) cells.add("");
+                    cells.set(cellCol, value());
+                    nextCol = cellCol + 1;
+                    if (hasFormula && !hasValue) info.uncachedFormulas++;
+                    break;
+                }
+                case "row": {
+                    emit(currentRow, cells.toArray(new String[0]));
+                    if (currentRow >= stopAfterRow && stopAfterRow >= 0) throw new StopParsing();
+                    nextRow    = currentRow + 1;
+                    currentRow = -1;
+                    break;
+                }
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inValue || inInlineText) text.append(ch, start, length);
+        }
+
+        private String value() {
+            if (!hasValue) return "";
+            String raw = text.toString();
+            if (cellType == null || cellType.equals("n")) return raw.isEmpty() ? "" : formatNumber(raw);
+            switch (cellType) {
+                case "s":
+                    try {
+                        return sharedStrings.apply(Integer.parseInt(raw.trim()));
+                    } catch (NumberFormatException e) {
+                        return "";
+                    }
+                case "b":         return raw.trim().equals("1") ? "true" : "false";
+                case "e":         return "";
+                case "str":
+                case "inlineStr":
+                default:          return raw;
+            }
+        }
+
+        private void emit(int rowIndex, String[] values) {
+            info.lastRow = rowIndex;
+            if (values.length > info.maxColumns) info.maxColumns = values.length;
+            try {
+                rows.row(rowIndex, values);
+            } catch (IOException e) {
+                throw new UncheckedRowException(e);
+            }
+        }
+
+        private static String name(String localName, String qName) {
+            if (localName != null && !localName.isEmpty()) return localName;
+            int colon = qName.indexOf(':');
+            return colon >= 0 ? qName.substring(colon + 1) : qName;
+        }
+    }
+}
@@ -300,6 +300,18 @@ public class InsertGenPanel extends JPanel {
         JButton generateBtn = new JButton("Script generieren");
         generateBtn.addActionListener(e -> generateScript());
 
+        JButton generateFromFilesBtn = new JButton("Aus Datei\u2026");
+        generateFromFilesBtn.setToolTipText("Script direkt aus Excel-/CSV-Dateien erzeugen "
+                + "(Spaltenzuordnung, PK und FK-Subselects aus dem gew\u00E4hlten Preset)");
+        generateFromFilesBtn.addActionListener(e -> generateFromFiles(generateFromFilesBtn));
+
+        JCheckBox setBasedBox = new JCheckBox("Mengenbasiert");
+        setBasedBox.setToolTipText("Je " + InsertScriptWriter.SET_BATCH + " Zeilen ein INSERT … SELECT "
+                + "mit einem NOT EXISTS statt eines INSERTs pro Zeile. FK-Subselects laufen dann "
+                + "einmal je Wert und Block statt einmal je Zeile");
+        setBasedBox.addActionListener(e -> service.setScriptMode(setBasedBox.isSelected()
+                ? InsertScriptWriter.Mode.SET : InsertScriptWriter.Mode.ROW));
+
         JPanel toolbar = new JPanel(new FlowLayout(FlowLayout.LEFT, 6, 4));
         toolbar.add(saveBtn);
         toolbar.add(clearAllBtn);
@@ -312,6 +324,8 @@ public class InsertGenPanel extends JPanel {
         toolbar.add(deleteColBtn);
         toolbar.add(new JSeparator(SwingConstants.VERTICAL));
         toolbar.add(generateBtn);
+        toolbar.add(generateFromFilesBtn);
+        toolbar.add(setBasedBox);
 
         // ── Top-Panel (Preset + Toolbar) ────────────────────────────────────
         JPanel topPanel = new JPanel();
@@ -769,29 +783,117 @@ public class InsertGenPanel extends JPanel {
         for (int c = 0; c < table.getColumnCount(); c++)
             colNames.add(table.getColumnModel().getColumn(c).getHeaderValue().toString());
 
-        List<String[]> rows = getViewRows();
-
         String pk = getSelectedPk();
         String seq = sequenceField.getText().trim();
-        InsertGenService.ScriptResult result = service.buildScript(tableName, colNames, rows, pk, seq, fkSubselects);
-
-        if (result.insertCount == 0) {
-            JOptionPane.showMessageDialog(this,
-                    "Keine Daten vorhanden \u2013 Script enth\u00E4lt nur DELETE + COMMIT.",
-                    "Hinweis", JOptionPane.INFORMATION_MESSAGE);
-        }
-
         String outputDir = new AppSettings().getOutputDir();
+
+        // Zeilen direkt aus der Tabelle in die Datei – das Script entsteht nicht im Speicher
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
         try {
-            Path sqlFile = service.writeScript(result.sql, outputDir, tableName);
+            InsertGenService.ScriptFile result = service.writeScript(outputDir, tableName, colNames,
+                    viewRows(), pk, seq, fkSubselects);
+
+            if (result.insertCount == 0) {
+                JOptionPane.showMessageDialog(this,
+                        "Keine Daten vorhanden \u2013 Script enth\u00E4lt nur DELETE + COMMIT.",
+                        "Hinweis", JOptionPane.INFORMATION_MESSAGE);
+            }
             JOptionPane.showMessageDialog(this,
-                    result.insertCount + " INSERT(s) generiert.\nDatei: " + sqlFile.toAbsolutePath(),
+                    insertSummary(result.insertCount, result.statementCount) + " generiert"
+                            + (result.skippedRows > 0 ? " (" + result.skippedRows + " leere Zeile(n) \u00FCbersprungen)" : "")
+                            + ".\nDatei: " + result.file.toAbsolutePath()
+                            + String.format(" (%,d KB)", (result.bytes + 1023) / 1024),
                     "Script gespeichert", JOptionPane.INFORMATION_MESSAGE);
         } catch (IOException ex) {
             JOptionPane.showMessageDialog(this,
                     "Fehler beim Schreiben: " + ex.getMessage(),
                     "Fehler", JOptionPane.ERROR_MESSAGE);
+        } finally {
+            setCursor(Cursor.getDefaultCursor());
+        }
+    }
+
+    /** "n INSERT(s)" bzw. im Mengenmodus "n Zeile(n) in m INSERT … SELECT". */
+    private static String insertSummary(int rows, int statements) {
+        return statements < rows
+                ? rows + " Zeile(n) in " + statements + " INSERT \u2026 SELECT"
+                : rows + " INSERT(s)";
+    }
+
+    /**
+     * Erzeugt das Script direkt aus Dateien (Excel/CSV) mit der Zuordnung des gespeicherten
+     * Presets – die Daten laufen nicht durch die Tabelle.
+     */
+    private void generateFromFiles(JButton button) {
+        String presetName = (String) presetCombo.getSelectedItem();
+        if (presetName == null || "(kein Preset)".equals(presetName)) {
+            JOptionPane.showMessageDialog(this,
+                    "Bitte ein Preset w\u00E4hlen \u2013 Zieltabelle, Spalten, PK und FK-Subselects kommen aus dem Preset.",
+                    "Fehler", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        InsertGenService.PresetData preset;
+        try {
+            preset = service.loadPresetMapping(presetName);
+        } catch (IOException ex) {
+            preset = null;
+        }
+        if (preset == null) {
+            JOptionPane.showMessageDialog(this, "Preset konnte nicht geladen werden.",
+                    "Fehler", JOptionPane.ERROR_MESSAGE);
+            return;
         }
+
+        String outputDir = new AppSettings().getOutputDir();
+        JFileChooser chooser = new JFileChooser(outputDir);
+        chooser.setDialogTitle("Quelldateien f\u00FCr " + preset.tableName);
+        chooser.setMultiSelectionEnabled(true);
+        chooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter(
+                "Excel / CSV (*.xlsx, *.csv)", "xlsx", "csv"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        List<Path> sources = new ArrayList<>();
+        for (java.io.File f : chooser.getSelectedFiles()) sources.add(f.toPath());
+        if (sources.isEmpty()) return;
+
+        Path sqlFile = java.nio.file.Paths.get(outputDir, preset.tableName + ".sql");
+        InsertGenPipeline pipeline = new InsertGenPipeline(preset);
+        pipeline.setMode(service.getScriptMode());
+        List<String> messages = new ArrayList<>();
+        button.setEnabled(false);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+
+        new SwingWorker<InsertGenPipeline.Result, Void>() {
+            @Override protected InsertGenPipeline.Result doInBackground() throws Exception {
+                return pipeline.run(sources, sqlFile, messages::add);
+            }
+            @Override protected void done() {
+                button.setEnabled(true);
+                setCursor(Cursor.getDefaultCursor());
+                try {
+                    InsertGenPipeline.Result result = get();
+                    StringBuilder msg = new StringBuilder();
+                    msg.append(insertSummary(result.insertCount, result.statementCount))
+                       .append(" aus ").append(result.sourceRows)
+                       .append(" Zeile(n) generiert.\nDatei: ").append(result.sqlFile.toAbsolutePath());
+                    if (sources.size() > 1) msg.append("\n\n").append(String.join("\n", messages));
+                    if (!result.unmapped.isEmpty()) {
+                        msg.append("\n\nOhne Quellspalte (NULL):\n");
+                        result.unmapped.stream().limit(10).forEach(u -> msg.append("  ").append(u).append('\n'));
+                        if (result.unmapped.size() > 10)
+                            msg.append("  \u2026 und ").append(result.unmapped.size() - 10).append(" weitere");
+                    }
+                    JOptionPane.showMessageDialog(InsertGenPanel.this, msg.toString(),
+                            "Script gespeichert", JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(InsertGenPanel.this,
+                            "Fehler beim Generieren: " + cause.getMessage(),
+                            "Fehler", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
     }
 
     // ── Hilfsmethoden ───────────────────────────────────────────────────────
@@ -809,6 +911,26 @@ public class InsertGenPanel extends JPanel {
         return (pk != null && !"(keine)".equals(pk)) ? pk : "";
     }
 
+    /** Zeilen in View-Reihenfolge, einzeln beim Durchlaufen gelesen (ohne Kopie der Tabelle). */
+    private Iterable<String[]> viewRows() {
+        int colCount = table.getColumnCount();
+        int rowCount = table.getRowCount();
+        return () -> new java.util.Iterator<String[]>() {
+            private int r;
+            @Override public boolean hasNext() { return r < rowCount; }
+            @Override public String[] next() {
+                if (r >= rowCount) throw new java.util.NoSuchElementException();
+                String[] row = new String[colCount];
+                for (int c = 0; c < colCount; c++) {
+                    Object val = table.getValueAt(r, c);
+                    row[c] = val == null ? "" : val.toString();
+                }
+                r++;
+                return row;
+            }
+        };
+    }
+
     private List<String[]> getViewRows() {
         List<String[]> rows = new ArrayList<>();
         int colCount = table.getColumnCount();
@@ -0,0 +1,217 @@
+package com.kostenattribute;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.excelsplit.XlsxStreamReader;
+
+/**
+ * Erzeugt ein INSERT-Script direkt aus Excel- oder CSV-Dateien – ohne Umweg über
+ * Zwischenablage und Tabelle im Panel.
+ *
+ * Zieltabelle, Spalten, PK/Sequence und FK-Subselects kommen aus einem gespeicherten
+ * Preset. Die erste Zeile jeder Quelldatei ist die Kopfzeile; ihre Spalten werden über
+ * den Namen (ohne Groß-/Kleinschreibung) den Preset-Spalten zugeordnet. Preset-Spalten
+ * ohne passende Quellspalte bleiben NULL, Quellspalten ohne Preset-Spalte werden ignoriert.
+ *
+ * Quellen: .xlsx (erstes Sheet, gestreamt über {@link XlsxStreamReader}; Formeln ohne
+ * gespeichertes Ergebnis brechen mit Fehler ab, statt leere Werte einzufügen) und .csv im
+ * Format von ExcelSplit (';', Anführungszeichen). Zeilen werden einzeln gelesen und
+ * sofort als INSERT geschrieben – der Speicherbedarf ist unabhängig von der Dateigröße.
+ * Mehrere Dateien ergeben ein Script mit einem DELETE am Anfang. Mit
+ * {@link InsertScriptWriter.Mode#SET} werden die Zeilen blockweise mengenbasiert eingefügt.
+ */
+public class InsertGenPipeline {
+
+    private final InsertGenService.PresetData preset;
+    private InsertScriptWriter.Mode mode = InsertScriptWriter.Mode.ROW;
+
+    public InsertGenPipeline(InsertGenService.PresetData preset) {
+        this.preset = preset;
+    }
+
+    public void setMode(InsertScriptWriter.Mode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Schreibt das Script für alle Quelldateien nach {@code sqlFile}.
+     *
+     * @param log Fortschrittsmeldungen (je Datei)
+     */
+    public Result run(List<Path> sources, Path sqlFile, Consumer<String> log) throws IOException {
+        if (preset.tableName == null || preset.tableName.isEmpty()) {
+            throw new IOException("Preset ohne Zieltabelle.");
+        }
+        if (preset.columnNames.length == 0) {
+            throw new IOException("Preset ohne Spalten.");
+        }
+
+        Result result = new Result(sqlFile);
+        InsertGenService.writeAtomically(sqlFile, out -> {
+            InsertScriptWriter script = new InsertScriptWriter(out, preset.tableName,
+                    Arrays.asList(preset.columnNames), preset.pkColumn, preset.sequenceName, preset.fkSubselects);
+            script.setMode(mode);
+            script.begin();
+            for (Path source : sources) {
+                int before = script.getInsertCount();
+                long rows  = isExcel(source)
+                        ? readExcel(source, script, result)
+                        : readCsv(source, script, result);
+                result.sourceRows += rows;
+                log.accept(source.getFileName() + ": " + rows + " Zeile(n), "
+                        + (script.getInsertCount() - before) + " INSERT(s)");
+            }
+            script.finish();
+            result.insertCount    = script.getInsertCount();
+            result.statementCount = script.getStatementCount();
+        });
+        return result;
+    }
+
+    // -------------------------------------------------------------------------
+    // Quellen
+    // -------------------------------------------------------------------------
+
+    private long readExcel(Path source, InsertScriptWriter script, Result result) throws IOException {
+        long[] rows = { 0 };
+        RowMapper[] mapper = { null };
+        XlsxStreamReader.SheetInfo info;
+        try (XlsxStreamReader reader = new XlsxStreamReader(source)) {
+            info = reader.readRows(0, (r, cells) -> {
+                if (mapper[0] == null) {
+                    mapper[0] = mapHeader(source, cells, result);
+                    return;
+                }
+                rows[0]++;
+                script.row(mapper[0].map(cells));
+            });
+        }
+        // Ohne gespeichertes Ergebnis wären die Werte leer (NULL) – das Script wird verworfen
+        if (info.uncachedFormulas > 0) {
+            throw new IOException(source.getFileName() + ": " + info.uncachedFormulas
+                    + " Formel(n) ohne gespeichertes Ergebnis. Datei in Excel öffnen, neu berechnen und speichern.");
+        }
+        if (mapper[0] == null) throw new IOException(source.getFileName() + ": keine Kopfzeile.");
+        return rows[0];
+    }
+
+    private long readCsv(Path source, InsertScriptWriter script, Result result) throws IOException {
+        long rows = 0;
+        try (BufferedReader in = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            String header = readRecord(in);
+            if (header == null) throw new IOException(source.getFileName() + ": keine Kopfzeile.");
+            RowMapper mapper = mapHeader(source, InsertGenService.parseCsvLine(header), result);
+
+            String record;
+            while ((record = readRecord(in)) != null) {
+                if (record.isBlank()) continue;
+                rows++;
+                script.row(mapper.map(InsertGenService.parseCsvLine(record)));
+            }
+        }
+        return rows;
+    }
+
+    /** Ein CSV-Datensatz; Zeilenumbrüche innerhalb von Anführungszeichen gehören zum Wert. */
+    static String readRecord(BufferedReader in) throws IOException {
+        String line = in.readLine();
+        if (line == null) return null;
+        StringBuilder record = new StringBuilder(line);
+        while (countQuotes(record) % 2 != 0) {
+            String next = in.readLine();
+            if (next == null) break;
+            record.append('\n').append(next);
+        }
+        return record.toString();
+    }
+
+    private static int countQuotes(CharSequence s) {
+        int n = 0;
+        for (int i = 0; i < s.length(); i++) if (s.charAt(i) == '"') n++;
+        return n;
+    }
+
+    private static boolean isExcel(Path source) {
+        return source.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".xlsx");
+    }
+
+    // -------------------------------------------------------------------------
+    // Spaltenzuordnung
+    // -------------------------------------------------------------------------
+
+    private RowMapper mapHeader(Path source, String[] header, Result result) throws IOException {
+        Map<String, Integer> byName = new LinkedHashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            String name = header[i] == null ? "" : header[i].trim().toUpperCase(Locale.ROOT);
+            if (!name.isEmpty()) byName.putIfAbsent(name, i);
+        }
+
+        int[] sourceIndex = new int[preset.columnNames.length];
+        int   mapped      = 0;
+        for (int c = 0; c < preset.columnNames.length; c++) {
+            Integer idx = byName.get(preset.columnNames[c].trim().toUpperCase(Locale.ROOT));
+            sourceIndex[c] = idx != null ? idx : -1;
+            if (idx != null) {
+                mapped++;
+            } else if (!preset.columnNames[c].equals(preset.pkColumn)) {
+                result.addUnmapped(source, preset.columnNames[c]);
+            }
+        }
+        if (mapped == 0) {
+            throw new IOException(source.getFileName() + ": keine Spalte der Kopfzeile passt zum Preset.");
+        }
+        return new RowMapper(sourceIndex);
+    }
+
+    /** Ordnet die Werte einer Quellzeile den Preset-Spalten zu. */
+    private static class RowMapper {
+        private final int[]    sourceIndex;
+        private final String[] row;
+
+        RowMapper(int[] sourceIndex) {
+            this.sourceIndex = sourceIndex;
+            this.row         = new String[sourceIndex.length];
+        }
+
+        /** Wiederverwendetes Array – der Writer verarbeitet die Zeile sofort. */
+        String[] map(String[] cells) {
+            for (int c = 0; c < sourceIndex.length; c++) {
+                int i = sourceIndex[c];
+                row[c] = (i >= 0 && i < cells.length) ? cells[i] : null;
+            }
+            return row;
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Ergebnis
+    // -------------------------------------------------------------------------
+
+    public static class Result {
+        public final Path   sqlFile;
+        public long         sourceRows;
+        public int          insertCount;
+        public int          statementCount;
+        /** Preset-Spalten ohne passende Quellspalte, je Datei ("datei: SPALTE"). */
+        public final List<String> unmapped = new ArrayList<>();
+
+        Result(Path sqlFile) {
+            this.sqlFile = sqlFile;
+        }
+
+        void addUnmapped(Path source, String column) {
+            unmapped.add(source.getFileName() + ": " + column);
+        }
+    }
+}
@@ -18,6 +18,17 @@ public class InsertGenService {
 
     private static final Path PRESET_DIR = Paths.get("config/insertgen");
 
+    private InsertScriptWriter.Mode scriptMode = InsertScriptWriter.Mode.ROW;
+
+    /** ROW: ein INSERT je Zeile; SET: mengenbasierte INSERT … SELECT in Blöcken. */
+    public void setScriptMode(InsertScriptWriter.Mode scriptMode) {
+        this.scriptMode = scriptMode != null ? scriptMode : InsertScriptWriter.Mode.ROW;
+    }
+
+    public InsertScriptWriter.Mode getScriptMode() {
+        return scriptMode;
+    }
+
     // ── Preset-Verwaltung ───────────────────────────────────────────────────
 
     public List<String> listPresets() {
@@ -34,6 +45,15 @@ public class InsertGenService {
     }
 
     public PresetData loadPreset(String presetName) throws IOException {
+        return loadPreset(presetName, true);
+    }
+
+    /** Nur Zieltabelle, Spalten, PK/Sequence und FK-Subselects – ohne die gespeicherten Zeilen. */
+    public PresetData loadPresetMapping(String presetName) throws IOException {
+        return loadPreset(presetName, false);
+    }
+
+    private PresetData loadPreset(String presetName, boolean withRows) throws IOException {
         Path file = PRESET_DIR.resolve(presetName + ".csv");
         if (!Files.exists(file)) return null;
 
@@ -68,7 +88,7 @@ public class InsertGenService {
 
             String[] columnNames = parseCsvLine(headerLine);
             List<String[]> rows = new ArrayList<>();
-            while ((line = br.readLine()) != null) {
+            while (withRows && (line = br.readLine()) != null) {
                 if (line.isBlank()) continue;
                 String[] cells = parseCsvLine(line);
                 String[] row = new String[columnNames.length];
@@ -131,86 +151,71 @@ public class InsertGenService {
     public ScriptResult buildScript(String tableName, List<String> columnOrder,
                                      List<String[]> rows, String pkColumn, String sequenceName,
                                      Map<String, String> fkSubselects) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("DELETE FROM ").append(tableName).append(";\n\n");
-
-        boolean hasSequence = pkColumn != null && !pkColumn.isEmpty()
-                && sequenceName != null && !sequenceName.isEmpty();
-        int pkIndex = hasSequence ? columnOrder.indexOf(pkColumn) : -1;
+        StringWriter sw = new StringWriter();
+        InsertScriptWriter script = new InsertScriptWriter(sw, tableName, columnOrder,
+                pkColumn, sequenceName, fkSubselects);
+        script.setMode(scriptMode);
+        try {
+            script.begin();
+            for (String[] row : rows) script.row(row);
+            script.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);   // StringWriter wirft nicht
+        }
+        return new ScriptResult(sw.toString(), script.getInsertCount());
+    }
 
-        int insertCount = 0;
-        for (String[] row : rows) {
-            boolean hasContent = false;
-            for (String cell : row) {
-                if (cell != null && !cell.isBlank()) { hasContent = true; break; }
-            }
-            if (!hasContent) continue;
-
-            List<String> selectValues = new ArrayList<>();
-            List<String> whereConditions = new ArrayList<>();
-
-            for (int c = 0; c < columnOrder.size(); c++) {
-                String col = columnOrder.get(c);
-                String cell = (c < row.length) ? row[c] : null;
-                String sqlVal;
-
-                String fkSub = (fkSubselects != null) ? fkSubselects.get(col) : null;
-                if (c == pkIndex) {
-                    sqlVal = sequenceName + ".NEXTVAL";
-                } else if (fkSub != null && !fkSub.isEmpty()) {
-                    String literal;
-                    if (cell == null || cell.isBlank()) {
-                        literal = "NULL";
-                    } else {
-                        String trimmed = cell.trim();
-                        try {
-                            Double.parseDouble(trimmed);
-                            literal = trimmed;
-                        } catch (NumberFormatException e2) {
-                            literal = "'" + trimmed.replace("'", "''") + "'";
-                        }
-                    }
-                    String resolved = fkSub.replace("{WERT}", literal);
-                    sqlVal = resolved.startsWith("(") ? resolved : "(" + resolved + ")";
-                } else {
-                    sqlVal = (cell == null || cell.isBlank())
-                            ? "NULL"
-                            : "'" + cell.replace("'", "''") + "'";
-                }
+    /**
+     * Generiert das Script direkt in die Datei {@code <outputDir>/<tableName>.sql} – jedes
+     * INSERT wird sofort geschrieben, das Script liegt nie vollständig im Speicher.
+     * Geschrieben wird in eine temporäre Datei, die erst nach Erfolg das Ziel ersetzt.
+     *
+     * @param rows Zeilen in Spaltenreihenfolge; werden einmal durchlaufen
+     */
+    public ScriptFile writeScript(String outputDir, String tableName, List<String> columnOrder,
+                                  Iterable<String[]> rows, String pkColumn, String sequenceName,
+                                  Map<String, String> fkSubselects) throws IOException {
+        Path sqlFile = Paths.get(outputDir, tableName + ".sql");
+        int[] counts = new int[3];
+        writeAtomically(sqlFile, out -> {
+            InsertScriptWriter script = new InsertScriptWriter(out, tableName, columnOrder,
+                    pkColumn, sequenceName, fkSubselects);
+            script.setMode(scriptMode);
+            script.begin();
+            for (String[] row : rows) script.row(row);
+            script.finish();
+            counts[0] = script.getInsertCount();
+            counts[1] = script.getSkippedCount();
+            counts[2] = script.getStatementCount();
+        });
+        return new ScriptFile(sqlFile, counts[0], counts[1], counts[2], Files.size(sqlFile));
+    }
 
-                selectValues.add(sqlVal);
+    /** Schreibt den Inhalt eines Scripts; darf IOExceptions werfen. */
+    interface ScriptBody {
+        void write(Writer out) throws IOException;
+    }
 
-                // WHERE NOT EXISTS: PK-Spalte mit Sequence ueberspringen
-                if (c != pkIndex) {
-                    if ("NULL".equals(sqlVal)) {
-                        whereConditions.add(col + " IS NULL");
-                    } else {
-                        whereConditions.add(col + " = " + sqlVal);
-                    }
-                }
+    /**
+     * Schreibt über eine temporäre Datei im Zielverzeichnis und ersetzt das Ziel erst,
+     * wenn alles geschrieben ist – ein abgebrochener Lauf hinterlässt kein halbes Script.
+     */
+    static void writeAtomically(Path target, ScriptBody body) throws IOException {
+        Path dir = target.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                body.write(out);
             }
-
-            String colList = String.join(", ", columnOrder);
-            sb.append("INSERT INTO ").append(tableName)
-              .append(" (").append(colList).append(")\n")
-              .append("SELECT ").append(String.join(", ", selectValues)).append(" FROM DUAL\n");
-            if (!whereConditions.isEmpty()) {
-                sb.append("WHERE NOT EXISTS (SELECT 1 FROM ").append(tableName)
-                  .append(" WHERE ").append(String.join(" AND ", whereConditions))
-                  .append(")");
+            try {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
             }
-            sb.append(";\n\n");
-            insertCount++;
+        } finally {
+            Files.deleteIfExists(tmp);
         }
-        sb.append("\nCOMMIT;\n");
-        return new ScriptResult(sb.toString(), insertCount);
-    }
-
-    public Path writeScript(String sql, String outputDir, String tableName) throws IOException {
-        Path sqlFile = Paths.get(outputDir, tableName + ".sql");
-        Files.createDirectories(sqlFile.getParent());
-        Files.writeString(sqlFile, sql, StandardCharsets.UTF_8);
-        return sqlFile;
     }
 
     // ── CSV-Hilfsmethoden ───────────────────────────────────────────────────
@@ -266,6 +271,24 @@ public class InsertGenService {
         }
     }
 
+    /** Ergebnis von {@link #writeScript(String, String, List, Iterable, String, String, Map)}: nur Kennzahlen. */
+    public static class ScriptFile {
+        public final Path file;
+        public final int  insertCount;
+        public final int  skippedRows;
+        /** INSERT-Statements im Script (im Mengenmodus weniger als insertCount). */
+        public final int  statementCount;
+        public final long bytes;
+
+        ScriptFile(Path file, int insertCount, int skippedRows, int statementCount, long bytes) {
+            this.file           = file;
+            this.insertCount    = insertCount;
+            this.skippedRows    = skippedRows;
+            this.statementCount = statementCount;
+            this.bytes          = bytes;
+        }
+    }
+
     public static class ScriptResult {
         public final String sql;
         public final int    insertCount;
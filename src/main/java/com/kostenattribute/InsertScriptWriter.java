@@ -0,0 +1,350 @@
+package com.kostenattribute;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Schreibt ein INSERT-Script zeilenweise: {@link #begin()} (DELETE), je Datenzeile
+ * {@link #row(String[])}, zum Schluss {@link #finish()} (COMMIT).
+ *
+ * Jede Zeile wird sofort in den Writer geschrieben – der Speicherbedarf hängt nicht
+ * von der Zeilenzahl ab. Wird von {@link InsertGenService#buildScript} (Tabelle im
+ * Panel) und von {@link InsertGenPipeline} (Excel-/CSV-Dateien) gleichermaßen genutzt.
+ *
+ * {@link Mode#ROW}: ein INSERT … FROM DUAL WHERE NOT EXISTS je Zeile.
+ * {@link Mode#SET}: je {@value #SET_BATCH} Zeilen ein INSERT … SELECT über eine Inline-
+ * View (UNION der Zeilen) mit einem einzigen NOT EXISTS gegen die Zieltabelle. UNION
+ * entfernt doppelte Zeilen innerhalb eines Blocks – wie im Zeilenmodus, wo die zweite
+ * gleiche Zeile an der ersten scheitert. Ohne DDL (keine GTT), damit DELETE und INSERTs
+ * in einer Transaktion bleiben.
+ *
+ * FK-Subselects: Nur der Mengenmodus fasst gleiche FK-Werte zusammen, und zwar nur
+ * innerhalb eines Blocks. Jeder Block enthält je FK-Spalte eine Lookup-Liste (WITH fkN)
+ * mit den verschiedenen Werten des Blocks; der Subselect läuft einmal je Wert und Block,
+ * die Zeilen werden per Join auf den aufgelösten Schlüssel abgebildet. Kommt ein Wert in
+ * mehreren Blöcken vor, wird er in jedem Block erneut aufgelöst.
+ * Im Zeilenmodus läuft der Subselect je Zeile – gleiche Werte in verschiedenen Zeilen
+ * werden jedes Mal neu aufgelöst. Innerhalb der Zeile wird er nur einmal in einer
+ * Inline-View ausgewertet und im NOT EXISTS referenziert.
+ * Eine Auflösung für das ganze Script bräuchte eine Sammlung über alle Statements
+ * hinweg (Hilfstabelle oder ein einziger PL/SQL-Block) und vorab alle Werte – beides
+ * passt nicht zum zeilenweisen Schreiben ohne DDL.
+ */
+public class InsertScriptWriter {
+
+    /**
+     * Ausgabeform der INSERTs. FK-Subselects laufen bei ROW je Zeile, bei SET je
+     * verschiedenem Wert eines Blocks.
+     */
+    public enum Mode { ROW, SET }
+
+    /** Zeilen je mengenbasiertem Statement. */
+    public static final int SET_BATCH = 500;
+
+    private final Writer              out;
+    private final String              tableName;
+    private final List<String>        columnOrder;
+    private final Map<String, String> fkSubselects;
+    private final String              sequenceName;
+    private final int                 pkIndex;
+    private final String              colList;
+    /** Spalten mit FK-Subselect (ohne PK-Spalte), in Spaltenreihenfolge. */
+    private final List<Integer>       fkIndexes = new ArrayList<>();
+
+    private Mode mode = Mode.ROW;
+    private final List<String> batch = new ArrayList<>();
+    /** Verschiedene FK-Werte des aktuellen Blocks je FK-Spalte (null = leer). */
+    private final Map<Integer, Set<String>> batchKeys = new LinkedHashMap<>();
+
+    private int insertCount;
+    private int skippedCount;
+    private int statementCount;
+
+    public InsertScriptWriter(Writer out, String tableName, List<String> columnOrder,
+                              String pkColumn, String sequenceName, Map<String, String> fkSubselects) {
+        this.out          = out;
+        this.tableName    = tableName;
+        this.columnOrder  = columnOrder;
+        this.fkSubselects = fkSubselects;
+        this.sequenceName = sequenceName;
+
+        boolean hasSequence = pkColumn != null && !pkColumn.isEmpty()
+                && sequenceName != null && !sequenceName.isEmpty();
+        this.pkIndex = hasSequence ? columnOrder.indexOf(pkColumn) : -1;
+        this.colList = String.join(", ", columnOrder);
+        for (int c = 0; c < columnOrder.size(); c++) {
+            if (c != pkIndex && isFk(c)) fkIndexes.add(c);
+        }
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode != null ? mode : Mode.ROW;
+    }
+
+    public void begin() throws IOException {
+        out.write("DELETE FROM " + tableName + ";\n\n");
+    }
+
+    /**
+     * Schreibt das INSERT für eine Zeile (Werte in Spaltenreihenfolge).
+     *
+     * @return false, wenn die Zeile leer war und übersprungen wurde
+     */
+    public boolean row(String[] row) throws IOException {
+        boolean hasContent = false;
+        for (String cell : row) {
+            if (cell != null && !cell.isBlank()) { hasContent = true; break; }
+        }
+        if (!hasContent) {
+            skippedCount++;
+            return false;
+        }
+
+        if (mode == Mode.SET && columnOrder.size() > (pkIndex >= 0 ? 1 : 0)) {
+            stage(row);
+        } else {
+            writeRowInsert(row);
+        }
+        insertCount++;
+        return true;
+    }
+
+    public void finish() throws IOException {
+        flushBatch();
+        out.write("\nCOMMIT;\n");
+        out.flush();
+    }
+
+    /** Zeilen mit INSERT (im Mengenmodus: übernommene Zeilen, vor Duplikat-/Bestandsprüfung). */
+    public int getInsertCount() {
+        return insertCount;
+    }
+
+    /** Leere Zeilen, für die kein INSERT geschrieben wurde. */
+    public int getSkippedCount() {
+        return skippedCount;
+    }
+
+    /** Anzahl geschriebener INSERT-Statements. */
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    // ── Zeilenmodus ─────────────────────────────────────────────────────────
+
+    private void writeRowInsert(String[] row) throws IOException {
+        List<String> selectValues    = new ArrayList<>();
+        List<String> lookups         = new ArrayList<>();
+        List<String> whereConditions = new ArrayList<>();
+        for (int c = 0; c < columnOrder.size(); c++) {
+            String col    = columnOrder.get(c);
+            String sqlVal = sqlValue(c, cell(row, c));
+
+            // FK-Subselect einmal in der Inline-View r auswerten, danach nur referenzieren
+            if (fkIndexes.contains(c)) {
+                lookups.add(sqlVal + " AS " + col);
+                sqlVal = "r." + col;
+            }
+            selectValues.add(sqlVal);
+
+            // WHERE NOT EXISTS: PK-Spalte mit Sequence ueberspringen
+            if (c != pkIndex) {
+                if ("NULL".equals(sqlVal)) {
+                    whereConditions.add(col + " IS NULL");
+                } else {
+                    whereConditions.add(col + " = " + sqlVal);
+                }
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("INSERT INTO ").append(tableName)
+          .append(" (").append(colList).append(")\n")
+          .append("SELECT ").append(String.join(", ", selectValues));
+        if (lookups.isEmpty()) {
+            sb.append(" FROM DUAL\n");
+        } else {
+            sb.append(" FROM (SELECT ").append(String.join(", ", lookups)).append(" FROM DUAL) r\n");
+        }
+        if (!whereConditions.isEmpty()) {
+            sb.append("WHERE NOT EXISTS (SELECT 1 FROM ").append(tableName)
+              .append(" WHERE ").append(String.join(" AND ", whereConditions))
+              .append(")");
+        }
+        sb.append(";\n\n");
+        out.write(sb.toString());
+        statementCount++;
+    }
+
+    // ── Mengenmodus ─────────────────────────────────────────────────────────
+
+    /**
+     * Nimmt die Zeile in den aktuellen Block auf (ohne PK-Spalte – die kommt aus der
+     * Sequence). FK-Spalten werden mit ihrem Rohwert aufgenommen und erst beim Schreiben
+     * des Blocks über die Lookup-Liste aufgelöst.
+     */
+    private void stage(String[] row) throws IOException {
+        List<String> items = new ArrayList<>();
+        for (int c = 0; c < columnOrder.size(); c++) {
+            if (c == pkIndex) continue;
+            String value;
+            if (fkIndexes.contains(c)) {
+                String key = fkKey(cell(row, c));
+                batchKeys.computeIfAbsent(c, k -> new LinkedHashSet<>()).add(key);
+                value = key == null ? "NULL" : "'" + key.replace("'", "''") + "'";
+            } else {
+                value = sqlValue(c, cell(row, c));
+            }
+            // Aliase nur im ersten Zweig nötig – dort bestimmen sie die Spaltennamen der View
+            items.add(batch.isEmpty() ? value + " AS " + columnOrder.get(c) : value);
+        }
+        batch.add("SELECT " + String.join(", ", items) + " FROM DUAL");
+        if (batch.size() >= SET_BATCH) flushBatch();
+    }
+
+    private void flushBatch() throws IOException {
+        if (batch.isEmpty()) return;
+        if (fkIndexes.isEmpty()) {
+            writeSetInsert();
+        } else {
+            writeSetInsertWithLookups();
+        }
+        batch.clear();
+        batchKeys.clear();
+        statementCount++;
+    }
+
+    private void writeSetInsert() throws IOException {
+
+        List<String> outer = new ArrayList<>();
+        List<String> match = new ArrayList<>();
+        for (int c = 0; c < columnOrder.size(); c++) {
+            String col = columnOrder.get(c);
+            if (c == pkIndex) {
+                outer.add(sequenceName + ".NEXTVAL");
+            } else {
+                outer.add("q." + col);
+                match.add("(z." + col + " = q." + col + " OR (z." + col + " IS NULL AND q." + col + " IS NULL))");
+            }
+        }
+
+        out.write("INSERT INTO " + tableName + " (" + colList + ")\n");
+        out.write("SELECT " + String.join(", ", outer) + " FROM (\n");
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) out.write("UNION\n");
+            out.write(batch.get(i));
+            out.write("\n");
+        }
+        out.write(") q\n");
+        out.write("WHERE NOT EXISTS (SELECT 1 FROM " + tableName + " z WHERE "
+                + String.join("\n  AND ", match) + ");\n\n");
+    }
+
+    /**
+     * Block mit FK-Spalten: q = Rohzeilen, fkN = aufgelöste Schlüssel je verschiedenem Wert,
+     * s = Zeilen mit Schlüsseln (DISTINCT wie UNION im Block ohne FK).
+     */
+    private void writeSetInsertWithLookups() throws IOException {
+        out.write("INSERT INTO " + tableName + " (" + colList + ")\n");
+        out.write("WITH q AS (\n");
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) out.write("UNION ALL\n");
+            out.write(batch.get(i));
+            out.write("\n");
+        }
+        out.write(")");
+
+        for (int f = 0; f < fkIndexes.size(); f++) {
+            int c = fkIndexes.get(f);
+            out.write(",\nfk" + (f + 1) + " AS (\n");
+            boolean first = true;
+            for (String key : batchKeys.get(c)) {
+                if (!first) out.write("UNION ALL\n");
+                String wert = key == null ? "NULL" : "'" + key.replace("'", "''") + "'";
+                out.write("SELECT " + wert + (first ? " AS WERT, " : ", ")
+                        + sqlValue(c, key) + (first ? " AS SCHLUESSEL" : "") + " FROM DUAL\n");
+                first = false;
+            }
+            out.write(")");
+        }
+
+        List<String> inner = new ArrayList<>();
+        List<String> joins = new ArrayList<>();
+        List<String> outer = new ArrayList<>();
+        List<String> match = new ArrayList<>();
+        for (int c = 0; c < columnOrder.size(); c++) {
+            String col = columnOrder.get(c);
+            if (c == pkIndex) {
+                outer.add(sequenceName + ".NEXTVAL");
+                continue;
+            }
+            int f = fkIndexes.indexOf(c);
+            if (f >= 0) {
+                String fk = "fk" + (f + 1);
+                inner.add(fk + ".SCHLUESSEL AS " + col);
+                joins.add("LEFT JOIN " + fk + " ON (" + fk + ".WERT = q." + col
+                        + " OR (" + fk + ".WERT IS NULL AND q." + col + " IS NULL))");
+            } else {
+                inner.add("q." + col);
+            }
+            outer.add("s." + col);
+            match.add("(z." + col + " = s." + col + " OR (z." + col + " IS NULL AND s." + col + " IS NULL))");
+        }
+
+        out.write(",\ns AS (\n");
+        out.write("SELECT DISTINCT " + String.join(", ", inner) + "\n");
+        out.write("FROM q\n");
+        for (String join : joins) out.write(join + "\n");
+        out.write(")\n");
+        out.write("SELECT " + String.join(", ", outer) + " FROM s\n");
+        out.write("WHERE NOT EXISTS (SELECT 1 FROM " + tableName + " z WHERE "
+                + String.join("\n  AND ", match) + ");\n\n");
+    }
+
+    // ── Werte ───────────────────────────────────────────────────────────────
+
+    private static String cell(String[] row, int c) {
+        return (c < row.length) ? row[c] : null;
+    }
+
+    private boolean isFk(int c) {
+        String fkSub = (fkSubselects != null) ? fkSubselects.get(columnOrder.get(c)) : null;
+        return fkSub != null && !fkSub.isEmpty();
+    }
+
+    private String sqlValue(int c, String cell) {
+        if (c == pkIndex) {
+            return sequenceName + ".NEXTVAL";
+        } else if (isFk(c)) {
+            String resolved = fkSubselects.get(columnOrder.get(c)).replace("{WERT}", fkLiteral(cell));
+            return resolved.startsWith("(") ? resolved : "(" + resolved + ")";
+        } else {
+            return (cell == null || cell.isBlank())
+                    ? "NULL"
+                    : "'" + cell.replace("'", "''") + "'";
+        }
+    }
+
+    /** Schlüssel eines FK-Werts in der Lookup-Liste; null für leere Zellen (wie {@link #fkLiteral}). */
+    static String fkKey(String cell) {
+        return (cell == null || cell.isBlank()) ? null : cell.trim();
+    }
+
+    /** Wert für {WERT} im FK-Subselect: Zahlen unverändert, Text als String-Literal. */
+    static String fkLiteral(String cell) {
+        if (cell == null || cell.isBlank()) return "NULL";
+        String trimmed = cell.trim();
+        try {
+            Double.parseDouble(trimmed);
+            return trimmed;
+        } catch (NumberFormatException e) {
+            return "'" + trimmed.replace("'", "''") + "'";
+        }
+    }
+}
@@ -18,6 +18,11 @@ public class AppSettings {
     private static final String KEY_LAST_TABLE  = "last.table";
     private static final String KEY_LAST_COLUMN = "last.column";
     private static final String KEY_LAST_VALUES = "last.values";
+    private static final String KEY_CHUNK_ROWS   = "script.chunk.rows";
+    private static final String KEY_CHUNK_KB     = "script.chunk.kb";
+    private static final String KEY_CHUNK_COMMIT = "script.chunk.commit";
+    private static final String KEY_PLSQL_COLLECTIONS = "script.plsql.collections";
+    private static final String KEY_PLSQL_BULK_SEQ    = "script.plsql.bulkseq";
 
     /** Standardmäßig das Benutzer-Home-Verzeichnis (z.B. C:\Users\maddi). */
     private static final String DEFAULT_OUTPUT_DIR =
@@ -73,6 +78,56 @@ public class AppSettings {
         save();
     }
 
+    /** Maximale Datensätze pro Teil-Script (0 = keine Aufteilung nach Zeilen). */
+    public int getChunkRows() {
+        return getInt(KEY_CHUNK_ROWS);
+    }
+
+    public void setChunkRows(int rows) {
+        props.setProperty(KEY_CHUNK_ROWS, String.valueOf(rows));
+        save();
+    }
+
+    /** Maximale Größe pro Teil-Script in KB (0 = keine Aufteilung nach Größe). */
+    public int getChunkKb() {
+        return getInt(KEY_CHUNK_KB);
+    }
+
+    public void setChunkKb(int kb) {
+        props.setProperty(KEY_CHUNK_KB, String.valueOf(kb));
+        save();
+    }
+
+    /** Gibt zurück, ob am Ende jedes Teil-Scripts ein COMMIT geschrieben wird. */
+    public boolean isChunkCommit() {
+        return Boolean.parseBoolean(props.getProperty(KEY_CHUNK_COMMIT, "false"));
+    }
+
+    public void setChunkCommit(boolean commit) {
+        props.setProperty(KEY_CHUNK_COMMIT, String.valueOf(commit));
+        save();
+    }
+
+    /** Gibt zurück, ob alt→neu-Schlüssel in assoziativen Arrays statt Einzelvariablen gehalten werden. */
+    public boolean isPlSqlCollections() {
+        return Boolean.parseBoolean(props.getProperty(KEY_PLSQL_COLLECTIONS, "false"));
+    }
+
+    public void setPlSqlCollections(boolean enabled) {
+        props.setProperty(KEY_PLSQL_COLLECTIONS, String.valueOf(enabled));
+        save();
+    }
+
+    /** Gibt zurück, ob Sequence-Werte pro Tabellenabschnitt per BULK COLLECT reserviert werden. */
+    public boolean isPlSqlBulkSequences() {
+        return Boolean.parseBoolean(props.getProperty(KEY_PLSQL_BULK_SEQ, "false"));
+    }
+
+    public void setPlSqlBulkSequences(boolean enabled) {
+        props.setProperty(KEY_PLSQL_BULK_SEQ, String.valueOf(enabled));
+        save();
+    }
+
     /**
      * Setzt das Ausgabeverzeichnis und speichert es sofort in app.properties.
      */
@@ -81,6 +136,15 @@ public class AppSettings {
         save();
     }
 
+    /** Liest einen nicht-negativen Ganzzahlwert; fehlende oder ungültige Werte ergeben 0. */
+    private int getInt(String key) {
+        try {
+            return Math.max(0, Integer.parseInt(props.getProperty(key, "0").trim()));
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+
     /** Lädt die Einstellungen aus app.properties (fehlende Datei ist kein Fehler). */
     private void load() {
         File file = new File(SETTINGS_FILE);
@@ -0,0 +1,280 @@
+package com.mergegen.generator;
+
+import com.mergegen.model.ColumnInfo;
+import com.mergegen.model.ForeignKeyRelation;
+import com.mergegen.model.TableRow;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Schreibt die Datensätze eines Traversals direkt in eine Ziel-Datenbank –
+ * ohne Umweg über eine Script-Datei.
+ *
+ * Semantik wie das PL/SQL-Script des ScriptWriter:
+ *   - Sequence-gemappte PKs erhalten neue Werte; sie werden pro Tabellenabschnitt
+ *     mit einer Abfrage reserviert und in Java (alt → neu) vorgehalten
+ *   - FK-Spalten auf solche Parents erhalten den neuen Parent-Wert
+ *   - ON-Matching über die Name-Spalte (Root) bzw. den PK, optional mit UPDATE
+ *   - ohne UPDATE: wurde keine Root-Zeile eingefügt, werden keine Kinder geschrieben
+ *
+ * Statt Literale zu rendern, wird pro Statement-Form (Tabelle, Spalten, ON-Klausel)
+ * ein PreparedStatement mit Bind-Variablen angelegt; Zeilen gleicher Form werden
+ * per JDBC-Batch gesendet. Alles läuft in einer Transaktion, bei Fehlern Rollback.
+ */
+public class DirectCopyWriter {
+
+    /** Liefert die Verbindung zur Ziel-Datenbank. */
+    public interface Target {
+        Connection open() throws SQLException;
+        /** Anzeige für Log und Ergebnis (z.B. JDBC-URL). */
+        String describe();
+    }
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final Pattern DATE_LITERAL = Pattern.compile(
+        "^TO_(DATE|TIMESTAMP)\\('([^']*)'", Pattern.CASE_INSENSITIVE);
+
+    private int batchSize = BATCH_SIZE;
+
+    /** Maximale Zeilen pro JDBC-Batch. */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Kopiert die Zeilen in die Ziel-Datenbank und committed bei Erfolg.
+     *
+     * @param orderedRows  Datensätze in Einfüge-Reihenfolge (Eltern vor Kinder)
+     * @param sequenceMap  Key: TABLE.PK_COL, Value: SEQUENCE_NAME
+     * @param nameColumn   Optionale Name-Spalte der Root-Tabelle für ON-Matching
+     * @param testSuffix   Suffix an der Name-Spalte im Testmodus (leer = aus)
+     * @param fkRelations  Key: Child-Tabelle (uppercase), Value: FK-Relationen
+     * @return Anzahl gesendeter Datensätze
+     * @throws SQLException nach Rollback der Transaktion
+     */
+    public int copy(Connection conn, List<TableRow> orderedRows, String rootTable,
+                    Map<String, String> sequenceMap, String nameColumn, String testSuffix,
+                    Map<String, List<ForeignKeyRelation>> fkRelations, boolean includeUpdate,
+                    Consumer<String> logger) throws SQLException {
+        Map<String, String> seqMap = sequenceMap != null ? sequenceMap : Collections.emptyMap();
+        Map<String, Map<String, String>> fkIndex = ScriptWriter.buildFkIndex(fkRelations, seqMap);
+        boolean hasChildren = orderedRows.stream()
+            .anyMatch(r -> !r.getTableName().equalsIgnoreCase(rootTable));
+        boolean needsSkipCheck = !includeUpdate && hasChildren;
+
+        long started = System.currentTimeMillis();
+        Map<String, Object> newKeys = new HashMap<>();
+        Map<String, PreparedStatement> statements = new HashMap<>();
+        boolean autoCommit = conn.getAutoCommit();
+        boolean committed  = false;
+        conn.setAutoCommit(false);
+        try {
+            PreparedStatement pending = null;
+            int pendingRows = 0;
+            int sent        = 0;
+            int rootCount   = 0;
+            boolean rootSeen = false;
+
+            for (int start = 0; start < orderedRows.size(); ) {
+                String table = orderedRows.get(start).getTableName().toUpperCase();
+                int end = start;
+                while (end < orderedRows.size() && orderedRows.get(end).getTableName().equalsIgnoreCase(table)) end++;
+                List<TableRow> section = orderedRows.subList(start, end);
+                boolean isRoot = table.equalsIgnoreCase(rootTable);
+
+                // Wie im Script: keine Kinder, wenn die Root-Zeile(n) bereits existierten
+                if (needsSkipCheck && rootSeen && !isRoot && rootCount == 0) {
+                    logger.accept("Root-Datensatz bereits vorhanden – Kind-Datensätze werden übersprungen.");
+                    break;
+                }
+
+                reserveKeys(conn, table, section, seqMap, newKeys);
+                for (TableRow row : section) {
+                    BoundRow bound = bindRow(row, table, rootTable, nameColumn, testSuffix,
+                            seqMap, fkIndex, newKeys, includeUpdate);
+                    PreparedStatement ps = statements.get(bound.sql);
+                    if (ps == null) {
+                        ps = conn.prepareStatement(bound.sql);
+                        statements.put(bound.sql, ps);
+                    }
+                    bound.applyTo(ps);
+                    if (isRoot && needsSkipCheck) {
+                        // Root einzeln ausführen: die Zeilenzahl entscheidet über die Kinder
+                        if (pending != null) pendingRows = flush(pending, pendingRows);
+                        rootCount += ps.executeUpdate();
+                    } else {
+                        if (pending != null && pending != ps) pendingRows = flush(pending, pendingRows);
+                        ps.addBatch();
+                        pending = ps;
+                        if (++pendingRows >= batchSize) pendingRows = flush(pending, pendingRows);
+                    }
+                    sent++;
+                }
+                if (pending != null) pendingRows = flush(pending, pendingRows);
+                rootSeen |= isRoot;
+                logger.accept(table + ": " + section.size() + " Datensatz" + (section.size() != 1 ? "e" : ""));
+                start = end;
+            }
+
+            conn.commit();
+            committed = true;
+            logger.accept("Direktkopie: " + sent + " Datensatz/-sätze in "
+                    + (System.currentTimeMillis() - started) + " ms, " + statements.size() + " Statement-Form(en). Commit.");
+            return sent;
+        } finally {
+            for (PreparedStatement ps : statements.values()) {
+                try { ps.close(); } catch (SQLException ignored) {}
+            }
+            // Bei jedem Abbruch (auch RuntimeException) zurückrollen, bevor setAutoCommit(true)
+            // die halbe Kopie implizit committen würde
+            if (!committed) {
+                try { conn.rollback(); } catch (SQLException ignored) {}
+            }
+            try { conn.setAutoCommit(autoCommit); } catch (SQLException ignored) {}
+        }
+    }
+
+    private static int flush(PreparedStatement ps, int rows) throws SQLException {
+        if (rows > 0) ps.executeBatch();
+        return 0;
+    }
+
+    /**
+     * Reserviert für alle neuen sequence-gemappten PKs des Abschnitts die Werte
+     * mit einer Abfrage je Sequence und legt sie unter "TABLE.PKCOL#altWert" ab.
+     */
+    private void reserveKeys(Connection conn, String table, List<TableRow> section,
+                             Map<String, String> seqMap, Map<String, Object> newKeys) throws SQLException {
+        Map<String, List<String>> bySeq = new LinkedHashMap<>();
+        Set<String> planned = new HashSet<>();
+        for (TableRow row : section) {
+            for (ColumnInfo col : row.getColumns().values()) {
+                if (!col.isPrimaryKey()) continue;
+                String seqName = seqMap.get(table + "." + col.getName());
+                if (seqName == null || seqName.isEmpty()) continue;
+                String mapKey = table + "." + col.getName() + "#" + row.getValues().get(col.getName());
+                if (newKeys.containsKey(mapKey) || !planned.add(mapKey)) continue;
+                bySeq.computeIfAbsent(seqName.toUpperCase(), k -> new ArrayList<>()).add(mapKey);
+            }
+        }
+        for (Map.Entry<String, List<String>> e : bySeq.entrySet()) {
+            List<String> keys = e.getValue();
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT " + e.getKey() + ".NEXTVAL FROM DUAL CONNECT BY LEVEL <= ?")) {
+                ps.setInt(1, keys.size());
+                try (ResultSet rs = ps.executeQuery()) {
+                    int i = 0;
+                    while (rs.next() && i < keys.size()) newKeys.put(keys.get(i++), rs.getBigDecimal(1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Baut das MERGE mit Bind-Variablen für eine Zeile. Zeilen derselben Tabelle mit
+     * gleichen Spalten und gleichen Ersetzungen ergeben denselben SQL-Text.
+     */
+    BoundRow bindRow(TableRow row, String table, String rootTable, String nameColumn, String testSuffix,
+                     Map<String, String> seqMap, Map<String, Map<String, String>> fkIndex,
+                     Map<String, Object> newKeys, boolean includeUpdate) {
+        Map<String, String> tableFks = fkIndex.getOrDefault(table, Collections.emptyMap());
+        boolean isRoot = table.equalsIgnoreCase(rootTable);
+        boolean useNameColumn = isRoot && nameColumn != null && !nameColumn.isEmpty();
+        boolean applySuffix = useNameColumn && testSuffix != null && !testSuffix.isEmpty();
+
+        BoundRow bound = new BoundRow();
+        List<String> selectItems = new ArrayList<>();
+        List<String> updateCols  = new ArrayList<>();
+        List<String> pkCols      = new ArrayList<>();
+
+        for (ColumnInfo col : row.getColumns().values()) {
+            String name    = col.getName();
+            String literal = row.getValues().get(name);
+
+            // Neuer Schlüssel: eigener Sequence-PK oder FK auf einen sequence-gemappten Parent
+            String mapKey = col.isPrimaryKey()
+                ? table + "." + name + "#" + literal
+                : tableFks.containsKey(name.toUpperCase()) ? tableFks.get(name.toUpperCase()) + "#" + literal : null;
+            boolean remapped = mapKey != null && newKeys.containsKey(mapKey);
+            String  seqName  = seqMap.get(table + "." + name);
+
+            if (remapped) {
+                selectItems.add("? AS " + name);
+                bound.values.add(newKeys.get(mapKey));
+            } else if (seqName != null && !seqName.isEmpty()) {
+                selectItems.add(seqName + ".NEXTVAL AS " + name);
+            } else {
+                Object value = toBindValue(literal);
+                if (applySuffix && name.equalsIgnoreCase(nameColumn) && value instanceof String
+                        && literal.startsWith("'")) {
+                    value = value + testSuffix;
+                }
+                selectItems.add("? AS " + name);
+                bound.values.add(value);
+            }
+
+            if (col.isPrimaryKey()) pkCols.add(name);
+            else if (!remapped && (seqName == null || seqName.isEmpty())) updateCols.add(name);
+        }
+
+        StringBuilder sql = new StringBuilder();
+        sql.append("MERGE INTO ").append(table).append(" tgt USING (SELECT ")
+           .append(String.join(", ", selectItems)).append(" FROM DUAL) src ON (");
+        if (useNameColumn) {
+            sql.append("tgt.").append(nameColumn).append(" = src.").append(nameColumn);
+        } else if (pkCols.isEmpty()) {
+            sql.append("1=0");
+        } else {
+            sql.append(pkCols.stream().map(pk -> "tgt." + pk + " = src." + pk).collect(Collectors.joining(" AND ")));
+        }
+        sql.append(")");
+        if (includeUpdate && !updateCols.isEmpty()) {
+            sql.append(" WHEN MATCHED THEN UPDATE SET ")
+               .append(updateCols.stream().map(c -> "tgt." + c + " = src." + c).collect(Collectors.joining(", ")));
+        }
+        Set<String> cols = row.getColumns().keySet();
+        sql.append(" WHEN NOT MATCHED THEN INSERT (").append(String.join(", ", cols)).append(") VALUES (")
+           .append(cols.stream().map(c -> "src." + c).collect(Collectors.joining(", "))).append(")");
+        bound.sql = sql.toString();
+        return bound;
+    }
+
+    /**
+     * Wandelt ein SQL-Literal aus dem SchemaAnalyzer zurück in einen Bind-Wert:
+     * Zahl → BigDecimal, 'Text' → String, TO_DATE/TO_TIMESTAMP → Timestamp, NULL → null.
+     */
+    static Object toBindValue(String literal) {
+        if (literal == null || literal.startsWith("NULL")) return null;
+        if (literal.startsWith("'") && literal.endsWith("'") && literal.length() >= 2) {
+            return literal.substring(1, literal.length() - 1).replace("''", "'");
+        }
+        Matcher date = DATE_LITERAL.matcher(literal);
+        if (date.find()) return Timestamp.valueOf(date.group(2));
+        try {
+            return new BigDecimal(literal);
+        } catch (NumberFormatException e) {
+            return literal;
+        }
+    }
+
+    /** SQL-Text einer Zeile mit den zugehörigen Bind-Werten in Reihenfolge. */
+    static class BoundRow {
+        String sql;
+        final List<Object> values = new ArrayList<>();
+
+        void applyTo(PreparedStatement ps) throws SQLException {
+            for (int i = 0; i < values.size(); i++) {
+                Object v = values.get(i);
+                if (v == null) ps.setNull(i + 1, Types.VARCHAR);
+                else           ps.setObject(i + 1, v);
+            }
+        }
+    }
+}
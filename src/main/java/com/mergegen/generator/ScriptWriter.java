@@ -4,10 +4,14 @@ import com.mergegen.model.ColumnInfo;
 import com.mergegen.model.ForeignKeyRelation;
 import com.mergegen.model.TableRow;
 
+import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -19,11 +23,108 @@ import java.util.*;
  *   - Ohne Sequences (sequenceMap leer): isolierte MERGE-Statements (bisheriges Format)
  *   - Mit Sequences: PL/SQL-Block (DECLARE / BEGIN / END) mit Variablen für NEXTVAL-Werte,
  *     damit FK-Spalten in Child-Tabellen den neuen PK-Wert korrekt referenzieren.
+ *
+ * Optional kann die Ausgabe in nummerierte Teil-Scripts aufgeteilt werden
+ * (MERGE_<ROOT>_001.sql, _002, ...), siehe {@link #setChunking(int, long, boolean)}.
+ * Im PL/SQL-Modus wird dann jeder Teil zu einem eigenen, kleinen Block; neue
+ * Sequence-Werte, die ein späterer Teil für FK-Spalten braucht, werden über die
+ * Hilfstabelle {@value #KEY_MAP_TABLE} weitergereicht. Sie ist eine normale Tabelle
+ * (Einträge je Serie MERGE_&lt;ROOT&gt;), damit ein späterer Teil auch in einer neuen
+ * Session – Fortsetzung nach Abbruch, übersprungener Teil 1 – die Schlüssel findet.
+ * Fehlt ein Schlüssel, bricht der Teil mit ORA-20001 ab statt Zeilen auszulassen.
+ * Die Einträge bleiben nach dem Lauf stehen; Teil 1 löscht die seiner Serie, bevor er
+ * sie neu ablegt.
+ * Die Tabelle wird nicht im Script angelegt (DDL würde mitten im Lauf implizit
+ * committen): die Script-Ausführung legt sie vor dem ersten Script an
+ * ({@link #needsKeyMap}), Teil 1 prüft nur ihr Vorhandensein (ORA-20002).
+ *
+ * COMMIT je Teil ({@code commitPerChunk}) steht in beiden Modi als eigenes Statement
+ * hinter dem Teil und wirkt bei Ausführung in SQL*Plus/SQL Developer. Die
+ * Script-Ausführung überspringt solche COMMITs und committed selbst (am Ende bzw.
+ * an ihren Checkpoints) – ihre Transaktions- und Fortsetzungsgarantien bleiben so
+ * unabhängig vom Ausgabemodus.
+ *
+ * Für große Datenmengen können die alt→neu-Schlüssel statt in je einer Variable pro
+ * Datensatz in assoziativen Arrays gehalten werden (eins pro Tabelle/PK-Spalte, indiziert
+ * über den alten Schlüssel), siehe {@link #setCollectionMapping(boolean)}. Die neuen
+ * Sequence-Werte lassen sich außerdem pro Tabellenabschnitt in einem einzigen
+ * BULK COLLECT reservieren, siehe {@link #setBulkSequences(boolean)}.
  */
 public class ScriptWriter {
 
+    /** Tabelle für alt→neu-Schlüssel zwischen Teil-Scripts (je Serie, transaktional mit den Daten). */
+    public static final String KEY_MAP_TABLE = "MIGTOOL_KEY_MAP";
+    /** DDL der Key-Map; SERIES = MERGE_&lt;ROOT&gt;, MAP_KEY = "TABLE.PKCOL#altWert". */
+    public static final String KEY_MAP_DDL = "CREATE TABLE " + KEY_MAP_TABLE + " ("
+            + "SERIES VARCHAR2(128) NOT NULL, MAP_KEY VARCHAR2(400) NOT NULL, NEW_ID VARCHAR2(200), "
+            + "CONSTRAINT PK_" + KEY_MAP_TABLE + " PRIMARY KEY (SERIES, MAP_KEY))";
+    /** Reservierter Schlüssel in der Key-Map für den kumulierten Root-Zähler (Skip-Check). */
+    private static final String ROOT_COUNT_KEY = "#ROOT_COUNT";
+    /** Typ und Variable für die per BULK COLLECT reservierten Sequence-Werte. */
+    private static final String BULK_IDS_TYPE = "t_seq_ids";
+    private static final String BULK_IDS_VAR  = "l_seq_ids";
+
     private final MergeScriptGenerator mergeGenerator = new MergeScriptGenerator();
 
+    // Aufteilung in Teil-Scripts (0 = keine Grenze)
+    private int     chunkMaxRows   = 0;
+    private long    chunkMaxBytes  = 0;
+    private boolean commitPerChunk = false;
+
+    /** alt→neu-Schlüssel in assoziativen Arrays statt in Einzelvariablen. */
+    private boolean collectionMapping = false;
+    /** Sequence-Werte pro Tabellenabschnitt gesammelt per BULK COLLECT holen. */
+    private boolean bulkSequences = false;
+
+    /** Alle Dateien des letzten write()-Aufrufs in Schreibreihenfolge. */
+    private final List<String> writtenFiles = new ArrayList<>();
+
+    /**
+     * Aktiviert die Aufteilung der Ausgabe in Teil-Scripts.
+     * Ein neuer Teil beginnt, sobald maxRows Datensätze oder ca. maxBytes Zeichen
+     * erreicht sind. Sind beide Werte 0, wird wie bisher eine einzige Datei erzeugt.
+     *
+     * @param maxRows        maximale Datensätze pro Teil (0 = unbegrenzt)
+     * @param maxBytes       maximale Größe pro Teil in Zeichen (0 = unbegrenzt)
+     * @param commitPerChunk wenn true, folgt jedem Teil ein COMMIT (nur bei manueller
+     *                       Ausführung wirksam, siehe Klassenbeschreibung)
+     */
+    public void setChunking(int maxRows, long maxBytes, boolean commitPerChunk) {
+        this.chunkMaxRows   = Math.max(0, maxRows);
+        this.chunkMaxBytes  = Math.max(0, maxBytes);
+        this.commitPerChunk = commitPerChunk;
+    }
+
+    /**
+     * Schaltet die Ablage der neuen Sequence-Werte auf assoziative Arrays um.
+     * Statt v_ID_1 … v_ID_20000 wird pro Tabelle/PK-Spalte ein
+     * {@code TABLE OF … INDEX BY VARCHAR2} deklariert und über den alten Schlüssel
+     * angesprochen (z.B. {@code m_ID_1('4711')}). Der DECLARE-Teil bleibt damit
+     * unabhängig von der Zeilenzahl klein.
+     */
+    public void setCollectionMapping(boolean enabled) {
+        this.collectionMapping = enabled;
+    }
+
+    /**
+     * Holt die Sequence-Werte eines Tabellenabschnitts in einem Statement
+     * ({@code SELECT seq.NEXTVAL BULK COLLECT … CONNECT BY LEVEL <= n}) statt mit
+     * einem {@code SELECT … INTO … FROM DUAL} pro Datensatz. Die Werte werden danach
+     * rein PL/SQL-seitig den Variablen bzw. Array-Elementen zugewiesen.
+     */
+    public void setBulkSequences(boolean enabled) {
+        this.bulkSequences = enabled;
+    }
+
+    /** Gibt die beim letzten write()-Aufruf erzeugten Dateien zurück (bei Aufteilung mehrere). */
+    public List<String> getWrittenFiles() {
+        return Collections.unmodifiableList(writtenFiles);
+    }
+
+    private boolean isChunked() {
+        return chunkMaxRows > 0 || chunkMaxBytes > 0;
+    }
+
     /**
      * Schreibt alle MERGE-Statements in eine .sql-Datei.
      *
@@ -37,7 +138,7 @@ public class ScriptWriter {
      * @param testSuffix     Timestamp-Suffix im Testmodus (leer = kein Testmodus)
      * @param fkRelations    Key: Child-Tabellenname (uppercase), Value: FK-Relationen für diese Tabelle
      * @param includeUpdate  Wenn true, wird WHEN MATCHED THEN UPDATE SET erzeugt
-     * @return Dateipfad der erstellten .sql-Datei
+     * @return Dateipfad der erstellten .sql-Datei (bei Aufteilung: erster Teil)
      */
     public String write(List<TableRow> orderedRows,
                         Map<String, Integer> tableCounts,
@@ -62,18 +163,34 @@ public class ScriptWriter {
             for (File f : oldFiles) f.delete();
         }
 
-        File outputFile = new File(tableDir, filename);
+        writtenFiles.clear();
         boolean hasChildren = orderedRows.stream()
             .anyMatch(r -> !r.getTableName().equalsIgnoreCase(rootTable));
         boolean needsSkipCheck = !includeUpdate && hasChildren;
         boolean usePlSql = (sequenceMap != null && !sequenceMap.isEmpty()) || needsSkipCheck;
+        Map<String, Map<String, String>> fkIndex = usePlSql
+            ? buildFkIndex(fkRelations, sequenceMap) : Collections.emptyMap();
 
+        if (isChunked()) {
+            ChunkContext ctx = new ChunkContext(tableDir, rootTable, rootIds, tableCounts, timestamp);
+            if (usePlSql) {
+                writePlSqlChunks(ctx, orderedRows, rootTable, nameColumn, testSuffix, sequenceMap,
+                        fkIndex, includeUpdate);
+            } else {
+                writePlainChunks(ctx, orderedRows, rootTable, nameColumn, testSuffix, sequenceMap, includeUpdate);
+            }
+            System.out.println("Scripts erstellt: " + writtenFiles.size() + " Teil(e) in " + tableDir.getAbsolutePath());
+            System.out.println("Gesamt: " + orderedRows.size() + " MERGE-Statement(s) in " + tableCounts.size() + " Tabelle(n)");
+            return writtenFiles.isEmpty() ? null : writtenFiles.get(0);
+        }
+
+        File outputFile = new File(tableDir, filename);
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(outputFile))) {
             writeHeader(writer, rootTable, rootIds, tableCounts, timestamp);
 
             if (usePlSql) {
                 writePlSqlBlock(writer, orderedRows, tableCounts, rootTable, nameColumn,
-                        testSuffix, sequenceMap, fkRelations != null ? fkRelations : new HashMap<>(), includeUpdate);
+                        testSuffix, sequenceMap, fkIndex, includeUpdate);
             } else {
                 writePlainStatements(writer, orderedRows, tableCounts, rootTable, nameColumn, testSuffix, sequenceMap, includeUpdate);
             }
@@ -81,6 +198,7 @@ public class ScriptWriter {
             writer.write("\n-- Ende des generierten Scripts\n");
         }
 
+        writtenFiles.add(outputFile.getAbsolutePath());
         System.out.println("Script erstellt: " + outputFile.getAbsolutePath());
         System.out.println("Gesamt: " + orderedRows.size() + " MERGE-Statement(s) in " + tableCounts.size() + " Tabelle(n)");
         return outputFile.getAbsolutePath();
@@ -116,41 +234,11 @@ public class ScriptWriter {
                                  Map<String, Integer> tableCounts,
                                  String rootTable, String nameColumn, String testSuffix,
                                  Map<String, String> sequenceMap,
-                                 Map<String, List<ForeignKeyRelation>> fkRelations,
+                                 Map<String, Map<String, String>> fkIndex,
                                  boolean includeUpdate) throws IOException {
 
         // ── Phase 1: varMap aufbauen ───────────────────────────────────────────
-        // varMap:  "TABLE.PKCOL#altWert" → Variablenname
-        // varSeq:  Variablenname → Sequence-Name
-        // varType: Variablenname → Oracle-Typ ("NUMBER" oder "VARCHAR2(200)")
-        Map<String, String> varMap  = new LinkedHashMap<>();
-        Map<String, String> varSeq  = new LinkedHashMap<>();
-        Map<String, String> varType = new LinkedHashMap<>();
-        // Counter pro "TABLE.PKCOL" für eindeutige Variablennamen
-        Map<String, Integer> varCounter = new HashMap<>();
-
-        for (TableRow row : orderedRows) {
-            String table = row.getTableName().toUpperCase();
-            for (ColumnInfo col : row.getColumns().values()) {
-                if (!col.isPrimaryKey()) continue;
-                String seqKey = table + "." + col.getName();
-                String seqName = sequenceMap.get(seqKey);
-                if (seqName == null || seqName.isEmpty()) continue;
-
-                String altWert = row.getValues().get(col.getName());
-                String mapKey  = table + "." + col.getName() + "#" + altWert;
-                if (varMap.containsKey(mapKey)) continue; // dieselbe Zeile nicht doppelt
-
-                int n = varCounter.merge(col.getName(), 1, Integer::sum);
-                String varName = buildVarName(col.getName(), n);
-
-                varMap.put(mapKey, varName);
-                varSeq.put(varName, seqName.toUpperCase());
-                // Typ: Zahlenliteral (kein ' am Anfang) → NUMBER, sonst VARCHAR2
-                boolean isNumber = altWert != null && !altWert.startsWith("'");
-                varType.put(varName, isNumber ? "NUMBER" : "VARCHAR2(200)");
-            }
-        }
+        VarPlan plan = buildVarPlan(orderedRows, sequenceMap);
 
         // ── Phase 2: DECLARE-Block ─────────────────────────────────────────────
         boolean hasChildren = orderedRows.stream()
@@ -161,19 +249,26 @@ public class ScriptWriter {
         if (needsSkipCheck) {
             writer.write("  v_root_count NUMBER := 0;\n");
         }
-        for (Map.Entry<String, String> e : varType.entrySet()) {
-            writer.write("  " + e.getKey() + " " + e.getValue() + ";\n");
-        }
+        writer.write(renderDeclarations(plan, plan.varType.keySet()));
         writer.write("BEGIN\n");
 
         // ── Phase 3: MERGE-Statements mit Variablen ────────────────────────────
+        // Zeilen eines Tabellenabschnitts werden gepuffert, damit die Bulk-Reservierung
+        // der Sequence-Werte davor geschrieben werden kann.
         String currentTable = null;
         boolean rootCheckWritten = false;
+        StringBuilder section     = new StringBuilder();
+        List<String>  sectionVars = new ArrayList<>();
         for (TableRow row : orderedRows) {
             String table = row.getTableName().toUpperCase();
 
             // Abschnitts-Kommentar bei Tabellenwechsel
             if (!table.equals(currentTable)) {
+                writer.write(renderBulkReservation(sectionVars, plan));
+                writer.write(section.toString());
+                section.setLength(0);
+                sectionVars.clear();
+
                 // Beim Verlassen der Root-Tabelle: Skip-Check einfügen
                 if (needsSkipCheck && !rootCheckWritten
                         && currentTable != null
@@ -193,34 +288,478 @@ public class ScriptWriter {
             }
 
             // colVarSubstitutions für DIESE Zeile aufbauen
-            Map<String, String> colVarSubs = buildColVarSubstitutions(row, table, sequenceMap, varMap, fkRelations);
+            Map<String, String> colVarSubs = buildColVarSubstitutions(row, table, plan.varMap, fkIndex);
+            section.append(renderPlSqlRow(row, table, rootTable, nameColumn, testSuffix,
+                    sequenceMap, colVarSubs, plan, includeUpdate, needsSkipCheck));
+            sectionVars.addAll(ownSequenceVars(row, colVarSubs, plan));
+        }
+        writer.write(renderBulkReservation(sectionVars, plan));
+        writer.write(section.toString());
+
+        // ── Phase 4: END; ──────────────────────────────────────────────────────
+        writer.write("\nEND;\n/\n");
+    }
 
-            // NEXTVAL-Statement vor dem MERGE (nur wenn diese Zeile eigene sequence-PK hat)
+    /**
+     * Ermittelt für alle Zeilen mit sequence-gemapptem PK die PL/SQL-Variable:
+     *   varMap:  "TABLE.PKCOL#altWert" → Variablenname
+     *   varSeq:  Variablenname → Sequence-Name
+     *   varType: Variablenname → Oracle-Typ ("NUMBER" oder "VARCHAR2(200)")
+     *
+     * Im Collection-Modus ist der "Variablenname" ein Array-Element wie
+     * m_ID_1('4711'); varColl/collType beschreiben dann die zu deklarierenden Arrays.
+     */
+    private VarPlan buildVarPlan(List<TableRow> orderedRows, Map<String, String> sequenceMap) {
+        VarPlan plan = new VarPlan();
+        // Counter pro "TABLE.PKCOL" für eindeutige Variablennamen
+        Map<String, Integer> varCounter = new HashMap<>();
+        // Collection-Modus: ein Array pro "TABLE.PKCOL"
+        Map<String, String> collBySeqKey = new HashMap<>();
+
+        for (TableRow row : orderedRows) {
+            String table = row.getTableName().toUpperCase();
             for (ColumnInfo col : row.getColumns().values()) {
                 if (!col.isPrimaryKey()) continue;
-                String varName = colVarSubs.get(col.getName());
+                String seqKey = table + "." + col.getName();
+                String seqName = sequenceMap.get(seqKey);
+                if (seqName == null || seqName.isEmpty()) continue;
+
+                String altWert = row.getValues().get(col.getName());
+                String mapKey  = table + "." + col.getName() + "#" + altWert;
+                if (plan.varMap.containsKey(mapKey)) continue; // dieselbe Zeile nicht doppelt
+
+                // Typ: Zahlenliteral (kein ' am Anfang) → NUMBER, sonst VARCHAR2
+                boolean isNumber = altWert != null && !altWert.startsWith("'");
+                String  type     = isNumber ? "NUMBER" : "VARCHAR2(200)";
+
+                String varName;
+                if (collectionMapping) {
+                    String collName = collBySeqKey.get(seqKey);
+                    if (collName == null) {
+                        int n = varCounter.merge(col.getName(), 1, Integer::sum);
+                        collName = buildCollectionName(col.getName(), n);
+                        collBySeqKey.put(seqKey, collName);
+                        plan.collType.put(collName, type);
+                    }
+                    // Index immer als VARCHAR2-Literal: Zahlen quoten, Strings sind bereits Literale
+                    String index = (altWert != null && altWert.startsWith("'")) ? altWert : quote(String.valueOf(altWert));
+                    varName = collName + "(" + index + ")";
+                    plan.varColl.put(varName, collName);
+                } else {
+                    int n = varCounter.merge(col.getName(), 1, Integer::sum);
+                    varName = buildVarName(col.getName(), n);
+                }
+
+                plan.varMap.put(mapKey, varName);
+                plan.varKey.put(varName, mapKey);
+                plan.varSeq.put(varName, seqName.toUpperCase());
+                plan.varType.put(varName, type);
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Erzeugt die DECLARE-Einträge für die übergebenen Variablen: im Einzelvariablen-Modus
+     * je eine Zeile, im Collection-Modus Typ und Array für jede betroffene Tabelle/PK-Spalte.
+     */
+    private String renderDeclarations(VarPlan plan, Set<String> vars) {
+        StringBuilder sb = new StringBuilder();
+        if (bulkSequences && vars.stream().anyMatch(plan.varSeq::containsKey)) {
+            sb.append("  TYPE ").append(BULK_IDS_TYPE).append(" IS TABLE OF NUMBER;\n");
+            sb.append("  ").append(BULK_IDS_VAR).append(" ").append(BULK_IDS_TYPE).append(";\n");
+        }
+        if (!plan.collType.isEmpty()) {
+            Set<String> colls = new HashSet<>();
+            for (String var : vars) colls.add(plan.varColl.get(var));
+            for (Map.Entry<String, String> e : plan.collType.entrySet()) {
+                if (!colls.contains(e.getKey())) continue;
+                String typeName = "t_" + e.getKey();
+                sb.append("  TYPE ").append(typeName).append(" IS TABLE OF ").append(e.getValue())
+                  .append(" INDEX BY VARCHAR2(200);\n");
+                sb.append("  ").append(e.getKey()).append(" ").append(typeName).append(";\n");
+            }
+            return sb.toString();
+        }
+        for (Map.Entry<String, String> e : plan.varType.entrySet()) {
+            if (vars.contains(e.getKey())) {
+                sb.append("  ").append(e.getKey()).append(" ").append(e.getValue()).append(";\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Erzeugt den PL/SQL-Körper für eine Zeile: NEXTVAL-Zuweisung (falls eigener
+     * Sequence-PK), das eingerückte MERGE und ggf. die Root-Zähler-Akkumulation.
+     */
+    private String renderPlSqlRow(TableRow row, String table,
+                                  String rootTable, String nameColumn, String testSuffix,
+                                  Map<String, String> sequenceMap,
+                                  Map<String, String> colVarSubs,
+                                  VarPlan plan, boolean includeUpdate, boolean needsSkipCheck) {
+        StringBuilder sb = new StringBuilder();
+
+        // NEXTVAL-Statement vor dem MERGE (nur wenn diese Zeile eigene sequence-PK hat;
+        // im Bulk-Modus übernimmt das renderBulkReservation für den ganzen Abschnitt)
+        if (!bulkSequences) {
+            for (String varName : ownSequenceVars(row, colVarSubs, plan)) {
+                sb.append("\n  SELECT ").append(plan.varSeq.get(varName))
+                  .append(".NEXTVAL INTO ").append(varName).append(" FROM DUAL;\n");
+            }
+        }
+
+        // MERGE-Statement (eingerückt für PL/SQL-Körper)
+        sb.append("\n");
+        String mergeStmt = mergeGenerator.generate(row, sequenceMap, rootTable, nameColumn, testSuffix, colVarSubs, includeUpdate);
+        // Jede Zeile des MERGE um 2 Spaces einrücken
+        for (String line : mergeStmt.split("\n", -1)) {
+            sb.append("  ").append(line).append("\n");
+        }
+
+        // Nach Root-MERGE: SQL%ROWCOUNT akkumulieren
+        if (needsSkipCheck && table.equalsIgnoreCase(rootTable)) {
+            sb.append("  v_root_count := v_root_count + SQL%ROWCOUNT;\n");
+        }
+        return sb.toString();
+    }
+
+    /** Variablen der eigenen sequence-gemappten PK-Spalten einer Zeile. */
+    private List<String> ownSequenceVars(TableRow row, Map<String, String> colVarSubs, VarPlan plan) {
+        List<String> vars = new ArrayList<>();
+        for (ColumnInfo col : row.getColumns().values()) {
+            if (!col.isPrimaryKey()) continue;
+            String varName = colVarSubs.get(col.getName());
+            if (varName != null && plan.varSeq.containsKey(varName)) vars.add(varName);
+        }
+        return vars;
+    }
+
+    /**
+     * Bulk-Modus: reserviert die Sequence-Werte für die übergebenen Variablen mit einem
+     * BULK COLLECT je Sequence und verteilt sie anschließend auf die Variablen.
+     * Liefert einen leeren String, wenn der Bulk-Modus aus ist oder nichts zu reservieren ist.
+     */
+    private String renderBulkReservation(List<String> vars, VarPlan plan) {
+        if (!bulkSequences || vars.isEmpty()) return "";
+        Map<String, List<String>> bySeq = new LinkedHashMap<>();
+        for (String var : vars) {
+            bySeq.computeIfAbsent(plan.varSeq.get(var), k -> new ArrayList<>()).add(var);
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, List<String>> e : bySeq.entrySet()) {
+            List<String> seqVars = e.getValue();
+            sb.append("\n  SELECT ").append(e.getKey()).append(".NEXTVAL BULK COLLECT INTO ").append(BULK_IDS_VAR)
+              .append(" FROM DUAL CONNECT BY LEVEL <= ").append(seqVars.size()).append(";\n");
+            for (int i = 0; i < seqVars.size(); i++) {
+                sb.append("  ").append(seqVars.get(i)).append(" := ").append(BULK_IDS_VAR)
+                  .append("(").append(i + 1).append(");\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    // Aufteilung in Teil-Scripts
+    // ─────────────────────────────────────────────────────────────────────────
+
+    /** Plain-Modus aufgeteilt: jeder Teil enthält eine Folge isolierter MERGE-Statements. */
+    private void writePlainChunks(ChunkContext ctx,
+                                  List<TableRow> orderedRows,
+                                  String rootTable, String nameColumn, String testSuffix,
+                                  Map<String, String> sequenceMap,
+                                  boolean includeUpdate) throws IOException {
+        StringBuilder body = new StringBuilder();
+        int rowsInChunk = 0;
+        String currentTable = null;
+
+        for (TableRow row : orderedRows) {
+            String stmt = mergeGenerator.generate(row, sequenceMap, rootTable, nameColumn, testSuffix, null, includeUpdate) + "\n";
+            if (rowsInChunk > 0 && chunkFull(rowsInChunk, body.length() + stmt.length())) {
+                flushPlainChunk(ctx, body);
+                body.setLength(0);
+                rowsInChunk  = 0;
+                currentTable = null;
+            }
+            if (!row.getTableName().equals(currentTable)) {
+                currentTable = row.getTableName();
+                StringBuilder header = new StringBuilder();
+                appendTableHeader(header, "", currentTable, ctx.tableCounts.getOrDefault(currentTable, 0));
+                body.append(header).append("\n");
+            }
+            body.append(stmt);
+            rowsInChunk++;
+        }
+        if (rowsInChunk > 0) flushPlainChunk(ctx, body);
+    }
+
+    private void flushPlainChunk(ChunkContext ctx, CharSequence body) throws IOException {
+        try (BufferedWriter writer = ctx.openNext()) {
+            writer.write(body.toString());
+            writeChunkCommit(writer);
+            writer.write("\n-- Ende Teil " + ctx.chunkNo + "\n");
+        }
+    }
+
+    /**
+     * PL/SQL-Modus aufgeteilt: jeder Teil ist ein eigener Block, der nur die Variablen
+     * der eigenen Zeilen deklariert. Variablen, die aus früheren Teilen stammen, werden
+     * zu Beginn aus {@value #KEY_MAP_TABLE} geladen (get_key); eigene Variablen, auf die
+     * FK-Spalten verweisen, werden am Ende dort abgelegt (put_key, überschreibt Einträge
+     * früherer Läufe). Der Skip-Check (v_root_count) wird über denselben Weg
+     * teilübergreifend kumuliert; Teil 1 beginnt immer bei 0.
+     */
+    private void writePlSqlChunks(ChunkContext ctx,
+                                  List<TableRow> orderedRows,
+                                  String rootTable, String nameColumn, String testSuffix,
+                                  Map<String, String> sequenceMap,
+                                  Map<String, Map<String, String>> fkIndex,
+                                  boolean includeUpdate) throws IOException {
+
+        VarPlan plan = buildVarPlan(orderedRows, sequenceMap);
+
+        boolean hasChildren = orderedRows.stream()
+            .anyMatch(r -> !r.getTableName().equalsIgnoreCase(rootTable));
+        boolean needsSkipCheck = !includeUpdate && hasChildren;
+
+        // Variablen, auf die irgendeine FK-Spalte verweist → müssen teilübergreifend verfügbar sein
+        Set<String> referencedVars = new HashSet<>();
+        for (TableRow row : orderedRows) {
+            String table = row.getTableName().toUpperCase();
+            Map<String, String> subs = buildColVarSubstitutions(row, table, plan.varMap, fkIndex);
+            for (ColumnInfo col : row.getColumns().values()) {
+                if (!col.isPrimaryKey() && subs.containsKey(col.getName())) {
+                    referencedVars.add(subs.get(col.getName()));
+                }
+            }
+        }
+
+        PlSqlChunk chunk = new PlSqlChunk();
+        String  currentTable = null;
+        boolean prevWasRoot  = false;
+
+        for (TableRow row : orderedRows) {
+            String  table  = row.getTableName().toUpperCase();
+            boolean isRoot = table.equalsIgnoreCase(rootTable);
+            Map<String, String> subs = buildColVarSubstitutions(row, table, plan.varMap, fkIndex);
+            String  text   = renderPlSqlRow(row, table, rootTable, nameColumn, testSuffix,
+                    sequenceMap, subs, plan, includeUpdate, needsSkipCheck);
+
+            if (chunk.rows > 0 && chunkFull(chunk.rows, chunk.body.length() + text.length())) {
+                closeSection(chunk, plan);
+                flushPlSqlChunk(ctx, chunk, plan, referencedVars, needsSkipCheck);
+                chunk = new PlSqlChunk();
+                currentTable = null;
+            }
+            if (chunk.rows == 0) {
+                chunk.startsWithRoot = isRoot;
+            }
+
+            if (!table.equals(currentTable)) closeSection(chunk, plan);
+
+            // Übergang Root → Kind innerhalb dieses Teils: Zähler sichern und Skip-Check
+            if (needsSkipCheck && prevWasRoot && !isRoot && chunk.rows > 0) {
+                appendStoreRootCount(chunk.body);
+                chunk.rootCountStored = true;
+                chunk.body.append("\n  IF v_root_count = 0 THEN\n");
+                chunk.body.append("    RETURN;\n");
+                chunk.body.append("  END IF;\n");
+            }
+
+            if (!table.equals(currentTable)) {
+                currentTable = table;
+                appendTableHeader(chunk.body, "  ", table, ctx.tableCounts.getOrDefault(table, 0));
+                chunk.sectionStart = chunk.body.length();
+            }
+            chunk.body.append(text);
+            chunk.sectionVars.addAll(ownSequenceVars(row, subs, plan));
+            chunk.rows++;
+            if (isRoot) chunk.hasRoot = true;
+
+            for (ColumnInfo col : row.getColumns().values()) {
+                String varName = subs.get(col.getName());
                 if (varName == null) continue;
-                String seqName = varSeq.get(varName);
-                if (seqName == null) continue;
-                writer.write("\n  SELECT " + seqName + ".NEXTVAL INTO " + varName + " FROM DUAL;\n");
+                if (col.isPrimaryKey()) chunk.defined.add(varName);
+                else                    chunk.used.add(varName);
+            }
+            prevWasRoot = isRoot;
+        }
+        if (chunk.rows > 0) {
+            closeSection(chunk, plan);
+            flushPlSqlChunk(ctx, chunk, plan, referencedVars, needsSkipCheck);
+        }
+    }
+
+    /** Schließt den laufenden Tabellenabschnitt eines Teils ab (Bulk-Reservierung am Abschnittsanfang). */
+    private void closeSection(PlSqlChunk chunk, VarPlan plan) {
+        chunk.body.insert(chunk.sectionStart, renderBulkReservation(chunk.sectionVars, plan));
+        chunk.sectionVars.clear();
+    }
+
+    private void flushPlSqlChunk(ChunkContext ctx, PlSqlChunk chunk, VarPlan plan,
+                                 Set<String> referencedVars, boolean needsSkipCheck) throws IOException {
+        boolean first  = ctx.chunkNo == 0;
+        String  series = "MERGE_" + ctx.rootTable.toUpperCase();
+
+        // Aus früheren Teilen zu ladende Variablen (in Deklarationsreihenfolge)
+        List<String> toLoad = new ArrayList<>();
+        for (String var : plan.varType.keySet()) {
+            if (chunk.used.contains(var) && !chunk.defined.contains(var)) toLoad.add(var);
+        }
+        boolean loadRootCount = needsSkipCheck && !first;
+
+        // Eigene Variablen für spätere Teile ablegen
+        StringBuilder tail = new StringBuilder();
+        if (needsSkipCheck && chunk.hasRoot && !chunk.rootCountStored) {
+            appendStoreRootCount(tail);
+        }
+        for (String var : plan.varType.keySet()) {
+            if (!chunk.defined.contains(var) || !referencedVars.contains(var)) continue;
+            tail.append("  put_key(").append(quote(plan.varKey.get(var)))
+                .append(", TO_CHAR(").append(var).append("));\n");
+        }
+        boolean needsPut = chunk.rootCountStored || tail.length() > 0;
+        boolean needsGet = loadRootCount || !toLoad.isEmpty();
+
+        try (BufferedWriter writer = ctx.openNext()) {
+            writer.write("-- Benoetigt Tabelle " + KEY_MAP_TABLE + " (legt die Script-Ausfuehrung an):\n");
+            writer.write("-- " + KEY_MAP_DDL + ";\n\n");
+            writer.write("DECLARE\n");
+            if (first) writer.write("  v_map_exists NUMBER;\n");
+            if (needsSkipCheck) writer.write("  v_root_count NUMBER := 0;\n");
+            Set<String> declared = new HashSet<>(chunk.defined);
+            declared.addAll(toLoad);
+            writer.write(renderDeclarations(plan, declared));
+            if (needsGet) writer.write(renderGetKey(series));
+            if (needsPut) writer.write(renderPutKey(series));
+            writer.write("BEGIN\n");
+
+            if (first) {
+                // Nur prüfen – DDL hier würde die laufende Transaktion implizit committen
+                writer.write("  SELECT COUNT(*) INTO v_map_exists FROM user_tab_columns"
+                        + " WHERE table_name = '" + KEY_MAP_TABLE + "' AND column_name = 'SERIES';\n");
+                writer.write("  IF v_map_exists = 0 THEN\n");
+                writer.write("    RAISE_APPLICATION_ERROR(-20002, " + quote(KEY_MAP_TABLE
+                        + " fehlt - vorab anlegen: " + KEY_MAP_DDL) + ");\n");
+                writer.write("  END IF;\n");
+                // Teil 1 vergibt alle Schlüssel neu – Einträge eines früheren Laufs der Serie verwerfen
+                writer.write("  EXECUTE IMMEDIATE 'DELETE FROM " + KEY_MAP_TABLE + " WHERE SERIES = :s' USING "
+                        + quote(series) + ";\n");
             }
 
-            // MERGE-Statement (eingerückt für PL/SQL-Körper)
-            writer.write("\n");
-            String mergeStmt = mergeGenerator.generate(row, sequenceMap, rootTable, nameColumn, testSuffix, colVarSubs, includeUpdate);
-            // Jede Zeile des MERGE um 2 Spaces einrücken
-            for (String line : mergeStmt.split("\n", -1)) {
-                writer.write("  " + line + "\n");
+            if (loadRootCount) {
+                writer.write("  v_root_count := TO_NUMBER(get_key('" + ROOT_COUNT_KEY + "'));\n");
+                if (!chunk.startsWithRoot) {
+                    writer.write("  IF v_root_count = 0 THEN\n");
+                    writer.write("    RETURN;\n");
+                    writer.write("  END IF;\n");
+                }
+            }
+
+            for (String var : toLoad) {
+                String value = "get_key(" + quote(plan.varKey.get(var)) + ")";
+                if (plan.varType.get(var).equals("NUMBER")) value = "TO_NUMBER(" + value + ")";
+                writer.write("  " + var + " := " + value + ";\n");
             }
 
-            // Nach Root-MERGE: SQL%ROWCOUNT akkumulieren
-            if (needsSkipCheck && table.equalsIgnoreCase(rootTable)) {
-                writer.write("  v_root_count := v_root_count + SQL%ROWCOUNT;\n");
+            writer.write(chunk.body.toString());
+
+            if (tail.length() > 0) writer.write("\n" + tail);
+
+            writer.write("\nEND;\n/\n");
+            writeChunkCommit(writer);
+            writer.write("\n-- Ende Teil " + ctx.chunkNo + "\n");
+        }
+    }
+
+    /**
+     * Lokale Funktion: Schlüssel eines früheren Teils lesen; fehlt er, Abbruch mit Hinweis.
+     * (Script-Text nur ASCII – die Datei wird in der Standard-Codierung geschrieben.)
+     */
+    private static String renderGetKey(String series) {
+        return "  FUNCTION get_key(p_key VARCHAR2) RETURN VARCHAR2 IS\n"
+             + "    v_id VARCHAR2(200);\n"
+             + "  BEGIN\n"
+             + "    EXECUTE IMMEDIATE 'SELECT NEW_ID FROM " + KEY_MAP_TABLE
+             + " WHERE SERIES = :s AND MAP_KEY = :k' INTO v_id USING " + quote(series) + ", p_key;\n"
+             + "    RETURN v_id;\n"
+             + "  EXCEPTION\n"
+             + "    WHEN NO_DATA_FOUND THEN\n"
+             + "      RAISE_APPLICATION_ERROR(-20001, " + quote(series + ": Schluessel ")
+             + " || p_key || " + quote(" fehlt in " + KEY_MAP_TABLE
+                     + " - fruehere Teile der Serie zuerst ausfuehren") + ");\n"
+             + "  END;\n";
+    }
+
+    /** Lokale Prozedur: Schlüssel für spätere Teile ablegen bzw. aktualisieren. */
+    private static String renderPutKey(String series) {
+        return "  PROCEDURE put_key(p_key VARCHAR2, p_id VARCHAR2) IS\n"
+             + "  BEGIN\n"
+             + "    EXECUTE IMMEDIATE 'MERGE INTO " + KEY_MAP_TABLE + " t"
+             + " USING (SELECT :s AS SERIES, :k AS MAP_KEY, :v AS NEW_ID FROM DUAL) s"
+             + " ON (t.SERIES = s.SERIES AND t.MAP_KEY = s.MAP_KEY)"
+             + " WHEN MATCHED THEN UPDATE SET t.NEW_ID = s.NEW_ID"
+             + " WHEN NOT MATCHED THEN INSERT (SERIES, MAP_KEY, NEW_ID) VALUES (s.SERIES, s.MAP_KEY, s.NEW_ID)'"
+             + " USING " + quote(series) + ", p_key, p_id;\n"
+             + "  END;\n";
+    }
+
+    private void appendStoreRootCount(StringBuilder sb) {
+        sb.append("  put_key('").append(ROOT_COUNT_KEY).append("', TO_CHAR(v_root_count));\n");
+    }
+
+    /** COMMIT hinter einem Teil – in beiden Modi als eigenes Statement außerhalb des Blocks. */
+    private void writeChunkCommit(BufferedWriter writer) throws IOException {
+        if (commitPerChunk) writer.write("\nCOMMIT;\n");
+    }
+
+    /**
+     * true, wenn ein Script die Key-Map {@value #KEY_MAP_TABLE} braucht. Erkannt am
+     * Kommentar vor dem Block (nur die führenden Kommentarzeilen werden gelesen).
+     */
+    public static boolean needsKeyMap(Path script) throws IOException {
+        String marker = "-- Benoetigt Tabelle " + KEY_MAP_TABLE;
+        try (BufferedReader in = Files.newBufferedReader(script, Charset.defaultCharset())) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith(marker)) return true;
+                if (!line.isBlank() && !line.startsWith("--")) return false;
             }
         }
+        return false;
+    }
 
-        // ── Phase 4: END; ──────────────────────────────────────────────────────
-        writer.write("\nEND;\n/\n");
+    /** Prüft, ob ein Teil mit rows Datensätzen und size Zeichen seine Grenze überschreiten würde. */
+    private boolean chunkFull(int rows, long size) {
+        return (chunkMaxRows  > 0 && rows >= chunkMaxRows)
+            || (chunkMaxBytes > 0 && size >  chunkMaxBytes);
+    }
+
+    /** SQL-String-Literal mit verdoppelten Hochkommata. */
+    private static String quote(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+
+    /**
+     * Baut einmalig vor dem Rendern den FK-Index auf:
+     *   Child-Tabelle (uppercase) → FK-Spalte (uppercase) → "PARENT.PKCOL" (Sequence-Key)
+     * Aufgenommen werden nur Relationen auf sequence-gemappte Parents; doppelte
+     * Relationen fallen dabei weg. Gibt es für eine Spalte mehrere solche Relationen,
+     * gilt wie bisher die erste.
+     */
+    static Map<String, Map<String, String>> buildFkIndex(Map<String, List<ForeignKeyRelation>> fkRelations,
+                                                         Map<String, String> sequenceMap) {
+        Map<String, Map<String, String>> index = new HashMap<>();
+        if (fkRelations == null || sequenceMap == null) return index;
+        for (Map.Entry<String, List<ForeignKeyRelation>> e : fkRelations.entrySet()) {
+            for (ForeignKeyRelation rel : e.getValue()) {
+                String parentSeqKey = rel.getParentTable().toUpperCase() + "." + rel.getParentPkColumn().toUpperCase();
+                if (!sequenceMap.containsKey(parentSeqKey)) continue;
+                index.computeIfAbsent(e.getKey().toUpperCase(), k -> new HashMap<>())
+                     .putIfAbsent(rel.getFkColumn().toUpperCase(), parentSeqKey);
+            }
+        }
+        return index;
     }
 
     /**
@@ -233,8 +772,17 @@ public class ScriptWriter {
             Map<String, String> sequenceMap,
             Map<String, String> varMap,
             Map<String, List<ForeignKeyRelation>> fkRelations) {
+        return buildColVarSubstitutions(row, tableUpper, varMap, buildFkIndex(fkRelations, sequenceMap));
+    }
+
+    /** Wie oben, aber mit vorberechnetem FK-Index (ein Map-Zugriff pro Spalte). */
+    private Map<String, String> buildColVarSubstitutions(
+            TableRow row, String tableUpper,
+            Map<String, String> varMap,
+            Map<String, Map<String, String>> fkIndex) {
 
         Map<String, String> subs = new HashMap<>();
+        Map<String, String> tableFks = fkIndex.getOrDefault(tableUpper, Collections.emptyMap());
 
         for (ColumnInfo col : row.getColumns().values()) {
             String colName = col.getName();
@@ -246,22 +794,11 @@ public class ScriptWriter {
                 String varName = varMap.get(mapKey);
                 if (varName != null) subs.put(colName, varName);
             } else {
-                // FK-Spalte? → Relation nachschlagen
-                List<ForeignKeyRelation> rels = fkRelations.get(tableUpper);
-                if (rels == null) continue;
-                for (ForeignKeyRelation rel : rels) {
-                    if (!rel.getFkColumn().equalsIgnoreCase(colName)) continue;
-                    // Ist der Parent sequence-gemappt?
-                    String parentTable  = rel.getParentTable().toUpperCase();
-                    String parentPkCol  = rel.getParentPkColumn().toUpperCase();
-                    String parentSeqKey = parentTable + "." + parentPkCol;
-                    if (!sequenceMap.containsKey(parentSeqKey)) continue;
-                    // Variable des Parent-PKs suchen
-                    String mapKey  = parentTable + "." + parentPkCol + "#" + colVal;
-                    String varName = varMap.get(mapKey);
-                    if (varName != null) subs.put(colName, varName);
-                    break;
-                }
+                // FK-Spalte auf sequence-gemappten Parent? → Variable des Parent-PKs suchen
+                String parentSeqKey = tableFks.get(colName.toUpperCase());
+                if (parentSeqKey == null) continue;
+                String varName = varMap.get(parentSeqKey + "#" + colVal);
+                if (varName != null) subs.put(colName, varName);
             }
         }
         return subs;
@@ -274,8 +811,24 @@ public class ScriptWriter {
      *           SEHR_LANGER_SPALTENNAME_XYZ, 1 → v_SEHR_LANGER_SPALTENNAM_1
      */
     String buildVarName(String pkCol, int n) {
+        return buildName("v_", pkCol, n);
+    }
+
+    /**
+     * Erzeugt den Namen des assoziativen Arrays für eine Tabelle/PK-Spalte im
+     * Collection-Modus. Format: m_<PKCOL>_<N>, maximal 28 Zeichen, damit der
+     * zugehörige Typname t_m_… ebenfalls ins Oracle-Limit passt.
+     */
+    String buildCollectionName(String pkCol, int n) {
+        String name = buildName("m_", pkCol, n);
+        if (name.length() <= 28) return name;
         String suffix = "_" + n;
-        String base   = "v_" + pkCol.toUpperCase();
+        return name.substring(0, 28 - suffix.length()) + suffix;
+    }
+
+    private String buildName(String prefix, String pkCol, int n) {
+        String suffix = "_" + n;
+        String base   = prefix + pkCol.toUpperCase();
         int maxBase   = 30 - suffix.length();
         if (base.length() > maxBase) base = base.substring(0, maxBase);
         return base + suffix;
@@ -285,6 +838,13 @@ public class ScriptWriter {
     // Hilfsmethoden
     // ─────────────────────────────────────────────────────────────────────────
 
+    private void appendTableHeader(StringBuilder sb, String indent, String table, int count) {
+        sb.append("\n").append(indent).append("-- ============================================================\n");
+        sb.append(indent).append("-- Tabelle: ").append(table);
+        sb.append("  (").append(count).append(" Datensatz").append(count != 1 ? "e" : "").append(")\n");
+        sb.append(indent).append("-- ============================================================\n");
+    }
+
     private void writeTableHeader(BufferedWriter writer, String table, int count) throws IOException {
         writer.write("\n-- ============================================================\n");
         writer.write("-- Tabelle: " + table);
@@ -296,6 +856,7 @@ public class ScriptWriter {
                              Map<String, Integer> tableCounts, String timestamp) throws IOException {
         writer.write("-- =================================================================\n");
         writer.write("-- Oracle MERGE Script\n");
+        // Zeitpunkt zählt nicht zur Prüfsumme der Script-Ausführung (AppliedScriptLedger)
         writer.write("-- Generiert: " + timestamp.replace("_", " ").replace(
             timestamp.substring(9), timestamp.substring(9).replace(
                 timestamp.substring(11), ":"  + timestamp.substring(11, 13) + ":" + timestamp.substring(13))) + "\n");
@@ -319,4 +880,66 @@ public class ScriptWriter {
     private void write(BufferedWriter w, String s) {
         try { w.write(s); } catch (IOException e) { throw new RuntimeException(e); }
     }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    // Hilfsklassen
+    // ─────────────────────────────────────────────────────────────────────────
+
+    /** Variablenplan für den PL/SQL-Modus (siehe buildVarPlan). */
+    private static class VarPlan {
+        final Map<String, String> varMap  = new LinkedHashMap<>();
+        final Map<String, String> varSeq  = new LinkedHashMap<>();
+        final Map<String, String> varType = new LinkedHashMap<>();
+        /** Umkehrung von varMap: Variablenname → "TABLE.PKCOL#altWert" (Schlüssel in der Key-Map). */
+        final Map<String, String> varKey  = new HashMap<>();
+        /** Collection-Modus: Array-Element → Array-Name. */
+        final Map<String, String> varColl  = new HashMap<>();
+        /** Collection-Modus: Array-Name → Elementtyp (leer im Einzelvariablen-Modus). */
+        final Map<String, String> collType = new LinkedHashMap<>();
+    }
+
+    /** Gepufferter Inhalt eines PL/SQL-Teils bis zum Schreiben. */
+    private static class PlSqlChunk {
+        final StringBuilder body    = new StringBuilder();
+        final Set<String>   defined = new HashSet<>();
+        final Set<String>   used    = new HashSet<>();
+        /** Eigene Sequence-Variablen des laufenden Tabellenabschnitts (Bulk-Modus). */
+        final List<String>  sectionVars = new ArrayList<>();
+        int     sectionStart;
+        int     rows;
+        boolean hasRoot;
+        boolean startsWithRoot;
+        boolean rootCountStored;
+    }
+
+    /** Gemeinsamer Zustand beim Schreiben der Teil-Dateien (Nummerierung, Header-Daten). */
+    private class ChunkContext {
+        final File                 tableDir;
+        final String               rootTable;
+        final List<String>         rootIds;
+        final Map<String, Integer> tableCounts;
+        final String               timestamp;
+        int chunkNo = 0;
+
+        ChunkContext(File tableDir, String rootTable, List<String> rootIds,
+                     Map<String, Integer> tableCounts, String timestamp) {
+            this.tableDir    = tableDir;
+            this.rootTable   = rootTable;
+            this.rootIds     = rootIds;
+            this.tableCounts = tableCounts;
+            this.timestamp   = timestamp;
+        }
+
+        /** Öffnet die nächste Teil-Datei MERGE_<ROOT>_NNN.sql und schreibt den Header. */
+        BufferedWriter openNext() throws IOException {
+            chunkNo++;
+            String name = String.format("MERGE_%s_%03d.sql", rootTable.toUpperCase(), chunkNo);
+            File file = new File(tableDir, name);
+            writtenFiles.add(file.getAbsolutePath());
+            BufferedWriter writer = new BufferedWriter(new FileWriter(file));
+            writeHeader(writer, rootTable, rootIds, tableCounts, timestamp);
+            writer.write("-- Teil: " + chunkNo + "\n\n");
+            return writer;
+        }
+    }
 }
@@ -9,6 +9,7 @@ import com.mergegen.config.VirtualFkStore;
 import com.mergegen.model.QueryPreset;
 import com.mergegen.model.TableHistoryEntry;
 import com.mergegen.db.DatabaseConnection;
+import com.mergegen.generator.DirectCopyWriter;
 import com.mergegen.generator.ScriptWriter;
 import com.mergegen.model.ColumnInfo;
 import com.mergegen.model.DependencyNode;
@@ -22,6 +23,8 @@ import javax.swing.border.EmptyBorder;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeModel;
 import java.awt.*;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.*;
 import java.util.List;
 import java.util.function.Consumer;
@@ -35,6 +38,9 @@ import java.util.stream.Collectors;
  *   CARD_TREE   → Abhängigkeitsbaum wird angezeigt, Benutzer bestätigt
  *   CARD_RESULT → Ergebnis (Dateiname, Zeilenzahl) wird angezeigt
  *
+ * Ist eine Ziel-DB gesetzt ({@link #setDirectTarget}), können die Datensätze statt
+ * als Script auch direkt dorthin kopiert werden (DirectCopyWriter).
+ *
  * Alle Datenbankoperationen laufen in einem SwingWorker (Hintergrundthread),
  * damit die Oberfläche während langer Abfragen nicht einfriert.
  */
@@ -61,6 +67,7 @@ public class GeneratorPanel extends JPanel {
     private final JTree   depTree     = new JTree(new DefaultMutableTreeNode("(leer)"));
     private final JLabel  treeInfo    = new JLabel(" ");
     private final JButton generateBtn = new JButton("Merge Scripts erzeugen");
+    private final JButton copyBtn     = new JButton("Direkt in Ziel-DB kopieren");
     private final JButton backBtn     = new JButton("← Zurück");
 
     // Step 3 – Ergebnis
@@ -74,6 +81,9 @@ public class GeneratorPanel extends JPanel {
     private String          lastColumn = "";
     private List<String>    lastIds;
 
+    // Ziel-DB für die Direktkopie (null = nur Script-Erzeugung)
+    private DirectCopyWriter.Target directTarget;
+
     private final AppSettings  appSettings  = new AppSettings();
     private final VirtualFkStore virtualFkStore;
     private final SequenceMappingStore seqStore;
@@ -386,10 +396,16 @@ public class GeneratorPanel extends JPanel {
         buttons.add(backBtn);
         buttons.add(savePresetBtn);
         buttons.add(generateBtn);
+        buttons.add(copyBtn);
         p.add(buttons, BorderLayout.SOUTH);
 
+        copyBtn.setVisible(false);
+        copyBtn.setToolTipText("Schreibt die Datensätze ohne Script-Datei per Bind-Variablen und "
+            + "JDBC-Batches in die Ziel-DB (eine Transaktion)");
+
         backBtn.addActionListener(e -> cards.show(cardPane, CARD_INPUT));
-        generateBtn.addActionListener(e -> startGeneration());
+        generateBtn.addActionListener(e -> startGeneration(false));
+        copyBtn.addActionListener(e -> startGeneration(true));
         savePresetBtn.addActionListener(e -> saveCurrentPreset());
 
         return p;
@@ -516,14 +532,15 @@ public class GeneratorPanel extends JPanel {
     }
 
     /**
-     * Startet die Script-Generierung im Hintergrundthread.
+     * Startet die Script-Generierung (bzw. mit direct=true die Direktkopie in die
+     * Ziel-DB) im Hintergrundthread.
      * Nutzt das in startAnalysis() gespeicherte lastResult,
      * sodass die Datenbank nicht erneut abgefragt werden muss.
      *
      * Vor dem eigentlichen Generieren wird pro Tabelle ein Sequence-Dialog
      * angezeigt (dreistufige Vorschlags-Logik: Store → Trigger → leer).
      */
-    private void startGeneration() {
+    private void startGeneration(boolean direct) {
         if (lastResult == null) return;
         String nameColumn = columnField.getText().trim().toUpperCase();
         String testSuffix = testModeCheck.isSelected()
@@ -631,6 +648,7 @@ public class GeneratorPanel extends JPanel {
         }
 
         generateBtn.setEnabled(false);
+        copyBtn.setEnabled(false);
         backBtn.setEnabled(false);
 
         Map<String, String> finalSeqMap = sequenceMap;
@@ -640,10 +658,20 @@ public class GeneratorPanel extends JPanel {
         String finalTestSuffix = testSuffix;
         boolean finalIncludeUpdate = updateCheck.isSelected();
         SwingWorker<String, Void> worker = new SwingWorker<>() {
+            private int fileCount = 1;
+            private int copied;
+            /** Meldungen der Direktkopie (Worker-Thread), erscheinen im Ergebnis. */
+            private final List<String> copyLog = Collections.synchronizedList(new ArrayList<>());
+
             @Override
             protected String doInBackground() throws Exception {
-                ScriptWriter writer = new ScriptWriter();
-                return writer.write(
+                if (direct) {
+                    copied = copyDirect(finalFilteredRows, finalSeqMap, finalNameColumn, finalTestSuffix,
+                            finalIncludeUpdate, copyLog::add);
+                    return directTarget.describe();
+                }
+                ScriptWriter writer = createScriptWriter();
+                String first = writer.write(
                     finalFilteredRows,
                     finalFilteredCounts,
                     lastTable, lastIds,
@@ -653,18 +681,29 @@ public class GeneratorPanel extends JPanel {
                     finalTestSuffix,
                     lastResult.getFkRelations(),
                     finalIncludeUpdate);
+                fileCount = writer.getWrittenFiles().size();
+                return first;
             }
 
             @Override
             protected void done() {
                 generateBtn.setEnabled(true);
+                copyBtn.setEnabled(true);
                 backBtn.setEnabled(true);
                 try {
                     String filename = get();
                     int total = finalFilteredRows.size();
+                    if (direct) {
+                        resultArea.setText(buildCopyResult(filename, total, copied, copyLog));
+                        cards.show(cardPane, CARD_RESULT);
+                        return;
+                    }
+                    String fileInfo = fileCount > 1
+                        ? "Dateien:      " + fileCount + " Teile, erster: " + filename + "\n"
+                        : "Datei:        " + filename + "\n";
                     resultArea.setText(
                         "Script erfolgreich erstellt!\n\n" +
-                        "Datei:        " + filename + "\n" +
+                        fileInfo +
                         "Statements:   " + total + "\n" +
                         "Tabellen:     " + finalFilteredCounts.size() + "\n\n" +
                         "Tabellenübersicht:\n" +
@@ -673,7 +712,7 @@ public class GeneratorPanel extends JPanel {
                     cards.show(cardPane, CARD_RESULT);
                 } catch (Exception ex) {
                     JOptionPane.showMessageDialog(GeneratorPanel.this,
-                        "Fehler bei der Generierung:\n" + rootCause(ex),
+                        (direct ? "Fehler bei der Direktkopie (Rollback):\n" : "Fehler bei der Generierung:\n") + rootCause(ex),
                         "Fehler", JOptionPane.ERROR_MESSAGE);
                 }
             }
@@ -683,6 +722,58 @@ public class GeneratorPanel extends JPanel {
 
     // ── Hilfsmethoden ─────────────────────────────────────────────────────────
 
+    /**
+     * Setzt die Ziel-DB für die Direktkopie; blendet den Kopier-Button ein.
+     * Ohne Ziel (null) steht nur die Script-Erzeugung zur Verfügung.
+     */
+    public void setDirectTarget(DirectCopyWriter.Target target) {
+        this.directTarget = target;
+        copyBtn.setVisible(target != null);
+    }
+
+    /**
+     * Kopiert die Zeilen des letzten Traversals direkt in die Ziel-DB (eine Transaktion).
+     *
+     * @return Anzahl tatsächlich geschriebener Datensätze
+     */
+    private int copyDirect(List<TableRow> rows, Map<String, String> seqMap, String nameColumn,
+                           String testSuffix, boolean includeUpdate, Consumer<String> log) throws SQLException {
+        try (Connection conn = directTarget.open()) {
+            return new DirectCopyWriter().copy(conn, rows, lastTable, seqMap, nameColumn, testSuffix,
+                    lastResult.getFkRelations(), includeUpdate, log);
+        }
+    }
+
+    /**
+     * Ergebnistext der Direktkopie. Weniger geschriebene als ausgewählte Datensätze
+     * heißt: der Root-Datensatz existierte bereits, die Kind-Datensätze wurden übersprungen.
+     */
+    static String buildCopyResult(String target, int total, int copied, List<String> log) {
+        StringBuilder sb = new StringBuilder();
+        int skipped = total - copied;
+        sb.append(skipped > 0
+                ? "Root-Datensatz bereits vorhanden – Kind-Datensätze nicht kopiert.\n\n"
+                : "Daten erfolgreich in die Ziel-DB kopiert!\n\n");
+        sb.append("Ziel:         ").append(target).append('\n');
+        sb.append("Geschrieben:  ").append(copied).append(" von ").append(total).append(" Datensätzen\n");
+        if (skipped > 0) sb.append("Übersprungen: ").append(skipped).append('\n');
+        sb.append("\nProtokoll:\n");
+        synchronized (log) {
+            for (String line : log) sb.append("  ").append(line).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /** Erzeugt einen ScriptWriter mit den Ausgabe-Optionen aus den Einstellungen. */
+    private ScriptWriter createScriptWriter() {
+        ScriptWriter writer = new ScriptWriter();
+        writer.setChunking(settingsPanel.getChunkRows(), settingsPanel.getChunkBytes(),
+                settingsPanel.isChunkCommit());
+        writer.setCollectionMapping(settingsPanel.isPlSqlCollections());
+        writer.setBulkSequences(settingsPanel.isPlSqlBulkSequences());
+        return writer;
+    }
+
     /** Befüllt die Verlauf-JList neu aus dem Store. */
     private void refreshHistoryList() {
         DefaultListModel<TableHistoryEntry> model = new DefaultListModel<>();
@@ -786,6 +877,22 @@ public class GeneratorPanel extends JPanel {
      * @param onComplete wird auf dem EDT mit true (Erfolg) oder false (Fehler/keine Einstellungen) aufgerufen
      */
     public void runWithLastSettings(Consumer<Boolean> onComplete) {
+        runWithLastSettings(false, onComplete);
+    }
+
+    /**
+     * Wie {@link #runWithLastSettings(Consumer)}, kopiert die Datensätze aber direkt in
+     * die Ziel-DB statt ein Script zu erzeugen (für den Workflow-Schritt „Direktkopie").
+     */
+    public void copyWithLastSettings(Consumer<Boolean> onComplete) {
+        if (directTarget == null) {
+            onComplete.accept(false);
+            return;
+        }
+        runWithLastSettings(true, onComplete);
+    }
+
+    private void runWithLastSettings(boolean direct, Consumer<Boolean> onComplete) {
         String       table  = appSettings.getLastTable();
         String       column = appSettings.getLastColumn();
         List<String> values = appSettings.getLastValues();
@@ -818,7 +925,7 @@ public class GeneratorPanel extends JPanel {
                     lastTable  = table;
                     lastColumn = column;
                     lastIds    = values;
-                    executeGenerationAuto(onComplete);
+                    executeGenerationAuto(direct, onComplete);
                 } catch (Exception ex) {
                     onComplete.accept(false);
                 }
@@ -830,7 +937,7 @@ public class GeneratorPanel extends JPanel {
      * Führt die Script-Generierung ohne Sequence-Dialoge durch (für den Workflow-Modus).
      * Verwendet ausschließlich gespeicherte Sequence-Mappings aus dem Store.
      */
-    private void executeGenerationAuto(Consumer<Boolean> onComplete) {
+    private void executeGenerationAuto(boolean direct, Consumer<Boolean> onComplete) {
         List<TableRow> filteredRows = new ArrayList<>(lastResult.getOrderedRows());
 
         Map<String, Integer> filteredCounts = new LinkedHashMap<>();
@@ -864,9 +971,16 @@ public class GeneratorPanel extends JPanel {
         boolean includeUpdate = updateCheck.isSelected();
 
         new SwingWorker<String, Void>() {
+            private int copied;
+            private final List<String> copyLog = Collections.synchronizedList(new ArrayList<>());
+
             @Override
             protected String doInBackground() throws Exception {
-                return new ScriptWriter().write(
+                if (direct) {
+                    copied = copyDirect(filteredRows, seqMap, lastColumn, "", includeUpdate, copyLog::add);
+                    return directTarget.describe();
+                }
+                return createScriptWriter().write(
                     filteredRows, filteredCounts,
                     lastTable, lastIds,
                     settingsPanel.getOutputDir(),
@@ -878,8 +992,13 @@ public class GeneratorPanel extends JPanel {
 
             @Override
             protected void done() {
-                try { get(); onComplete.accept(true); }
-                catch (Exception ex) { onComplete.accept(false); }
+                try {
+                    String target = get();
+                    if (direct) resultArea.setText(buildCopyResult(target, filteredRows.size(), copied, copyLog));
+                    onComplete.accept(true);
+                } catch (Exception ex) {
+                    onComplete.accept(false);
+                }
             }
         }.execute();
     }
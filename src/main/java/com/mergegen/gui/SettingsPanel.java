@@ -43,6 +43,15 @@ public class SettingsPanel extends JPanel {
     // Ausgabeverzeichnis
     private final JTextField         outputDirField = new JTextField(40);
 
+    // Aufteilung der Scripts
+    private final JSpinner           chunkRowsSpinner  = new JSpinner(new SpinnerNumberModel(0, 0, 10_000_000, 500));
+    private final JSpinner           chunkKbSpinner    = new JSpinner(new SpinnerNumberModel(0, 0, 10_000_000, 1024));
+    private final JCheckBox          chunkCommitCheck  = new JCheckBox("COMMIT am Ende jedes Teils");
+
+    // PL/SQL-Ausgabe
+    private final JCheckBox          collectionsCheck  = new JCheckBox("Schlüssel-Mapping in Arrays statt Einzelvariablen");
+    private final JCheckBox          bulkSeqCheck      = new JCheckBox("Sequence-Werte pro Tabelle gesammelt holen (BULK COLLECT)");
+
     // Statuszeile
     private final JLabel             statusLabel   = new JLabel(" ");
 
@@ -56,6 +65,10 @@ public class SettingsPanel extends JPanel {
         centerPanel.add(buildForm());
         centerPanel.add(Box.createVerticalStrut(10));
         centerPanel.add(buildOutputDirSection());
+        centerPanel.add(Box.createVerticalStrut(10));
+        centerPanel.add(buildChunkSection());
+        centerPanel.add(Box.createVerticalStrut(10));
+        centerPanel.add(buildPlSqlSection());
 
         add(buildProfileBar(), BorderLayout.NORTH);
         add(centerPanel,       BorderLayout.CENTER);
@@ -235,6 +248,71 @@ public class SettingsPanel extends JPanel {
         }
     }
 
+    // ── Aufteilung der Scripts ────────────────────────────────────────────────
+
+    /**
+     * Baut die Sektion für die Aufteilung großer Scripts in Teil-Dateien.
+     * 0 bedeutet jeweils "keine Grenze"; Änderungen werden sofort gespeichert.
+     */
+    private JPanel buildChunkSection() {
+        JPanel section = new JPanel(new GridBagLayout());
+        section.setBorder(new TitledBorder("Aufteilung großer Scripts (0 = keine)"));
+
+        chunkRowsSpinner.setValue(appSettings.getChunkRows());
+        chunkKbSpinner.setValue(appSettings.getChunkKb());
+        chunkCommitCheck.setSelected(appSettings.isChunkCommit());
+        chunkCommitCheck.setToolTipText("Zwischen-COMMITs begrenzen Undo, heben aber die Gesamt-Transaktion auf");
+
+        GridBagConstraints lbl = labelGbc();
+        GridBagConstraints fld = fieldGbc();
+        fld.fill    = GridBagConstraints.NONE;
+        fld.anchor  = GridBagConstraints.WEST;
+
+        lbl.gridy = 0; fld.gridy = 0;
+        section.add(new JLabel("Datensätze pro Teil:"), lbl);
+        section.add(chunkRowsSpinner, fld);
+
+        lbl.gridy = 1; fld.gridy = 1;
+        section.add(new JLabel("KB pro Teil:"), lbl);
+        section.add(chunkKbSpinner, fld);
+
+        fld.gridy = 2;
+        section.add(chunkCommitCheck, fld);
+
+        chunkRowsSpinner.addChangeListener(e -> appSettings.setChunkRows((Integer) chunkRowsSpinner.getValue()));
+        chunkKbSpinner.addChangeListener(e -> appSettings.setChunkKb((Integer) chunkKbSpinner.getValue()));
+        chunkCommitCheck.addActionListener(e -> appSettings.setChunkCommit(chunkCommitCheck.isSelected()));
+
+        return section;
+    }
+
+    // ── PL/SQL-Ausgabe ────────────────────────────────────────────────────────
+
+    /** Baut die Sektion mit Optionen für den generierten PL/SQL-Block. */
+    private JPanel buildPlSqlSection() {
+        JPanel section = new JPanel(new GridBagLayout());
+        section.setBorder(new TitledBorder("PL/SQL-Ausgabe"));
+
+        collectionsCheck.setSelected(appSettings.isPlSqlCollections());
+        collectionsCheck.setToolTipText("Ein INDEX-BY-Array pro Tabelle/PK-Spalte – hält den DECLARE-Teil bei vielen Datensätzen klein");
+
+        GridBagConstraints fld = fieldGbc();
+        fld.fill   = GridBagConstraints.NONE;
+        fld.anchor = GridBagConstraints.WEST;
+        fld.gridy  = 0;
+        section.add(collectionsCheck, fld);
+
+        bulkSeqCheck.setSelected(appSettings.isPlSqlBulkSequences());
+        bulkSeqCheck.setToolTipText("Ein NEXTVAL-Statement pro Tabellenabschnitt statt eines pro Datensatz");
+        fld.gridy = 1;
+        section.add(bulkSeqCheck, fld);
+
+        collectionsCheck.addActionListener(e -> appSettings.setPlSqlCollections(collectionsCheck.isSelected()));
+        bulkSeqCheck.addActionListener(e -> appSettings.setPlSqlBulkSequences(bulkSeqCheck.isSelected()));
+
+        return section;
+    }
+
     // ── Unterer Bereich: Buttons + Status ─────────────────────────────────────
 
     private JPanel buildBottomArea() {
@@ -379,6 +457,31 @@ public class SettingsPanel extends JPanel {
         return outputDirField.getText().trim();
     }
 
+    /** Für den Generator-Tab: maximale Datensätze pro Teil-Script (0 = keine Aufteilung). */
+    public int getChunkRows() {
+        return (Integer) chunkRowsSpinner.getValue();
+    }
+
+    /** Für den Generator-Tab: maximale Größe pro Teil-Script in Bytes (0 = keine Aufteilung). */
+    public long getChunkBytes() {
+        return (Integer) chunkKbSpinner.getValue() * 1024L;
+    }
+
+    /** Für den Generator-Tab: ob jeder Teil mit COMMIT endet. */
+    public boolean isChunkCommit() {
+        return chunkCommitCheck.isSelected();
+    }
+
+    /** Für den Generator-Tab: ob alt→neu-Schlüssel in assoziativen Arrays gehalten werden. */
+    public boolean isPlSqlCollections() {
+        return collectionsCheck.isSelected();
+    }
+
+    /** Für den Generator-Tab: ob Sequence-Werte per BULK COLLECT reserviert werden. */
+    public boolean isPlSqlBulkSequences() {
+        return bulkSeqCheck.isSelected();
+    }
+
     private void setStatus(String text, Color color) {
         statusLabel.setText(text);
         statusLabel.setForeground(color);
@@ -1,5 +1,7 @@
 package com.mergegen.model;
 
+import java.util.Objects;
+
 /**
  * Beschreibt eine FK-Beziehung: childTable.fkColumn → parentTable.parentPkColumn
  */
@@ -23,6 +25,24 @@ public class ForeignKeyRelation {
     public String getParentTable() { return parentTable; }
     public String getParentPkColumn() { return parentPkColumn; }
 
+    /** Gleichheit über alle vier Namen, ohne Beachtung der Groß-/Kleinschreibung. */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ForeignKeyRelation)) return false;
+        ForeignKeyRelation other = (ForeignKeyRelation) o;
+        return childTable.equalsIgnoreCase(other.childTable)
+            && fkColumn.equalsIgnoreCase(other.fkColumn)
+            && parentTable.equalsIgnoreCase(other.parentTable)
+            && parentPkColumn.equalsIgnoreCase(other.parentPkColumn);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(childTable.toUpperCase(), fkColumn.toUpperCase(),
+                            parentTable.toUpperCase(), parentPkColumn.toUpperCase());
+    }
+
     @Override
     public String toString() {
         return childTable + "." + fkColumn + " → " + parentTable + "." + parentPkColumn;
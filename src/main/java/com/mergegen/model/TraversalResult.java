@@ -39,6 +39,7 @@ public class TraversalResult {
         Map<String, Integer> allCounts = new LinkedHashMap<>();
         Map<String, List<ForeignKeyRelation>> allFkRelations = new HashMap<>();
         Set<String> seen = new HashSet<>();
+        Set<ForeignKeyRelation> seenRelations = new HashSet<>();
 
         for (TraversalResult r : results) {
             DependencyNode childRoot = r.getRootNode();
@@ -52,9 +53,13 @@ public class TraversalResult {
                     allCounts.merge(row.getTableName(), 1, Integer::sum);
                 }
             }
-            r.getFkRelations().forEach((childTable, rels) ->
-                allFkRelations.computeIfAbsent(childTable, k -> new ArrayList<>()).addAll(rels)
-            );
+            r.getFkRelations().forEach((childTable, rels) -> {
+                for (ForeignKeyRelation rel : rels) {
+                    if (seenRelations.add(rel)) {
+                        allFkRelations.computeIfAbsent(childTable, k -> new ArrayList<>()).add(rel);
+                    }
+                }
+            });
         }
         return new TraversalResult(mergedRoot, allRows, allCounts, allFkRelations);
     }
@@ -77,6 +77,8 @@ public class TraversalService {
         Set<String>          visited     = new HashSet<>();
         // fkRelations: Key = Child-Tabellenname, Value = alle FK-Relationen dieser Child-Tabelle
         Map<String, List<ForeignKeyRelation>> fkRelations = new HashMap<>();
+        // Bereits gesammelte Relationen: dieselbe Relation kommt für jede Parent-Zeile erneut
+        Set<ForeignKeyRelation> knownRelations = new HashSet<>();
 
         DependencyNode rootNode = new DependencyNode(rootTable, lookupColumn, rootValueLiteral, 1);
         String rootLabel = extractLabel(rootRow, pkCols);
@@ -125,8 +127,9 @@ public class TraversalService {
                 childRelations.addAll(virtualFkStore.getRelationsForParent(currentTable));
             }
 
-            // FK-Relationen für jede Child-Tabelle sammeln (für Script-Generierung)
+            // FK-Relationen für jede Child-Tabelle sammeln (für Script-Generierung), ohne Duplikate
             for (ForeignKeyRelation rel : childRelations) {
+                if (!knownRelations.add(rel)) continue;
                 fkRelations.computeIfAbsent(rel.getChildTable().toUpperCase(), k -> new ArrayList<>())
                            .add(rel);
             }
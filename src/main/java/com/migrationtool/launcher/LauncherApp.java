@@ -8,6 +8,7 @@ import com.mergegen.config.QueryPresetStore;
 import com.mergegen.config.SequenceMappingStore;
 import com.mergegen.config.TableHistoryStore;
 import com.mergegen.config.VirtualFkStore;
+import com.mergegen.generator.DirectCopyWriter;
 import com.kostenattribute.InsertGenPanel;
 import com.migrationtool.scriptexec.ScriptExecutorPanel;
 import com.migrationtool.scriptexec.ZielDbPanel;
@@ -21,6 +22,9 @@ import javax.swing.tree.*;
 import java.awt.*;
 import java.io.IOException;
 import java.nio.file.*;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
 import java.util.*;
 import java.util.List;
 import java.util.function.Consumer;
@@ -75,6 +79,14 @@ public class LauncherApp {
         ZielDbPanel          zielDbPanel  = new ZielDbPanel();
         ScriptExecutorPanel  scriptPanel  = new ScriptExecutorPanel(zielDbPanel);
 
+        // Direktkopie des Generators schreibt in dieselbe Ziel-DB
+        generatorPanel.setDirectTarget(new DirectCopyWriter.Target() {
+            @Override public Connection open() throws SQLException {
+                return DriverManager.getConnection(zielDbPanel.getUrl(), zielDbPanel.getUser(), zielDbPanel.getPassword());
+            }
+            @Override public String describe() { return zielDbPanel.getUrl(); }
+        });
+
         // ── Schritte und ihre Namen ───────────────────────────────────────────
         Map<String, WorkflowPanel.Step> availableSteps = new LinkedHashMap<>();
         availableSteps.put("Exceltools", new WorkflowPanel.Step() {
@@ -91,6 +103,13 @@ public class LauncherApp {
                 generatorPanel.runWithLastSettings(onComplete);
             }
         });
+        availableSteps.put("Direktkopie", new WorkflowPanel.Step() {
+            @Override public String getName()        { return "Direktkopie"; }
+            @Override public String getDescription() { return "Kopiert die Datensätze ohne Script direkt in die Ziel-DB (letzte Einstellungen)"; }
+            @Override public void execute(Consumer<Boolean> onComplete) {
+                generatorPanel.copyWithLastSettings(onComplete);
+            }
+        });
         availableSteps.put("ScriptAusfuehren", new WorkflowPanel.Step() {
             @Override public String getName()        { return "Script ausführen"; }
             @Override public String getDescription() { return "Führt MERGE-Scripts auf der Ziel-DB aus"; }
@@ -116,17 +135,28 @@ public class LauncherApp {
         }
         final List<String> finalStepOrder = stepOrder;
 
+        // Inaktive Schritte: Direktkopie ersetzt Script erzeugen + ausführen, daher anfangs aus
+        Set<String> disabledSteps = loadDisabledSteps();
+
         // ── WorkflowPanel mit Schritten in gespeicherter Reihenfolge ─────────
         WorkflowPanel workflowPanel = new WorkflowPanel();
         for (String key : finalStepOrder) {
-            workflowPanel.addStep(availableSteps.get(key));
+            workflowPanel.addStep(availableSteps.get(key), !disabledSteps.contains(key));
         }
 
         // Reihenfolge nach DnD speichern
         workflowPanel.setOnReorder((from, to) -> {
             String moved = finalStepOrder.remove((int) from);
             finalStepOrder.add(to, moved);
-            saveNavOrder(finalStepOrder);
+            saveNavOrder(finalStepOrder, disabledSteps);
+        });
+        workflowPanel.setOnToggle((step, active) -> {
+            availableSteps.forEach((key, s) -> {
+                if (s != step) return;
+                if (active) disabledSteps.remove(key);
+                else        disabledSteps.add(key);
+            });
+            saveNavOrder(finalStepOrder, disabledSteps);
         });
 
         // ── INSERT-Generator-Panel ───────────────────────────────────────────
@@ -248,9 +278,27 @@ public class LauncherApp {
         return order.isEmpty() ? Collections.emptyList() : new ArrayList<>(Arrays.asList(order.split(",")));
     }
 
-    private static void saveNavOrder(List<String> order) {
+    /** Inaktive Workflow-Schritte; ohne gespeicherten Wert ist nur die Direktkopie inaktiv. */
+    private static Set<String> loadDisabledSteps() {
+        Set<String> disabled = new LinkedHashSet<>();
+        String value = "Direktkopie";
+        if (Files.exists(NAV_PROPS)) {
+            Properties props = new Properties();
+            try (var in = Files.newInputStream(NAV_PROPS)) {
+                props.load(in);
+                value = props.getProperty("nav.disabled", value).trim();
+            } catch (IOException ignored) {}
+        }
+        for (String key : value.split(",")) {
+            if (!key.isBlank()) disabled.add(key.trim());
+        }
+        return disabled;
+    }
+
+    private static void saveNavOrder(List<String> order, Set<String> disabled) {
         Properties props = new Properties();
         props.setProperty("nav.order", String.join(",", order));
+        props.setProperty("nav.disabled", String.join(",", disabled));
         try {
             Files.createDirectories(NAV_PROPS.getParent());
         } catch (IOException ignored) {}
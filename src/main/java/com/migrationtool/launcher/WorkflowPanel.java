@@ -7,7 +7,9 @@ import javax.swing.border.LineBorder;
 import java.awt.*;
 import java.awt.event.*;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -18,6 +20,8 @@ import java.util.function.Consumer;
  *
  * Reihenfolge anpassen: Zeile anklicken (wird hervorgehoben) → ▲/▼ nutzen.
  * Der onReorder-Callback wird nach jedem Verschieben aufgerufen.
+ * Über die Checkbox „aktiv" lassen sich Schritte (z.B. alternative Wege wie die
+ * Direktkopie) von „Alle ausführen" ausnehmen; onToggle meldet jede Änderung.
  */
 public class WorkflowPanel extends JPanel {
 
@@ -36,7 +40,8 @@ public class WorkflowPanel extends JPanel {
         PENDING("○", Color.GRAY,              "Bereit"),
         RUNNING("◎", new Color(0, 100, 220),  "Läuft\u2026"),
         SUCCESS("✓", new Color(0, 140, 0),    "Erfolgreich"),
-        ERROR  ("✗", new Color(180, 0, 0),    "Fehler");
+        ERROR  ("✗", new Color(180, 0, 0),    "Fehler"),
+        SKIPPED("–", Color.GRAY,              "Übersprungen (inaktiv)");
 
         final String symbol;
         final Color  color;
@@ -54,11 +59,13 @@ public class WorkflowPanel extends JPanel {
 
     private final List<Step>     steps         = new ArrayList<>();
     private final List<RowPanel> rows          = new ArrayList<>();
+    private final Set<Step>      inactive      = new HashSet<>();
     private final JButton        runAllBtn;
     private final JPanel         stepsBox      = new JPanel();
     private int                  selectedIndex = -1;
 
     private BiConsumer<Integer, Integer> onReorder;
+    private BiConsumer<Step, Boolean>    onToggle;
 
     public WorkflowPanel() {
         setLayout(new BorderLayout(0, 14));
@@ -92,9 +99,20 @@ public class WorkflowPanel extends JPanel {
         this.onReorder = onReorder;
     }
 
+    /** Setzt den Callback, der nach jedem Aktivieren/Deaktivieren mit (Schritt, aktiv) aufgerufen wird. */
+    public void setOnToggle(BiConsumer<Step, Boolean> onToggle) {
+        this.onToggle = onToggle;
+    }
+
     /** Fügt einen Schritt ans Ende der Liste an. */
     public void addStep(Step step) {
+        addStep(step, true);
+    }
+
+    /** Fügt einen Schritt ans Ende der Liste an; inaktive Schritte überspringt „Alle ausführen". */
+    public void addStep(Step step, boolean active) {
         steps.add(step);
+        if (!active) inactive.add(step);
         rebuildStepRows();
     }
 
@@ -166,6 +184,11 @@ public class WorkflowPanel extends JPanel {
             finishRun();
             return;
         }
+        if (inactive.contains(steps.get(index))) {
+            rows.get(index).setStatus(Status.SKIPPED);
+            chainRun(index + 1);
+            return;
+        }
         rows.get(index).setStatus(Status.RUNNING);
         steps.get(index).execute(success -> {
             rows.get(index).setStatus(success ? Status.SUCCESS : Status.ERROR);
@@ -186,6 +209,7 @@ public class WorkflowPanel extends JPanel {
         final  JButton runBtn;
         final  JButton upBtn;
         final  JButton downBtn;
+        final  JCheckBox activeCheck;
         private final JLabel   iconLabel;
         private final JLabel   statusLabel;
 
@@ -252,7 +276,15 @@ public class WorkflowPanel extends JPanel {
             center.add(Box.createVerticalStrut(2));
             add(center, BorderLayout.CENTER);
 
-            // ── Rechts: Einzelausführung ───────────────────────────────────────
+            // ── Rechts: aktiv-Schalter + Einzelausführung ──────────────────────
+            activeCheck = new JCheckBox("aktiv", !inactive.contains(step));
+            activeCheck.setOpaque(false);
+            activeCheck.setToolTipText("Inaktive Schritte werden bei „Alle ausführen“ übersprungen");
+            activeCheck.addActionListener(e -> {
+                if (activeCheck.isSelected()) inactive.remove(step);
+                else                          inactive.add(step);
+                if (onToggle != null) onToggle.accept(step, activeCheck.isSelected());
+            });
             runBtn = new JButton("Ausführen");
             runBtn.addActionListener(e -> {
                 runBtn.setEnabled(false);
@@ -265,7 +297,11 @@ public class WorkflowPanel extends JPanel {
                     runAllBtn.setEnabled(true);
                 });
             });
-            add(runBtn, BorderLayout.EAST);
+            JPanel east = new JPanel(new FlowLayout(FlowLayout.RIGHT, 6, 0));
+            east.setOpaque(false);
+            east.add(activeCheck);
+            east.add(runBtn);
+            add(east, BorderLayout.EAST);
 
             // ── Zeile selektierbar per Klick (nicht auf Buttons) ──────────────
             MouseAdapter selectAdapter = new MouseAdapter() {
@@ -278,7 +314,7 @@ public class WorkflowPanel extends JPanel {
 
         /** Registriert den Klick-Listener rekursiv auf alle Nicht-Button-Komponenten. */
         private void addSelectListener(Component comp, MouseAdapter adapter) {
-            if (comp instanceof JButton) return;
+            if (comp instanceof AbstractButton) return;
             comp.addMouseListener(adapter);
             if (comp instanceof Container) {
                 for (Component child : ((Container) comp).getComponents()) {
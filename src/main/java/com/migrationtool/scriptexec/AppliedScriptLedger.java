@@ -0,0 +1,209 @@
+package com.migrationtool.scriptexec;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Properties;
+
+/**
+ * Protokoll erfolgreich ausgeführter Scripts je Ziel, mit SHA-256 des Inhalts.
+ *
+ * Ein Script, das mit identischem Inhalt bereits gegen dasselbe Ziel committed wurde,
+ * wird beim nächsten Lauf übersprungen; ändert sich der Inhalt, wird es wieder
+ * ausgeführt. Anders als {@link ScriptProgressLedger} (Fortsetzung abgebrochener Läufe)
+ * bleiben die Einträge nach einem erfolgreichen Lauf bestehen.
+ *
+ * Lokal: Properties-Datei, "&lt;ziel&gt;|&lt;dateiname&gt;" = "sha256;zeitpunkt".
+ * Optional ({@link #setUseTargetTable}) zusätzlich in der Tabelle {@value #TABLE} der
+ * Ziel-DB – dann sehen auch andere Arbeitsplätze, was dort bereits ausgeführt wurde.
+ * Der Eintrag in der Ziel-DB wird in derselben Transaktion wie das Script geschrieben.
+ */
+public class AppliedScriptLedger {
+
+    public static final String TABLE = "MIGTOOL_APPLIED_SCRIPTS";
+
+    /** Kopfzeile mit dem Erzeugungszeitpunkt (siehe ScriptWriter) – nicht Teil der Prüfsumme. */
+    static final String GENERATED_PREFIX = "-- Generiert: ";
+
+    private final Path       file;
+    private final Properties props = new Properties();
+    private volatile boolean useTargetTable;
+
+    public AppliedScriptLedger(Path file) {
+        this.file = file;
+        load();
+    }
+
+    /** Ausgeführte Scripts zusätzlich in {@value #TABLE} der Ziel-DB vermerken und dort prüfen. */
+    public void setUseTargetTable(boolean useTargetTable) {
+        this.useTargetTable = useTargetTable;
+    }
+
+    public boolean isUseTargetTable() {
+        return useTargetTable;
+    }
+
+    /**
+     * SHA-256 des Inhalts (hex), zeilenweise. Die Zeile {@value #GENERATED_PREFIX}&lt;Zeitpunkt&gt;
+     * im Kopfkommentar zählt nicht mit – sonst hätte jedes neu erzeugte, sonst identische
+     * Script eine neue Prüfsumme und würde nie übersprungen. Zeilenenden (LF/CRLF) sind
+     * ebenfalls unerheblich.
+     */
+    public static String checksum(Path script) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        // ISO-8859-1 bildet jedes Byte 1:1 ab – die Prüfsumme hängt nicht von der Codierung ab
+        try (BufferedReader in = Files.newBufferedReader(script, StandardCharsets.ISO_8859_1)) {
+            boolean header = true;
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (header && !line.isBlank() && !line.startsWith("--")) header = false;
+                if (header && line.startsWith(GENERATED_PREFIX)) continue;
+                digest.update(line.getBytes(StandardCharsets.ISO_8859_1));
+                digest.update((byte) '\n');
+            }
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) hex.append(String.format("%02x", b));
+        return hex.toString();
+    }
+
+    /** Ziel-Schlüssel: Schema und Datenbank (dieselbe URL kann mehrere Schemas bedienen). */
+    public static String target(String url, String user) {
+        return user + "@" + url;
+    }
+
+    // ── Lokales Protokoll ───────────────────────────────────────────────────
+
+    /** true, wenn das Script mit diesem Inhalt lokal als ausgeführt vermerkt ist. */
+    public synchronized boolean isApplied(String target, Path script, String checksum) {
+        String value = props.getProperty(key(target, script));
+        return value != null && value.startsWith(checksum + ";");
+    }
+
+    public synchronized void markApplied(String target, Path script, String checksum) {
+        props.setProperty(key(target, script), checksum + ";" + LocalDateTime.now().withNano(0));
+        save();
+    }
+
+    /** Anzahl der Scripts mit Eintrag für das Ziel (unabhängig vom aktuellen Inhalt). */
+    public synchronized int countRecorded(String target, Collection<Path> scripts) {
+        int n = 0;
+        for (Path script : scripts) if (props.containsKey(key(target, script))) n++;
+        return n;
+    }
+
+    /** Entfernt die Einträge der Scripts für das Ziel (nur lokal). */
+    public synchronized void forget(String target, Collection<Path> scripts) {
+        boolean changed = false;
+        for (Path script : scripts) {
+            changed |= props.remove(key(target, script)) != null;
+        }
+        if (changed) save();
+    }
+
+    // ── Protokoll in der Ziel-DB ────────────────────────────────────────────
+
+    /**
+     * Legt {@value #TABLE} an, falls sie fehlt. DDL committed in Oracle implizit –
+     * daher vor dem ersten Script aufrufen.
+     */
+    public void ensureTargetTable(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT COUNT(*) FROM USER_TABLES WHERE TABLE_NAME = ?")) {
+            ps.setString(1, TABLE);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next() && rs.getInt(1) > 0) return;
+            }
+        }
+        try (Statement st = conn.createStatement()) {
+            st.execute("CREATE TABLE " + TABLE + " ("
+                    + "SCRIPT_NAME VARCHAR2(255) NOT NULL, "
+                    + "CHECKSUM VARCHAR2(64) NOT NULL, "
+                    + "APPLIED_AT TIMESTAMP NOT NULL, "
+                    + "APPLIED_BY VARCHAR2(128), "
+                    + "CONSTRAINT PK_" + TABLE + " PRIMARY KEY (SCRIPT_NAME, CHECKSUM))");
+        }
+    }
+
+    /** true, wenn das Script mit diesem Inhalt in der Ziel-DB als ausgeführt vermerkt ist. */
+    public boolean isAppliedInTarget(Connection conn, Path script, String checksum) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT COUNT(*) FROM " + TABLE + " WHERE SCRIPT_NAME = ? AND CHECKSUM = ?")) {
+            ps.setString(1, name(script));
+            ps.setString(2, checksum);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    /** Vermerkt das Script in der Ziel-DB – ohne Commit, wird mit dem Script committed. */
+    public void recordInTarget(Connection conn, Path script, String checksum) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "MERGE INTO " + TABLE + " t USING (SELECT ? AS SCRIPT_NAME, ? AS CHECKSUM FROM DUAL) s"
+                + " ON (t.SCRIPT_NAME = s.SCRIPT_NAME AND t.CHECKSUM = s.CHECKSUM)"
+                + " WHEN MATCHED THEN UPDATE SET t.APPLIED_AT = ?, t.APPLIED_BY = ?"
+                + " WHEN NOT MATCHED THEN INSERT (SCRIPT_NAME, CHECKSUM, APPLIED_AT, APPLIED_BY)"
+                + " VALUES (s.SCRIPT_NAME, s.CHECKSUM, ?, ?)")) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            String    by  = System.getProperty("user.name");
+            ps.setString(1, name(script));
+            ps.setString(2, checksum);
+            ps.setTimestamp(3, now);
+            ps.setString(4, by);
+            ps.setTimestamp(5, now);
+            ps.setString(6, by);
+            ps.executeUpdate();
+        }
+    }
+
+    // ── Hilfsmethoden ───────────────────────────────────────────────────────
+
+    /** Schlüssel ist der Dateiname – so bleibt das Protokoll gültig, wenn das Ausgabeverzeichnis wechselt. */
+    private static String key(String target, Path script) {
+        return target + "|" + name(script);
+    }
+
+    private static String name(Path script) {
+        return script.getFileName().toString();
+    }
+
+    private void load() {
+        if (!Files.exists(file)) return;
+        try (InputStream in = Files.newInputStream(file)) {
+            props.load(in);
+        } catch (IOException e) {
+            System.err.println("Ausführungsprotokoll konnte nicht geladen werden: " + e.getMessage());
+        }
+    }
+
+    private void save() {
+        try {
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            try (OutputStream out = Files.newOutputStream(file)) {
+                props.store(out, "Script-Ausführung – ausgeführte Scripts");
+            }
+        } catch (IOException e) {
+            System.err.println("Ausführungsprotokoll konnte nicht gespeichert werden: " + e.getMessage());
+        }
+    }
+}
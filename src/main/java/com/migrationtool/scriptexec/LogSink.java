@@ -0,0 +1,180 @@
+package com.migrationtool.scriptexec;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Log-Ziel für umfangreiche Ausgaben: hält nur die letzten N Zeilen im Speicher
+ * (Ringpuffer) und schreibt auf Wunsch das vollständige Log asynchron in eine Datei.
+ *
+ * {@link #accept} ist threadsicher und kehrt sofort zurück; die Zeilen werden erst mit
+ * {@link #drain()} in den Ringpuffer übernommen – die Anzeige ruft das im Takt auf
+ * (gebündelt statt einmal pro Zeile). Stockt die Anzeige, werden auch die wartenden
+ * Zeilen auf N begrenzt. In die Datei gelangen dagegen alle Zeilen; ist der Schreiber
+ * im Rückstand, bremst {@link #accept} den Aufrufer, statt Zeilen zu verwerfen.
+ */
+public class LogSink implements Consumer<String>, Closeable {
+
+    /** Puffergröße zwischen Aufrufer und Datei-Schreiber (Zeilen). */
+    private static final int FILE_QUEUE = 1 << 16;
+    private static final String END = new String("END");
+
+    private final String[] ring;
+    private int  head;
+    private int  size;
+    private long dropped;
+
+    private final ConcurrentLinkedQueue<String> pending      = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger                 pendingCount = new AtomicInteger();
+
+    private volatile BlockingQueue<String> fileQueue;
+    private Thread                         fileWriter;
+    private volatile IOException           fileError;
+
+    public LogSink(int capacity) {
+        this.ring = new String[Math.max(1, capacity)];
+    }
+
+    /** Nimmt eine Zeile entgegen (beliebiger Thread). */
+    @Override
+    public void accept(String line) {
+        pending.add(line);
+        if (pendingCount.incrementAndGet() > ring.length && pending.poll() != null) {
+            pendingCount.decrementAndGet();
+            synchronized (this) { dropped++; }
+        }
+        BlockingQueue<String> queue = fileQueue;
+        if (queue != null) {
+            try {
+                queue.put(line);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Übernimmt die wartenden Zeilen in den Ringpuffer.
+     *
+     * @return Anzahl übernommener Zeilen
+     */
+    public synchronized int drain() {
+        int n = 0;
+        String line;
+        while ((line = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            ring[(head + size) % ring.length] = line;
+            if (size < ring.length) {
+                size++;
+            } else {
+                head = (head + 1) % ring.length;
+                dropped++;
+            }
+            n++;
+        }
+        return n;
+    }
+
+    /** Anzahl der Zeilen im Ringpuffer. */
+    public synchronized int size() {
+        return size;
+    }
+
+    /** Zeile i des Ringpuffers (0 = älteste gehaltene Zeile). */
+    public synchronized String get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return ring[(head + index) % ring.length];
+    }
+
+    /** Anzahl der Zeilen, die aus dem Speicher verdrängt wurden (seit dem letzten {@link #clear}). */
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    /** Leert Ringpuffer und wartende Zeilen; die Log-Datei bleibt unberührt. */
+    public synchronized void clear() {
+        while (pending.poll() != null) pendingCount.decrementAndGet();
+        Arrays.fill(ring, null);
+        head    = 0;
+        size    = 0;
+        dropped = 0;
+    }
+
+    // ── Log-Datei ───────────────────────────────────────────────────────────
+
+    /** Schreibt ab jetzt jede Zeile zusätzlich in die Datei (eine vorher geöffnete wird geschlossen). */
+    public synchronized void openFile(Path file) throws IOException {
+        closeFile();
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(FILE_QUEUE);
+        fileError  = null;
+        fileWriter = new Thread(() -> writeLoop(queue, out), "log-writer");
+        fileWriter.setDaemon(true);
+        fileWriter.start();
+        fileQueue = queue;
+    }
+
+    /** Schreibt die restlichen Zeilen und schließt die Datei. */
+    public synchronized void closeFile() throws IOException {
+        BlockingQueue<String> queue = fileQueue;
+        if (queue == null) return;
+        fileQueue = null;
+        try {
+            queue.put(END);
+            fileWriter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Nachzügler, die die Warteschlange noch vor dem Umschalten erwischt haben, nicht blockieren
+        queue.clear();
+        fileWriter = null;
+        if (fileError != null) throw fileError;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeFile();
+    }
+
+    private void writeLoop(BlockingQueue<String> queue, BufferedWriter out) {
+        try (out) {
+            while (true) {
+                String line = queue.take();
+                if (line == END) break;
+                out.write(line);
+                out.newLine();
+                // Nur bei leerer Warteschlange flushen – sonst weiter puffern
+                if (queue.isEmpty()) out.flush();
+            }
+        } catch (IOException e) {
+            fileError = e;
+            // Aufrufer nicht blockieren: restliche Zeilen verwerfen, bis END kommt
+            drainUntilEnd(queue);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void drainUntilEnd(BlockingQueue<String> queue) {
+        try {
+            while (queue.take() != END) { }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.migrationtool.scriptexec;
+
+import javax.swing.*;
+import javax.swing.Timer;
+import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Log-Anzeige für große Ausgabemengen auf Basis von {@link LogSink}.
+ *
+ * Zeilen können aus jedem Thread angehängt werden; die Anzeige übernimmt sie
+ * gebündelt alle {@value #REFRESH_MS} ms. Dargestellt wird eine JList mit fester
+ * Zeilenhöhe – gezeichnet werden nur die sichtbaren Zeilen, unabhängig davon, wie
+ * viele im Puffer liegen. Steht die Anzeige am Ende, scrollt sie mit.
+ * Markierte Zeilen lassen sich mit Strg+C kopieren.
+ */
+public class LogView extends JPanel {
+
+    private static final int REFRESH_MS = 100;
+
+    private final LogSink         sink;
+    private final LogModel        model = new LogModel();
+    private final JList<String>   list  = new JList<>(model);
+    private final JScrollPane     scroll;
+    private final JLabel          droppedLabel = new JLabel(" ");
+
+    public LogView(int capacity) {
+        super(new BorderLayout());
+        sink = new LogSink(capacity);
+
+        list.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        list.setFixedCellHeight(list.getFontMetrics(list.getFont()).getHeight() + 1);
+        list.setPrototypeCellValue("─".repeat(120));
+        list.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        scroll = new JScrollPane(list);
+        add(scroll, BorderLayout.CENTER);
+
+        droppedLabel.setFont(droppedLabel.getFont().deriveFont(Font.PLAIN, 10f));
+        droppedLabel.setForeground(Color.GRAY);
+        add(droppedLabel, BorderLayout.SOUTH);
+
+        new Timer(REFRESH_MS, e -> refresh()).start();
+    }
+
+    /** Hängt eine Zeile an (beliebiger Thread). */
+    public void append(String line) {
+        sink.accept(line);
+    }
+
+    /** Leert die Anzeige (die Log-Datei läuft weiter). */
+    public void clear() {
+        sink.clear();
+        model.sizeChanged(model.getSize(), true);
+        droppedLabel.setText(" ");
+    }
+
+    /** Schreibt das vollständige Log ab jetzt zusätzlich in die Datei. */
+    public void startFile(Path file) throws IOException {
+        sink.openFile(file);
+    }
+
+    /** Schließt die Log-Datei (restliche Zeilen werden noch geschrieben). */
+    public void stopFile() throws IOException {
+        sink.closeFile();
+    }
+
+    /** Übernimmt wartende Zeilen in die Anzeige (EDT, im Takt des Timers). */
+    private void refresh() {
+        long droppedBefore = sink.getDropped();
+        int  sizeBefore    = model.getSize();
+        if (sink.drain() == 0) return;
+
+        BoundedRangeModel bar = scroll.getVerticalScrollBar().getModel();
+        boolean atEnd = bar.getValue() + bar.getExtent() >= bar.getMaximum() - list.getFixedCellHeight();
+
+        long dropped = sink.getDropped();
+        model.sizeChanged(sizeBefore, dropped != droppedBefore);
+        if (dropped > 0) {
+            droppedLabel.setText(String.format("Anzeige auf die letzten %,d Zeilen begrenzt (%,d ältere ausgeblendet)",
+                    sink.getCapacity(), dropped));
+        }
+        if (atEnd && model.getSize() > 0) list.ensureIndexIsVisible(model.getSize() - 1);
+    }
+
+    /** Listenmodell direkt auf dem Ringpuffer – ohne Kopie der Zeilen. */
+    private class LogModel extends AbstractListModel<String> {
+        private int size;
+
+        @Override public int getSize() { return size; }
+
+        @Override public String getElementAt(int index) {
+            return index < sink.size() ? sink.get(index) : "";
+        }
+
+        /** Meldet neue Zeilen; wurden ältere verdrängt, haben sich alle Positionen verschoben. */
+        void sizeChanged(int before, boolean shifted) {
+            int after = sink.size();
+            size = after;
+            int kept = Math.min(before, after);
+            if (after < before) fireIntervalRemoved(this, after, before - 1);
+            if (shifted && kept > 0) fireContentsChanged(this, 0, kept - 1);
+            if (after > before) fireIntervalAdded(this, before, after - 1);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.migrationtool.scriptexec;
+
+import com.mergegen.generator.ScriptWriter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Ermittelt aus den Scripts, welche Tabellen sie lesen und schreiben, und teilt sie
+ * in voneinander unabhängige Gruppen auf.
+ *
+ * Zwei Scripts hängen voneinander ab, wenn eines eine Tabelle schreibt, die das andere
+ * liest oder schreibt, oder wenn beide Tabellen schreiben, die per Fremdschlüssel
+ * verbunden sind (Parent/Child laut USER_CONSTRAINTS des Ziels, {@link #loadForeignKeys}).
+ * Letzteres ist nötig, weil Oracle das Einfügen einer Child-Zeile blockiert, solange
+ * ihre Parent-Zeile in einer anderen, noch offenen Transaktion steht – und die
+ * Verbindungen erst committen, wenn alle fertig sind.
+ *
+ * Abhängige Scripts landen in derselben Gruppe (Zusammenhangskomponenten, kein
+ * Abhängigkeitsgraph mit Reihenfolge zwischen Gruppen) und laufen dort in der
+ * ursprünglichen Reihenfolge auf einer gemeinsamen Verbindung – so sehen sie die noch
+ * nicht committeten Änderungen ihrer Vorgänger. Verschiedene Gruppen laufen parallel.
+ *
+ * Die Key-Map der Teil-Scripts ({@link ScriptWriter#KEY_MAP_TABLE}) zählt je Serie
+ * (MERGE_&lt;ROOT&gt;) als eigene Tabelle: Teile einer Serie bleiben zusammen,
+ * Serien verschiedener Roots teilen sich keine Zeilen und dürfen parallel laufen.
+ *
+ * Die Tabellenerkennung arbeitet textbasiert (auch innerhalb von PL/SQL-Blöcken und
+ * dynamischem SQL) und ist eher großzügig. Nicht erkannt werden Abhängigkeiten, die
+ * nicht im Script-Text oder in den Fremdschlüsseln stehen (Trigger, Tabellen in
+ * aufgerufenen Prozeduren) – solche Scripts sequentiell ausführen.
+ */
+public class ScriptDependencyPlanner {
+
+    private static final String IDENT = "([A-Za-z0-9_$#.\"]+)";
+
+    private static final Pattern WRITE_PATTERN = Pattern.compile(
+        "\\b(?:INSERT\\s+INTO|MERGE\\s+INTO|UPDATE|DELETE\\s+FROM|DELETE|TRUNCATE\\s+TABLE)\\s+" + IDENT,
+        Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern READ_PATTERN = Pattern.compile(
+        "\\b(?:FROM|JOIN|USING)\\s+" + IDENT,
+        Pattern.CASE_INSENSITIVE);
+
+    /** Schlüsselwörter, die hinter UPDATE/DELETE/USING stehen können, aber keine Tabellen sind. */
+    private static final Set<String> NO_TABLE = Set.of("SET", "WHERE", "FROM", "DUAL");
+
+    /** Serie im dynamischen SQL der Key-Map: erster gebundener Wert ("… USING 'MERGE_A', …"). */
+    private static final Pattern KEY_MAP_SERIES = Pattern.compile("\\bUSING\\s+'([^']*)'", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Liest die Fremdschlüssel des Ziel-Schemas: Tabelle → per FK verbundene Tabellen
+     * (Parents und Children, in beide Richtungen eingetragen).
+     */
+    public static Map<String, Set<String>> loadForeignKeys(Connection conn) throws SQLException {
+        Map<String, Set<String>> related = new HashMap<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(
+                 "SELECT c.TABLE_NAME, p.TABLE_NAME FROM USER_CONSTRAINTS c"
+                 + " JOIN ALL_CONSTRAINTS p ON p.OWNER = c.R_OWNER AND p.CONSTRAINT_NAME = c.R_CONSTRAINT_NAME"
+                 + " WHERE c.CONSTRAINT_TYPE = 'R'")) {
+            while (rs.next()) {
+                String child  = rs.getString(1).toUpperCase(Locale.ROOT);
+                String parent = rs.getString(2).toUpperCase(Locale.ROOT);
+                if (child.equals(parent)) continue;
+                related.computeIfAbsent(child,  k -> new TreeSet<>()).add(parent);
+                related.computeIfAbsent(parent, k -> new TreeSet<>()).add(child);
+            }
+        }
+        return related;
+    }
+
+    /** Teilt die Scripts ohne Kenntnis der Fremdschlüssel auf (siehe {@link #plan(List, Map)}). */
+    public List<List<Path>> plan(List<Path> scripts) throws IOException {
+        return plan(scripts, Map.of());
+    }
+
+    /**
+     * Teilt die Scripts in unabhängige Gruppen auf.
+     * Reihenfolge innerhalb einer Gruppe und der Gruppen untereinander folgt der Eingabeliste.
+     *
+     * @param foreignKeys Tabelle → per FK verbundene Tabellen ({@link #loadForeignKeys})
+     */
+    public List<List<Path>> plan(List<Path> scripts, Map<String, Set<String>> foreignKeys) throws IOException {
+        List<TableAccess> access = new ArrayList<>();
+        for (Path script : scripts) access.add(analyze(script));
+
+        // Union-Find über alle Paare mit Konflikt
+        int[] parent = new int[scripts.size()];
+        for (int i = 0; i < parent.length; i++) parent[i] = i;
+        for (int i = 0; i < scripts.size(); i++) {
+            for (int j = i + 1; j < scripts.size(); j++) {
+                if (access.get(i).conflictsWith(access.get(j), foreignKeys)) union(parent, i, j);
+            }
+        }
+
+        Map<Integer, List<Path>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < scripts.size(); i++) {
+            groups.computeIfAbsent(find(parent, i), k -> new ArrayList<>()).add(scripts.get(i));
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    /** Liest ein Script statementweise und sammelt gelesene und geschriebene Tabellen. */
+    public TableAccess analyze(Path script) throws IOException {
+        TableAccess access = new TableAccess();
+        try (SqlScriptParser parser = SqlScriptParser.open(script)) {
+            SqlScriptParser.Statement stmt;
+            while ((stmt = parser.next()) != null) {
+                String series = keyMapSeries(stmt.sql);
+                collect(WRITE_PATTERN, stmt.sql, series, access.writes);
+                collect(READ_PATTERN,  stmt.sql, series, access.reads);
+            }
+        }
+        access.reads.removeAll(access.writes);
+        return access;
+    }
+
+    private void collect(Pattern pattern, String sql, String series, Set<String> target) {
+        Matcher m = pattern.matcher(sql);
+        while (m.find()) {
+            String name = normalize(m.group(1));
+            if (name.isEmpty() || NO_TABLE.contains(name)) continue;
+            if (series != null && name.equals(ScriptWriter.KEY_MAP_TABLE)) name += "#" + series;
+            target.add(name);
+        }
+    }
+
+    /**
+     * Serie, auf die ein Statement in der Key-Map zugreift; null, wenn es die Key-Map
+     * nicht nutzt oder sich keine eindeutige Serie findet – dann gilt die ganze Tabelle.
+     */
+    private static String keyMapSeries(String sql) {
+        if (!sql.toUpperCase(Locale.ROOT).contains(ScriptWriter.KEY_MAP_TABLE)) return null;
+        Set<String> series = new TreeSet<>();
+        Matcher m = KEY_MAP_SERIES.matcher(sql);
+        while (m.find()) series.add(m.group(1));
+        return series.size() == 1 ? series.iterator().next() : null;
+    }
+
+    /** Tabellenname ohne Schema-Präfix und Anführungszeichen, in Großbuchstaben. */
+    private static String normalize(String ident) {
+        String name = ident.replace("\"", "");
+        int dot = name.lastIndexOf('.');
+        if (dot >= 0) name = name.substring(dot + 1);
+        return name.toUpperCase(Locale.ROOT);
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int ra = find(parent, a);
+        int rb = find(parent, b);
+        // kleinerer Index bleibt Wurzel → Gruppen behalten die Reihenfolge ihres ersten Scripts
+        if (ra < rb) parent[rb] = ra; else parent[ra] = rb;
+    }
+
+    // ── Ergebnis-Klasse ─────────────────────────────────────────────────────
+
+    /** Gelesene und geschriebene Tabellen eines Scripts. */
+    public static class TableAccess {
+        public final Set<String> reads  = new TreeSet<>();
+        public final Set<String> writes = new TreeSet<>();
+
+        boolean conflictsWith(TableAccess other, Map<String, Set<String>> foreignKeys) {
+            if (intersects(writes, other.writes)
+                    || intersects(writes, other.reads)
+                    || intersects(reads,  other.writes)) {
+                return true;
+            }
+            // Schreiben in Parent und Child blockiert sich über offene Transaktionen
+            for (String table : writes) {
+                if (intersects(foreignKeys.getOrDefault(table, Set.of()), other.writes)) return true;
+            }
+            return false;
+        }
+
+        private static boolean intersects(Set<String> a, Set<String> b) {
+            for (String s : a) if (b.contains(s) || keyMapOverlap(s, b)) return true;
+            return false;
+        }
+
+        /** Zugriff auf die ganze Key-Map überschneidet sich mit jeder Serie und umgekehrt. */
+        private static boolean keyMapOverlap(String table, Set<String> others) {
+            String whole  = ScriptWriter.KEY_MAP_TABLE;
+            String prefix = whole + "#";
+            if (table.equals(whole)) {
+                for (String o : others) if (o.startsWith(prefix)) return true;
+                return false;
+            }
+            return table.startsWith(prefix) && others.contains(whole);
+        }
+    }
+}
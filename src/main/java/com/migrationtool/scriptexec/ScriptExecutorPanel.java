@@ -1,10 +1,13 @@
 package com.migrationtool.scriptexec;
 
 import javax.swing.*;
+import javax.swing.Timer;
 import javax.swing.border.*;
 import java.awt.*;
 import java.io.IOException;
 import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.List;
 import java.util.function.Consumer;
@@ -15,19 +18,53 @@ import java.util.stream.Collectors;
  * Scripts werden rekursiv im konfigurierten Ausgabeverzeichnis gesucht (MERGE_*.sql).
  * Alle ausgewählten Scripts werden in einer Transaktion ausgeführt;
  * bei einem Fehler wird ein vollständiger Rollback durchgeführt.
+ * Mit mehr als einer Verbindung laufen unabhängige Scripts parallel
+ * (gemeinsamer Commit/Rollback am Ende).
+ * Mit Checkpoints wird der Fortschritt in "script-executor.progress" vermerkt;
+ * nach einem Abbruch setzt der nächste Lauf (auch im Workflow) dort fort.
+ * Erfolgreich ausgeführte Scripts werden mit Prüfsumme in "script-executor.applied"
+ * (optional auch in der Ziel-DB) vermerkt; unveränderte werden beim nächsten Lauf
+ * übersprungen.
+ * Während des Laufs wird der Durchsatz live angezeigt; jeder Lauf hinterlässt eine
+ * Zusammenfassung (Zeiten pro Script und Tabelle) im Verzeichnis "script-runs".
+ * Das Log zeigt die letzten {@value #LOG_LINES} Zeilen; das vollständige Log jedes
+ * Laufs landet als run_…log ebenfalls in "script-runs".
+ * Der Probelauf bewertet die Scripts per EXPLAIN PLAN, ohne Daten zu ändern.
+ * „Mehrere Ziele…“ führt die Scripts gleichzeitig gegen mehrere gespeicherte
+ * Ziel-Profile aus (je Ziel eigene Transaktion und eigene Zusammenfassung).
  */
 public class ScriptExecutorPanel extends JPanel {
 
-    private static final Path PROPS_FILE = Paths.get("script-executor.properties");
+    private static final Path PROPS_FILE    = Paths.get("script-executor.properties");
+    private static final Path PROGRESS_FILE = Paths.get("script-executor.progress");
+    private static final Path RUNS_DIR      = Paths.get("script-runs");
+    private static final Path APPLIED_FILE  = Paths.get("script-executor.applied");
+    private static final int  LOG_LINES     = 20_000;
+
+    private static final String[] CHECKPOINT_LABELS = {
+        "Keine (eine Transaktion)", "Pro Script (Savepoint)", "Alle N Statements (Commit)"
+    };
 
     private final ZielDbPanel           zielDbPanel;
     private final ScriptExecutorService service = new ScriptExecutorService();
+    private final ScriptProgressLedger  ledger  = new ScriptProgressLedger(PROGRESS_FILE);
+    private final AppliedScriptLedger   applied = new AppliedScriptLedger(APPLIED_FILE);
 
     private final JTextField      dirField;
     private final JPanel          scriptListPanel;
     private final List<JCheckBox> checkBoxes = new ArrayList<>();
-    private final JTextArea       logArea;
+    private final LogView         logView = new LogView(LOG_LINES);
     private final JButton         executeBtn;
+    private final JButton         explainBtn = new JButton("Probelauf (EXPLAIN PLAN)");
+    private final JButton         fanOutBtn  = new JButton("Mehrere Ziele…");
+    private final JSpinner        parallelSpinner = new JSpinner(new SpinnerNumberModel(1, 1, 16, 1));
+    private final JComboBox<String> checkpointCombo = new JComboBox<>(CHECKPOINT_LABELS);
+    private final JSpinner        checkpointSpinner = new JSpinner(new SpinnerNumberModel(1000, 1, 1_000_000, 100));
+    private final JButton         resetProgressBtn  = new JButton("Fortschritt zurücksetzen");
+    private final JLabel          throughputLabel   = new JLabel(" ");
+    private final JCheckBox       skipAppliedCheck  = new JCheckBox("Unveränderte Scripts überspringen", true);
+    private final JCheckBox       targetLedgerCheck = new JCheckBox("Protokoll auch in Ziel-DB ("
+                                                                     + AppliedScriptLedger.TABLE + ")");
 
     public ScriptExecutorPanel(ZielDbPanel zielDbPanel) {
         this.zielDbPanel = zielDbPanel;
@@ -36,7 +73,6 @@ public class ScriptExecutorPanel extends JPanel {
 
         dirField        = new JTextField();
         scriptListPanel = new JPanel();
-        logArea         = new JTextArea();
         executeBtn      = new JButton("Scripts ausführen");
 
         JPanel topArea = new JPanel();
@@ -113,9 +149,67 @@ public class ScriptExecutorPanel extends JPanel {
     private JPanel buildExecutePanel() {
         executeBtn.setFont(executeBtn.getFont().deriveFont(Font.BOLD, 13f));
         executeBtn.addActionListener(e -> executeManual());
-
-        JPanel panel = new JPanel(new FlowLayout(FlowLayout.CENTER));
-        panel.add(executeBtn);
+        explainBtn.setToolTipText("Erklärt jede MERGE-/INSERT-Vorlage einmal und meldet Full Scans "
+                + "auf den Zieltabellen – ändert keine Daten");
+        explainBtn.addActionListener(e -> explainManual());
+        fanOutBtn.setToolTipText("Dieselben Scripts gleichzeitig gegen mehrere Ziel-Profile ausführen "
+                + "(Profile unter Einstellungen → Ziel-DB)");
+        fanOutBtn.addActionListener(e -> fanOutManual());
+
+        parallelSpinner.setToolTipText("1 = nacheinander auf einer Verbindung; "
+                + "mehr = Scripts ohne gemeinsame Tabellen parallel");
+        parallelSpinner.addChangeListener(e ->
+                saveProperty("script.parallel", String.valueOf(parallelSpinner.getValue())));
+
+        checkpointCombo.setToolTipText("Savepoint: bei Fehler bleiben vorherige Scripts erhalten; "
+                + "Commit: Zwischen-COMMIT alle N Statements");
+        checkpointCombo.addActionListener(e -> {
+            checkpointSpinner.setEnabled(checkpointCombo.getSelectedIndex() == 2);
+            saveProperty("script.checkpoint", getCheckpointMode().name());
+        });
+        checkpointSpinner.setEnabled(false);
+        checkpointSpinner.addChangeListener(e ->
+                saveProperty("script.checkpoint.n", String.valueOf(checkpointSpinner.getValue())));
+        resetProgressBtn.addActionListener(e -> resetProgress());
+
+        skipAppliedCheck.setToolTipText("Scripts, die mit identischem Inhalt (SHA-256) bereits gegen "
+                + "dasselbe Ziel committed wurden, nicht erneut ausführen");
+        skipAppliedCheck.addActionListener(e ->
+                saveProperty("script.skipApplied", String.valueOf(skipAppliedCheck.isSelected())));
+        targetLedgerCheck.setToolTipText("Ausgeführte Scripts zusätzlich in einer Tabelle der Ziel-DB vermerken "
+                + "(wird bei Bedarf angelegt) – gilt dann auch für andere Arbeitsplätze");
+        targetLedgerCheck.addActionListener(e ->
+                saveProperty("script.targetLedger", String.valueOf(targetLedgerCheck.isSelected())));
+
+        JPanel runRow = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        runRow.add(executeBtn);
+        runRow.add(explainBtn);
+        runRow.add(fanOutBtn);
+        runRow.add(Box.createHorizontalStrut(16));
+        runRow.add(new JLabel("Parallele Verbindungen:"));
+        runRow.add(parallelSpinner);
+
+        JPanel checkpointRow = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        checkpointRow.add(new JLabel("Checkpoints:"));
+        checkpointRow.add(checkpointCombo);
+        checkpointRow.add(new JLabel("N ="));
+        checkpointRow.add(checkpointSpinner);
+        checkpointRow.add(resetProgressBtn);
+
+        JPanel appliedRow = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        appliedRow.add(skipAppliedCheck);
+        appliedRow.add(targetLedgerCheck);
+
+        JPanel statsRow = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        throughputLabel.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        statsRow.add(throughputLabel);
+
+        JPanel panel = new JPanel();
+        panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
+        panel.add(runRow);
+        panel.add(checkpointRow);
+        panel.add(appliedRow);
+        panel.add(statsRow);
         return panel;
     }
 
@@ -123,12 +217,10 @@ public class ScriptExecutorPanel extends JPanel {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBorder(new TitledBorder("Log"));
 
-        logArea.setEditable(false);
-        logArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
-        panel.add(new JScrollPane(logArea), BorderLayout.CENTER);
+        panel.add(logView, BorderLayout.CENTER);
 
         JButton clearBtn = new JButton("Log leeren");
-        clearBtn.addActionListener(e -> logArea.setText(""));
+        clearBtn.addActionListener(e -> logView.clear());
         JPanel south = new JPanel(new FlowLayout(FlowLayout.LEFT));
         south.add(clearBtn);
         panel.add(south, BorderLayout.SOUTH);
@@ -156,7 +248,7 @@ public class ScriptExecutorPanel extends JPanel {
                         String name = p.getFileName().toString();
                         return name.startsWith("MERGE_") && name.endsWith(".sql");
                     })
-                    .sorted(Comparator.comparing(p -> p.getFileName().toString()))
+                    .sorted((a, b) -> compareNatural(a.getFileName().toString(), b.getFileName().toString()))
                     .collect(Collectors.toList());
         } catch (IOException e) {
             scriptListPanel.add(new JLabel("<html><i>Fehler beim Lesen: " + e.getMessage() + "</i></html>"));
@@ -182,6 +274,33 @@ public class ScriptExecutorPanel extends JPanel {
         scriptListPanel.repaint();
     }
 
+    /**
+     * Vergleicht Dateinamen mit Zahlenfolgen numerisch – MERGE_X_1000 kommt nach
+     * MERGE_X_999, nicht nach MERGE_X_100 (Teil-Scripts müssen in Reihenfolge laufen).
+     */
+    static int compareNatural(String a, String b) {
+        int i = 0, j = 0;
+        while (i < a.length() && j < b.length()) {
+            char ca = a.charAt(i), cb = b.charAt(j);
+            if (Character.isDigit(ca) && Character.isDigit(cb)) {
+                int ei = i, ej = j;
+                while (ei < a.length() && Character.isDigit(a.charAt(ei))) ei++;
+                while (ej < b.length() && Character.isDigit(b.charAt(ej))) ej++;
+                String na = a.substring(i, ei).replaceFirst("^0+(?=.)", "");
+                String nb = b.substring(j, ej).replaceFirst("^0+(?=.)", "");
+                int c = na.length() != nb.length() ? Integer.compare(na.length(), nb.length()) : na.compareTo(nb);
+                if (c != 0) return c;
+                i = ei;
+                j = ej;
+            } else {
+                if (ca != cb) return Character.compare(ca, cb);
+                i++;
+                j++;
+            }
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+
     // ── Ausführung ────────────────────────────────────────────────────────────
 
     /** Manuelle Ausführung über „Scripts ausführen"-Button (mit Ziel-DB-Prüfung). */
@@ -190,6 +309,119 @@ public class ScriptExecutorPanel extends JPanel {
         runScripts(getSelectedScripts(), result -> { /* Ergebnis bereits im Log */ });
     }
 
+    /** Probelauf über „Probelauf"-Button: EXPLAIN PLAN je Vorlage, keine Datenänderung. */
+    private void explainManual() {
+        if (!checkPrerequisites()) return;
+        List<Path> scripts = getSelectedScripts();
+        logView.clear();
+        appendLog("Ziel: " + zielDbPanel.getUrl());
+        setExecuting(true);
+
+        new SwingWorker<Boolean, Void>() {
+            @Override protected Boolean doInBackground() {
+                return service.explainPlans(scripts,
+                        zielDbPanel.getUrl(),
+                        zielDbPanel.getUser(),
+                        zielDbPanel.getPassword(),
+                        logView::append);
+            }
+            @Override protected void done() {
+                setExecuting(false);
+            }
+        }.execute();
+    }
+
+    /** „Mehrere Ziele…“: Ziele wählen und die Scripts gleichzeitig gegen alle ausführen. */
+    private void fanOutManual() {
+        if (getSelectedScripts().isEmpty()) {
+            appendLog("FEHLER: Keine Scripts ausgewählt.");
+            return;
+        }
+        List<TargetProfile> profiles = zielDbPanel.getProfiles();
+        if (profiles.isEmpty()) {
+            appendLog("FEHLER: Keine Ziel-Profile gespeichert (Einstellungen → Ziel-DB → Als Profil speichern).");
+            return;
+        }
+        List<TargetProfile> targets = chooseTargets(profiles);
+        if (targets == null) return;
+        if (targets.isEmpty()) {
+            appendLog("FEHLER: Kein Ziel ausgewählt.");
+            return;
+        }
+        runFanOut(getSelectedScripts(), targets);
+    }
+
+    /** Dialog: Ziele an-/abwählen und fehlende Passwörter eingeben. null = abgebrochen. */
+    private List<TargetProfile> chooseTargets(List<TargetProfile> profiles) {
+        Set<String> lastChosen = new HashSet<>(Arrays.asList(loadProperty("script.fanout.targets", "").split(",")));
+
+        JPanel form = new JPanel(new GridLayout(0, 2, 8, 4));
+        List<JCheckBox>      boxes  = new ArrayList<>();
+        List<JPasswordField> fields = new ArrayList<>();
+        for (TargetProfile t : profiles) {
+            JCheckBox cb = new JCheckBox(t.name + "  (" + t.user + ")", lastChosen.contains(t.name));
+            cb.setToolTipText(t.url);
+            JPasswordField pw = new JPasswordField(t.password, 14);
+            boxes.add(cb);
+            fields.add(pw);
+            form.add(cb);
+            form.add(pw);
+        }
+        int answer = JOptionPane.showConfirmDialog(this, form, "Ziele für die Ausführung",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (answer != JOptionPane.OK_OPTION) return null;
+
+        List<TargetProfile> chosen = new ArrayList<>();
+        for (int i = 0; i < profiles.size(); i++) {
+            String password = new String(fields.get(i).getPassword());
+            zielDbPanel.rememberPassword(profiles.get(i).name, password);
+            if (boxes.get(i).isSelected()) chosen.add(profiles.get(i).withPassword(password));
+        }
+        saveProperty("script.fanout.targets",
+                chosen.stream().map(t -> t.name).collect(Collectors.joining(",")));
+        return chosen;
+    }
+
+    private void runFanOut(List<Path> scripts, List<TargetProfile> targets) {
+        logView.clear();
+        startLogFile();
+        appendLog("Starte Ausführung von " + scripts.size() + " Script(s) auf " + targets.size() + " Ziel(en):");
+        for (TargetProfile t : targets) appendLog("  " + t.name + "  " + t.url);
+        appendLog("─────────────────────────────────────────");
+
+        setExecuting(true);
+        int parallel = (Integer) parallelSpinner.getValue();
+        service.setCheckpoints(getCheckpointMode(), (Integer) checkpointSpinner.getValue());
+        service.setProgressLedger(ledger);
+        configureAppliedLedger();
+
+        List<ScriptExecutorService.TargetResult> results = new ArrayList<>();
+        for (TargetProfile t : targets) results.add(new ScriptExecutorService.TargetResult(t));
+        Timer liveTimer = new Timer(500, e -> throughputLabel.setText(formatLive(results)));
+        liveTimer.start();
+
+        new SwingWorker<Boolean, Void>() {
+            @Override protected Boolean doInBackground() {
+                return service.executeFanOut(scripts, results, parallel, logView::append);
+            }
+            @Override protected void done() {
+                liveTimer.stop();
+                setExecuting(false);
+                throughputLabel.setText(formatLive(results));
+                for (ScriptExecutorService.TargetResult r : results) {
+                    writeSummary(r.stats, r.target.url, r.success, r.target.name);
+                }
+                stopLogFile();
+            }
+        }.execute();
+    }
+
+    private static String formatLive(List<ScriptExecutorService.TargetResult> results) {
+        return results.stream()
+                .map(r -> r.target.name + ": " + String.format(Locale.ROOT, "%,.0f/s", r.stats.getStatementsPerSecond()))
+                .collect(Collectors.joining("  ·  "));
+    }
+
     /**
      * Automatische Ausführung für den Workflow.
      * Scannt das Verzeichnis neu und führt alle gefundenen Scripts aus.
@@ -223,40 +455,126 @@ public class ScriptExecutorPanel extends JPanel {
     }
 
     private void runScripts(List<Path> scripts, Consumer<Boolean> onComplete) {
-        logArea.setText("");
+        logView.clear();
+        startLogFile();
         appendLog("Starte Ausführung von " + scripts.size() + " Script(s)…");
         appendLog("Ziel: " + zielDbPanel.getUrl());
         appendLog("─────────────────────────────────────────");
 
+        int resumable = ledger.countRecorded(
+                AppliedScriptLedger.target(zielDbPanel.getUrl(), zielDbPanel.getUser()), scripts);
+        if (resumable > 0) {
+            appendLog("Fortsetzung: " + resumable + " Script(s) mit gespeichertem Fortschritt.");
+        }
+
         setExecuting(true);
+        int parallel = (Integer) parallelSpinner.getValue();
+        service.setCheckpoints(getCheckpointMode(), (Integer) checkpointSpinner.getValue());
+        service.setProgressLedger(ledger);
+        configureAppliedLedger();
 
-        new SwingWorker<Boolean, String>() {
+        ScriptRunStats stats = new ScriptRunStats();
+        service.setRunStats(stats);
+        Timer liveTimer = new Timer(500, e -> throughputLabel.setText(stats.formatLive()));
+        liveTimer.start();
+
+        new SwingWorker<Boolean, Void>() {
             @Override protected Boolean doInBackground() {
-                return service.execute(scripts,
+                return service.executeParallel(scripts,
                         zielDbPanel.getUrl(),
                         zielDbPanel.getUser(),
                         zielDbPanel.getPassword(),
-                        this::publish);
-            }
-            @Override protected void process(List<String> chunks) {
-                chunks.forEach(ScriptExecutorPanel.this::appendLog);
+                        parallel,
+                        logView::append);
             }
             @Override protected void done() {
+                liveTimer.stop();
                 setExecuting(false);
                 boolean success = false;
                 try { success = get(); } catch (Exception ignored) {}
+                throughputLabel.setText(stats.formatLive());
+                writeSummary(stats, success);
+                stopLogFile();
                 onComplete.accept(success);
             }
         }.execute();
     }
 
+    private void writeSummary(ScriptRunStats stats, boolean success) {
+        writeSummary(stats, zielDbPanel.getUrl(), success, null);
+    }
+
+    private void writeSummary(ScriptRunStats stats, String target, boolean success, String label) {
+        try {
+            Path file = stats.writeSummary(RUNS_DIR, target, success, label);
+            appendLog("Zusammenfassung: " + file.toAbsolutePath());
+        } catch (IOException e) {
+            appendLog("Zusammenfassung konnte nicht geschrieben werden: " + e.getMessage());
+        }
+    }
+
     private void setExecuting(boolean active) {
         executeBtn.setEnabled(!active);
+        explainBtn.setEnabled(!active);
+        fanOutBtn.setEnabled(!active);
+        parallelSpinner.setEnabled(!active);
+        checkpointCombo.setEnabled(!active);
+        resetProgressBtn.setEnabled(!active);
+        skipAppliedCheck.setEnabled(!active);
+        targetLedgerCheck.setEnabled(!active);
+    }
+
+    private void configureAppliedLedger() {
+        applied.setUseTargetTable(targetLedgerCheck.isSelected());
+        service.setAppliedLedger(skipAppliedCheck.isSelected() ? applied : null);
+    }
+
+    private ScriptExecutorService.CheckpointMode getCheckpointMode() {
+        return ScriptExecutorService.CheckpointMode.values()[Math.max(0, checkpointCombo.getSelectedIndex())];
+    }
+
+    /** Verwirft Fortschritt und Ausführungsvermerk der ausgewählten Scripts für die aktuelle Ziel-DB. */
+    private void resetProgress() {
+        List<Path> scripts = getSelectedScripts();
+        String     target  = AppliedScriptLedger.target(zielDbPanel.getUrl(), zielDbPanel.getUser());
+        int n    = ledger.countRecorded(target, scripts);
+        int done = applied.countRecorded(target, scripts);
+        if (n == 0 && done == 0) {
+            appendLog("Kein gespeicherter Fortschritt für die ausgewählten Scripts.");
+            return;
+        }
+        int answer = JOptionPane.showConfirmDialog(this,
+                "Fortschritt von " + n + " Script(s) und Ausführungsvermerk von " + done + " Script(s) verwerfen?\n"
+                + "Der nächste Lauf führt sie dann wieder vollständig aus."
+                + (targetLedgerCheck.isSelected()
+                        ? "\n(Einträge in " + AppliedScriptLedger.TABLE + " der Ziel-DB bleiben erhalten.)" : ""),
+                "Fortschritt zurücksetzen", JOptionPane.YES_NO_OPTION);
+        if (answer != JOptionPane.YES_OPTION) return;
+        ledger.clear(target, scripts);
+        applied.forget(target, scripts);
+        appendLog("Fortschritt von " + n + " und Ausführungsvermerk von " + done + " Script(s) zurückgesetzt.");
     }
 
     private void appendLog(String line) {
-        logArea.append(line + "\n");
-        logArea.setCaretPosition(logArea.getDocument().getLength());
+        logView.append(line);
+    }
+
+    /** Vollständiges Log des Laufs zusätzlich in script-runs/run_yyyyMMdd_HHmmss.log schreiben. */
+    private void startLogFile() {
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        try {
+            logView.startFile(RUNS_DIR.resolve("run_" + stamp + ".log"));
+        } catch (IOException e) {
+            appendLog("Log-Datei konnte nicht angelegt werden: " + e.getMessage());
+        }
+    }
+
+    private void stopLogFile() {
+        try {
+            logView.stopFile();
+        } catch (IOException e) {
+            appendLog("Log-Datei unvollständig: " + e.getMessage());
+        }
     }
 
     // ── Persistenz des Verzeichnisses ─────────────────────────────────────────
@@ -266,6 +584,14 @@ public class ScriptExecutorPanel extends JPanel {
             Properties p = new Properties();
             try (var in = Files.newInputStream(PROPS_FILE)) {
                 p.load(in);
+                try {
+                    parallelSpinner.setValue(Integer.parseInt(p.getProperty("script.parallel", "1").trim()));
+                    checkpointSpinner.setValue(Integer.parseInt(p.getProperty("script.checkpoint.n", "1000").trim()));
+                    skipAppliedCheck.setSelected(Boolean.parseBoolean(p.getProperty("script.skipApplied", "true")));
+                    targetLedgerCheck.setSelected(Boolean.parseBoolean(p.getProperty("script.targetLedger", "false")));
+                    checkpointCombo.setSelectedIndex(ScriptExecutorService.CheckpointMode
+                            .valueOf(p.getProperty("script.checkpoint", "NONE").trim()).ordinal());
+                } catch (IllegalArgumentException ignored) {}
                 String dir = p.getProperty("script.dir", "").trim();
                 if (!dir.isEmpty()) {
                     dirField.setText(dir);
@@ -290,8 +616,28 @@ public class ScriptExecutorPanel extends JPanel {
     }
 
     private void saveDir(String dir) {
+        saveProperty("script.dir", dir);
+    }
+
+    private String loadProperty(String key, String defaultValue) {
+        Properties p = new Properties();
+        if (Files.exists(PROPS_FILE)) {
+            try (var in = Files.newInputStream(PROPS_FILE)) {
+                p.load(in);
+            } catch (IOException ignored) {}
+        }
+        return p.getProperty(key, defaultValue);
+    }
+
+    /** Setzt einen Wert in script-executor.properties, ohne die übrigen zu verlieren. */
+    private void saveProperty(String key, String value) {
         Properties p = new Properties();
-        p.setProperty("script.dir", dir);
+        if (Files.exists(PROPS_FILE)) {
+            try (var in = Files.newInputStream(PROPS_FILE)) {
+                p.load(in);
+            } catch (IOException ignored) {}
+        }
+        p.setProperty(key, value);
         try (var out = Files.newOutputStream(PROPS_FILE)) {
             p.store(out, null);
         } catch (IOException ignored) {}
@@ -1,63 +1,158 @@
 package com.migrationtool.scriptexec;
 
+import com.mergegen.generator.ScriptWriter;
+
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 /**
  * Führt eine Liste von SQL/PL-SQL-Dateien in einer einzigen Transaktion
  * gegen die Ziel-Datenbank aus.
  * Bei jedem Fehler wird ein vollständiger Rollback durchgeführt.
+ *
+ * Die Scripts werden mit {@link SqlScriptParser} statementweise gelesen, Fehler
+ * werden mit Zeilennummer gemeldet.
+ *
+ * Optional ({@link #executeParallel}) laufen voneinander unabhängige Scripts auf
+ * mehreren Verbindungen gleichzeitig; Commit bzw. Rollback erfolgt erst, wenn alle
+ * Verbindungen fertig sind.
+ *
+ * Für lange Läufe lassen sich Checkpoints setzen ({@link #setCheckpoints}); der
+ * Fortschritt wird dann im {@link ScriptProgressLedger} vermerkt, und ein erneuter
+ * Lauf setzt nach dem letzten Checkpoint fort.
+ *
+ * Mit einem {@link AppliedScriptLedger} ({@link #setAppliedLedger}) werden Scripts,
+ * die mit identischem Inhalt bereits gegen dasselbe Ziel committed wurden, übersprungen.
+ *
+ * Laufzeit, betroffene Zeilen und Durchsatz werden pro Statement-Form und Script in
+ * {@link ScriptRunStats} gemessen ({@link #setRunStats}).
+ *
+ * {@link #executeFanOut} verteilt dieselben Scripts gleichzeitig auf mehrere Ziele
+ * ({@link TargetProfile}); jedes Ziel hat eigene Verbindung, Transaktion und Messwerte.
+ *
+ * {@link #explainPlans} ist ein Probelauf ohne Datenänderung: jede MERGE-/INSERT-Vorlage
+ * wird einmal per EXPLAIN PLAN bewertet, Full Scans auf Zieltabellen werden gemeldet.
  */
 public class ScriptExecutorService {
 
+    /** Maximale Anzahl DML-Statements pro JDBC-Batch. */
+    private static final int BATCH_SIZE = 500;
+    /** Maximale Textmenge pro JDBC-Batch (Zeichen) – begrenzt den Heap bei langen Statements. */
+    private static final long BATCH_MAX_CHARS = 4_000_000;
+
+    /** Checkpoint-Granularität für sequentielle Läufe. */
+    public enum CheckpointMode {
+        /** Eine Transaktion über alle Scripts (Standard). */
+        NONE,
+        /** Savepoint vor jedem Script; bei Fehler werden die vorherigen Scripts committed. */
+        SCRIPT,
+        /** Zwischen-COMMIT alle N Statements und am Ende jedes Scripts. */
+        STATEMENTS
+    }
+
+    private CheckpointMode       checkpointMode  = CheckpointMode.NONE;
+    private int                  checkpointEvery = 1000;
+    private ScriptProgressLedger ledger;
+    private ScriptRunStats       runStats;
+    private AppliedScriptLedger  appliedLedger;
+
+    /**
+     * Legt die Checkpoint-Granularität fest.
+     *
+     * @param everyStatements Abstand der Zwischen-COMMITs bei {@link CheckpointMode#STATEMENTS}
+     */
+    public void setCheckpoints(CheckpointMode mode, int everyStatements) {
+        this.checkpointMode  = mode != null ? mode : CheckpointMode.NONE;
+        this.checkpointEvery = Math.max(1, everyStatements);
+    }
+
+    /** Fortschrittsprotokoll für fortsetzbare Läufe (null = keins). */
+    public void setProgressLedger(ScriptProgressLedger ledger) {
+        this.ledger = ledger;
+    }
+
+    /** Protokoll ausgeführter Scripts; unveränderte werden übersprungen (null = alle ausführen). */
+    public void setAppliedLedger(AppliedScriptLedger appliedLedger) {
+        this.appliedLedger = appliedLedger;
+    }
+
+    /**
+     * Messwerte des nächsten Laufs (null = nur intern messen). Die Instanz kann während
+     * des Laufs aus einem anderen Thread gelesen werden (Live-Anzeige).
+     */
+    public void setRunStats(ScriptRunStats runStats) {
+        this.runStats = runStats;
+    }
+
     /**
      * @return true wenn alle Scripts erfolgreich ausgeführt und committed wurden
      */
     public boolean execute(List<Path> scripts, String url, String user, String password,
                            Consumer<String> logger) {
-        try {
-            Class.forName("oracle.jdbc.OracleDriver");
-        } catch (ClassNotFoundException e) {
-            logger.accept("FEHLER: Oracle JDBC-Treiber nicht gefunden.");
-            return false;
-        }
+        if (!loadDriver(logger)) return false;
+        ScriptRunStats stats = runStats != null ? runStats : new ScriptRunStats();
 
         Connection conn = null;
         try {
             conn = DriverManager.getConnection(url, user, password);
             conn.setAutoCommit(false);
+            ensureKeyMap(conn, scripts, logger);
 
-            for (Path script : scripts) {
-                String name = script.getFileName().toString();
-                logger.accept("▶  " + name);
+            Map<Path, String> checksums = new HashMap<>();
+            List<Path> pending = skipApplied(conn, url, user, scripts, checksums, logger);
 
-                String sql;
-                try {
-                    sql = prepare(Files.readString(script, StandardCharsets.UTF_8));
-                } catch (IOException e) {
-                    logger.accept("   FEHLER beim Lesen: " + e.getMessage());
-                    rollback(conn, logger);
-                    return false;
+            String     target    = AppliedScriptLedger.target(url, user);
+            List<Path> completed = new ArrayList<>();
+            for (Path script : pending) {
+                int applied = ledger != null ? ledger.getApplied(target, script) : 0;
+                if (applied == ScriptProgressLedger.DONE) {
+                    logger.accept("⏭  " + script.getFileName() + "  (bereits ausgeführt – übersprungen)");
+                    continue;
                 }
+                logger.accept("▶  " + script.getFileName()
+                        + (applied > 0 ? "  (Fortsetzung nach Statement " + applied + ")" : ""));
 
-                try (Statement stmt = conn.createStatement()) {
-                    stmt.execute(sql);
-                    logger.accept("   ✓  OK");
-                } catch (SQLException e) {
-                    logger.accept("   ✗  FEHLER: " + e.getMessage());
-                    rollback(conn, logger);
+                Savepoint   savepoint = checkpointMode == CheckpointMode.SCRIPT ? conn.setSavepoint() : null;
+                int         every     = checkpointMode == CheckpointMode.STATEMENTS ? checkpointEvery : 0;
+                IntConsumer onCommit  = ledger != null ? n -> ledger.markPartial(target, script, n) : n -> { };
+
+                if (!runScript(conn, script, logger, new AtomicBoolean(), applied, every, onCommit, stats)) {
+                    if (savepoint != null) {
+                        keepCompleted(conn, savepoint, completed, url, user, checksums, logger);
+                    } else {
+                        rollback(conn, logger);
+                    }
+                    if (checkpointMode != CheckpointMode.NONE) {
+                        logger.accept("Nächster Lauf setzt bei " + script.getFileName() + " fort.");
+                    }
                     return false;
                 }
+
+                if (checkpointMode == CheckpointMode.STATEMENTS) {
+                    commitApplied(conn, url, user, List.of(script), checksums, stats);
+                    if (ledger != null) ledger.markDone(target, script);
+                } else {
+                    completed.add(script);
+                }
             }
 
-            conn.commit();
+            commitApplied(conn, url, user, completed, checksums, stats);
+            if (ledger != null) ledger.clear(target, scripts);
             logger.accept("─────────────────────────────────────────");
             logger.accept("Alle Scripts erfolgreich ausgeführt. Commit.");
+            logger.accept("Gesamt: " + stats.formatLive());
             return true;
 
         } catch (SQLException e) {
@@ -68,6 +163,388 @@ public class ScriptExecutorService {
         }
     }
 
+    /**
+     * Führt die Scripts auf bis zu maxConnections Verbindungen parallel aus.
+     * Die Aufteilung übernimmt {@link ScriptDependencyPlanner}: Scripts mit gemeinsam
+     * genutzten oder per Fremdschlüssel verbundenen Tabellen bleiben in Reihenfolge auf
+     * derselben Verbindung. Schlägt eine
+     * Verbindung fehl, brechen die übrigen nach dem laufenden Statement ab und alle
+     * werden zurückgerollt; sonst werden alle nacheinander committed.
+     *
+     * @return true wenn alle Scripts erfolgreich ausgeführt und committed wurden
+     */
+    public boolean executeParallel(List<Path> scripts, String url, String user, String password,
+                                   int maxConnections, Consumer<String> logger) {
+        if (maxConnections <= 1) return execute(scripts, url, user, password, logger);
+        if (checkpointMode != CheckpointMode.NONE
+                || (ledger != null && ledger.countRecorded(AppliedScriptLedger.target(url, user), scripts) > 0)) {
+            logger.accept("Hinweis: Checkpoints/Fortsetzung nur sequentiell – parallele Ausführung deaktiviert.");
+            return execute(scripts, url, user, password, logger);
+        }
+
+        // Unveränderte Scripts vorab aussortieren – sie werden dann auch nicht analysiert.
+        // Die Fremdschlüssel des Ziels gehören zur Gruppenbildung (Parent/Child-Sperren).
+        if (!loadDriver(logger)) return false;
+        Map<Path, String>        checksums = new HashMap<>();
+        Map<String, Set<String>> foreignKeys;
+        try (Connection conn = DriverManager.getConnection(url, user, password)) {
+            if (appliedLedger != null) scripts = skipApplied(conn, url, user, scripts, checksums, logger);
+            foreignKeys = scripts.isEmpty() ? Map.of() : ScriptDependencyPlanner.loadForeignKeys(conn);
+        } catch (SQLException e) {
+            logger.accept("FEHLER bei DB-Verbindung: " + e.getMessage());
+            return false;
+        }
+        if (scripts.isEmpty()) {
+            logger.accept("Keine geänderten Scripts – nichts auszuführen.");
+            return true;
+        }
+
+        List<List<Path>> groups;
+        try {
+            groups = new ScriptDependencyPlanner().plan(scripts, foreignKeys);
+        } catch (IOException e) {
+            logger.accept("FEHLER beim Analysieren der Scripts: " + e.getMessage());
+            return false;
+        }
+        int lanes = Math.min(maxConnections, groups.size());
+        logger.accept(groups.size() + " unabhängige Gruppe(n), " + lanes + " Verbindung(en)");
+        if (lanes <= 1) return execute(scripts, url, user, password, logger);
+        ScriptRunStats stats = runStats != null ? runStats : new ScriptRunStats();
+
+        Queue<List<Path>> queue  = new ConcurrentLinkedQueue<>(groups);
+        AtomicBoolean     failed = new AtomicBoolean(false);
+        List<Connection>  conns  = new ArrayList<>();
+        List<List<Path>>  ran    = new ArrayList<>();
+        ExecutorService   pool   = Executors.newFixedThreadPool(lanes);
+        try {
+            for (int i = 0; i < lanes; i++) {
+                Connection conn = DriverManager.getConnection(url, user, password);
+                conn.setAutoCommit(false);
+                conns.add(conn);
+                ran.add(new ArrayList<>());
+            }
+            ensureKeyMap(conns.get(0), scripts, logger);
+
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < lanes; i++) {
+                Connection       conn    = conns.get(i);
+                List<Path>       laneRan = ran.get(i);
+                String           tag     = "[" + (i + 1) + "] ";
+                Consumer<String> laneLog = line -> logger.accept(tag + line);
+                futures.add(pool.submit(() -> {
+                    List<Path> group;
+                    while (!failed.get() && (group = queue.poll()) != null) {
+                        for (Path script : group) {
+                            if (failed.get()) return;
+                            laneLog.accept("▶  " + script.getFileName());
+                            if (!runScript(conn, script, laneLog, failed, 0, 0, n -> { }, stats)) {
+                                failed.set(true);
+                                return;
+                            }
+                            laneRan.add(script);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    logger.accept("FEHLER: " + e.getCause());
+                    failed.set(true);
+                }
+            }
+
+            logger.accept("─────────────────────────────────────────");
+            if (failed.get()) {
+                for (Connection conn : conns) rollback(conn, logger);
+                return false;
+            }
+            for (int i = 0; i < conns.size(); i++) {
+                try {
+                    commitApplied(conns.get(i), url, user, ran.get(i), checksums, stats);
+                } catch (SQLException e) {
+                    logger.accept("FEHLER beim Commit auf Verbindung " + (i + 1) + ": " + e.getMessage()
+                            + (i > 0 ? " – Verbindung(en) 1–" + i + " bereits committed!" : ""));
+                    for (int j = i; j < conns.size(); j++) rollback(conns.get(j), logger);
+                    return false;
+                }
+            }
+            logger.accept("Alle Scripts erfolgreich ausgeführt. Commit auf " + conns.size() + " Verbindung(en).");
+            logger.accept("Gesamt: " + stats.formatLive());
+            return true;
+
+        } catch (SQLException e) {
+            logger.accept("FEHLER bei DB-Verbindung: " + e.getMessage());
+            for (Connection conn : conns) rollback(conn, logger);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed.set(true);
+            for (Connection conn : conns) rollback(conn, logger);
+            return false;
+        } finally {
+            pool.shutdownNow();
+            for (Connection conn : conns) try { conn.close(); } catch (SQLException ignored) {}
+        }
+    }
+
+    /**
+     * Führt die Scripts gleichzeitig gegen mehrere Ziele aus – je Ziel ein eigener Thread
+     * mit eigener Transaktion. Ein Fehler auf einem Ziel rollt nur dieses Ziel zurück;
+     * die anderen laufen weiter und committen unabhängig. Checkpoints, Fortschritts-
+     * protokoll und parallele Verbindungen gelten pro Ziel wie bei {@link #executeParallel};
+     * die Protokolle sind nach Schema und DB getrennt. Zwei Profile auf dasselbe Schema
+     * werden abgelehnt.
+     *
+     * @param results je Ziel ein {@link TargetResult}; Messwerte und Ergebnis werden dort
+     *                eingetragen und können während des Laufs gelesen werden
+     * @return true wenn alle Ziele erfolgreich committed wurden
+     */
+    public boolean executeFanOut(List<Path> scripts, List<TargetResult> results,
+                                 int maxConnections, Consumer<String> logger) {
+        if (results.isEmpty()) return false;
+        List<TargetProfile> targets = new ArrayList<>();
+        for (TargetResult result : results) targets.add(result.target);
+        String shared = TargetProfile.findSharedSchema(targets);
+        if (shared != null) {
+            logger.accept("FEHLER: Profile " + shared + " bezeichnen dasselbe Schema – "
+                    + "gleichzeitige Ausführung nicht möglich.");
+            return false;
+        }
+        if (!loadDriver(logger)) return false;
+
+        ExecutorService pool = Executors.newFixedThreadPool(results.size());
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (TargetResult result : results) {
+                ScriptExecutorService single = new ScriptExecutorService();
+                single.setCheckpoints(checkpointMode, checkpointEvery);
+                single.setProgressLedger(ledger);
+                single.setAppliedLedger(appliedLedger);
+                single.setRunStats(result.stats);
+                TargetProfile    t         = result.target;
+                Consumer<String> targetLog = line -> logger.accept("[" + t.name + "] " + line);
+                futures.add(pool.submit(() ->
+                        single.executeParallel(scripts, t.url, t.user, t.password, maxConnections, targetLog)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                TargetResult result = results.get(i);
+                try {
+                    result.success = futures.get(i).get();
+                } catch (ExecutionException e) {
+                    logger.accept("[" + result.target.name + "] FEHLER: " + e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        logger.accept("═════════════════════════════════════════");
+        for (TargetResult result : results) {
+            logger.accept(String.format("%-12s %s  %s", result.target.name,
+                    result.success ? "✔ Commit  " : "✘ Rollback", result.stats.formatLive()));
+        }
+        return results.stream().allMatch(r -> r.success);
+    }
+
+    /**
+     * Probelauf: erklärt jede unterschiedliche MERGE-/INSERT-Vorlage der Scripts einmal
+     * per EXPLAIN PLAN und gibt Kosten sowie Full Scans gruppiert nach Zieltabelle aus.
+     * Es werden keine Daten geändert (PLAN_TABLE-Einträge werden zurückgerollt).
+     *
+     * @return true wenn keine Vorlage die Zieltabelle vollständig liest
+     */
+    public boolean explainPlans(List<Path> scripts, String url, String user, String password,
+                                Consumer<String> logger) {
+        ScriptPlanExplainer explainer = new ScriptPlanExplainer();
+        List<ScriptPlanExplainer.Template> templates;
+        try {
+            templates = explainer.collect(scripts);
+        } catch (IOException e) {
+            logger.accept("FEHLER beim Lesen: " + e.getMessage());
+            return false;
+        }
+        int total = templates.stream().mapToInt(t -> t.occurrences).sum();
+        logger.accept("Probelauf (EXPLAIN PLAN): " + templates.size() + " Vorlage(n) für "
+                + total + " DML-Statement(s)");
+        if (templates.isEmpty() || !loadDriver(logger)) return templates.isEmpty();
+
+        Map<String, List<ScriptPlanExplainer.Template>> byTable = new TreeMap<>();
+        for (ScriptPlanExplainer.Template t : templates) {
+            byTable.computeIfAbsent(t.table, k -> new ArrayList<>()).add(t);
+        }
+
+        int warnings = 0;
+        try (Connection conn = DriverManager.getConnection(url, user, password)) {
+            conn.setAutoCommit(false);
+            int n = 0;
+            for (Map.Entry<String, List<ScriptPlanExplainer.Template>> entry : byTable.entrySet()) {
+                logger.accept("── " + entry.getKey() + " ──");
+                for (ScriptPlanExplainer.Template t : entry.getValue()) {
+                    String head = "   " + t.verb
+                            + (t.searchColumns.isEmpty() ? ""
+                                    : ("MERGE".equals(t.verb) ? " ON " : " NOT EXISTS ")
+                                      + String.join(", ", t.searchColumns))
+                            + "  ×" + t.occurrences + "  (" + t.firstScript + " Zeile " + t.firstLine + ")";
+                    try {
+                        explainer.explain(conn, t, "MIGTOOL_" + (++n));
+                    } catch (SQLException e) {
+                        logger.accept(head + "  –  nicht erklärbar: " + e.getMessage());
+                        continue;
+                    }
+                    logger.accept(head + "  Kosten " + (t.cost != null ? t.cost : "?")
+                            + (t.cost != null && t.occurrences > 1 ? " (gesamt ≈ " + t.cost * t.occurrences + ")" : ""));
+                    if (t.scansTarget()) {
+                        warnings++;
+                        logger.accept("   ⚠  FULL SCAN auf " + t.table + " – Index auf "
+                                + (t.searchColumns.isEmpty() ? "den Suchspalten" : String.join(", ", t.searchColumns))
+                                + " prüfen");
+                    }
+                }
+            }
+            conn.rollback();
+        } catch (SQLException e) {
+            logger.accept("FEHLER bei DB-Verbindung: " + e.getMessage());
+            return false;
+        }
+
+        logger.accept("─────────────────────────────────────────");
+        logger.accept(warnings == 0 ? "Keine Full Scans auf Zieltabellen."
+                : warnings + " Vorlage(n) mit Full Scan auf der Zieltabelle.");
+        return warnings == 0;
+    }
+
+    private boolean loadDriver(Consumer<String> logger) {
+        try {
+            Class.forName("oracle.jdbc.OracleDriver");
+            return true;
+        } catch (ClassNotFoundException e) {
+            logger.accept("FEHLER: Oracle JDBC-Treiber nicht gefunden.");
+            return false;
+        }
+    }
+
+    /**
+     * Legt die Key-Map der Teil-Scripts ({@link ScriptWriter#KEY_MAP_TABLE}) an, wenn ein
+     * Script sie braucht und sie fehlt. DDL committed in Oracle implizit – daher vor dem
+     * ersten Script, nicht im Script selbst. Eine vorhandene Tabelle wird nie verändert;
+     * passt ihr Aufbau nicht, bricht der Lauf mit einer Meldung ab.
+     */
+    private void ensureKeyMap(Connection conn, List<Path> scripts, Consumer<String> logger) throws SQLException {
+        boolean needed = false;
+        for (Path script : scripts) {
+            try {
+                if (ScriptWriter.needsKeyMap(script)) { needed = true; break; }
+            } catch (IOException e) {
+                // nicht lesbare Scripts meldet runScript
+            }
+        }
+        if (!needed) return;
+
+        String table = ScriptWriter.KEY_MAP_TABLE;
+        List<String> columns = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT COLUMN_NAME FROM USER_TAB_COLUMNS WHERE TABLE_NAME = ?")) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) columns.add(rs.getString(1));
+            }
+        }
+        if (!columns.isEmpty()) {
+            if (columns.containsAll(List.of("SERIES", "MAP_KEY", "NEW_ID"))) return;
+            throw new SQLException("Tabelle " + table + " existiert mit anderem Aufbau (Spalten " + columns
+                    + ") – bitte umbenennen oder entfernen. Erwartet: " + ScriptWriter.KEY_MAP_DDL);
+        }
+        try (Statement st = conn.createStatement()) {
+            st.execute(ScriptWriter.KEY_MAP_DDL);
+        }
+        logger.accept("Hilfstabelle " + table + " angelegt.");
+    }
+
+    /**
+     * Prüft die Scripts gegen das {@link AppliedScriptLedger} und liefert die noch
+     * auszuführenden. Die Prüfsummen aller Scripts landen in checksums.
+     */
+    private List<Path> skipApplied(Connection conn, String url, String user, List<Path> scripts,
+                                   Map<Path, String> checksums, Consumer<String> logger) throws SQLException {
+        if (appliedLedger == null) return scripts;
+        boolean inTarget = appliedLedger.isUseTargetTable();
+        if (inTarget) appliedLedger.ensureTargetTable(conn);
+
+        String     target  = AppliedScriptLedger.target(url, user);
+        List<Path> pending = new ArrayList<>();
+        for (Path script : scripts) {
+            String checksum;
+            try {
+                checksum = AppliedScriptLedger.checksum(script);
+            } catch (IOException e) {
+                logger.accept("Prüfsumme für " + script.getFileName() + " nicht lesbar: " + e.getMessage());
+                pending.add(script);
+                continue;
+            }
+            checksums.put(script, checksum);
+            if (appliedLedger.isApplied(target, script, checksum)
+                    || (inTarget && appliedLedger.isAppliedInTarget(conn, script, checksum))) {
+                logger.accept("⏭  " + script.getFileName() + "  (unverändert bereits ausgeführt – übersprungen)");
+            } else {
+                pending.add(script);
+            }
+        }
+        if (pending.size() < scripts.size()) {
+            logger.accept((scripts.size() - pending.size()) + " von " + scripts.size()
+                    + " Script(s) unverändert – werden nicht erneut ausgeführt.");
+        }
+        return pending;
+    }
+
+    /**
+     * Committed und vermerkt die Scripts als ausgeführt: in der Ziel-DB innerhalb
+     * der Transaktion, lokal erst nach erfolgreichem Commit.
+     */
+    private void commitApplied(Connection conn, String url, String user, List<Path> done,
+                               Map<Path, String> checksums, ScriptRunStats stats) throws SQLException {
+        boolean record = appliedLedger != null;
+        if (record && appliedLedger.isUseTargetTable()) {
+            for (Path script : done) {
+                String checksum = checksums.get(script);
+                if (checksum != null) appliedLedger.recordInTarget(conn, script, checksum);
+            }
+        }
+        if (stats != null) commit(conn, stats); else conn.commit();
+        if (record) {
+            for (Path script : done) {
+                String checksum = checksums.get(script);
+                if (checksum != null) appliedLedger.markApplied(AppliedScriptLedger.target(url, user), script, checksum);
+            }
+        }
+    }
+
+    /**
+     * Checkpoint-Modus SCRIPT: verwirft nur das fehlgeschlagene Script (Rollback auf den
+     * Savepoint) und committed die davor erfolgreich ausgeführten.
+     */
+    private void keepCompleted(Connection conn, Savepoint savepoint, List<Path> completed, String url,
+                               String user, Map<Path, String> checksums, Consumer<String> logger)
+            throws SQLException {
+        conn.rollback(savepoint);
+        commitApplied(conn, url, user, completed, checksums, null);
+        if (ledger != null) {
+            String target = AppliedScriptLedger.target(url, user);
+            for (Path done : completed) ledger.markDone(target, done);
+        }
+        logger.accept("Rollback des fehlgeschlagenen Scripts; " + completed.size()
+                + " vorherige(s) Script(s) committed.");
+    }
+
+    private static void commit(Connection conn, ScriptRunStats stats) throws SQLException {
+        long t0 = System.nanoTime();
+        conn.commit();
+        stats.recordCommit(System.nanoTime() - t0);
+    }
+
     private void rollback(Connection conn, Consumer<String> logger) {
         try {
             conn.rollback();
@@ -78,14 +555,245 @@ public class ScriptExecutorService {
     }
 
     /**
-     * Entfernt SQL*Plus-Terminatoren (trailing / und führende Leerzeilen).
-     * Oracle JDBC verarbeitet MERGE- und PL/SQL-Statements ohne abschließenden /.
+     * Führt ein Script Statement für Statement aus. Aufeinanderfolgende DML-Statements,
+     * die sich nur in ihren Literalen unterscheiden ({@link SqlLiteralBinder}), laufen als
+     * ein PreparedStatement mit Bind-Variablen und einer Batch-Zeile je Statement – ein
+     * Roundtrip je Batch statt je Statement. COMMIT/ROLLBACK im Script werden
+     * übersprungen, damit alle Scripts eine Transaktion bleiben.
+     *
+     * @param abort       wird zwischen den Statements geprüft (Abbruch durch parallele Verbindung)
+     * @param skip        Anzahl Statements am Anfang, die bereits committed sind (Fortsetzung)
+     * @param commitEvery Zwischen-COMMIT alle n Statements (0 = keiner)
+     * @param onCommit    erhält nach jedem Zwischen-COMMIT die Anzahl committeter Statements
+     * @param stats       erhält Lese-, Ausführungs- und Commit-Zeiten
+     * @return true wenn alle Statements fehlerfrei ausgeführt wurden
      */
-    private String prepare(String content) {
-        String sql = content.strip();
-        if (sql.endsWith("/")) {
-            sql = sql.substring(0, sql.length() - 1).strip();
+    private boolean runScript(Connection conn, Path script, Consumer<String> logger, AtomicBoolean abort,
+                              int skip, int commitEvery, IntConsumer onCommit, ScriptRunStats stats) {
+        PendingBatch batch = new PendingBatch(conn, script, stats);
+        String where    = "";       // was gerade ausgeführt wird – für die Fehlermeldung
+        int    executed = 0;
+        int    skipped  = 0;
+        int index          = 0;     // Position des Statements im Script (1-basiert)
+        int lastCheckpoint = skip;
+        long rows    = 0;
+        long started = System.nanoTime();
+
+        try (SqlScriptParser parser = SqlScriptParser.open(script);
+             Statement stmt = conn.createStatement()) {
+            batch.stmt = stmt;
+            SqlScriptParser.Statement next;
+            while (true) {
+                long t0 = System.nanoTime();
+                next = parser.next();
+                stats.recordParse(System.nanoTime() - t0);
+                if (next == null) break;
+                if (++index <= skip) continue;
+                if (abort.get()) {
+                    logger.accept("   –  abgebrochen (Fehler auf anderer Verbindung)");
+                    return false;
+                }
+                if (next.kind == SqlScriptParser.Kind.TRANSACTION) {
+                    skipped++;
+                } else if (next.kind == SqlScriptParser.Kind.DML) {
+                    SqlLiteralBinder.Bound bound = SqlLiteralBinder.bind(next.sql);
+                    if (!batch.accepts(bound)) {
+                        where = batch.describe();
+                        batch.flush();
+                    }
+                    batch.add(next, bound);
+                    if (batch.isFull()) {
+                        where = batch.describe();
+                        batch.flush();
+                    }
+                } else {
+                    where = batch.describe();
+                    batch.flush();
+                    where = "in Zeile " + next.line + " (" + firstLine(next.sql) + ")";
+                    long t1 = System.nanoTime();
+                    int count = stmt.execute(next.sql) ? -1 : stmt.getUpdateCount();
+                    stats.recordExecution(script, next.shape != null ? next.shape : next.kind.name(), 1,
+                            Math.max(0, count), System.nanoTime() - t1, "Zeile " + next.line);
+                    rows += Math.max(0, count);
+                    executed++;
+                }
+
+                if (commitEvery > 0 && index - lastCheckpoint >= commitEvery) {
+                    where = batch.describe();
+                    batch.flush();
+                    where = "beim Zwischen-COMMIT nach Statement " + index;
+                    commit(conn, stats);
+                    onCommit.accept(index);
+                    lastCheckpoint = index;
+                }
+            }
+            where = batch.describe();
+            batch.flush();
+
+        } catch (BatchUpdateException e) {
+            logger.accept("   ✗  FEHLER " + describeBatchFailure(batch.items, e) + ": " + e.getMessage());
+            return false;
+        } catch (SQLException e) {
+            logger.accept("   ✗  FEHLER " + where + ": " + e.getMessage());
+            return false;
+        } catch (IOException e) {
+            logger.accept("   FEHLER beim Lesen: " + e.getMessage());
+            return false;
+        } finally {
+            batch.close();
+        }
+
+        rows += batch.rows;
+        executed += batch.executed;
+        logger.accept("   ✓  OK  (" + executed + " Statement(s), davon " + batch.bound
+                + " per Batch mit Bind-Variablen, " + rows + " Zeile(n), "
+                + ScriptRunStats.formatDuration((System.nanoTime() - started) / 1_000_000) + ")");
+        if (skipped > 0) {
+            logger.accept("   Hinweis: " + skipped + " COMMIT/ROLLBACK im Script übersprungen – Commit erfolgt "
+                    + (commitEvery > 0 ? "an den Checkpoints." : "am Ende."));
+        }
+        return true;
+    }
+
+
+    /**
+     * Ermittelt das fehlgeschlagene Statement eines Batches aus den Update-Counts:
+     * entweder als EXECUTE_FAILED markiert oder (Oracle) das erste Statement nach den
+     * erfolgreichen. Lässt es sich nicht bestimmen, wird der Zeilenbereich gemeldet.
+     */
+    private String describeBatchFailure(List<SqlScriptParser.Statement> batch, BatchUpdateException e) {
+        if (batch.isEmpty()) return "";
+        int[] counts = e.getUpdateCounts();
+        int failed = -1;
+        if (counts != null) {
+            for (int i = 0; i < counts.length && failed < 0; i++) {
+                if (counts[i] == Statement.EXECUTE_FAILED) failed = i;
+            }
+            if (failed < 0 && counts.length < batch.size()) failed = counts.length;
+        }
+        if (failed >= 0 && failed < batch.size()) {
+            SqlScriptParser.Statement s = batch.get(failed);
+            return "in Zeile " + s.line + " (" + firstLine(s.sql) + ")";
+        }
+        return "im Batch Zeile " + batch.get(0).line + "–" + batch.get(batch.size() - 1).line
+            + " (" + batch.get(0).shape + ")";
+    }
+
+    private static String firstLine(String sql) {
+        int nl = sql.indexOf('\n');
+        String first = nl >= 0 ? sql.substring(0, nl) : sql;
+        return first.length() > 80 ? first.substring(0, 80) + "…" : first;
+    }
+
+    // ── Hilfsklassen ────────────────────────────────────────────────────────
+
+    /**
+     * Gesammelte DML-Statements gleicher Vorlage (SQL mit Bind-Variablen) für den nächsten
+     * Batch. Ein einzelnes Statement läuft unverändert mit seinen Literalen; ab zwei
+     * Statements wird die Vorlage vorbereitet und je Statement eine Batch-Zeile gebunden.
+     * Das PreparedStatement bleibt offen, solange dieselbe Vorlage folgt.
+     * Begrenzt nach Anzahl und Textmenge, damit auch Scripts mit sehr langen
+     * Statements nur wenig Heap binden. Jede Ausführung wird in den Messwerten erfasst.
+     */
+    private static class PendingBatch {
+        final List<SqlScriptParser.Statement> items  = new ArrayList<>();
+        final List<List<Object>>              values = new ArrayList<>();
+        final Connection     conn;
+        final Path           script;
+        final ScriptRunStats stats;
+        Statement            stmt;
+        /** Vorlage der gesammelten Statements; null = nicht bindbar (nur einzeln ausführbar). */
+        String               template;
+        PreparedStatement    prepared;
+        String               preparedSql;
+        long chars;
+        /** Summe der betroffenen Zeilen aller bisher ausgeführten Statements. */
+        long rows;
+        /** Ausgeführte Statements insgesamt bzw. davon per Bind-Batch. */
+        int  executed;
+        int  bound;
+
+        PendingBatch(Connection conn, Path script, ScriptRunStats stats) {
+            this.conn   = conn;
+            this.script = script;
+            this.stats  = stats;
+        }
+
+        boolean accepts(SqlLiteralBinder.Bound next) {
+            return items.isEmpty() || (template != null && next != null && template.equals(next.sql));
+        }
+
+        void add(SqlScriptParser.Statement next, SqlLiteralBinder.Bound b) {
+            if (items.isEmpty()) template = b != null ? b.sql : null;
+            items.add(next);
+            values.add(b != null ? b.values : null);
+            chars += next.sql.length();
+        }
+
+        boolean isFull() {
+            return template == null || items.size() >= BATCH_SIZE || chars >= BATCH_MAX_CHARS;
+        }
+
+        /** Fundstelle der gesammelten Statements für Fehlermeldungen. */
+        String describe() {
+            if (items.isEmpty()) return "";
+            SqlScriptParser.Statement first = items.get(0);
+            if (items.size() == 1) return "in Zeile " + first.line + " (" + firstLine(first.sql) + ")";
+            return "im Batch Zeile " + first.line + "–" + items.get(items.size() - 1).line + " (" + first.shape + ")";
+        }
+
+        /** Führt die gesammelten Statements aus und leert den Batch. */
+        void flush() throws SQLException {
+            if (items.isEmpty()) return;
+            long t0 = System.nanoTime();
+            long affected = 0;
+            int  n = items.size();
+            if (n == 1) {
+                affected = Math.max(0, stmt.executeUpdate(items.get(0).sql));
+            } else {
+                if (prepared == null || !template.equals(preparedSql)) {
+                    close();
+                    prepared    = conn.prepareStatement(template);
+                    preparedSql = template;
+                }
+                for (List<Object> row : values) {
+                    for (int i = 0; i < row.size(); i++) prepared.setObject(i + 1, row.get(i));
+                    prepared.addBatch();
+                }
+                try {
+                    for (int c : prepared.executeBatch()) if (c > 0) affected += c;
+                } finally {
+                    prepared.clearBatch();
+                }
+                bound += n;
+            }
+            stats.recordExecution(script, items.get(0).shape, n, affected, System.nanoTime() - t0,
+                    "Zeile " + items.get(0).line + (n > 1 ? "–" + items.get(n - 1).line + " (Batch " + n + ")" : ""));
+            rows     += affected;
+            executed += n;
+            items.clear();
+            values.clear();
+            template = null;
+            chars    = 0;
+        }
+
+        void close() {
+            if (prepared == null) return;
+            try { prepared.close(); } catch (SQLException ignored) {}
+            prepared    = null;
+            preparedSql = null;
+        }
+    }
+
+    /** Ergebnis eines Ziels bei {@link #executeFanOut}. */
+    public static class TargetResult {
+        public final TargetProfile  target;
+        public final ScriptRunStats stats;
+        public volatile boolean     success;
+
+        public TargetResult(TargetProfile target) {
+            this.target = target;
+            this.stats  = new ScriptRunStats();
         }
-        return sql;
     }
 }
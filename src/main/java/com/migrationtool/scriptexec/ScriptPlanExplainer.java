@@ -0,0 +1,317 @@
+package com.migrationtool.scriptexec;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Probelauf ohne Datenänderung: sammelt die unterschiedlichen MERGE-/INSERT-Vorlagen
+ * aus den Scripts und lässt jede Vorlage einmal per EXPLAIN PLAN bewerten.
+ *
+ * Generierte Scripts bestehen aus tausenden MERGEs, die sich nur in den Werten im
+ * USING-Teil unterscheiden. Die Werte (Literale und PL/SQL-Variablen) werden durch
+ * Bind-Variablen ersetzt; was danach gleich aussieht, ist dieselbe Vorlage und wird
+ * nur einmal erklärt. MERGEs innerhalb von PL/SQL-Blöcken werden ebenfalls erfasst.
+ *
+ * INSERT … SELECT … WHERE NOT EXISTS (InsertGen, zeilen- und mengenbasiert) wird ebenso
+ * behandelt: alle Literale werden Bind-Variablen ({@link SqlLiteralBinder}), Suchspalten
+ * sind die Spalten der Zieltabelle im NOT EXISTS.
+ *
+ * Ein Full Scan auf die Zieltabelle bedeutet, dass jede Zeile des Scripts die ganze
+ * Tabelle liest – typischerweise fehlt ein Index auf den Suchspalten (ON-Klausel bzw.
+ * NOT EXISTS, z.B. der Name-Spalte der Root-Tabelle).
+ */
+public class ScriptPlanExplainer {
+
+    private static final Pattern MERGE_HEAD = Pattern.compile(
+        "^MERGE\\s+INTO\\s+([\\w$#.\"]+)(?:\\s+(?!USING\\b)([\\w$#]+))?", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern INSERT_HEAD = Pattern.compile(
+        "^INSERT\\s+INTO\\s+([\\w$#.\"]+)\\s*\\(([^)]*)\\)\\s*(?:(VALUES)\\s*\\(|(?=(?:SELECT|WITH)\\b))",
+        Pattern.CASE_INSENSITIVE);
+
+    /** "NOT EXISTS (SELECT … FROM tabelle [alias] WHERE"; Gruppe 1 = öffnende Klammer. */
+    private static final Pattern NOT_EXISTS = Pattern.compile(
+        "\\bNOT\\s+EXISTS\\s*(\\()\\s*SELECT\\s.*?\\bFROM\\s+([\\w$#.\"]+)(?:\\s+(?!WHERE\\b)([\\w$#]+))?\\s+WHERE\\b",
+        Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    /** Spalte links von "=" bzw. "IS NULL", optional mit Alias davor. */
+    private static final Pattern CONDITION_COLUMN = Pattern.compile(
+        "(?<![\\w$#.\"])(?:([\\w$#]+)\\.)?\"?([A-Za-z_][\\w$#]*)\"?\\s*(?:=|IS\\s+NULL\\b)",
+        Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern USING_OPEN = Pattern.compile("\\bUSING\\s*\\(", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern ON_CLAUSE = Pattern.compile(
+        "\\)\\s*[\\w$#]*\\s+ON\\s*\\((.*?)\\)\\s*(WHEN\\b|$)", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    /** Spaltenalias am Ende eines SELECT-Elements ("… AS NAME," bzw. vor FROM). */
+    private static final Pattern SELECT_ALIAS = Pattern.compile(
+        "\\bAS\\s+(\"?[\\w$#]+\"?)(?=\\s*(,|FROM\\b|$))", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    private static final Pattern DML_START = Pattern.compile(
+        "\\b(MERGE|INSERT)\\s+INTO\\b", Pattern.CASE_INSENSITIVE);
+
+    // ── Vorlagen sammeln ────────────────────────────────────────────────────
+
+    /**
+     * Liest die Scripts und fasst gleichartige DML-Statements zu Vorlagen zusammen.
+     * Reihenfolge: erstes Auftreten.
+     */
+    public List<Template> collect(List<Path> scripts) throws IOException {
+        Map<String, Template> templates = new LinkedHashMap<>();
+        for (Path script : scripts) {
+            try (SqlScriptParser parser = SqlScriptParser.open(script)) {
+                SqlScriptParser.Statement stmt;
+                while ((stmt = parser.next()) != null) {
+                    if (stmt.kind == SqlScriptParser.Kind.DML) {
+                        add(templates, stmt.sql, script, stmt.line);
+                    } else if (stmt.kind == SqlScriptParser.Kind.PLSQL) {
+                        for (String dml : extractDml(stmt.sql)) add(templates, dml, script, stmt.line);
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(templates.values());
+    }
+
+    private void add(Map<String, Template> templates, String dml, Path script, int line) {
+        Template t = toTemplate(dml);
+        if (t == null) return;
+        String key = t.sql.replaceAll("\\s+", " ").toUpperCase(Locale.ROOT);
+        Template known = templates.get(key);
+        if (known != null) {
+            known.occurrences++;
+        } else {
+            t.firstScript = script.getFileName().toString();
+            t.firstLine   = line;
+            templates.put(key, t);
+        }
+    }
+
+    /**
+     * Findet MERGE- und INSERT-Statements in einem PL/SQL-Block (außerhalb von
+     * String-Literalen, also nicht in EXECUTE IMMEDIATE-Texten).
+     */
+    static List<String> extractDml(String block) {
+        List<String> result = new ArrayList<>();
+        Matcher m = DML_START.matcher(block);
+        int i = 0;
+        boolean inString = false;
+        while (i < block.length()) {
+            char c = block.charAt(i);
+            if (c == '\'') {
+                inString = !inString;
+            } else if (!inString && c == '-' && block.startsWith("--", i)) {
+                int nl = block.indexOf('\n', i);
+                i = nl < 0 ? block.length() : nl;
+                continue;
+            } else if (!inString && (c == 'M' || c == 'm' || c == 'I' || c == 'i')
+                    && (i == 0 || !Character.isLetterOrDigit(block.charAt(i - 1)))) {
+                if (m.region(i, block.length()).lookingAt()) {
+                    int end = findStatementEnd(block, i);
+                    result.add(block.substring(i, end).trim());
+                    i = end + 1;
+                    continue;
+                }
+            }
+            i++;
+        }
+        return result;
+    }
+
+    /** Position des abschließenden ';' außerhalb von Literalen (oder Textende). */
+    private static int findStatementEnd(String text, int from) {
+        boolean inString = false;
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\'') inString = !inString;
+            else if (c == ';' && !inString) return i;
+        }
+        return text.length();
+    }
+
+    /**
+     * Ersetzt die Werte eines MERGE (USING-Unterabfrage), INSERT … VALUES bzw. INSERT …
+     * SELECT durch Bind-Variablen. Gibt null zurück, wenn das Statement keine erklärbare
+     * Vorlage ist.
+     */
+    static Template toTemplate(String dml) {
+        String sql = dml.trim();
+        Matcher merge = MERGE_HEAD.matcher(sql);
+        if (merge.find()) {
+            Matcher using = USING_OPEN.matcher(sql);
+            if (!using.find()) return null;
+            int open  = using.end() - 1;
+            int close = findClosingParen(sql, open);
+            if (close < 0) return null;
+
+            String inner = sql.substring(open + 1, close);
+            String tail  = sql.substring(close);
+            if (inner.trim().toUpperCase(Locale.ROOT).startsWith("SELECT") && inner.toUpperCase(Locale.ROOT).contains("DUAL")) {
+                List<String> aliases = new ArrayList<>();
+                Matcher a = SELECT_ALIAS.matcher(STRING_LITERAL.matcher(inner).replaceAll("''").replace("\n", " "));
+                while (a.find()) aliases.add(a.group(1));
+                if (aliases.isEmpty()) return null;
+                StringBuilder select = new StringBuilder("SELECT ");
+                for (int i = 0; i < aliases.size(); i++) {
+                    if (i > 0) select.append(", ");
+                    select.append(":b").append(i + 1).append(" AS ").append(aliases.get(i));
+                }
+                inner = select.append(" FROM DUAL").toString();
+            }
+            String template = sql.substring(0, open + 1) + inner + tail;
+
+            String table = normalize(merge.group(1));
+            String alias = merge.group(2) != null ? merge.group(2) : merge.group(1);
+            return new Template("MERGE", table, template, onColumns(tail, alias));
+        }
+
+        Matcher insert = INSERT_HEAD.matcher(sql);
+        if (insert.find()) {
+            String table = normalize(insert.group(1));
+            if (insert.group(3) == null) {
+                SqlLiteralBinder.Bound bound = SqlLiteralBinder.bind(sql, i -> ":b" + i);
+                if (bound == null) return null;
+                return new Template("INSERT", table, bound.sql, notExistsColumns(sql, table));
+            }
+            int close = findClosingParen(sql, insert.end() - 1);
+            if (close < 0) return null;
+            int columns = insert.group(2).split(",").length;
+            StringBuilder values = new StringBuilder();
+            for (int i = 0; i < columns; i++) {
+                if (i > 0) values.append(", ");
+                values.append(":b").append(i + 1);
+            }
+            String template = sql.substring(0, insert.end()) + values + sql.substring(close);
+            return new Template("INSERT", table, template, List.of());
+        }
+        return null;
+    }
+
+    /** Spalten der Zieltabelle in der ON-Klausel (Präfix = Alias der Zieltabelle). */
+    private static List<String> onColumns(String tail, String alias) {
+        Matcher on = ON_CLAUSE.matcher(tail);
+        if (!on.find()) return List.of();
+        Set<String> cols = new LinkedHashSet<>();
+        Matcher ref = Pattern.compile("\\b" + Pattern.quote(alias) + "\\.\"?([\\w$#]+)\"?",
+                Pattern.CASE_INSENSITIVE).matcher(on.group(1));
+        while (ref.find()) cols.add(ref.group(1).toUpperCase(Locale.ROOT));
+        return new ArrayList<>(cols);
+    }
+
+    /**
+     * Spalten der Zieltabelle in NOT EXISTS (SELECT … FROM tabelle [alias] WHERE …):
+     * ohne Präfix oder mit dem Alias der Tabelle, jeweils vor "=" bzw. "IS NULL".
+     */
+    private static List<String> notExistsColumns(String sql, String table) {
+        Set<String> cols = new LinkedHashSet<>();
+        Matcher m = NOT_EXISTS.matcher(sql);
+        while (m.find()) {
+            if (!normalize(m.group(2)).equals(table)) continue;
+            int close = findClosingParen(sql, m.start(1));
+            if (close < 0) continue;
+            String where = STRING_LITERAL.matcher(sql.substring(m.end(), close)).replaceAll("''");
+            Matcher col = CONDITION_COLUMN.matcher(where);
+            while (col.find()) {
+                if (col.group(1) == null || col.group(1).equalsIgnoreCase(m.group(3))) {
+                    cols.add(col.group(2).toUpperCase(Locale.ROOT));
+                }
+            }
+        }
+        return new ArrayList<>(cols);
+    }
+
+    private static int findClosingParen(String text, int open) {
+        int depth = 0;
+        boolean inString = false;
+        for (int i = open; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\'') inString = !inString;
+            if (inString) continue;
+            if (c == '(') depth++;
+            else if (c == ')' && --depth == 0) return i;
+        }
+        return -1;
+    }
+
+    private static String normalize(String ident) {
+        String name = ident.replace("\"", "");
+        int dot = name.lastIndexOf('.');
+        if (dot >= 0) name = name.substring(dot + 1);
+        return name.toUpperCase(Locale.ROOT);
+    }
+
+    // ── EXPLAIN PLAN ────────────────────────────────────────────────────────
+
+    /**
+     * Lässt die Vorlage per EXPLAIN PLAN bewerten und liest Kosten und Full Scans aus
+     * der PLAN_TABLE. Schreibt nur in die PLAN_TABLE; der Aufrufer rollt zurück.
+     */
+    public void explain(Connection conn, Template t, String statementId) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("EXPLAIN PLAN SET STATEMENT_ID = '" + statementId + "' FOR " + t.sql);
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT ID, OPERATION, OPTIONS, OBJECT_NAME, COST FROM PLAN_TABLE"
+                + " WHERE STATEMENT_ID = ? ORDER BY ID")) {
+            ps.setString(1, statementId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String operation = rs.getString("OPERATION");
+                    String options   = rs.getString("OPTIONS");
+                    String object    = rs.getString("OBJECT_NAME");
+                    if (rs.getInt("ID") == 0) {
+                        long cost = rs.getLong("COST");
+                        t.cost = rs.wasNull() ? null : cost;
+                    }
+                    if ("TABLE ACCESS".equals(operation) && options != null && options.contains("FULL")
+                            && object != null) {
+                        t.fullScans.add(object.toUpperCase(Locale.ROOT));
+                    }
+                }
+            }
+        }
+    }
+
+    // ── Ergebnis-Klasse ─────────────────────────────────────────────────────
+
+    /** Eine Statement-Vorlage mit Fundstelle, Häufigkeit und Plan-Ergebnis. */
+    public static class Template {
+        public final String       verb;
+        public final String       table;
+        /** Erklärbarer SQL-Text mit Bind-Variablen statt Werten. */
+        public final String       sql;
+        /** Suchspalten der Zieltabelle: ON-Klausel (MERGE) bzw. NOT EXISTS (INSERT … SELECT). */
+        public final List<String> searchColumns;
+        public int    occurrences = 1;
+        public String firstScript;
+        public int    firstLine;
+
+        /** Geschätzte Gesamtkosten laut Plan (null = unbekannt oder nicht erklärt). */
+        public Long              cost;
+        /** Tabellen mit TABLE ACCESS FULL im Plan. */
+        public final Set<String> fullScans = new LinkedHashSet<>();
+
+        Template(String verb, String table, String sql, List<String> searchColumns) {
+            this.verb          = verb;
+            this.table         = table;
+            this.sql           = sql;
+            this.searchColumns = searchColumns;
+        }
+
+        /** true, wenn die Zieltabelle vollständig gelesen wird. */
+        public boolean scansTarget() {
+            return fullScans.contains(table);
+        }
+    }
+}
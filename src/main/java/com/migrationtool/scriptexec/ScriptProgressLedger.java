@@ -0,0 +1,112 @@
+package com.migrationtool.scriptexec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Properties;
+
+/**
+ * Lokales Fortschrittsprotokoll für abgebrochene Script-Läufe.
+ *
+ * Pro Ziel (Schema und DB, {@link AppliedScriptLedger#target}) und Script wird festgehalten, wie viele Statements bereits
+ * committed sind bzw. ob das Script vollständig ausgeführt wurde. Ein erneuter
+ * Lauf überspringt erledigte Scripts und setzt angefangene hinter dem letzten
+ * Checkpoint fort. Ändert sich eine Datei (Größe/Zeitstempel), verfällt ihr Eintrag.
+ *
+ * Format (Properties): "&lt;user@url&gt;|&lt;pfad&gt;" = "DONE;größe;zeitstempel" oder "n;größe;zeitstempel"
+ */
+public class ScriptProgressLedger {
+
+    /** Rückgabewert von {@link #getApplied} für vollständig ausgeführte Scripts. */
+    public static final int DONE = Integer.MAX_VALUE;
+
+    private final Path       file;
+    private final Properties props = new Properties();
+
+    public ScriptProgressLedger(Path file) {
+        this.file = file;
+        load();
+    }
+
+    /**
+     * Anzahl bereits committeter Statements des Scripts, {@link #DONE} wenn es vollständig
+     * ausgeführt wurde, 0 wenn nichts (gültiges) vermerkt ist.
+     */
+    public synchronized int getApplied(String target, Path script) {
+        String value = props.getProperty(key(target, script));
+        if (value == null) return 0;
+        String[] parts = value.split(";");
+        if (parts.length != 3 || !(parts[1] + ";" + parts[2]).equals(fingerprint(script))) return 0;
+        if ("DONE".equals(parts[0])) return DONE;
+        try {
+            return Integer.parseInt(parts[0]);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /** Vermerkt, dass die ersten n Statements des Scripts committed sind. */
+    public synchronized void markPartial(String target, Path script, int statements) {
+        props.setProperty(key(target, script), statements + ";" + fingerprint(script));
+        save();
+    }
+
+    /** Vermerkt das Script als vollständig ausgeführt und committed. */
+    public synchronized void markDone(String target, Path script) {
+        props.setProperty(key(target, script), "DONE;" + fingerprint(script));
+        save();
+    }
+
+    /** Entfernt die Einträge der Scripts für das Ziel (z.B. nach einem erfolgreichen Gesamtlauf). */
+    public synchronized void clear(String target, Collection<Path> scripts) {
+        boolean changed = false;
+        for (Path script : scripts) {
+            changed |= props.remove(key(target, script)) != null;
+        }
+        if (changed) save();
+    }
+
+    /** Anzahl der Scripts mit gültigem Fortschrittseintrag (erledigt oder angefangen). */
+    public synchronized int countRecorded(String target, Collection<Path> scripts) {
+        int n = 0;
+        for (Path script : scripts) if (getApplied(target, script) > 0) n++;
+        return n;
+    }
+
+    // ── Hilfsmethoden ───────────────────────────────────────────────────────
+
+    private static String key(String target, Path script) {
+        return target + "|" + script.toAbsolutePath().normalize();
+    }
+
+    private static String fingerprint(Path script) {
+        try {
+            return Files.size(script) + ";" + Files.getLastModifiedTime(script).toMillis();
+        } catch (IOException e) {
+            return "0;0";
+        }
+    }
+
+    private void load() {
+        if (!Files.exists(file)) return;
+        try (InputStream in = Files.newInputStream(file)) {
+            props.load(in);
+        } catch (IOException e) {
+            System.err.println("Fortschrittsprotokoll konnte nicht geladen werden: " + e.getMessage());
+        }
+    }
+
+    private void save() {
+        try {
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            try (OutputStream out = Files.newOutputStream(file)) {
+                props.store(out, "Script-Ausführung – Fortschritt");
+            }
+        } catch (IOException e) {
+            System.err.println("Fortschrittsprotokoll konnte nicht gespeichert werden: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.migrationtool.scriptexec;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Messwerte eines Script-Laufs: Laufzeit, betroffene Zeilen und Durchsatz pro
+ * Statement-Form (Verb + Zieltabelle), pro Script und insgesamt.
+ *
+ * Die Zeit wird getrennt nach Lesen/Parsen, Ausführung und Commit erfasst – so lässt
+ * sich erkennen, ob ein langsamer Lauf am Script-Lesen, an einzelnen Tabellen oder
+ * am Warten auf Sperren (lange Einzel-Statements) liegt. Die langsamsten
+ * Ausführungen werden mit Script und Zeile festgehalten.
+ *
+ * Threadsicher: bei paralleler Ausführung schreiben alle Verbindungen in dieselbe Instanz.
+ */
+public class ScriptRunStats {
+
+    /** Anzahl der langsamsten Ausführungen in der Zusammenfassung. */
+    private static final int SLOWEST_KEPT = 10;
+
+    private final long startNanos = System.nanoTime();
+    private final LocalDateTime startTime = LocalDateTime.now();
+
+    private long statements;
+    private long rows;
+    private long parseNanos;
+    private long execNanos;
+    private long commitNanos;
+    private int  commits;
+
+    private final Map<String, Totals> byShape  = new TreeMap<>();
+    private final Map<String, Totals> byScript = new LinkedHashMap<>();
+    private final PriorityQueue<Slow> slowest  = new PriorityQueue<>(Comparator.comparingLong(s -> s.nanos));
+
+    /** Zeit für das Lesen und Zerlegen eines Statements. */
+    public synchronized void recordParse(long nanos) {
+        parseNanos += nanos;
+    }
+
+    /**
+     * Eine Ausführung – ein einzelnes Statement oder ein JDBC-Batch aus count Statements.
+     *
+     * @param shape    Statement-Form bzw. Art (z.B. "MERGE AUFTRAG", "PLSQL")
+     * @param rowCount betroffene Zeilen (soweit vom Treiber gemeldet)
+     * @param where    Fundstelle für die Liste der langsamsten Ausführungen
+     */
+    public synchronized void recordExecution(Path script, String shape, int count, long rowCount,
+                                             long nanos, String where) {
+        statements += count;
+        rows       += rowCount;
+        execNanos  += nanos;
+        byShape .computeIfAbsent(shape, k -> new Totals()).add(count, rowCount, nanos);
+        byScript.computeIfAbsent(scriptName(script), k -> new Totals()).add(count, rowCount, nanos);
+
+        slowest.add(new Slow(scriptName(script) + " " + where, nanos));
+        if (slowest.size() > SLOWEST_KEPT) slowest.poll();
+    }
+
+    /** Dauer eines COMMITs (Checkpoint oder Abschluss). */
+    public synchronized void recordCommit(long nanos) {
+        commitNanos += nanos;
+        commits++;
+    }
+
+    public synchronized long getStatements() {
+        return statements;
+    }
+
+    public synchronized long getRows() {
+        return rows;
+    }
+
+    /** Laufzeit seit Beginn in Millisekunden. */
+    public long getElapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /** Mittlerer Durchsatz seit Beginn. */
+    public synchronized double getStatementsPerSecond() {
+        long ms = getElapsedMillis();
+        return ms > 0 ? statements * 1000.0 / ms : 0;
+    }
+
+    /** Einzeilige Anzeige für die Live-Ausgabe. */
+    public synchronized String formatLive() {
+        return String.format(Locale.ROOT, "%,d Statements · %,.0f/s · %,d Zeilen · %s",
+                statements, getStatementsPerSecond(), rows, formatDuration(getElapsedMillis()));
+    }
+
+    /** Zusammenfassung des Laufs als Text. */
+    public synchronized String formatSummary(String target, boolean success) {
+        StringWriter text = new StringWriter();
+        PrintWriter out = new PrintWriter(text);
+        out.println("Script-Ausführung " + startTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+        out.println("Ziel:       " + target);
+        out.println("Ergebnis:   " + (success ? "erfolgreich (Commit)" : "FEHLER (Rollback/Abbruch)"));
+        out.println("Dauer:      " + formatDuration(getElapsedMillis()));
+        out.printf(Locale.ROOT, "Statements: %,d (%,.0f/s), Zeilen: %,d%n",
+                statements, getStatementsPerSecond(), rows);
+        out.printf(Locale.ROOT, "Zeitanteile: Lesen/Parsen %s · Ausführung %s · Commit %s (%d×)%n",
+                formatDuration(parseNanos / 1_000_000), formatDuration(execNanos / 1_000_000),
+                formatDuration(commitNanos / 1_000_000), commits);
+
+        out.println();
+        out.println("Pro Script:");
+        printTable(out, byScript, null);
+
+        out.println();
+        out.println("Pro Statement-Form (nach Zeit):");
+        printTable(out, byShape, Comparator.comparingLong((Map.Entry<String, Totals> e) -> e.getValue().nanos).reversed());
+
+        out.println();
+        out.println("Langsamste Ausführungen:");
+        List<Slow> slow = new ArrayList<>(slowest);
+        slow.sort(Comparator.comparingLong((Slow s) -> s.nanos).reversed());
+        for (Slow s : slow) {
+            out.printf(Locale.ROOT, "  %10s  %s%n", formatDuration(s.nanos / 1_000_000), s.where);
+        }
+        out.flush();
+        return text.toString();
+    }
+
+    /** Schreibt die Zusammenfassung als run_yyyyMMdd_HHmmss.txt in das Verzeichnis. */
+    public Path writeSummary(Path dir, String target, boolean success) throws IOException {
+        return writeSummary(dir, target, success, null);
+    }
+
+    /**
+     * Wie {@link #writeSummary(Path, String, boolean)}, mit Zusatz im Dateinamen
+     * (run_yyyyMMdd_HHmmss_label.txt) – für gleichzeitige Läufe gegen mehrere Ziele.
+     */
+    public Path writeSummary(Path dir, String target, boolean success, String label) throws IOException {
+        Files.createDirectories(dir);
+        Path file = dir.resolve("run_" + startTime.format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"))
+                + (label != null ? "_" + label : "") + ".txt");
+        Files.writeString(file, formatSummary(target, success), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    // ── Hilfsmethoden ───────────────────────────────────────────────────────
+
+    /** Gibt die Tabelle aus; ohne order in Einfügereihenfolge. */
+    private static void printTable(PrintWriter out, Map<String, Totals> table,
+                                   Comparator<Map.Entry<String, Totals>> order) {
+        List<Map.Entry<String, Totals>> entries = new ArrayList<>(table.entrySet());
+        if (order != null) entries.sort(order);
+        for (Map.Entry<String, Totals> e : entries) {
+            Totals t = e.getValue();
+            long ms = t.nanos / 1_000_000;
+            out.printf(Locale.ROOT, "  %-40s %,10d Stmt %,12d Zeilen %10s %,10.0f/s%n",
+                    e.getKey(), t.count, t.rows, formatDuration(ms), ms > 0 ? t.count * 1000.0 / ms : 0.0);
+        }
+    }
+
+    private static String scriptName(Path script) {
+        return script.getFileName().toString();
+    }
+
+    static String formatDuration(long millis) {
+        if (millis < 1000) return millis + " ms";
+        long s = millis / 1000;
+        if (s < 60) return String.format(Locale.ROOT, "%.1f s", millis / 1000.0);
+        return String.format(Locale.ROOT, "%d:%02d min", s / 60, s % 60);
+    }
+
+    private static class Totals {
+        long count;
+        long rows;
+        long nanos;
+
+        void add(int n, long r, long ns) {
+            count += n;
+            rows  += r;
+            nanos += ns;
+        }
+    }
+
+    private static class Slow {
+        final String where;
+        final long   nanos;
+
+        Slow(String where, long nanos) {
+            this.where = where;
+            this.nanos = nanos;
+        }
+    }
+}
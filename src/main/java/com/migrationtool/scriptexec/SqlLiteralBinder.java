@@ -0,0 +1,186 @@
+package com.migrationtool.scriptexec;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Ersetzt die Literale eines DML-Statements durch Bind-Variablen und liefert die Werte
+ * in Reihenfolge. Statements, die danach gleich aussehen, lassen sich als ein
+ * PreparedStatement mit mehreren Batch-Zeilen ausführen ({@link ScriptExecutorService})
+ * bzw. als eine Vorlage erklären ({@link ScriptPlanExplainer}).
+ *
+ * Gebunden werden nur Werte an Stellen, an denen Oracle Bind-Variablen zulässt:
+ *   - String-Literale, außer typisierten Literalen (DATE '…', TIMESTAMP '…', INTERVAL '…')
+ *     und N'…'
+ *   - Zahlen, außer Längenangaben von Datentypen (VARCHAR2(100), NUMBER(10,2))
+ * NULL bleibt stehen. Statements mit q'…'-Literalen, vorhandenen Bind-Variablen
+ * (? bzw. :name) oder ORDER/GROUP BY (Positionsangaben) werden nicht umgeschrieben.
+ *
+ * Hinweis: Ein gebundener String wird wie VARCHAR2 verglichen – bei CHAR-Spalten entfällt
+ * damit der Vergleich mit aufgefüllten Leerzeichen, den ein Literal hätte.
+ */
+final class SqlLiteralBinder {
+
+    /** Datentypen, deren Klammerangaben (Länge, Genauigkeit) keine Bind-Variablen sein dürfen. */
+    private static final Set<String> TYPE_WORDS = Set.of(
+        "VARCHAR2", "NVARCHAR2", "VARCHAR", "CHAR", "NCHAR", "NUMBER", "NUMERIC", "DECIMAL", "FLOAT",
+        "RAW", "TIMESTAMP", "INTERVAL", "DAY", "SECOND", "YEAR", "UROWID");
+
+    /** Schlüsselwörter vor einem typisierten String-Literal. */
+    private static final Set<String> TYPED_LITERAL = Set.of("DATE", "TIMESTAMP", "INTERVAL");
+
+    private SqlLiteralBinder() { }
+
+    /** Statement mit Platzhaltern statt Literalen und die Werte (String oder BigDecimal). */
+    static final class Bound {
+        final String       sql;
+        final List<Object> values;
+
+        Bound(String sql, List<Object> values) {
+            this.sql    = sql;
+            this.values = values;
+        }
+    }
+
+    /** Mit JDBC-Platzhaltern ('?'). */
+    static Bound bind(String sql) {
+        return bind(sql, i -> "?");
+    }
+
+    /**
+     * @param placeholder Platzhalter für den i-ten Wert (1-basiert), z.B. ":b" + i
+     * @return null, wenn das Statement nicht sicher umgeschrieben werden kann
+     */
+    static Bound bind(String sql, IntFunction<String> placeholder) {
+        StringBuilder out    = new StringBuilder(sql.length());
+        List<Object>  values = new ArrayList<>();
+        // je offener Klammer: true, wenn sie zu einem Datentyp gehört
+        List<Boolean> typeParens = new ArrayList<>();
+        String prevWord  = "";
+        String lastWord  = "";
+        int i = 0;
+        int n = sql.length();
+        while (i < n) {
+            char c = sql.charAt(i);
+            if (c == '-' && sql.startsWith("--", i)) {
+                int nl = sql.indexOf('\n', i);
+                int end = nl < 0 ? n : nl;
+                out.append(sql, i, end);
+                i = end;
+                continue;
+            }
+            if (c == '/' && sql.startsWith("/*", i)) {
+                int close = sql.indexOf("*/", i + 2);
+                int end = close < 0 ? n : close + 2;
+                out.append(sql, i, end);
+                i = end;
+                continue;
+            }
+            if (c == '\'') {
+                int end = literalEnd(sql, i);
+                if (end < 0) return null;
+                char before = i > 0 ? sql.charAt(i - 1) : ' ';
+                if (before == 'q' || before == 'Q') return null;
+                if (isIdentChar(before) || TYPED_LITERAL.contains(lastWord)) {
+                    out.append(sql, i, end);
+                } else {
+                    values.add(sql.substring(i + 1, end - 1).replace("''", "'"));
+                    out.append(placeholder.apply(values.size()));
+                }
+                lastWord = "'";
+                i = end;
+                continue;
+            }
+            if (c == '"') {
+                int close = sql.indexOf('"', i + 1);
+                int end = close < 0 ? n : close + 1;
+                out.append(sql, i, end);
+                lastWord = sql.substring(i, end);
+                i = end;
+                continue;
+            }
+            if (c == '?') return null;
+            if (c == ':' && i + 1 < n && (Character.isLetterOrDigit(sql.charAt(i + 1)))) return null;
+            if (isIdentStart(c)) {
+                int end = i;
+                while (end < n && isIdentChar(sql.charAt(end))) end++;
+                String word = sql.substring(i, end).toUpperCase(Locale.ROOT);
+                if (word.equals("BY") && (prevWord.equals("ORDER") || prevWord.equals("GROUP"))) return null;
+                out.append(sql, i, end);
+                prevWord = word;
+                lastWord = word;
+                i = end;
+                continue;
+            }
+            if (Character.isDigit(c) || (c == '.' && i + 1 < n && Character.isDigit(sql.charAt(i + 1)))) {
+                char before = i > 0 ? sql.charAt(i - 1) : ' ';
+                int  end    = numberEnd(sql, i);
+                boolean inType = !typeParens.isEmpty() && typeParens.get(typeParens.size() - 1);
+                if (isIdentChar(before) || before == '.' || inType
+                        || (end < n && isIdentChar(sql.charAt(end)))) {
+                    out.append(sql, i, end);
+                } else {
+                    values.add(new BigDecimal(sql.substring(i, end)));
+                    out.append(placeholder.apply(values.size()));
+                }
+                lastWord = "0";
+                i = end;
+                continue;
+            }
+            if (c == '(') {
+                typeParens.add(TYPE_WORDS.contains(lastWord));
+            } else if (c == ')' && !typeParens.isEmpty()) {
+                typeParens.remove(typeParens.size() - 1);
+            }
+            if (!Character.isWhitespace(c)) lastWord = String.valueOf(c);
+            out.append(c);
+            i++;
+        }
+        return new Bound(out.toString(), values);
+    }
+
+    /** Position hinter dem schließenden Hochkomma ('' ist maskiert), -1 ohne Ende. */
+    private static int literalEnd(String sql, int open) {
+        for (int i = open + 1; i < sql.length(); i++) {
+            if (sql.charAt(i) == '\'') {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == '\'') {
+                    i++;
+                } else {
+                    return i + 1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static int numberEnd(String sql, int start) {
+        int i = start;
+        int n = sql.length();
+        while (i < n && Character.isDigit(sql.charAt(i))) i++;
+        if (i < n && sql.charAt(i) == '.') {
+            i++;
+            while (i < n && Character.isDigit(sql.charAt(i))) i++;
+        }
+        if (i < n && (sql.charAt(i) == 'E' || sql.charAt(i) == 'e')) {
+            int j = i + 1;
+            if (j < n && (sql.charAt(j) == '+' || sql.charAt(j) == '-')) j++;
+            if (j < n && Character.isDigit(sql.charAt(j))) {
+                i = j;
+                while (i < n && Character.isDigit(sql.charAt(i))) i++;
+            }
+        }
+        return i;
+    }
+
+    private static boolean isIdentStart(char c) {
+        return Character.isLetter(c) || c == '_';
+    }
+
+    private static boolean isIdentChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '#' || c == '"';
+    }
+}
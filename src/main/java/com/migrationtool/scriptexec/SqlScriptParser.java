@@ -0,0 +1,264 @@
+package com.migrationtool.scriptexec;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Zerlegt ein SQL*Plus-Script zeilenweise in einzelne ausführbare Statements.
+ *
+ * Regeln (wie SQL*Plus):
+ *   - SQL-Statements enden mit ';' außerhalb von String-Literalen und Kommentaren
+ *   - PL/SQL-Blöcke (DECLARE / BEGIN / CREATE PROCEDURE …) enden mit einer Zeile, die nur '/' enthält
+ *   - Kommentare, Leerzeilen und SQL*Plus-Befehle (SET, PROMPT, SPOOL, …) zwischen
+ *     Statements werden übersprungen
+ *
+ * Es wird immer nur das aktuelle Statement im Speicher gehalten; die Datei wird
+ * über {@link #next()} schrittweise gelesen. Auch mehrere GB große Scripts
+ * brauchen so nur so viel Heap wie ihr größtes einzelnes Statement.
+ */
+public class SqlScriptParser implements Closeable {
+
+    /** Art eines Statements – bestimmt, ob es gebündelt ausgeführt werden darf. */
+    public enum Kind { DML, PLSQL, TRANSACTION, OTHER }
+
+    private static final Pattern PLSQL_START = Pattern.compile(
+        "^(DECLARE|BEGIN|CREATE\\s+(OR\\s+REPLACE\\s+)?((NON)?EDITIONABLE\\s+)?"
+            + "(PROCEDURE|FUNCTION|PACKAGE|TRIGGER|TYPE|LIBRARY))\\b",
+        Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern SQLPLUS_COMMAND = Pattern.compile(
+        "^(@|(SET(?!\\s+(TRANSACTION|ROLE|CONSTRAINTS?)\\b)|PROMPT|SPOOL|WHENEVER|EXIT|QUIT|REM|REMARK"
+            + "|DEFINE|UNDEFINE|SHOW|PAUSE|COLUMN|TTITLE|BTITLE|CLEAR)(\\s|$))",
+        Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern DML_TARGET = Pattern.compile(
+        "^(INSERT\\s+INTO|UPDATE|DELETE(\\s+FROM)?|MERGE\\s+INTO)\\s+([\\w$#.\"]+)",
+        Pattern.CASE_INSENSITIVE);
+
+    /** Lesepuffer für Script-Dateien. */
+    private static final int READ_BUFFER = 1 << 16;
+    /** Ab dieser Kapazität wird der Statement-Puffer nach Gebrauch freigegeben statt wiederverwendet. */
+    private static final int SHRINK_THRESHOLD = 1 << 20;
+
+    private final BufferedReader reader;
+    private StringBuilder buf = new StringBuilder();
+    private int lineNo = 0;
+
+    // Rest einer Zeile nach einem ';' (weiteres Statement in derselben Zeile)
+    private String pending;
+    private int    pendingLine;
+
+    // Zustand des Zeichenscanners (über Zeilengrenzen hinweg)
+    private boolean inString;
+    private boolean inBlockComment;
+
+    public SqlScriptParser(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader, READ_BUFFER);
+    }
+
+    /** Öffnet eine Script-Datei (UTF-8) zum schrittweisen Lesen. */
+    public static SqlScriptParser open(Path script) throws IOException {
+        return new SqlScriptParser(new BufferedReader(
+            new InputStreamReader(Files.newInputStream(script), StandardCharsets.UTF_8.newDecoder()), READ_BUFFER));
+    }
+
+    /**
+     * Liest das nächste Statement.
+     *
+     * @return Statement ohne abschließendes ';' bzw. '/', oder null am Dateiende
+     */
+    public Statement next() throws IOException {
+        buf.setLength(0);
+        inString = false;
+        int     startLine = 0;
+        boolean plsql     = false;
+
+        while (true) {
+            String line;
+            int    ln;
+            if (pending != null) {
+                line = pending;
+                ln   = pendingLine;
+                pending = null;
+            } else {
+                line = reader.readLine();
+                if (line == null) break;
+                ln = ++lineNo;
+            }
+
+            if (startLine == 0) {
+                // Zwischen Statements: Kommentare, Leerzeilen und SQL*Plus-Befehle überspringen
+                line = skipNoise(line);
+                if (line == null) continue;
+                startLine = ln;
+                plsql     = PLSQL_START.matcher(line).find();
+            }
+
+            if (plsql) {
+                if (buf.length() > 0 && line.trim().equals("/")) {
+                    return build(startLine, true);
+                }
+                buf.append(line).append('\n');
+                continue;
+            }
+
+            // SQL-Modus: ein einzelnes '/' führt den Puffer aus (Statement ohne ';')
+            if (line.trim().equals("/") && !inString && !inBlockComment) {
+                return build(startLine, false);
+            }
+            int end = findTerminator(line);
+            if (end >= 0) {
+                buf.append(line, 0, end);
+                String rest = line.substring(end + 1);
+                if (!rest.isBlank()) {
+                    pending     = rest;
+                    pendingLine = ln;
+                }
+                return build(startLine, false);
+            }
+            buf.append(line).append('\n');
+        }
+
+        // Dateiende: unvollständiges letztes Statement trotzdem liefern
+        if (startLine > 0 && hasContent()) {
+            return build(startLine, plsql);
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /** Zeilennummer der zuletzt gelesenen Zeile (1-basiert). */
+    public int getLineNumber() {
+        return lineNo;
+    }
+
+    // ── Hilfsmethoden ───────────────────────────────────────────────────────
+
+    /**
+     * Entfernt führende Kommentare und Leerraum einer Zeile zwischen zwei Statements.
+     * Gibt null zurück, wenn die Zeile nichts Ausführbares enthält.
+     */
+    private String skipNoise(String line) {
+        String rest = line;
+        while (true) {
+            if (inBlockComment) {
+                int close = rest.indexOf("*/");
+                if (close < 0) return null;
+                rest = rest.substring(close + 2);
+                inBlockComment = false;
+            }
+            String trimmed = rest.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("--") || trimmed.equals("/")) return null;
+            if (trimmed.startsWith("/*")) {
+                inBlockComment = true;
+                rest = trimmed.substring(2);
+                continue;
+            }
+            if (SQLPLUS_COMMAND.matcher(trimmed).find()) return null;
+            return trimmed;
+        }
+    }
+
+    /**
+     * Sucht das abschließende ';' außerhalb von String-Literalen und Kommentaren.
+     * Aktualisiert dabei den Scanner-Zustand für Folgezeilen.
+     *
+     * @return Index des ';' oder -1
+     */
+    private int findTerminator(String line) {
+        int i = 0;
+        while (i < line.length()) {
+            char c = line.charAt(i);
+            if (inBlockComment) {
+                if (c == '*' && i + 1 < line.length() && line.charAt(i + 1) == '/') {
+                    inBlockComment = false;
+                    i += 2;
+                    continue;
+                }
+            } else if (inString) {
+                // '' innerhalb eines Literals ist ein maskiertes Hochkomma
+                if (c == '\'') inString = false;
+            } else if (c == '\'') {
+                inString = true;
+            } else if (c == '-' && i + 1 < line.length() && line.charAt(i + 1) == '-') {
+                return -1;
+            } else if (c == '/' && i + 1 < line.length() && line.charAt(i + 1) == '*') {
+                inBlockComment = true;
+                i += 2;
+                continue;
+            } else if (c == ';') {
+                return i;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private boolean hasContent() {
+        for (int i = 0; i < buf.length(); i++) {
+            if (!Character.isWhitespace(buf.charAt(i))) return true;
+        }
+        return false;
+    }
+
+    private Statement build(int startLine, boolean plsql) {
+        // Nur abschließenden Leerraum entfernen (Anfang ist bereits bereinigt) –
+        // so entsteht auch bei sehr großen Blöcken nur eine einzige Kopie.
+        int end = buf.length();
+        while (end > 0 && Character.isWhitespace(buf.charAt(end - 1))) end--;
+        String sql = buf.substring(0, end);
+        if (buf.capacity() > SHRINK_THRESHOLD) {
+            buf = new StringBuilder();
+        } else {
+            buf.setLength(0);
+        }
+        if (plsql) return new Statement(sql, startLine, Kind.PLSQL, null);
+
+        String upper = sql.toUpperCase(Locale.ROOT);
+        if (upper.startsWith("COMMIT") || upper.startsWith("ROLLBACK")) {
+            return new Statement(sql, startLine, Kind.TRANSACTION, null);
+        }
+        Matcher m = DML_TARGET.matcher(sql);
+        if (m.find()) {
+            String verb = upper.substring(0, upper.indexOf(' ') > 0 ? upper.indexOf(' ') : upper.length());
+            return new Statement(sql, startLine, Kind.DML, verb + " " + m.group(3).toUpperCase(Locale.ROOT));
+        }
+        return new Statement(sql, startLine, Kind.OTHER, null);
+    }
+
+    // ── Ergebnis-Klasse ─────────────────────────────────────────────────────
+
+    /** Ein einzelnes ausführbares Statement mit Startzeile im Script. */
+    public static class Statement {
+        public final String sql;
+        public final int    line;
+        public final Kind   kind;
+        /** Nur bei DML: Verb + Zieltabelle (z.B. "MERGE AUFTRAG"), sonst null. */
+        public final String shape;
+
+        Statement(String sql, int line, Kind kind, String shape) {
+            this.sql   = sql;
+            this.line  = line;
+            this.kind  = kind;
+            this.shape = shape;
+        }
+
+        @Override
+        public String toString() {
+            return "Zeile " + line + ": " + (shape != null ? shape : kind.name());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.migrationtool.scriptexec;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Benanntes Ziel für die Script-Ausführung (z.B. DEV, TEST, QA).
+ *
+ * Gespeichert in ziel-db.properties:
+ *   profiles            = DEV,TEST,QA        (Reihenfolge)
+ *   profile.DEV.url     = jdbc:oracle:thin:@//…
+ *   profile.DEV.user    = …
+ * Das Passwort wird wie beim Einzelziel nicht persistiert.
+ */
+public class TargetProfile {
+
+    public final String name;
+    public final String url;
+    public final String user;
+    public final String password;
+
+    public TargetProfile(String name, String url, String user, String password) {
+        this.name     = name;
+        this.url      = url;
+        this.user     = user;
+        this.password = password != null ? password : "";
+    }
+
+    /** Dasselbe Profil mit anderem Passwort. */
+    public TargetProfile withPassword(String password) {
+        return new TargetProfile(name, url, user, password);
+    }
+
+    /** Schlüssel für Fortschritts- und Ausführungsprotokoll (Schema und DB). */
+    public String target() {
+        return AppliedScriptLedger.target(url, user);
+    }
+
+    /**
+     * Sucht zwei Profile, die dasselbe Schema derselben DB bezeichnen (Benutzer ohne
+     * Groß-/Kleinschreibung, wie in Oracle). Gleichzeitig ausgeführt würden sie sich
+     * gegenseitig Daten und Protokolleinträge überschreiben.
+     *
+     * @return "A / B" für das erste solche Paar, null wenn alle Ziele verschieden sind
+     */
+    public static String findSharedSchema(List<TargetProfile> profiles) {
+        Map<String, String> seen = new HashMap<>();
+        for (TargetProfile t : profiles) {
+            String key   = t.user.toUpperCase(Locale.ROOT) + "@" + t.url;
+            String other = seen.putIfAbsent(key, t.name);
+            if (other != null) return other + " / " + t.name;
+        }
+        return null;
+    }
+
+    /** Liest alle Profile aus den Properties (ohne Passwort). */
+    public static List<TargetProfile> loadAll(Properties p) {
+        List<TargetProfile> result = new ArrayList<>();
+        for (String name : p.getProperty("profiles", "").split(",")) {
+            name = name.trim();
+            if (name.isEmpty()) continue;
+            String url = p.getProperty("profile." + name + ".url", "").trim();
+            if (url.isEmpty()) continue;
+            result.add(new TargetProfile(name, url, p.getProperty("profile." + name + ".user", "").trim(), ""));
+        }
+        return result;
+    }
+
+    /** Ersetzt die Profile in den Properties; übrige Einträge bleiben erhalten. */
+    public static void storeAll(Properties p, List<TargetProfile> profiles) {
+        p.stringPropertyNames().stream()
+                .filter(k -> k.startsWith("profile."))
+                .forEach(p::remove);
+        List<String> names = new ArrayList<>();
+        for (TargetProfile t : profiles) {
+            names.add(t.name);
+            p.setProperty("profile." + t.name + ".url",  t.url);
+            p.setProperty("profile." + t.name + ".user", t.user);
+        }
+        p.setProperty("profiles", String.join(",", names));
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
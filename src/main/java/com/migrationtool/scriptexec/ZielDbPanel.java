@@ -6,11 +6,16 @@ import java.awt.*;
 import java.io.IOException;
 import java.nio.file.*;
 import java.sql.*;
-import java.util.Properties;
+import java.util.*;
+import java.util.List;
 
 /**
  * Einstellungen für die Ziel-Datenbankverbindung.
  * Gespeichert in ziel-db.properties im Arbeitsverzeichnis.
+ *
+ * Zusätzlich lassen sich benannte Ziele ({@link TargetProfile}, z.B. DEV/TEST/QA)
+ * speichern; die Auswahl eines Profils übernimmt es als aktuelles Ziel. Passwörter
+ * der Profile werden nur für die laufende Sitzung gemerkt.
  */
 public class ZielDbPanel extends JPanel {
 
@@ -21,6 +26,12 @@ public class ZielDbPanel extends JPanel {
     private final JPasswordField passField;
     private final JLabel         statusLabel;
 
+    private final JComboBox<TargetProfile> profileCombo = new JComboBox<>();
+    private final List<TargetProfile>      profiles     = new ArrayList<>();
+    /** Passwörter je Profilname – nur für diese Sitzung. */
+    private final Map<String, String>      passwords    = new HashMap<>();
+    private boolean                        updatingCombo;
+
     public ZielDbPanel() {
         setLayout(new BorderLayout());
         setBorder(new EmptyBorder(20, 30, 20, 30));
@@ -41,15 +52,33 @@ public class ZielDbPanel extends JPanel {
         fc.weightx = 1.0;
         fc.insets = new Insets(6, 0, 6, 0);
 
+        // Profil-Auswahl
+        JButton saveProfileBtn   = new JButton("Als Profil speichern…");
+        JButton deleteProfileBtn = new JButton("Profil löschen");
+        profileCombo.addActionListener(e -> { if (!updatingCombo) applyProfile(); });
+        saveProfileBtn.addActionListener(e -> saveProfile());
+        deleteProfileBtn.addActionListener(e -> deleteProfile());
+
+        JPanel profileRow = new JPanel(new BorderLayout(6, 0));
+        JPanel profileBtns = new JPanel(new FlowLayout(FlowLayout.LEFT, 6, 0));
+        profileBtns.add(saveProfileBtn);
+        profileBtns.add(deleteProfileBtn);
+        profileRow.add(profileCombo, BorderLayout.CENTER);
+        profileRow.add(profileBtns,  BorderLayout.EAST);
+
         lc.gridy = 0; fc.gridy = 0;
+        form.add(new JLabel("Profil:"), lc);
+        form.add(profileRow, fc);
+
+        lc.gridy = 1; fc.gridy = 1;
         form.add(new JLabel("JDBC-URL:"), lc);
         form.add(urlField, fc);
 
-        lc.gridy = 1; fc.gridy = 1;
+        lc.gridy = 2; fc.gridy = 2;
         form.add(new JLabel("Benutzer:"), lc);
         form.add(userField, fc);
 
-        lc.gridy = 2; fc.gridy = 2;
+        lc.gridy = 3; fc.gridy = 3;
         form.add(new JLabel("Passwort:"), lc);
         form.add(passField, fc);
 
@@ -57,7 +86,7 @@ public class ZielDbPanel extends JPanel {
         JLabel hint = new JLabel("Beispiel: jdbc:oracle:thin:@//host:1521/service");
         hint.setFont(hint.getFont().deriveFont(Font.PLAIN, 10f));
         hint.setForeground(Color.GRAY);
-        lc.gridy = 3; fc.gridy = 3;
+        lc.gridy = 4; fc.gridy = 4;
         form.add(new JLabel(), lc);
         form.add(hint, fc);
 
@@ -76,7 +105,7 @@ public class ZielDbPanel extends JPanel {
         btnRow.add(Box.createHorizontalStrut(16));
         btnRow.add(statusLabel);
 
-        lc.gridy = 4; fc.gridy = 4;
+        lc.gridy = 5; fc.gridy = 5;
         form.add(new JLabel(), lc);
         form.add(btnRow, fc);
 
@@ -94,28 +123,112 @@ public class ZielDbPanel extends JPanel {
     private void load() {
         urlField.setText("jdbc:oracle:thin:@//host:1521/service");
         if (!Files.exists(PROPS_FILE)) return;
-        Properties p = new Properties();
-        try (var in = Files.newInputStream(PROPS_FILE)) {
-            p.load(in);
-        } catch (IOException ignored) { return; }
+        Properties p = readProps();
         urlField.setText(p.getProperty("url",      "jdbc:oracle:thin:@//host:1521/service"));
         userField.setText(p.getProperty("user",    ""));
         passField.setText("");
+        profiles.addAll(TargetProfile.loadAll(p));
+        refreshCombo(p.getProperty("profile", ""));
     }
 
     private void save() {
-        Properties p = new Properties();
+        Properties p = readProps();
         p.setProperty("url",      getUrl());
         p.setProperty("user",     getUser());
         // Passwort wird nicht persistiert
+        if (writeProps(p)) {
+            setStatus("Gespeichert", new Color(0, 140, 0));
+        } else {
+            setStatus("Fehler beim Speichern", new Color(180, 0, 0));
+        }
+    }
+
+    private Properties readProps() {
+        Properties p = new Properties();
+        if (Files.exists(PROPS_FILE)) {
+            try (var in = Files.newInputStream(PROPS_FILE)) {
+                p.load(in);
+            } catch (IOException ignored) {}
+        }
+        return p;
+    }
+
+    private boolean writeProps(Properties p) {
         try (var out = Files.newOutputStream(PROPS_FILE)) {
             p.store(out, null);
-            setStatus("Gespeichert", new Color(0, 140, 0));
+            return true;
         } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // ── Profile ───────────────────────────────────────────────────────────────
+
+    /** Übernimmt das ausgewählte Profil als aktuelles Ziel. */
+    private void applyProfile() {
+        TargetProfile t = (TargetProfile) profileCombo.getSelectedItem();
+        if (t == null) return;
+        urlField.setText(t.url);
+        userField.setText(t.user);
+        passField.setText(passwords.getOrDefault(t.name, ""));
+        Properties p = readProps();
+        p.setProperty("profile", t.name);
+        writeProps(p);
+        setStatus("Profil " + t.name + " übernommen", Color.GRAY);
+    }
+
+    /** Speichert das aktuelle Ziel unter einem Namen (überschreibt ein gleichnamiges Profil). */
+    private void saveProfile() {
+        TargetProfile current = (TargetProfile) profileCombo.getSelectedItem();
+        String name = (String) JOptionPane.showInputDialog(this, "Name des Profils (z.B. DEV, TEST, QA):",
+                "Profil speichern", JOptionPane.PLAIN_MESSAGE, null, null, current != null ? current.name : "");
+        if (name == null) return;
+        name = name.trim();
+        if (!name.matches("[\\w-]+")) {
+            setStatus("Profilname: nur Buchstaben, Ziffern, _ und -", new Color(180, 0, 0));
+            return;
+        }
+        if (getUrl().isEmpty()) { setStatus("Bitte URL eingeben", new Color(180, 0, 0)); return; }
+
+        TargetProfile profile = new TargetProfile(name, getUrl(), getUser(), "");
+        int existing = -1;
+        for (int i = 0; i < profiles.size(); i++) if (profiles.get(i).name.equals(profile.name)) existing = i;
+        if (existing >= 0) profiles.set(existing, profile); else profiles.add(profile);
+        passwords.put(name, getPassword());
+
+        Properties p = readProps();
+        TargetProfile.storeAll(p, profiles);
+        p.setProperty("profile", name);
+        if (writeProps(p)) {
+            refreshCombo(name);
+            setStatus("Profil " + name + " gespeichert", new Color(0, 140, 0));
+        } else {
             setStatus("Fehler beim Speichern", new Color(180, 0, 0));
         }
     }
 
+    private void deleteProfile() {
+        TargetProfile t = (TargetProfile) profileCombo.getSelectedItem();
+        if (t == null) return;
+        profiles.remove(t);
+        passwords.remove(t.name);
+        Properties p = readProps();
+        TargetProfile.storeAll(p, profiles);
+        p.remove("profile");
+        writeProps(p);
+        refreshCombo("");
+        setStatus("Profil " + t.name + " gelöscht", Color.GRAY);
+    }
+
+    private void refreshCombo(String selected) {
+        updatingCombo = true;
+        profileCombo.removeAllItems();
+        for (TargetProfile t : profiles) profileCombo.addItem(t);
+        profileCombo.setSelectedIndex(-1);
+        for (TargetProfile t : profiles) if (t.name.equals(selected)) profileCombo.setSelectedItem(t);
+        updatingCombo = false;
+    }
+
     // ── Verbindungstest ───────────────────────────────────────────────────────
 
     private void testConnection() {
@@ -158,4 +271,21 @@ public class ZielDbPanel extends JPanel {
     public String getUrl()      { return urlField.getText().trim(); }
     public String getUser()     { return userField.getText().trim(); }
     public String getPassword() { return new String(passField.getPassword()); }
+
+    /** Gespeicherte Profile mit den in dieser Sitzung bekannten Passwörtern. */
+    public List<TargetProfile> getProfiles() {
+        List<TargetProfile> result = new ArrayList<>();
+        TargetProfile selected = (TargetProfile) profileCombo.getSelectedItem();
+        for (TargetProfile t : profiles) {
+            // Für das aktive Profil gilt das gerade eingegebene Passwort
+            boolean active = t == selected && t.url.equals(getUrl()) && t.user.equals(getUser());
+            result.add(t.withPassword(active ? getPassword() : passwords.get(t.name)));
+        }
+        return result;
+    }
+
+    /** Merkt das Passwort eines Profils für diese Sitzung (z.B. aus dem Fan-out-Dialog). */
+    public void rememberPassword(String profile, String password) {
+        passwords.put(profile, password);
+    }
 }
@@ -0,0 +1,84 @@
+package com.excelsplit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests fuer CsvEmitter: Breite der laengsten Zeile (auch nachtraeglich aufgefuellt),
+ * Template-Spalten, Escaping und Zaehler.
+ */
+class CsvEmitterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writesRowsWithTemplateColumnsAndCounts() throws Exception {
+        Path file = dir.resolve("out.csv");
+        try (CsvEmitter csv = new CsvEmitter(file, "TPL", "Wert 1")) {
+            csv.row(new String[] { "A", "B", "C", "D", "E" });
+            csv.row(new String[] { "1", "x;y" });
+            csv.row(new String[] { "2" });
+            csv.row(new String[0]);
+
+            assertEquals(4, csv.getRows());
+            assertEquals(5, csv.getColumns());
+        }
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(List.of(
+                "A;B;C;D;E",
+                "1;\"x;y\";TPL;;\"Wert 1\"",
+                "2;;TPL;;",
+                ";;TPL;;"), lines);
+    }
+
+    @Test
+    void laterWiderRowPadsEarlierRowsOnClose() throws Exception {
+        Path file = dir.resolve("breit.csv");
+        try (CsvEmitter csv = new CsvEmitter(file, "TPL", "W")) {
+            csv.row(new String[] { "A", "B" });
+            csv.row(new String[] { "zwei\nZeilen" });
+            csv.row(new String[] { "3", "", "", "x" });
+            csv.row(new String[] { "4", "", "", "", "", "F" });
+            csv.row(new String[] { "5" });
+
+            assertEquals(6, csv.getColumns());
+        }
+
+        assertEquals(String.join(System.lineSeparator(),
+                "A;B;;;;",
+                "\"zwei\nZeilen\";;TPL;;W;",
+                "3;;TPL;x;;",
+                "4;;TPL;;;F",
+                "5;;TPL;;;",
+                ""), Files.readString(file, StandardCharsets.UTF_8));
+        try (var files = Files.list(dir)) {
+            assertEquals(1, files.count(), "Keine Zwischendatei uebrig");
+        }
+    }
+
+    @Test
+    void emptySheetHasNoColumns() throws Exception {
+        Path file = dir.resolve("leer.csv");
+        try (CsvEmitter csv = new CsvEmitter(file, "TPL", "")) {
+            assertEquals(0, csv.getRows());
+            assertEquals(0, csv.getColumns());
+        }
+        assertEquals(0, Files.size(file));
+    }
+
+    @Test
+    void escapesQuotesAndBlanks() {
+        assertEquals("", CsvEmitter.escape(null));
+        assertEquals("abc", CsvEmitter.escape("abc"));
+        assertEquals("\"a \"\"b\"\"\"", CsvEmitter.escape("a \"b\""));
+    }
+}
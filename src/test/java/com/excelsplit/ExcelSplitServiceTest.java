@@ -0,0 +1,43 @@
+package com.excelsplit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests fuer ExcelSplitService: Masterdatei-Liste und Aufteilung paralleler
+ * Verarbeitung nach Ausgabe-CSV.
+ */
+class ExcelSplitServiceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void listMasterFilesSkipsExcelLockFiles() throws Exception {
+        for (String name : List.of("b.xlsx", "~$b.xlsx", "A.XLSX", "notiz.txt")) {
+            Files.writeString(dir.resolve(name), "x");
+        }
+        assertEquals(List.of(dir.resolve("A.XLSX"), dir.resolve("b.xlsx")),
+                new ExcelSplitService().listMasterFiles(dir));
+    }
+
+    @Test
+    void filesWritingTheSameCsvShareOneTaskInInputOrder() {
+        List<List<Integer>> groups = ExcelSplitService.outputGroups(
+                List.of("a.csv", "b.csv", "a.csv", "", "c.csv", "a.csv", ""));
+
+        assertEquals(List.of(List.of(0, 2, 5), List.of(1), List.of(3), List.of(4), List.of(6)), groups);
+    }
+
+    @Test
+    void unknownOutputNameDisablesParallelGrouping() {
+        assertNull(ExcelSplitService.outputGroups(Arrays.asList("a.csv", null, "b.csv")));
+    }
+}
@@ -0,0 +1,53 @@
+package com.excelsplit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests fuer MasterDirWatcher: Filter fuer Masterdateien und gebuendelte Meldung
+ * mehrerer Aenderungen nach der Ruhezeit.
+ */
+class MasterDirWatcherTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void ignoresLockFilesAndOtherExtensions() {
+        assertTrue(MasterDirWatcher.isMasterFile(Path.of("a.xlsx")));
+        assertTrue(MasterDirWatcher.isMasterFile(Path.of("B.XLSX")));
+        assertFalse(MasterDirWatcher.isMasterFile(Path.of("~$a.xlsx")));
+        assertFalse(MasterDirWatcher.isMasterFile(Path.of("a.csv")));
+    }
+
+    @Test
+    void reportsNewAndChangedFilesAfterQuietPeriod() throws Exception {
+        BlockingQueue<List<Path>> reports = new LinkedBlockingQueue<>();
+        try (MasterDirWatcher watcher = new MasterDirWatcher(dir, 300, reports::add)) {
+            watcher.start();
+            Files.writeString(dir.resolve("a.xlsx"), "1");
+            Files.writeString(dir.resolve("b.xlsx"), "2");
+            Files.writeString(dir.resolve("a.xlsx"), "11");
+            Files.writeString(dir.resolve("~$a.xlsx"), "lock");
+
+            Set<Path> reported = new HashSet<>();
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (reported.size() < 2 && System.currentTimeMillis() < deadline) {
+                List<Path> batch = reports.poll(500, TimeUnit.MILLISECONDS);
+                if (batch != null) reported.addAll(batch);
+            }
+            assertEquals(Set.of(dir.resolve("a.xlsx"), dir.resolve("b.xlsx")), reported);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.excelsplit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests fuer SplitManifest: Erkennung unveraenderter Masterdateien, Modus-Wechsel,
+ * Persistenz und das Entfernen verwaister CSVs.
+ */
+class SplitManifestTest {
+
+    @TempDir
+    Path dir;
+
+    private Path master(String name, String content) throws Exception {
+        Path p = dir.resolve("master").resolve(name);
+        Files.createDirectories(p.getParent());
+        Files.writeString(p, content);
+        return p;
+    }
+
+    private Path out() throws Exception {
+        return Files.createDirectories(dir.resolve("out"));
+    }
+
+    @Test
+    void unchangedOnlyWhileContentModeAndCsvMatch() throws Exception {
+        Path out = out();
+        Path m   = master("a.xlsx", "inhalt");
+        Files.writeString(out.resolve("A.csv"), "x");
+
+        SplitManifest manifest = new SplitManifest(out);
+        assertFalse(manifest.existed());
+        assertNull(manifest.unchanged(m, "FAST"));
+
+        manifest.record(m, "FAST", "A.csv", "OK A.csv - Zeilen: 1, Spalten: 1");
+        SplitManifest.Entry e = manifest.unchanged(m, "FAST");
+        assertNotNull(e);
+        assertEquals("OK A.csv - Zeilen: 1, Spalten: 1", e.logEntry);
+        assertNull(manifest.unchanged(m, "STRICT"));
+
+        // Nur Zeitstempel geaendert: Inhalt gleich -> weiterhin unveraendert
+        Files.setLastModifiedTime(m, FileTime.fromMillis(Files.getLastModifiedTime(m).toMillis() + 60_000));
+        assertNotNull(manifest.unchanged(m, "FAST"));
+
+        Files.writeString(m, "inhalX");
+        assertNull(manifest.unchanged(m, "FAST"));
+
+        manifest.record(m, "FAST", "A.csv", "OK");
+        Files.delete(out.resolve("A.csv"));
+        assertNull(manifest.unchanged(m, "FAST"));
+    }
+
+    @Test
+    void survivesReloadAndKeepsSemicolonsInLogEntry() throws Exception {
+        Path out = out();
+        Path m   = master("a.xlsx", "inhalt");
+        Files.writeString(out.resolve("A.csv"), "x");
+
+        SplitManifest manifest = new SplitManifest(out);
+        manifest.record(m, "FAST", "A.csv", "WARNUNG A.csv - a;b");
+        manifest.save();
+
+        SplitManifest reloaded = new SplitManifest(out);
+        assertTrue(reloaded.existed());
+        assertEquals("WARNUNG A.csv - a;b", reloaded.unchanged(m, "FAST").logEntry);
+    }
+
+    @Test
+    void removesOnlyOrphanedCsvsKnownToTheManifest() throws Exception {
+        Path out = out();
+        Path a   = master("a.xlsx", "a");
+        Path b   = master("b.xlsx", "b");
+        Files.writeString(out.resolve("A.csv"), "x");
+        Files.writeString(out.resolve("B.csv"), "x");
+        Files.writeString(out.resolve("fremd.csv"), "x");
+
+        SplitManifest first = new SplitManifest(out);
+        first.record(a, "FAST", "A.csv", "OK");
+        first.record(b, "FAST", "B.csv", "OK");
+        first.save();
+
+        // Zweiter Lauf nur noch mit a.xlsx
+        SplitManifest second = new SplitManifest(out);
+        List<String> log = new ArrayList<>();
+        second.removeOrphans(List.of(a), log::add);
+        second.save();
+
+        assertTrue(Files.exists(out.resolve("A.csv")));
+        assertFalse(Files.exists(out.resolve("B.csv")));
+        assertTrue(Files.exists(out.resolve("fremd.csv")));
+        assertEquals(List.of("Verwaiste CSV entfernt: B.csv"), log);
+        assertNull(new SplitManifest(out).unchanged(b, "FAST"));
+    }
+}
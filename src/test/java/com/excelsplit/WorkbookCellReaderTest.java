@@ -0,0 +1,60 @@
+package com.excelsplit;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests fuer WorkbookCellReader: gespeicherte Formelergebnisse im schnellen Modus,
+ * Neuberechnung im strikten Modus und ein Evaluator je Workbook.
+ */
+class WorkbookCellReaderTest {
+
+    /** A1 = 1, B1 = A1*10 mit gespeichertem Ergebnis 10, danach A1 = 5 ohne Neuberechnung; C1 = A1+1 ohne Ergebnis. */
+    private XSSFWorkbook workbook() {
+        XSSFWorkbook wb  = new XSSFWorkbook();
+        Row          row = wb.createSheet("Daten").createRow(0);
+        row.createCell(0).setCellValue(1);
+        Cell cached = row.createCell(1);
+        cached.setCellFormula("A1*10");
+        wb.getCreationHelper().createFormulaEvaluator().evaluateFormulaCell(cached);
+        row.getCell(0).setCellValue(5);
+        row.createCell(2).setCellFormula("A1+1");
+        return wb;
+    }
+
+    @Test
+    void testFastUsesCachedResultAndEvaluatesOnlyUncached() {
+        XSSFWorkbook wb = workbook();
+        Row row = wb.getSheetAt(0).getRow(0);
+        WorkbookCellReader reader = new WorkbookCellReader(wb, ExcelSplitService.FormulaMode.FAST);
+
+        assertEquals("10", reader.getValue(row.getCell(1)), "Gespeichertes Ergebnis gilt");
+        assertEquals("6", reader.getValue(row.getCell(2)), "Formel ohne Ergebnis wird berechnet");
+    }
+
+    @Test
+    void testStrictReevaluatesEveryFormula() {
+        XSSFWorkbook wb = workbook();
+        Row row = wb.getSheetAt(0).getRow(0);
+        WorkbookCellReader reader = new WorkbookCellReader(wb, ExcelSplitService.FormulaMode.STRICT);
+
+        assertEquals("50", reader.getValue(row.getCell(1)));
+        assertEquals("6", reader.getValue(row.getCell(2)));
+    }
+
+    @Test
+    void testOneEvaluatorPerWorkbook() {
+        XSSFWorkbook wb = workbook();
+        Row row = wb.getSheetAt(0).getRow(0);
+        WorkbookCellReader reader = new WorkbookCellReader(wb);
+
+        reader.getValue(row.getCell(1));
+        var first = reader.evaluator();
+        reader.getValue(row.getCell(2));
+        assertSame(first, reader.evaluator(), "Evaluator (und sein Cache) wird wiederverwendet");
+    }
+}
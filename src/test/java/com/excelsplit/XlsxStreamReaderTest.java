@@ -0,0 +1,74 @@
+package com.excelsplit;
+
+import org.junit.jupiter.api.Test;
+
+import javax.xml.parsers.SAXParserFactory;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests fuer den SAX-Handler von XlsxStreamReader an einem handgeschriebenen Worksheet:
+ * Zelltypen, fehlende Zeilen und Zellen, Formeln ohne Ergebnis und vorzeitiges Ende.
+ */
+class XlsxStreamReaderTest {
+
+    private static final String NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+
+    private static final String SHEET = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+        + "<worksheet xmlns=\"" + NS + "\"><dimension ref=\"A1:D4\"/><sheetData>"
+        + "<row r=\"1\"><c r=\"A1\" t=\"s\"><v>0</v></c><c r=\"B1\" t=\"inlineStr\"><is><t>Menge</t></is></c></row>"
+        + "<row r=\"2\"><c r=\"A2\"><v>42</v></c><c r=\"B2\"><v>2.5</v></c>"
+        + "<c r=\"D2\" t=\"b\"><v>1</v></c></row>"
+        + "<row r=\"4\"><c r=\"A4\" t=\"str\"><f>A1&amp;\"x\"</f><v>Namex</v></c>"
+        + "<c r=\"B4\"><f>A2*2</f></c><c r=\"C4\" t=\"e\"><v>#DIV/0!</v></c></row>"
+        + "</sheetData></worksheet>";
+
+    private final List<String[]> rows = new ArrayList<>();
+
+    private XlsxStreamReader.SheetHandler parse(XlsxStreamReader.SheetHandler handler) throws Exception {
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        try {
+            factory.newSAXParser().parse(new ByteArrayInputStream(SHEET.getBytes(StandardCharsets.UTF_8)), handler);
+        } catch (org.xml.sax.SAXException stop) {
+            // vorzeitiger Abbruch nach der ersten Zeile
+        }
+        return handler;
+    }
+
+    @Test
+    void testRowsAndCellTypes() throws Exception {
+        XlsxStreamReader.SheetHandler handler = parse(new XlsxStreamReader.SheetHandler(
+            i -> i == 0 ? "Name" : "?", (r, cells) -> rows.add(cells)));
+
+        assertEquals(4, rows.size(), "Fehlende Zeile 3 wird als leere Zeile geliefert");
+        assertArrayEquals(new String[] {"Name", "Menge"}, rows.get(0));
+        assertArrayEquals(new String[] {"42", "2.5", "", "true"}, rows.get(1));
+        assertEquals(0, rows.get(2).length);
+        assertArrayEquals(new String[] {"Namex", "", ""}, rows.get(3));
+
+        assertEquals(4, handler.info.maxColumns);
+        assertEquals(3, handler.info.lastRow);
+        assertEquals(1, handler.info.uncachedFormulas, "B4 hat kein gespeichertes Ergebnis");
+    }
+
+    @Test
+    void testFirstRowStopsEarly() throws Exception {
+        XlsxStreamReader.SheetHandler first = new XlsxStreamReader.SheetHandler(i -> "Name", (r, cells) -> rows.add(cells));
+        first.stopAfterRow = 0;
+        parse(first);
+        assertEquals(1, rows.size());
+    }
+
+    @Test
+    void testColumnIndexAndNumberFormat() {
+        assertEquals(0, XlsxStreamReader.columnIndex("A1"));
+        assertEquals(27, XlsxStreamReader.columnIndex("AB12"));
+        assertEquals("1000000", XlsxStreamReader.formatNumber("1E6"));
+        assertEquals("0.1", XlsxStreamReader.formatNumber("0.1"));
+    }
+}
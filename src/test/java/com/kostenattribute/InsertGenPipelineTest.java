@@ -0,0 +1,128 @@
+package com.kostenattribute;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests fuer InsertGenPipeline: Zuordnung der CSV-Kopfzeile zu den Preset-Spalten,
+ * mehrzeilige Werte, gleiche INSERTs wie buildScript und Formeln ohne Ergebnis in .xlsx.
+ */
+class InsertGenPipelineTest {
+
+    @TempDir
+    Path dir;
+
+    private InsertGenService.PresetData preset() {
+        return new InsertGenService.PresetData("KOSTEN_ATTR",
+                new String[] { "ID", "NAME", "KST_ID", "BEMERKUNG" }, new ArrayList<>(),
+                "ID", "KOSTEN_SEQ", Map.of("KST_ID", "SELECT ID FROM KST WHERE CODE = {WERT}"));
+    }
+
+    @Test
+    void mapsColumnsByHeaderNameAndMatchesBuildScript() throws Exception {
+        Path csv = dir.resolve("quelle.csv");
+        Files.write(csv, List.of(
+                "kst_id;Name;Unbekannt",
+                "A1;Miete;x",
+                ";;",
+                "7;\"O'Neil; GmbH\";y"), StandardCharsets.UTF_8);
+
+        Path sql = dir.resolve("out/KOSTEN_ATTR.sql");
+        List<String> log = new ArrayList<>();
+        InsertGenPipeline.Result result = new InsertGenPipeline(preset()).run(List.of(csv), sql, log::add);
+
+        assertEquals(3, result.sourceRows);
+        assertEquals(2, result.insertCount);
+        assertEquals(List.of("quelle.csv: BEMERKUNG"), result.unmapped);
+        assertEquals(List.of("quelle.csv: 3 Zeile(n), 2 INSERT(s)"), log);
+
+        InsertGenService.PresetData p = preset();
+        String expected = new InsertGenService().buildScript(p.tableName, List.of(p.columnNames),
+                List.of(new String[] { null, "Miete", "A1", null },
+                        new String[] { null, "O'Neil; GmbH", "7", null }),
+                p.pkColumn, p.sequenceName, p.fkSubselects).sql;
+        assertEquals(expected, Files.readString(sql, StandardCharsets.UTF_8));
+        assertTrue(expected.contains("(SELECT ID FROM KST WHERE CODE = 'A1')"));
+        assertTrue(expected.contains("'O''Neil; GmbH'"));
+    }
+
+    @Test
+    void rejectsSourceWithoutMatchingColumns() throws Exception {
+        Path csv = dir.resolve("fremd.csv");
+        Files.write(csv, List.of("A;B", "1;2"), StandardCharsets.UTF_8);
+        Exception e = assertThrows(java.io.IOException.class,
+                () -> new InsertGenPipeline(preset()).run(List.of(csv), dir.resolve("x.sql"), line -> { }));
+        assertTrue(e.getMessage().contains("fremd.csv"));
+    }
+
+    @Test
+    void rejectsExcelFormulaWithoutCachedValue() throws Exception {
+        Path xlsx = xlsx("formel.xlsx",
+                "<row r=\"1\"><c r=\"A1\" t=\"inlineStr\"><is><t>NAME</t></is></c>"
+              + "<c r=\"B1\" t=\"inlineStr\"><is><t>KST_ID</t></is></c></row>"
+              + "<row r=\"2\"><c r=\"A2\" t=\"inlineStr\"><is><t>Miete</t></is></c>"
+              + "<c r=\"B2\"><f>1+1</f></c></row>");
+        Path sql = dir.resolve("formel.sql");
+
+        Exception e = assertThrows(java.io.IOException.class,
+                () -> new InsertGenPipeline(preset()).run(List.of(xlsx), sql, line -> { }));
+        assertTrue(e.getMessage().contains("formel.xlsx: 1 Formel(n) ohne gespeichertes Ergebnis"), e.getMessage());
+        assertFalse(Files.exists(sql), "kein Script mit NULL statt Formelergebnis");
+    }
+
+    @Test
+    void readRecordJoinsQuotedLineBreaks() throws Exception {
+        BufferedReader in = new BufferedReader(new StringReader("a;\"zeile1\nzeile2\";b\nc;d\n"));
+        assertEquals("a;\"zeile1\nzeile2\";b", InsertGenPipeline.readRecord(in));
+        assertEquals("c;d", InsertGenPipeline.readRecord(in));
+        assertNull(InsertGenPipeline.readRecord(in));
+    }
+
+    /** Minimale .xlsx mit einem Sheet (Inline-Strings, keine Shared Strings). */
+    private Path xlsx(String name, String rows) throws Exception {
+        Path file = dir.resolve(name);
+        String main = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+        String rel  = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+        String pkg  = "http://schemas.openxmlformats.org/package/2006/relationships";
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            entry(zip, "[Content_Types].xml",
+                    "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+                  + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+                  + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+                  + "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+                  + "<Override PartName=\"/xl/worksheets/sheet1.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>"
+                  + "</Types>");
+            entry(zip, "_rels/.rels", "<Relationships xmlns=\"" + pkg + "\">"
+                  + "<Relationship Id=\"rId1\" Type=\"" + rel + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                  + "</Relationships>");
+            entry(zip, "xl/workbook.xml", "<workbook xmlns=\"" + main + "\" xmlns:r=\"" + rel + "\">"
+                  + "<sheets><sheet name=\"Daten\" sheetId=\"1\" r:id=\"rId1\"/></sheets></workbook>");
+            entry(zip, "xl/_rels/workbook.xml.rels", "<Relationships xmlns=\"" + pkg + "\">"
+                  + "<Relationship Id=\"rId1\" Type=\"" + rel + "/worksheet\" Target=\"worksheets/sheet1.xml\"/>"
+                  + "</Relationships>");
+            entry(zip, "xl/worksheets/sheet1.xml", "<worksheet xmlns=\"" + main + "\"><sheetData>"
+                  + rows + "</sheetData></worksheet>");
+        }
+        return file;
+    }
+
+    private static void entry(ZipOutputStream zip, String name, String xml) throws Exception {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" + xml)
+                .getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+}
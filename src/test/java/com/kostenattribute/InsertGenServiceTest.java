@@ -0,0 +1,128 @@
+package com.kostenattribute;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests fuer InsertGenService: Script direkt in die Datei (gleicher Inhalt wie
+ * buildScript, Kennzahlen, keine Reste bei Fehlern), mengenbasierter Modus und
+ * Auswertung der FK-Subselects (je Zeile bzw. je Wert und Block).
+ */
+class InsertGenServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private final InsertGenService service = new InsertGenService();
+
+    private final List<String>   columns = List.of("ID", "NAME", "KST_ID");
+    private final List<String[]> rows    = List.of(
+            new String[] { "", "Miete", "A1" },
+            new String[] { "", "", "" },
+            new String[] { "", "Strom", "" });
+    private final Map<String, String> fk = Map.of("KST_ID", "SELECT ID FROM KST WHERE CODE = {WERT}");
+
+    @Test
+    void writeScriptStreamsSameContentAsBuildScript() throws Exception {
+        InsertGenService.ScriptFile result = service.writeScript(dir.toString(), "KOSTEN",
+                columns, rows, "ID", "KOSTEN_SEQ", fk);
+
+        String expected = service.buildScript("KOSTEN", columns, rows, "ID", "KOSTEN_SEQ", fk).sql;
+        assertEquals(dir.resolve("KOSTEN.sql"), result.file);
+        assertEquals(expected, Files.readString(result.file, StandardCharsets.UTF_8));
+        assertEquals(2, result.insertCount);
+        assertEquals(1, result.skippedRows);
+        assertEquals(Files.size(result.file), result.bytes);
+        assertTrue(expected.contains("SELECT KOSTEN_SEQ.NEXTVAL, 'Strom', r.KST_ID"
+                + " FROM (SELECT (SELECT ID FROM KST WHERE CODE = NULL) AS KST_ID FROM DUAL) r\n"
+                + "WHERE NOT EXISTS (SELECT 1 FROM KOSTEN WHERE NAME = 'Strom' AND KST_ID = r.KST_ID);"));
+    }
+
+    @Test
+    void failedWriteKeepsPreviousScriptAndLeavesNoTempFile() throws Exception {
+        Path sql = dir.resolve("KOSTEN.sql");
+        Files.writeString(sql, "ALT");
+
+        Iterable<String[]> failing = () -> new java.util.Iterator<String[]>() {
+            @Override public boolean hasNext() { return true; }
+            @Override public String[] next() { throw new IllegalStateException("Abbruch"); }
+        };
+        assertThrows(IllegalStateException.class, () -> service.writeScript(dir.toString(), "KOSTEN",
+                columns, failing, "ID", "KOSTEN_SEQ", fk));
+
+        assertEquals("ALT", Files.readString(sql));
+        try (var files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void setModeWritesOneInsertSelectPerBlock() throws Exception {
+        service.setScriptMode(InsertScriptWriter.Mode.SET);
+        String sql = service.buildScript("KOSTEN", columns, rows, "ID", "KOSTEN_SEQ", fk).sql;
+
+        assertEquals("DELETE FROM KOSTEN;\n\n"
+                + "INSERT INTO KOSTEN (ID, NAME, KST_ID)\n"
+                + "WITH q AS (\n"
+                + "SELECT 'Miete' AS NAME, 'A1' AS KST_ID FROM DUAL\n"
+                + "UNION ALL\n"
+                + "SELECT 'Strom', NULL FROM DUAL\n"
+                + "),\n"
+                + "fk1 AS (\n"
+                + "SELECT 'A1' AS WERT, (SELECT ID FROM KST WHERE CODE = 'A1') AS SCHLUESSEL FROM DUAL\n"
+                + "UNION ALL\n"
+                + "SELECT NULL, (SELECT ID FROM KST WHERE CODE = NULL) FROM DUAL\n"
+                + "),\n"
+                + "s AS (\n"
+                + "SELECT DISTINCT q.NAME, fk1.SCHLUESSEL AS KST_ID\n"
+                + "FROM q\n"
+                + "LEFT JOIN fk1 ON (fk1.WERT = q.KST_ID OR (fk1.WERT IS NULL AND q.KST_ID IS NULL))\n"
+                + ")\n"
+                + "SELECT KOSTEN_SEQ.NEXTVAL, s.NAME, s.KST_ID FROM s\n"
+                + "WHERE NOT EXISTS (SELECT 1 FROM KOSTEN z WHERE (z.NAME = s.NAME OR (z.NAME IS NULL AND s.NAME IS NULL))\n"
+                + "  AND (z.KST_ID = s.KST_ID OR (z.KST_ID IS NULL AND s.KST_ID IS NULL)));\n\n"
+                + "\nCOMMIT;\n", sql);
+
+        List<String[]> many = new java.util.ArrayList<>();
+        for (int i = 0; i <= InsertScriptWriter.SET_BATCH; i++) many.add(new String[] { "", "Zeile " + i, "" });
+        InsertGenService.ScriptFile result = service.writeScript(dir.toString(), "KOSTEN",
+                columns, many, "ID", "KOSTEN_SEQ", Map.of());
+        assertEquals(InsertScriptWriter.SET_BATCH + 1, result.insertCount);
+        assertEquals(2, result.statementCount);
+    }
+
+    @Test
+    void setModeResolvesEachFkValueOncePerBlock() throws Exception {
+        service.setScriptMode(InsertScriptWriter.Mode.SET);
+        List<String[]> many = new java.util.ArrayList<>();
+        for (int i = 0; i < 300; i++) many.add(new String[] { "", "Zeile " + i, i % 2 == 0 ? "A1" : " 7 " });
+        String sql = service.buildScript("KOSTEN", columns, many, "ID", "KOSTEN_SEQ", fk).sql;
+
+        assertEquals(1, sql.split("CODE = 'A1'", -1).length - 1);
+        assertEquals(1, sql.split("CODE = 7\\)", -1).length - 1);
+        assertTrue(sql.contains("SELECT '7', (SELECT ID FROM KST WHERE CODE = 7) FROM DUAL"));
+    }
+
+    @Test
+    void fkSubselectIsDedupedOnlyInSetModeAndOnlyPerBlock() throws Exception {
+        List<String[]> same = new java.util.ArrayList<>();
+        for (int i = 0; i <= InsertScriptWriter.SET_BATCH; i++) same.add(new String[] { "", "Zeile " + i, "A1" });
+
+        String rowSql = service.buildScript("KOSTEN", columns, same, "ID", "KOSTEN_SEQ", fk).sql;
+        assertEquals(InsertScriptWriter.SET_BATCH + 1, rowSql.split("CODE = 'A1'", -1).length - 1,
+                "Zeilenmodus: Subselect je Zeile");
+
+        service.setScriptMode(InsertScriptWriter.Mode.SET);
+        String setSql = service.buildScript("KOSTEN", columns, same, "ID", "KOSTEN_SEQ", fk).sql;
+        assertEquals(2, setSql.split("CODE = 'A1'", -1).length - 1,
+                "Mengenmodus: Subselect je Block, nicht einmal fuer das ganze Script");
+    }
+}
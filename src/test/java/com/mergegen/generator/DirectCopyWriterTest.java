@@ -0,0 +1,95 @@
+package com.mergegen.generator;
+
+import com.mergegen.model.ColumnInfo;
+import com.mergegen.model.TableRow;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests fuer DirectCopyWriter: Rueckwandlung der SQL-Literale in Bind-Werte,
+ * Aufbau der MERGE-Statements mit Bind-Variablen und Rollback bei Abbruch (ohne Datenbank).
+ */
+class DirectCopyWriterTest {
+
+    private final DirectCopyWriter writer = new DirectCopyWriter();
+
+    private TableRow auftragRow(String id, String name) {
+        TableRow row = new TableRow("SCHEMA", "AUFTRAG");
+        row.addValue(new ColumnInfo("ID", "NUMBER", false, true), id);
+        row.addValue(new ColumnInfo("NAME", "VARCHAR2", true, false), name);
+        return row;
+    }
+
+    @Test
+    void testToBindValueDecodesLiterals() {
+        assertNull(DirectCopyWriter.toBindValue("NULL"));
+        assertNull(DirectCopyWriter.toBindValue("NULL /* CLOB-Wert in TXT nicht exportierbar */"));
+        assertEquals(new BigDecimal("42.5"), DirectCopyWriter.toBindValue("42.5"));
+        assertEquals("O'Brien", DirectCopyWriter.toBindValue("'O''Brien'"));
+        assertEquals(Timestamp.valueOf("2024-03-01 12:30:00"),
+            DirectCopyWriter.toBindValue("TO_DATE('2024-03-01 12:30:00', 'YYYY-MM-DD HH24:MI:SS')"));
+    }
+
+    @Test
+    void testSameShapeGivesSameSqlWithDifferentBinds() {
+        DirectCopyWriter.BoundRow a = writer.bindRow(auftragRow("1", "'Eins'"), "AUFTRAG", "AUFTRAG", "NAME", "",
+            Map.of(), Map.of(), Map.of(), true);
+        DirectCopyWriter.BoundRow b = writer.bindRow(auftragRow("2", "'Zwei'"), "AUFTRAG", "AUFTRAG", "NAME", "",
+            Map.of(), Map.of(), Map.of(), true);
+
+        assertEquals(a.sql, b.sql);
+        assertTrue(a.sql.contains("ON (tgt.NAME = src.NAME)"));
+        assertTrue(a.sql.contains("WHEN MATCHED THEN UPDATE SET tgt.NAME = src.NAME"));
+        assertEquals(List.of(new BigDecimal("2"), "Zwei"), b.values);
+    }
+
+    @Test
+    void testRemappedKeysAndTestSuffix() {
+        Map<String, Object> newKeys = new HashMap<>();
+        newKeys.put("AUFTRAG.ID#7", new BigDecimal("9001"));
+
+        DirectCopyWriter.BoundRow root = writer.bindRow(auftragRow("7", "'Muster'"), "AUFTRAG", "AUFTRAG", "NAME",
+            "_T1", Map.of("AUFTRAG.ID", "SEQ_A"), Map.of(), newKeys, false);
+        assertEquals(List.of(new BigDecimal("9001"), "Muster_T1"), root.values);
+
+        TableRow pos = new TableRow("SCHEMA", "AUFTRPOS");
+        pos.addValue(new ColumnInfo("POS_ID", "NUMBER", false, true), "70");
+        pos.addValue(new ColumnInfo("AUFTRAG_ID", "NUMBER", true, false), "7");
+        Map<String, Map<String, String>> fkIndex = Map.of("AUFTRPOS", Map.of("AUFTRAG_ID", "AUFTRAG.ID"));
+
+        DirectCopyWriter.BoundRow child = writer.bindRow(pos, "AUFTRPOS", "AUFTRAG", "NAME", "",
+            Map.of("AUFTRAG.ID", "SEQ_A"), fkIndex, newKeys, true);
+        assertEquals(List.of(new BigDecimal("70"), new BigDecimal("9001")), child.values);
+        assertFalse(child.sql.contains("UPDATE SET"), "Umgeschlüsselte FK-Spalte wird nicht aktualisiert");
+        assertTrue(child.sql.contains("ON (tgt.POS_ID = src.POS_ID)"));
+    }
+
+    @Test
+    void testRuntimeExceptionRollsBackBeforeRestoringAutoCommit() {
+        List<String> calls = new ArrayList<>();
+        Connection conn = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                String name = method.getName();
+                calls.add(args != null && args.length == 1 && args[0] instanceof Boolean ? name + "(" + args[0] + ")" : name);
+                switch (name) {
+                    case "getAutoCommit":    return true;
+                    case "prepareStatement": throw new IllegalStateException("Treiberfehler");
+                    default:                 return null;
+                }
+            });
+
+        assertThrows(IllegalStateException.class, () -> writer.copy(conn, List.of(auftragRow("1", "'Eins'")),
+            "AUFTRAG", Map.of(), "NAME", "", Map.of(), true, line -> { }));
+
+        assertEquals(List.of("getAutoCommit", "setAutoCommit(false)", "prepareStatement", "rollback",
+            "setAutoCommit(true)"), calls);
+    }
+}
@@ -126,6 +126,39 @@ class ScriptWriterTest {
         assertTrue(subs.isEmpty(), "Ohne Sequences darf keine Substitution erfolgen");
     }
 
+    @Test
+    void testBuildFkIndexSkipsDuplicatesAndUnmappedParents() {
+        Map<String, List<ForeignKeyRelation>> fkRels = new HashMap<>();
+        fkRels.put("POSITION", List.of(
+            new ForeignKeyRelation("POSITION", "ARTIKEL_ID", "ARTIKEL", "ID"),
+            new ForeignKeyRelation("POSITION", "auftrag_id", "AUFTRAG", "ID"),
+            new ForeignKeyRelation("POSITION", "AUFTRAG_ID", "AUFTRAG", "ID")));
+
+        Map<String, Map<String, String>> index = ScriptWriter.buildFkIndex(fkRels, Map.of("AUFTRAG.ID", "SEQ_A"));
+
+        assertEquals(Map.of("AUFTRAG_ID", "AUFTRAG.ID"), index.get("POSITION"),
+            "Nur sequence-gemappte Parents, Spaltennamen normiert, Duplikate zusammengefasst");
+    }
+
+    @Test
+    void testBuildColVarSubsFirstSequencedRelationWins() {
+        TableRow row = buildRow("POSITION",
+            pk("POS_ID"), "99", col("REF_ID"), "42");
+
+        Map<String, String> sequenceMap = Map.of("AUFTRAG.ID", "SEQ_A", "ANGEBOT.ID", "SEQ_B");
+        Map<String, String> varMap = Map.of("AUFTRAG.ID#42", "v_ID_1", "ANGEBOT.ID#42", "v_ID_2");
+        Map<String, List<ForeignKeyRelation>> fkRels = new HashMap<>();
+        fkRels.put("POSITION", List.of(
+            new ForeignKeyRelation("POSITION", "REF_ID", "KUNDE", "ID"),
+            new ForeignKeyRelation("POSITION", "REF_ID", "AUFTRAG", "ID"),
+            new ForeignKeyRelation("POSITION", "REF_ID", "ANGEBOT", "ID")));
+
+        Map<String, String> subs = writer.buildColVarSubstitutions(
+            row, "POSITION", sequenceMap, varMap, fkRels);
+
+        assertEquals("v_ID_1", subs.get("REF_ID"));
+    }
+
     // ── write() Integrationstests ────────────────────────────────────────
 
     @Test
@@ -341,4 +374,232 @@ class ScriptWriterTest {
         String content = Files.readString(Path.of(path));
         assertFalse(content.contains("v_root_count"), "Bei UPDATE-Modus kein Skip-Check");
     }
+
+    // ── Aufteilung in Teil-Scripts ───────────────────────────────────────
+
+    @Test
+    void testChunkedPlainModeSplitsByRows(@TempDir Path tempDir) throws IOException {
+        List<TableRow> rows = List.of(
+            buildRow("AUFTRAG", pk("ID"), "1", col("NAME"), "'A'"),
+            buildRow("AUFTRAG", pk("ID"), "2", col("NAME"), "'B'"),
+            buildRow("AUFTRAG", pk("ID"), "3", col("NAME"), "'C'")
+        );
+        writer.setChunking(2, 0, true);
+
+        String first = writer.write(rows, Map.of("AUFTRAG", 3), "AUFTRAG", List.of("1", "2", "3"),
+            tempDir.toString(), new HashMap<>(), null, null, null, true);
+
+        List<String> files = writer.getWrittenFiles();
+        assertEquals(2, files.size(), "3 Zeilen bei 2 pro Teil ergeben 2 Teile");
+        assertTrue(first.endsWith("MERGE_AUFTRAG_001.sql"), "Erster Teil falsch benannt: " + first);
+        assertTrue(files.get(1).endsWith("MERGE_AUFTRAG_002.sql"), "Zweiter Teil falsch benannt");
+
+        String part1 = Files.readString(Path.of(files.get(0)));
+        String part2 = Files.readString(Path.of(files.get(1)));
+        assertEquals(2, countOccurrences(part1, "MERGE INTO AUFTRAG"));
+        assertEquals(1, countOccurrences(part2, "MERGE INTO AUFTRAG"));
+        assertTrue(part1.contains("COMMIT;"), "COMMIT am Teilende fehlt");
+        assertFalse(part1.contains("DECLARE"), "Plain Mode darf keinen PL/SQL-Block enthalten");
+        assertFalse(ScriptWriter.needsKeyMap(Path.of(first)), "Plain Mode braucht keine Key-Map");
+    }
+
+    @Test
+    void testChunkCommitIsTopLevelInPlSqlMode(@TempDir Path tempDir) throws IOException {
+        List<TableRow> rows = List.of(
+            buildRow("AUFTRAG", pk("ID"), "1", col("NAME"), "'A'"),
+            buildRow("AUFTRAG", pk("ID"), "2", col("NAME"), "'B'")
+        );
+        writer.setChunking(1, 0, true);
+        writer.write(rows, Map.of("AUFTRAG", 2), "AUFTRAG", List.of("1", "2"),
+            tempDir.toString(), Map.of("AUFTRAG.ID", "AUFTRAG_SEQ"), null, null, null, true);
+
+        String part1 = Files.readString(Path.of(writer.getWrittenFiles().get(0)));
+        assertTrue(part1.contains("END;\n/\n\nCOMMIT;\n"), "COMMIT muss wie im Plain Mode hinter dem Block stehen");
+        assertEquals(1, countOccurrences(part1, "COMMIT;"), "Kein COMMIT innerhalb des Blocks");
+    }
+
+    @Test
+    void testChunkedPlSqlCarriesSequenceMappingAcrossChunks(@TempDir Path tempDir) throws IOException {
+        List<TableRow> rows = List.of(
+            buildRow("PROJEKT", pk("PROJEKT_ID"), "100", col("NAME"), "'Alpha'"),
+            buildRow("AUFTRAG", pk("AUFTRAG_ID"), "200", col("PROJEKT_ID"), "100")
+        );
+        Map<String, String> seqMap = new LinkedHashMap<>();
+        seqMap.put("PROJEKT.PROJEKT_ID", "PROJEKT_SEQ");
+        seqMap.put("AUFTRAG.AUFTRAG_ID", "AUFTRAG_SEQ");
+        Map<String, List<ForeignKeyRelation>> fkRels = new HashMap<>();
+        fkRels.put("AUFTRAG", List.of(new ForeignKeyRelation("AUFTRAG", "PROJEKT_ID", "PROJEKT", "PROJEKT_ID")));
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("PROJEKT", 1); counts.put("AUFTRAG", 1);
+
+        writer.setChunking(1, 0, false);
+        writer.write(rows, counts, "PROJEKT", List.of("100"),
+            tempDir.toString(), seqMap, null, null, fkRels, true);
+
+        List<String> files = writer.getWrittenFiles();
+        assertEquals(2, files.size());
+        String part1 = Files.readString(Path.of(files.get(0)));
+        String part2 = Files.readString(Path.of(files.get(1)));
+
+        // Teil 1: Key-Map nur prüfen (keine DDL im Datenlauf) und eigenen PK-Wert je Serie ablegen
+        assertFalse(part1.contains("EXECUTE IMMEDIATE 'CREATE"), "DDL im Teil würde implizit committen");
+        assertTrue(part1.contains("RAISE_APPLICATION_ERROR(-20002"), "Fehlende Key-Map muss gemeldet werden");
+        assertTrue(ScriptWriter.needsKeyMap(Path.of(files.get(0))), "Key-Map-Bedarf muss im Kopf erkennbar sein");
+        assertFalse(part1.contains("GLOBAL TEMPORARY"), "Key-Map muss sessionübergreifend sein");
+        assertTrue(part1.contains("put_key('PROJEKT.PROJEKT_ID#100', TO_CHAR(v_PROJEKT_ID_1));"), "Ablage in Key-Map fehlt");
+        assertTrue(part1.contains("USING 'MERGE_PROJEKT', p_key, p_id"), "Einträge müssen je Serie abgelegt werden");
+        assertTrue(part1.contains("EXECUTE IMMEDIATE 'DELETE FROM MIGTOOL_KEY_MAP WHERE SERIES = :s' USING 'MERGE_PROJEKT';"),
+            "Teil 1 muss alte Einträge der Serie verwerfen");
+        assertFalse(part1.contains("v_AUFTRAG_ID_1"), "Teil 1 darf nur eigene Variablen deklarieren");
+
+        // Teil 2: Parent-Variable laden statt neu vergeben
+        assertTrue(part2.contains("v_PROJEKT_ID_1 NUMBER;"), "Geladene Variable muss deklariert sein");
+        assertTrue(part2.contains("v_PROJEKT_ID_1 := TO_NUMBER(get_key('PROJEKT.PROJEKT_ID#100'));"), "Laden aus Key-Map fehlt");
+        assertTrue(part2.contains("WHEN NO_DATA_FOUND THEN\n      RAISE_APPLICATION_ERROR(-20001"),
+            "Fehlender Schlüssel (Teil 1 nicht gelaufen) muss den Teil abbrechen");
+        assertFalse(part2.contains("PROJEKT_SEQ.NEXTVAL"), "Parent-Sequence darf in Teil 2 nicht erneut gezogen werden");
+        assertTrue(part2.contains("v_PROJEKT_ID_1 AS PROJEKT_ID"), "FK muss die geladene Variable nutzen");
+        assertFalse(part2.contains("v_map_exists"), "Key-Map nur im ersten Teil prüfen");
+        assertFalse(part2.contains("DELETE FROM MIGTOOL_KEY_MAP"), "Spätere Teile brauchen die Einträge");
+        assertTrue(ScriptWriter.needsKeyMap(Path.of(files.get(1))));
+    }
+
+    @Test
+    void testChunkedSkipCheckAcrossChunks(@TempDir Path tempDir) throws IOException {
+        List<TableRow> rows = List.of(
+            buildRow("AUFTRAG", pk("ID"), "42", col("NAME"), "'Test'"),
+            buildRow("POSITION", pk("POS_ID"), "99", col("AUFTRAG_ID"), "42")
+        );
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("AUFTRAG", 1); counts.put("POSITION", 1);
+
+        writer.setChunking(1, 0, false);
+        writer.write(rows, counts, "AUFTRAG", List.of("42"),
+            tempDir.toString(), new HashMap<>(), null, null, null, false);
+
+        List<String> files = writer.getWrittenFiles();
+        assertEquals(2, files.size());
+        String part1 = Files.readString(Path.of(files.get(0)));
+        String part2 = Files.readString(Path.of(files.get(1)));
+        assertTrue(part1.contains("put_key('#ROOT_COUNT', TO_CHAR(v_root_count));"), "Root-Zähler muss abgelegt werden");
+        assertFalse(part1.contains("get_key"), "Teil 1 beginnt mit Zähler 0 statt einem alten Wert");
+        assertTrue(part2.contains("v_root_count := TO_NUMBER(get_key('#ROOT_COUNT'));"), "Root-Zähler muss geladen werden");
+        assertTrue(part2.indexOf("IF v_root_count = 0 THEN") < part2.indexOf("MERGE INTO POSITION"),
+            "Skip-Check muss vor dem ersten Kind-MERGE stehen");
+    }
+
+    // ── Collection-Modus ────────────────────────────────────────────────
+
+    @Test
+    void testCollectionMappingDeclaresOneArrayPerTable(@TempDir Path tempDir) throws IOException {
+        List<TableRow> rows = List.of(
+            buildRow("PROJEKT", pk("PROJEKT_ID"), "100", col("NAME"), "'Alpha'"),
+            buildRow("PROJEKT", pk("PROJEKT_ID"), "101", col("NAME"), "'Beta'"),
+            buildRow("AUFTRAG", pk("AUFTRAG_ID"), "200", col("PROJEKT_ID"), "101")
+        );
+        Map<String, String> seqMap = new LinkedHashMap<>();
+        seqMap.put("PROJEKT.PROJEKT_ID", "PROJEKT_SEQ");
+        seqMap.put("AUFTRAG.AUFTRAG_ID", "AUFTRAG_SEQ");
+        Map<String, List<ForeignKeyRelation>> fkRels = new HashMap<>();
+        fkRels.put("AUFTRAG", List.of(new ForeignKeyRelation("AUFTRAG", "PROJEKT_ID", "PROJEKT", "PROJEKT_ID")));
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("PROJEKT", 2); counts.put("AUFTRAG", 1);
+
+        writer.setCollectionMapping(true);
+        String path = writer.write(rows, counts, "PROJEKT", List.of("100", "101"),
+            tempDir.toString(), seqMap, null, null, fkRels, true);
+        String content = Files.readString(Path.of(path));
+
+        assertTrue(content.contains("TYPE t_m_PROJEKT_ID_1 IS TABLE OF NUMBER INDEX BY VARCHAR2(200);"));
+        assertTrue(content.contains("m_PROJEKT_ID_1 t_m_PROJEKT_ID_1;"));
+        assertTrue(content.contains("m_AUFTRAG_ID_1 t_m_AUFTRAG_ID_1;"));
+        assertFalse(content.contains("v_PROJEKT_ID_"), "Keine Einzelvariablen im Collection-Modus");
+
+        assertTrue(content.contains("PROJEKT_SEQ.NEXTVAL INTO m_PROJEKT_ID_1('101')"));
+        assertTrue(content.contains("m_PROJEKT_ID_1('101') AS PROJEKT_ID"), "FK muss über den alten Schlüssel nachschlagen");
+    }
+
+    @Test
+    void testCollectionMappingKeepsStringKeysAsIndex(@TempDir Path tempDir) throws IOException {
+        List<TableRow> rows = List.of(
+            buildRow("LAND", pk("LAND_CODE"), "'DE'", col("NAME"), "'Deutschland'")
+        );
+        writer.setCollectionMapping(true);
+        String path = writer.write(rows, Map.of("LAND", 1), "LAND", List.of("'DE'"),
+            tempDir.toString(), Map.of("LAND.LAND_CODE", "LAND_SEQ"), null, null, null, true);
+        String content = Files.readString(Path.of(path));
+
+        assertTrue(content.contains("IS TABLE OF VARCHAR2(200) INDEX BY VARCHAR2(200)"));
+        assertTrue(content.contains("LAND_SEQ.NEXTVAL INTO m_LAND_CODE_1('DE')"));
+    }
+
+    @Test
+    void testBuildCollectionNameLeavesRoomForTypePrefix() {
+        String name = writer.buildCollectionName("SEHR_LANGER_SPALTENNAME_XYZ", 1);
+        assertTrue(name.length() <= 28, "Array-Name zu lang: " + name);
+        assertTrue(name.startsWith("m_SEHR_LANGER") && name.endsWith("_1"));
+    }
+
+    // ── Bulk-Reservierung der Sequence-Werte ────────────────────────────
+
+    @Test
+    void testBulkSequencesOneFetchPerTableSection(@TempDir Path tempDir) throws IOException {
+        List<TableRow> rows = List.of(
+            buildRow("PROJEKT", pk("PROJEKT_ID"), "100", col("NAME"), "'Alpha'"),
+            buildRow("PROJEKT", pk("PROJEKT_ID"), "101", col("NAME"), "'Beta'"),
+            buildRow("AUFTRAG", pk("AUFTRAG_ID"), "200", col("PROJEKT_ID"), "101")
+        );
+        Map<String, String> seqMap = new LinkedHashMap<>();
+        seqMap.put("PROJEKT.PROJEKT_ID", "PROJEKT_SEQ");
+        seqMap.put("AUFTRAG.AUFTRAG_ID", "AUFTRAG_SEQ");
+        Map<String, List<ForeignKeyRelation>> fkRels = new HashMap<>();
+        fkRels.put("AUFTRAG", List.of(new ForeignKeyRelation("AUFTRAG", "PROJEKT_ID", "PROJEKT", "PROJEKT_ID")));
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("PROJEKT", 2); counts.put("AUFTRAG", 1);
+
+        writer.setCollectionMapping(true);
+        writer.setBulkSequences(true);
+        String path = writer.write(rows, counts, "PROJEKT", List.of("100", "101"),
+            tempDir.toString(), seqMap, null, null, fkRels, false);
+        String content = Files.readString(Path.of(path));
+
+        assertTrue(content.contains("TYPE t_seq_ids IS TABLE OF NUMBER;"));
+        assertTrue(content.contains("SELECT PROJEKT_SEQ.NEXTVAL BULK COLLECT INTO l_seq_ids FROM DUAL CONNECT BY LEVEL <= 2;"));
+        assertTrue(content.contains("m_PROJEKT_ID_1('101') := l_seq_ids(2);"));
+        assertFalse(content.contains("NEXTVAL INTO m_"), "Keine Einzel-NEXTVALs im Bulk-Modus");
+
+        // Kind-Sequence erst nach dem Skip-Check reservieren
+        int skip = content.indexOf("IF v_root_count = 0 THEN");
+        int childFetch = content.indexOf("AUFTRAG_SEQ.NEXTVAL BULK COLLECT");
+        assertTrue(skip >= 0 && childFetch > skip, "Kind-Reservierung muss hinter dem Skip-Check liegen");
+        assertTrue(childFetch < content.indexOf("MERGE INTO AUFTRAG"));
+    }
+
+    @Test
+    void testBulkSequencesInChunkedOutput(@TempDir Path tempDir) throws IOException {
+        List<TableRow> rows = List.of(
+            buildRow("AUFTRAG", pk("ID"), "1", col("NAME"), "'A'"),
+            buildRow("AUFTRAG", pk("ID"), "2", col("NAME"), "'B'"),
+            buildRow("AUFTRAG", pk("ID"), "3", col("NAME"), "'C'")
+        );
+        writer.setBulkSequences(true);
+        writer.setChunking(2, 0, false);
+        writer.write(rows, Map.of("AUFTRAG", 3), "AUFTRAG", List.of("1", "2", "3"),
+            tempDir.toString(), Map.of("AUFTRAG.ID", "AUFTRAG_SEQ"), null, null, null, true);
+
+        List<String> files = writer.getWrittenFiles();
+        assertEquals(2, files.size());
+        String part1 = Files.readString(Path.of(files.get(0)));
+        String part2 = Files.readString(Path.of(files.get(1)));
+        assertTrue(part1.contains("CONNECT BY LEVEL <= 2;"));
+        assertTrue(part1.indexOf("BULK COLLECT") < part1.indexOf("MERGE INTO AUFTRAG"));
+        assertTrue(part2.contains("CONNECT BY LEVEL <= 1;"));
+        assertTrue(part2.contains("v_ID_3 := l_seq_ids(1);"));
+    }
+
+    private static int countOccurrences(String text, String token) {
+        int count = 0;
+        for (int i = text.indexOf(token); i >= 0; i = text.indexOf(token, i + token.length())) count++;
+        return count;
+    }
 }
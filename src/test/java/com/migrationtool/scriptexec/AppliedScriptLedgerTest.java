@@ -0,0 +1,74 @@
+package com.migrationtool.scriptexec;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests fuer AppliedScriptLedger: Pruefsumme, Ziel-Trennung und Persistenz (lokales Protokoll).
+ */
+class AppliedScriptLedgerTest {
+
+    private static final String DEV  = AppliedScriptLedger.target("jdbc:oracle:thin:@//dev:1521/D", "MIG");
+    private static final String TEST = AppliedScriptLedger.target("jdbc:oracle:thin:@//test:1521/T", "MIG");
+
+    @Test
+    void testUnchangedScriptIsAppliedAfterReload(@TempDir Path dir) throws IOException {
+        Path script = Files.writeString(dir.resolve("MERGE_A.sql"), "DELETE FROM A;\n");
+        Path file   = dir.resolve("applied");
+        String sum  = AppliedScriptLedger.checksum(script);
+        assertEquals(64, sum.length());
+
+        new AppliedScriptLedger(file).markApplied(DEV, script, sum);
+
+        AppliedScriptLedger reloaded = new AppliedScriptLedger(file);
+        assertTrue(reloaded.isApplied(DEV, script, sum));
+        assertFalse(reloaded.isApplied(TEST, script, sum), "Vermerk gilt nur für dasselbe Ziel");
+    }
+
+    @Test
+    void testRegeneratedIdenticalScriptIsSkipped(@TempDir Path dir) throws IOException {
+        Path script = Files.writeString(dir.resolve("MERGE_A.sql"),
+                "-- Oracle MERGE Script\n-- Generiert: 20240101 10:00:00\n-- Fuehrende Tabelle: A\n\nDELETE FROM A;\n");
+        AppliedScriptLedger ledger = new AppliedScriptLedger(dir.resolve("applied"));
+        ledger.markApplied(DEV, script, AppliedScriptLedger.checksum(script));
+
+        // Neu erzeugt: nur der Zeitpunkt im Kopf ist anders
+        Files.writeString(script,
+                "-- Oracle MERGE Script\n-- Generiert: 20240315 08:30:12\n-- Fuehrende Tabelle: A\n\nDELETE FROM A;\n");
+        assertTrue(ledger.isApplied(DEV, script, AppliedScriptLedger.checksum(script)),
+                "Identisch neu erzeugtes Script muss übersprungen werden");
+
+        Files.writeString(script,
+                "-- Oracle MERGE Script\n-- Generiert: 20240315 08:30:12\n-- Fuehrende Tabelle: A\n\nDELETE FROM B;\n");
+        assertFalse(ledger.isApplied(DEV, script, AppliedScriptLedger.checksum(script)));
+    }
+
+    @Test
+    void testGeneratedLineOutsideHeaderCounts(@TempDir Path dir) throws IOException {
+        Path a = Files.writeString(dir.resolve("a.sql"), "DELETE FROM A;\n-- Generiert: 1\n");
+        Path b = Files.writeString(dir.resolve("b.sql"), "DELETE FROM A;\n-- Generiert: 2\n");
+        assertNotEquals(AppliedScriptLedger.checksum(a), AppliedScriptLedger.checksum(b));
+    }
+
+    @Test
+    void testChangedContentIsNotApplied(@TempDir Path dir) throws IOException {
+        Path script = Files.writeString(dir.resolve("MERGE_A.sql"), "DELETE FROM A;\n");
+        AppliedScriptLedger ledger = new AppliedScriptLedger(dir.resolve("applied"));
+        ledger.markApplied(DEV, script, AppliedScriptLedger.checksum(script));
+
+        Files.writeString(script, "DELETE FROM A WHERE ID = 1;\n");
+        String changed = AppliedScriptLedger.checksum(script);
+        assertFalse(ledger.isApplied(DEV, script, changed));
+        assertEquals(1, ledger.countRecorded(DEV, List.of(script)));
+
+        ledger.forget(DEV, List.of(script));
+        assertEquals(0, ledger.countRecorded(DEV, List.of(script)));
+    }
+}
@@ -0,0 +1,59 @@
+package com.migrationtool.scriptexec;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests fuer LogSink: begrenzter Ringpuffer im Speicher, vollstaendige Log-Datei.
+ */
+class LogSinkTest {
+
+    @Test
+    void testRingKeepsOnlyLatestLines() {
+        LogSink sink = new LogSink(3);
+        for (int i = 1; i <= 5; i++) sink.accept("Zeile " + i);
+        assertEquals(0, sink.size(), "Zeilen erscheinen erst nach drain()");
+
+        sink.drain();
+        assertEquals(3, sink.size());
+        assertEquals("Zeile 3", sink.get(0));
+        assertEquals("Zeile 5", sink.get(2));
+        assertEquals(2, sink.getDropped());
+
+        sink.accept("Zeile 6");
+        assertEquals(1, sink.drain());
+        assertEquals("Zeile 4", sink.get(0));
+        assertEquals("Zeile 6", sink.get(2));
+
+        sink.clear();
+        assertEquals(0, sink.size());
+        assertEquals(0, sink.getDropped());
+    }
+
+    @Test
+    void testFileReceivesAllLines(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("runs/run.log");
+        LogSink sink = new LogSink(10);
+        sink.accept("vorher");
+        sink.openFile(file);
+        for (int i = 0; i < 1000; i++) sink.accept("Statement " + i);
+        sink.closeFile();
+        sink.accept("nachher");
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(1000, lines.size());
+        assertEquals("Statement 0", lines.get(0));
+        assertEquals("Statement 999", lines.get(999));
+
+        sink.drain();
+        assertEquals(10, sink.size(), "Speicher bleibt begrenzt");
+    }
+}
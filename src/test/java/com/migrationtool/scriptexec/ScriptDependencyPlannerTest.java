@@ -0,0 +1,103 @@
+package com.migrationtool.scriptexec;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests fuer ScriptDependencyPlanner: Lese-/Schreibmengen, Gruppenbildung, Fremdschluessel
+ * und Key-Map je Serie.
+ */
+class ScriptDependencyPlannerTest {
+
+    private final ScriptDependencyPlanner planner = new ScriptDependencyPlanner();
+
+    private Path script(Path dir, String name, String content) throws IOException {
+        Path file = dir.resolve(name);
+        Files.writeString(file, content);
+        return file;
+    }
+
+    @Test
+    void testAnalyzeMergeReadsAndWrites(@TempDir Path dir) throws IOException {
+        Path s = script(dir, "MERGE_A.sql",
+            "MERGE INTO schema.AUFTRAG tgt\n"
+            + "USING (SELECT (SELECT ID FROM KUNDE WHERE NR = 7) AS KUNDE_ID FROM DUAL) src\n"
+            + "ON (tgt.ID = src.ID)\n"
+            + "WHEN MATCHED THEN UPDATE SET tgt.X = src.X\n"
+            + "WHEN NOT MATCHED THEN INSERT (ID) VALUES (src.ID);\n");
+
+        ScriptDependencyPlanner.TableAccess access = planner.analyze(s);
+
+        assertEquals(Set.of("AUFTRAG"), access.writes);
+        assertEquals(Set.of("KUNDE"), access.reads, "DUAL und SET duerfen nicht als Tabellen erkannt werden");
+    }
+
+    @Test
+    void testDisjointScriptsFormSeparateGroups(@TempDir Path dir) throws IOException {
+        Path a = script(dir, "MERGE_A.sql", "INSERT INTO A (ID) SELECT 1 FROM DUAL;\n");
+        Path b = script(dir, "MERGE_B.sql", "INSERT INTO B (ID) SELECT 1 FROM DUAL;\n");
+
+        List<List<Path>> groups = planner.plan(List.of(a, b));
+
+        assertEquals(List.of(List.of(a), List.of(b)), groups);
+    }
+
+    @Test
+    void testReadAfterWriteKeepsOrderInOneGroup(@TempDir Path dir) throws IOException {
+        Path a = script(dir, "MERGE_A.sql", "INSERT INTO A (ID) SELECT 1 FROM DUAL;\n");
+        Path b = script(dir, "MERGE_B.sql", "INSERT INTO B (ID) SELECT 1 FROM DUAL;\n");
+        Path c = script(dir, "MERGE_C.sql", "INSERT INTO C (A_ID) SELECT ID FROM A;\n");
+
+        List<List<Path>> groups = planner.plan(List.of(a, b, c));
+
+        assertEquals(List.of(List.of(a, c), List.of(b)), groups);
+    }
+
+    @Test
+    void testChunkPartsShareKeyMapAndStayTogether(@TempDir Path dir) throws IOException {
+        String block = "BEGIN\n"
+            + "  EXECUTE IMMEDIATE 'INSERT INTO MIGTOOL_KEY_MAP (MAP_KEY, NEW_ID) VALUES (:k, :v)' USING 'X', '1';\n"
+            + "END;\n/\n";
+        Path p1 = script(dir, "MERGE_A_001.sql", block.replace("BEGIN\n", "BEGIN\n  INSERT INTO A (ID) VALUES (1);\n"));
+        Path p2 = script(dir, "MERGE_A_002.sql", block.replace("BEGIN\n", "BEGIN\n  INSERT INTO A_POS (ID) VALUES (1);\n"));
+
+        List<List<Path>> groups = planner.plan(List.of(p1, p2));
+
+        assertEquals(1, groups.size(), "Teil-Scripts teilen sich die Key-Map und muessen zusammen laufen");
+    }
+
+    @Test
+    void testKeyMapSeriesOfDifferentRootsRunInParallel(@TempDir Path dir) throws IOException {
+        String block = "BEGIN\n"
+            + "  EXECUTE IMMEDIATE 'DELETE FROM MIGTOOL_KEY_MAP WHERE SERIES = :s' USING 'SERIE';\n"
+            + "  INSERT INTO TABELLE (ID) VALUES (1);\n"
+            + "END;\n/\n";
+        Path a = script(dir, "MERGE_A_001.sql", block.replace("SERIE", "MERGE_A").replace("TABELLE", "A"));
+        Path b = script(dir, "MERGE_B_001.sql", block.replace("SERIE", "MERGE_B").replace("TABELLE", "B"));
+        Path all = script(dir, "AUFRAEUMEN.sql", "DELETE FROM MIGTOOL_KEY_MAP;\n");
+
+        assertEquals(List.of(List.of(a), List.of(b)), planner.plan(List.of(a, b)),
+            "Key-Map-Zeilen sind je Serie getrennt");
+        assertEquals(1, planner.plan(List.of(a, b, all)).size(), "Zugriff auf die ganze Key-Map betrifft jede Serie");
+    }
+
+    @Test
+    void testForeignKeyJoinsParentAndChildWriters(@TempDir Path dir) throws IOException {
+        Path parent = script(dir, "MERGE_A.sql", "INSERT INTO AUFTRAG (ID) VALUES (1);\n");
+        Path child  = script(dir, "MERGE_B.sql", "INSERT INTO AUFTRPOS (ID, AUFTRAG_ID) VALUES (1, 1);\n");
+        Map<String, Set<String>> fks = Map.of("AUFTRAG", Set.of("AUFTRPOS"), "AUFTRPOS", Set.of("AUFTRAG"));
+
+        assertEquals(2, planner.plan(List.of(parent, child)).size(), "Ohne FK-Kenntnis unabhaengig");
+        assertEquals(List.of(List.of(parent, child)), planner.plan(List.of(parent, child), fks),
+            "Child-Insert wartet sonst auf die offene Transaktion des Parents");
+    }
+}
@@ -0,0 +1,25 @@
+package com.migrationtool.scriptexec;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests fuer die Sortierung der Script-Liste: Teilnummern werden numerisch verglichen.
+ */
+class ScriptExecutorPanelTest {
+
+    @Test
+    void testPartNumbersSortNumerically() {
+        List<String> names = new ArrayList<>(List.of(
+                "MERGE_AUFTRAG_1000.sql", "MERGE_AUFTRAG_101.sql", "MERGE_AUFTRAG_999.sql",
+                "MERGE_AUFTRAG_002.sql", "MERGE_AUFTRAG.sql", "MERGE_AB_001.sql"));
+        names.sort(ScriptExecutorPanel::compareNatural);
+
+        assertEquals(List.of("MERGE_AB_001.sql", "MERGE_AUFTRAG.sql", "MERGE_AUFTRAG_002.sql",
+                "MERGE_AUFTRAG_101.sql", "MERGE_AUFTRAG_999.sql", "MERGE_AUFTRAG_1000.sql"), names);
+    }
+}
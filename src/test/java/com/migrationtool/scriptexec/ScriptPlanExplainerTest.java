@@ -0,0 +1,99 @@
+package com.migrationtool.scriptexec;
+
+import com.kostenattribute.InsertGenService;
+import com.kostenattribute.InsertScriptWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests fuer ScriptPlanExplainer: Bildung der Statement-Vorlagen (ohne Datenbank).
+ */
+class ScriptPlanExplainerTest {
+
+    private static String merge(String id, String name) {
+        return "MERGE INTO AUFTRAG tgt\n"
+            + "USING (\n"
+            + "    SELECT\n"
+            + "        " + id + " AS ID,\n"
+            + "        " + name + " AS NAME\n"
+            + "    FROM DUAL\n"
+            + ") src\n"
+            + "ON (tgt.NAME = src.NAME)\n"
+            + "WHEN NOT MATCHED THEN\n"
+            + "    INSERT (ID, NAME)\n"
+            + "    VALUES (src.ID, src.NAME);\n";
+    }
+
+    @Test
+    void testMergeValuesReplacedByBinds() {
+        ScriptPlanExplainer.Template t = ScriptPlanExplainer.toTemplate(merge("v_id_1", "'A AS B, C'"));
+
+        assertNotNull(t);
+        assertEquals("AUFTRAG", t.table);
+        assertEquals(List.of("NAME"), t.searchColumns);
+        assertTrue(t.sql.contains("SELECT :b1 AS ID, :b2 AS NAME FROM DUAL"), t.sql);
+        assertFalse(t.sql.contains("v_id_1"));
+    }
+
+    @Test
+    void testSameShapeCollectedOnceAcrossPlainAndPlSql(@TempDir Path dir) throws IOException {
+        Path plain = Files.writeString(dir.resolve("MERGE_A.sql"),
+            merge("1", "'Eins'") + merge("2", "'Zwei'")
+            + "INSERT INTO LOG (ID, TXT) VALUES (1, 'x');\n");
+        Path plsql = Files.writeString(dir.resolve("MERGE_B.sql"),
+            "DECLARE\n  v_id_1 NUMBER;\nBEGIN\n"
+            + "  EXECUTE IMMEDIATE 'INSERT INTO MIGTOOL_KEY_MAP (MAP_KEY, NEW_ID) VALUES (:k, :v)' USING 'a', v_id_1;\n"
+            + "  " + merge("v_id_1", "'Drei'")
+            + "END;\n/\n");
+
+        List<ScriptPlanExplainer.Template> templates = new ScriptPlanExplainer().collect(List.of(plain, plsql));
+
+        assertEquals(2, templates.size(), "Ein MERGE-Template und ein INSERT-Template; EXECUTE IMMEDIATE ignoriert");
+        assertEquals(3, templates.get(0).occurrences);
+        assertEquals("MERGE_A.sql", templates.get(0).firstScript);
+        assertEquals("INSERT", templates.get(1).verb);
+        assertTrue(templates.get(1).sql.contains("VALUES (:b1, :b2)"));
+    }
+
+    @Test
+    void testInsertGenScriptsGiveOneTemplatePerShape(@TempDir Path dir) throws IOException {
+        InsertGenService gen  = new InsertGenService();
+        List<String>     cols = List.of("ID", "NAME", "KST_ID");
+        List<String[]>   rows = List.of(
+            new String[] { "", "Miete", "A1" },
+            new String[] { "", "Strom", "B2" });
+        Map<String, String> fk = Map.of("KST_ID", "SELECT ID FROM KST WHERE CODE = {WERT}");
+        Path rowScript = Files.writeString(dir.resolve("KOSTEN.sql"),
+            gen.buildScript("KOSTEN", cols, rows, "ID", "KOSTEN_SEQ", fk).sql);
+        gen.setScriptMode(InsertScriptWriter.Mode.SET);
+        Path setScript = Files.writeString(dir.resolve("KOSTEN_SET.sql"),
+            gen.buildScript("KOSTEN", cols, rows, "ID", "KOSTEN_SEQ", Map.of()).sql);
+
+        List<ScriptPlanExplainer.Template> templates =
+            new ScriptPlanExplainer().collect(List.of(rowScript, setScript));
+
+        assertEquals(2, templates.size(), "Zeilenmodus: eine Vorlage fuer beide Zeilen; Mengenmodus: eine");
+        ScriptPlanExplainer.Template row = templates.get(0);
+        assertEquals("INSERT", row.verb);
+        assertEquals("KOSTEN", row.table);
+        assertEquals(2, row.occurrences);
+        assertEquals(List.of("NAME", "KST_ID"), row.searchColumns);
+        assertTrue(row.sql.contains("SELECT KOSTEN_SEQ.NEXTVAL, :b1, r.KST_ID"), row.sql);
+        assertTrue(row.sql.contains("CODE = :b2"), row.sql);
+        assertTrue(row.sql.contains("WHERE NAME = :b4 AND KST_ID = r.KST_ID)"), row.sql);
+        assertFalse(row.sql.contains("Miete") || row.sql.contains("A1"));
+
+        ScriptPlanExplainer.Template set = templates.get(1);
+        assertEquals(List.of("NAME", "KST_ID"), set.searchColumns, "Nur Spalten mit Alias z der Zieltabelle");
+        assertTrue(set.sql.contains("SELECT :b1 AS NAME, :b2 AS KST_ID FROM DUAL"), set.sql);
+        assertFalse(set.sql.contains("Strom"));
+    }
+}
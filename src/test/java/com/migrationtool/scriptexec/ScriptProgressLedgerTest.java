@@ -0,0 +1,81 @@
+package com.migrationtool.scriptexec;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests fuer ScriptProgressLedger: Persistenz, Ziel-Trennung (auch Schemas derselben DB)
+ * und Verfall bei Dateiaenderung.
+ */
+class ScriptProgressLedgerTest {
+
+    private static final String URL_A = "jdbc:oracle:thin:@host:1521/A";
+    private static final String URL_B = "jdbc:oracle:thin:@host:1521/B";
+
+    @Test
+    void testPartialAndDoneSurviveReload(@TempDir Path dir) throws IOException {
+        Path s1 = Files.writeString(dir.resolve("MERGE_A.sql"), "DELETE FROM A;\n");
+        Path s2 = Files.writeString(dir.resolve("MERGE_B.sql"), "DELETE FROM B;\n");
+        Path file = dir.resolve("progress");
+
+        ScriptProgressLedger ledger = new ScriptProgressLedger(file);
+        ledger.markDone(URL_A, s1);
+        ledger.markPartial(URL_A, s2, 2000);
+
+        ScriptProgressLedger reloaded = new ScriptProgressLedger(file);
+        assertEquals(ScriptProgressLedger.DONE, reloaded.getApplied(URL_A, s1));
+        assertEquals(2000, reloaded.getApplied(URL_A, s2));
+        assertEquals(0, reloaded.getApplied(URL_B, s1), "Fortschritt gilt nur für dieselbe Ziel-DB");
+        assertEquals(2, reloaded.countRecorded(URL_A, List.of(s1, s2)));
+    }
+
+    @Test
+    void testTwoSchemasOnSameUrlHaveSeparateProgress(@TempDir Path dir) throws IOException {
+        Path s1 = Files.writeString(dir.resolve("MERGE_A.sql"), "DELETE FROM A;\n");
+        Path s2 = Files.writeString(dir.resolve("MERGE_B.sql"), "DELETE FROM B;\n");
+        String userA = AppliedScriptLedger.target(URL_A, "MIG_A");
+        String userB = AppliedScriptLedger.target(URL_A, "MIG_B");
+
+        ScriptProgressLedger ledger = new ScriptProgressLedger(dir.resolve("progress"));
+        ledger.markDone(userA, s1);
+        ledger.markPartial(userA, s2, 500);
+
+        assertEquals(0, ledger.getApplied(userB, s1), "Schema B darf A's erledigte Scripts nicht überspringen");
+        assertEquals(0, ledger.getApplied(userB, s2), "Schema B darf nicht an A's Checkpoint fortsetzen");
+        assertEquals(0, ledger.countRecorded(userB, List.of(s1, s2)));
+
+        ledger.clear(userB, List.of(s1, s2));
+        assertEquals(ScriptProgressLedger.DONE, ledger.getApplied(userA, s1));
+        assertEquals(500, ledger.getApplied(userA, s2));
+    }
+
+    @Test
+    void testChangedScriptInvalidatesEntry(@TempDir Path dir) throws IOException {
+        Path s1 = Files.writeString(dir.resolve("MERGE_A.sql"), "DELETE FROM A;\n");
+        ScriptProgressLedger ledger = new ScriptProgressLedger(dir.resolve("progress"));
+        ledger.markPartial(URL_A, s1, 10);
+
+        Files.writeString(s1, "DELETE FROM A;\nDELETE FROM A2;\n");
+
+        assertEquals(0, ledger.getApplied(URL_A, s1), "Geänderte Datei muss von vorn beginnen");
+    }
+
+    @Test
+    void testClearRemovesEntries(@TempDir Path dir) throws IOException {
+        Path s1 = Files.writeString(dir.resolve("MERGE_A.sql"), "DELETE FROM A;\n");
+        Path file = dir.resolve("progress");
+        ScriptProgressLedger ledger = new ScriptProgressLedger(file);
+        ledger.markDone(URL_A, s1);
+
+        ledger.clear(URL_A, List.of(s1));
+
+        assertEquals(0, new ScriptProgressLedger(file).getApplied(URL_A, s1));
+    }
+}
@@ -0,0 +1,51 @@
+package com.migrationtool.scriptexec;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests fuer ScriptRunStats: Summen, Aufteilung nach Statement-Form und Zusammenfassungsdatei.
+ */
+class ScriptRunStatsTest {
+
+    private static final Path SCRIPT_A = Path.of("MERGE_A.sql");
+    private static final Path SCRIPT_B = Path.of("MERGE_B.sql");
+
+    @Test
+    void testTotalsAndSlowestExecution() {
+        ScriptRunStats stats = new ScriptRunStats();
+        stats.recordExecution(SCRIPT_A, "MERGE A", 500, 480, 2_000_000, "Zeile 1–500 (Batch 500)");
+        stats.recordExecution(SCRIPT_B, "PLSQL", 1, 0, 900_000_000, "Zeile 12");
+        stats.recordCommit(5_000_000);
+
+        assertEquals(501, stats.getStatements());
+        assertEquals(480, stats.getRows());
+
+        String summary = stats.formatSummary("jdbc:oracle:thin:@host:1521/A", true);
+        assertTrue(summary.contains("MERGE_A.sql"));
+        assertTrue(summary.contains("MERGE A"));
+        int slowSection = summary.indexOf("Langsamste");
+        assertTrue(summary.indexOf("MERGE_B.sql Zeile 12", slowSection) > 0,
+                "PL/SQL-Block ist die langsamste Ausführung");
+        assertTrue(summary.indexOf("MERGE_B.sql Zeile 12", slowSection)
+                < summary.indexOf("MERGE_A.sql Zeile 1–500", slowSection));
+    }
+
+    @Test
+    void testWriteSummaryCreatesFile(@TempDir Path dir) throws IOException {
+        ScriptRunStats stats = new ScriptRunStats();
+        stats.recordExecution(SCRIPT_A, "DELETE A", 1, 3, 1_000_000, "Zeile 1");
+
+        Path file = stats.writeSummary(dir.resolve("runs"), "ziel", false);
+
+        assertTrue(Files.exists(file));
+        assertTrue(file.getFileName().toString().startsWith("run_"));
+        assertTrue(Files.readString(file).contains("FEHLER"));
+    }
+}
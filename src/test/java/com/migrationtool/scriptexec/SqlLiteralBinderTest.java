@@ -0,0 +1,59 @@
+package com.migrationtool.scriptexec;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests fuer SqlLiteralBinder: welche Literale zu Bind-Variablen werden und welche
+ * Statements unveraendert bleiben muessen.
+ */
+class SqlLiteralBinderTest {
+
+    @Test
+    void testSameShapeGivesSameTemplateWithValues() {
+        SqlLiteralBinder.Bound a = SqlLiteralBinder.bind(
+            "INSERT INTO AUFTRAG (ID, NAME, DATUM) VALUES (1, 'O''Brien', TO_DATE('2024-03-01', 'YYYY-MM-DD'))");
+        SqlLiteralBinder.Bound b = SqlLiteralBinder.bind(
+            "INSERT INTO AUFTRAG (ID, NAME, DATUM) VALUES (-2.5, 'Zwei', TO_DATE('2024-03-02', 'YYYY-MM-DD'))");
+
+        assertEquals("INSERT INTO AUFTRAG (ID, NAME, DATUM) VALUES (?, ?, TO_DATE(?, ?))", a.sql);
+        assertEquals("INSERT INTO AUFTRAG (ID, NAME, DATUM) VALUES (-?, ?, TO_DATE(?, ?))", b.sql,
+            "Vorzeichen bleibt Operator – negative Werte ergeben eine eigene Vorlage");
+        assertEquals(List.of(BigDecimal.ONE, "O'Brien", "2024-03-01", "YYYY-MM-DD"), a.values);
+        assertEquals(new BigDecimal("2.5"), b.values.get(0));
+    }
+
+    @Test
+    void testIdentifiersTypesAndTypedLiteralsStay() {
+        SqlLiteralBinder.Bound b = SqlLiteralBinder.bind(
+            "MERGE INTO T1 tgt USING (SELECT CAST(NULL AS VARCHAR2(100)) AS COL_2, \"SPALTE 3\" AS X,"
+            + " DATE '2024-01-01' AS D, N'abc' AS N, 7 AS ID FROM DUAL) src ON (tgt.ID = src.ID)"
+            + " -- Kommentar 'x' 5\n WHEN NOT MATCHED THEN INSERT (ID) VALUES (src.ID)");
+
+        assertNotNull(b);
+        assertEquals(List.of(new BigDecimal("7")), b.values);
+        assertTrue(b.sql.contains("VARCHAR2(100)"), b.sql);
+        assertTrue(b.sql.contains("\"SPALTE 3\""));
+        assertTrue(b.sql.contains("DATE '2024-01-01'"));
+        assertTrue(b.sql.contains("N'abc'"));
+        assertTrue(b.sql.contains("-- Kommentar 'x' 5"));
+        assertTrue(b.sql.contains("? AS ID"));
+    }
+
+    @Test
+    void testUnsafeStatementsAreNotRewritten() {
+        assertNull(SqlLiteralBinder.bind("INSERT INTO T (A) VALUES (q'[it's]')"));
+        assertNull(SqlLiteralBinder.bind("INSERT INTO T (A) VALUES (:v)"));
+        assertNull(SqlLiteralBinder.bind("INSERT INTO T (A) SELECT A FROM S ORDER BY 1"));
+    }
+
+    @Test
+    void testCustomPlaceholders() {
+        assertEquals("UPDATE T SET A = :b1 WHERE B = :b2",
+            SqlLiteralBinder.bind("UPDATE T SET A = 'x' WHERE B = 3", i -> ":b" + i).sql);
+    }
+}
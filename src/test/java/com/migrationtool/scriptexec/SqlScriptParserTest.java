@@ -0,0 +1,165 @@
+package com.migrationtool.scriptexec;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests fuer SqlScriptParser: Trennung von SQL-Statements und PL/SQL-Bloecken,
+ * Kommentare, String-Literale, SQL*Plus-Befehle und Zeilennummern.
+ */
+class SqlScriptParserTest {
+
+    private List<SqlScriptParser.Statement> parse(String script) throws IOException {
+        List<SqlScriptParser.Statement> result = new ArrayList<>();
+        try (SqlScriptParser parser = new SqlScriptParser(new StringReader(script))) {
+            SqlScriptParser.Statement s;
+            while ((s = parser.next()) != null) result.add(s);
+        }
+        return result;
+    }
+
+    @Test
+    void testPlainStatementsSplitAtSemicolon() throws IOException {
+        List<SqlScriptParser.Statement> stmts = parse(
+            "-- Header\n"
+            + "DELETE FROM KOSTEN;\n"
+            + "\n"
+            + "INSERT INTO KOSTEN (ID, NAME)\n"
+            + "SELECT 1, 'A' FROM DUAL;\n"
+            + "COMMIT;\n");
+
+        assertEquals(3, stmts.size());
+        assertEquals("DELETE FROM KOSTEN", stmts.get(0).sql);
+        assertEquals(2, stmts.get(0).line);
+        assertEquals(SqlScriptParser.Kind.DML, stmts.get(0).kind);
+        assertEquals("DELETE KOSTEN", stmts.get(0).shape);
+        assertEquals("INSERT INTO KOSTEN (ID, NAME)\nSELECT 1, 'A' FROM DUAL", stmts.get(1).sql);
+        assertEquals(4, stmts.get(1).line);
+        assertEquals("INSERT KOSTEN", stmts.get(1).shape);
+        assertEquals(SqlScriptParser.Kind.TRANSACTION, stmts.get(2).kind);
+    }
+
+    @Test
+    void testSemicolonInsideLiteralAndCommentIgnored() throws IOException {
+        List<SqlScriptParser.Statement> stmts = parse(
+            "INSERT INTO T (A) SELECT 'x;y' FROM DUAL -- Kommentar; mit Semikolon\n"
+            + "WHERE 1 = 1 /* auch; hier */;\n"
+            + "UPDATE T SET A = 'it''s; ok';\n");
+
+        assertEquals(2, stmts.size());
+        assertTrue(stmts.get(0).sql.contains("'x;y'"));
+        assertTrue(stmts.get(0).sql.endsWith("/* auch; hier */"));
+        assertEquals("UPDATE T SET A = 'it''s; ok'", stmts.get(1).sql);
+    }
+
+    @Test
+    void testPlSqlBlockEndsWithSlash() throws IOException {
+        List<SqlScriptParser.Statement> stmts = parse(
+            "DECLARE\n"
+            + "  v_x NUMBER;\n"
+            + "BEGIN\n"
+            + "  SELECT SEQ.NEXTVAL INTO v_x FROM DUAL;\n"
+            + "  MERGE INTO T tgt USING (SELECT v_x AS ID FROM DUAL) src ON (tgt.ID = src.ID)\n"
+            + "  WHEN NOT MATCHED THEN INSERT (ID) VALUES (src.ID);\n"
+            + "END;\n"
+            + "/\n"
+            + "\n"
+            + "-- Ende des generierten Scripts\n");
+
+        assertEquals(1, stmts.size());
+        SqlScriptParser.Statement block = stmts.get(0);
+        assertEquals(SqlScriptParser.Kind.PLSQL, block.kind);
+        assertEquals(1, block.line);
+        assertTrue(block.sql.startsWith("DECLARE"));
+        assertTrue(block.sql.endsWith("END;"), "Block muss mit END; enden, ohne /");
+    }
+
+    @Test
+    void testSqlPlusCommandsAndBlockCommentsSkipped() throws IOException {
+        List<SqlScriptParser.Statement> stmts = parse(
+            "SET DEFINE OFF\n"
+            + "PROMPT Lade Daten\n"
+            + "/* mehrzeiliger\n"
+            + "   Kommentar */\n"
+            + "MERGE INTO A tgt USING (SELECT 1 AS ID FROM DUAL) src ON (tgt.ID = src.ID)\n"
+            + "WHEN NOT MATCHED THEN INSERT (ID) VALUES (src.ID);\n"
+            + "SET TRANSACTION READ WRITE;\n");
+
+        assertEquals(2, stmts.size());
+        assertEquals(5, stmts.get(0).line);
+        assertEquals("MERGE A", stmts.get(0).shape);
+        assertEquals(SqlScriptParser.Kind.OTHER, stmts.get(1).kind, "SET TRANSACTION ist SQL, kein SQL*Plus-Befehl");
+    }
+
+    @Test
+    void testMultipleStatementsOnOneLineAndSlashTerminator() throws IOException {
+        List<SqlScriptParser.Statement> stmts = parse(
+            "DELETE FROM A; DELETE FROM B;\n"
+            + "CREATE TABLE C (ID NUMBER)\n"
+            + "/\n");
+
+        assertEquals(3, stmts.size());
+        assertEquals("DELETE FROM B", stmts.get(1).sql);
+        assertEquals(1, stmts.get(1).line);
+        assertEquals("CREATE TABLE C (ID NUMBER)", stmts.get(2).sql);
+        assertEquals(SqlScriptParser.Kind.OTHER, stmts.get(2).kind);
+    }
+
+    @Test
+    void testReadsIncrementallyFromLargeInput() throws IOException {
+        // Erzeugt 200.000 INSERTs on the fly, ohne das Script als Ganzes im Speicher zu halten
+        int total = 200_000;
+        CountingReader reader = new CountingReader(total);
+
+        try (SqlScriptParser parser = new SqlScriptParser(reader)) {
+            SqlScriptParser.Statement first = parser.next();
+            assertEquals("INSERT INTO T (ID) VALUES (0)", first.sql);
+            assertTrue(reader.charsRead < 1_000_000, "Parser darf nur bis zum ersten Statement vorlesen");
+
+            int count = 1;
+            SqlScriptParser.Statement last = first;
+            SqlScriptParser.Statement s;
+            while ((s = parser.next()) != null) {
+                count++;
+                last = s;
+            }
+            assertEquals(total, count);
+            assertEquals(total, last.line);
+        }
+    }
+
+    /** Liefert "INSERT INTO T (ID) VALUES (n);\n" fuer n = 0..total-1 und zaehlt gelesene Zeichen. */
+    private static class CountingReader extends Reader {
+        private final int total;
+        private int next;
+        private String current = "";
+        private int pos;
+        long charsRead;
+
+        CountingReader(int total) { this.total = total; }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            if (pos == current.length()) {
+                if (next == total) return -1;
+                current = "INSERT INTO T (ID) VALUES (" + next++ + ");\n";
+                pos = 0;
+            }
+            int n = Math.min(len, current.length() - pos);
+            current.getChars(pos, pos + n, cbuf, off);
+            pos += n;
+            charsRead += n;
+            return n;
+        }
+
+        @Override
+        public void close() { }
+    }
+}
@@ -0,0 +1,59 @@
+package com.migrationtool.scriptexec;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests fuer TargetProfile: Speichern und Laden der Ziel-Profile in den Properties,
+ * Erkennung von Profilen auf dasselbe Schema.
+ */
+class TargetProfileTest {
+
+    @Test
+    void testStoreAndLoadKeepOrderAndOtherKeys() {
+        Properties p = new Properties();
+        p.setProperty("url", "jdbc:oracle:thin:@//single:1521/X");
+        p.setProperty("profile.ALT.url", "jdbc:oracle:thin:@//alt:1521/X");
+
+        TargetProfile.storeAll(p, List.of(
+            new TargetProfile("TEST", "jdbc:oracle:thin:@//test:1521/T", "mig", "geheim"),
+            new TargetProfile("DEV",  "jdbc:oracle:thin:@//dev:1521/D",  "mig", "geheim")));
+
+        List<TargetProfile> loaded = TargetProfile.loadAll(p);
+        assertEquals(2, loaded.size());
+        assertEquals("TEST", loaded.get(0).name);
+        assertEquals("jdbc:oracle:thin:@//dev:1521/D", loaded.get(1).url);
+        assertEquals("", loaded.get(0).password, "Passwort wird nicht gespeichert");
+        assertNull(p.getProperty("profile.ALT.url"), "Entfernte Profile verschwinden");
+        assertEquals("jdbc:oracle:thin:@//single:1521/X", p.getProperty("url"));
+        p.stringPropertyNames().forEach(k -> assertFalse(p.getProperty(k).contains("geheim")));
+    }
+
+    @Test
+    void testSharedSchemaDetection() {
+        String url = "jdbc:oracle:thin:@//test:1521/T";
+        TargetProfile a = new TargetProfile("A", url, "MIG_A", "");
+        TargetProfile b = new TargetProfile("B", url, "MIG_B", "");
+        TargetProfile c = new TargetProfile("C", url, "mig_a", "");
+
+        assertNull(TargetProfile.findSharedSchema(List.of(a, b)), "Verschiedene Schemas derselben DB sind erlaubt");
+        assertEquals("A / C", TargetProfile.findSharedSchema(List.of(a, b, c)));
+        assertNotEquals(a.target(), b.target());
+    }
+
+    @Test
+    void testProfilesWithoutUrlAreSkipped() {
+        Properties p = new Properties();
+        p.setProperty("profiles", "QA, ,LEER");
+        p.setProperty("profile.QA.url", "jdbc:oracle:thin:@//qa:1521/Q");
+
+        List<TargetProfile> loaded = TargetProfile.loadAll(p);
+        assertEquals(1, loaded.size());
+        assertEquals("QA", loaded.get(0).name);
+        assertEquals("", loaded.get(0).user);
+    }
+}